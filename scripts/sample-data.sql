@@ -50,7 +50,7 @@ INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price,
 (15, 8, '2025-12-25 13:30:00+11:00', '2025-12-25 18:30:00+13:00', 249.00, 'NZD', 180, NOW(), NOW());
 
 -- SEATS (Simplified for 15 flight schedules)
-INSERT INTO seat (id, seat_number, schedule_id, status, created_at, updated_at)
+INSERT INTO seat (id, seat_number, schedule_id, status, departure_month, created_at, updated_at)
 SELECT
     ROW_NUMBER() OVER(PARTITION BY schedule_id ORDER BY seat_pos) + (schedule_id * 50) as id,
     CASE
@@ -60,8 +60,9 @@ SELECT
     END as seat_number,
     schedule_id,
     CASE WHEN RANDOM() < 0.2 THEN 'BOOKED' ELSE 'AVAILABLE' END as status,
+    date_trunc('month', departure_time AT TIME ZONE 'UTC')::date as departure_month,
     NOW() as created_at,
     NOW() as updated_at
 FROM
     generate_series(1, 15) as seat_pos,
-    (SELECT id as schedule_id FROM flight_schedule) as schedules;
\ No newline at end of file
+    (SELECT id as schedule_id, departure_time FROM flight_schedule) as schedules;
\ No newline at end of file
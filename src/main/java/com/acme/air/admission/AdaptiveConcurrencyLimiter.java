@@ -0,0 +1,234 @@
+package com.acme.air.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the latency of the work it guards, in the style of a gradient (Vegas
+ * like) congestion controller. Latency is averaged over windows of at least {@code window} and ten
+ * requests. A long moving average of those windows is the baseline of what the work costs when nothing
+ * queues. While a window's latency stays within {@code tolerance} of the baseline the limit grows by
+ * about its square root; once queueing (in Postgres, in the pool) pushes latency above it, the limit
+ * shrinks in proportion to the slowdown, by at most half per window. A dropped request (query or
+ * connection timeout) cuts the limit by a tenth at once. Requests over the limit are rejected
+ * immediately instead of queueing.
+ * <p>
+ * Admission is a CAS on the in-flight count. Completions add to the window under {@code windowLock},
+ * a few arithmetic operations per request.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+    // After a slow period the baseline decays towards current latency, so the limit can recover
+    private static final double BASELINE_DRIFT_RATIO = 2.0;
+    private static final double BASELINE_DECAY = 0.95;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longFactor;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private final ReentrantLock windowLock = new ReentrantLock();
+    // Guarded by windowLock
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowStartNanos;
+    private long windowSumNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    /**
+     * @param smoothing  share of each new estimate that goes into the limit, 0 to 1
+     * @param tolerance  how far current latency may exceed the baseline before the limit shrinks
+     * @param longWindow windows averaged into the baseline
+     * @param window     shortest time latency is averaged over before the limit is updated
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, double tolerance, int longWindow, Duration window,
+                                      MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit || smoothing <= 0 || smoothing > 1 || tolerance < 1 || longWindow < 1) {
+            throw new IllegalArgumentException("Invalid adaptive concurrency limits for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longFactor = 2.0 / (longWindow + 1);
+        this.windowNanos = window.toNanos();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Concurrency limit learned from latency")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.latency.baseline", this, limiter -> limiter.baselineNanos() / 1_000_000.0)
+                .description("Long-term average latency, in milliseconds, the limit is measured against")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("concurrency.dropped")
+                .description("Admitted requests that timed out in the database and cut the limit")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if fewer than the limit are in flight.
+     *
+     * @return the permit to complete once the request finishes, or null if the request must be shed
+     */
+    public Permit tryAcquire(long nowNanos) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCounter.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nowNanos, current + 1);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double baselineNanos() {
+        windowLock.lock();
+        try {
+            return longRttNanos;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart, long nowNanos) {
+        windowLock.lock();
+        try {
+            addSample(rttNanos, inFlightAtStart, nowNanos);
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    // Guarded by windowLock
+    private void addSample(long rttNanos, int inFlightAtStart, long nowNanos) {
+        windowSumNanos += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (windowCount < MIN_WINDOW_SAMPLES || nowNanos - windowStartNanos < windowNanos) {
+            return;
+        }
+        double shortRttNanos = (double) windowSumNanos / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowStartNanos = nowNanos;
+        windowSumNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+            return;
+        }
+        longRttNanos += (shortRttNanos - longRttNanos) * longFactor;
+        if (longRttNanos / shortRttNanos > BASELINE_DRIFT_RATIO) {
+            longRttNanos *= BASELINE_DECAY;
+        }
+
+        // Nothing to learn about more concurrency from a window that stayed well below the limit
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private void onDropped() {
+        windowLock.lock();
+        try {
+            update(estimatedLimit * DROP_BACKOFF);
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    // Guarded by windowLock
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * One admitted request. Complete it exactly once with {@link #success}, {@link #ignore} or
+     * {@link #dropped}.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The request completed normally; its latency is a sample.
+         */
+        public void success(long nowNanos) {
+            inFlight.decrementAndGet();
+            onSample(nowNanos - startNanos, inFlightAtStart, nowNanos);
+        }
+
+        /**
+         * The request failed for a reason that says nothing about load, e.g. validation.
+         */
+        public void ignore() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * The request timed out waiting on the database, a sign of overload.
+         */
+        public void dropped() {
+            inFlight.decrementAndGet();
+            droppedCounter.increment();
+            onDropped();
+        }
+    }
+}
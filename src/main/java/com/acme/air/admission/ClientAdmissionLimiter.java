@@ -0,0 +1,179 @@
+package com.acme.air.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per-client admission control for the search and booking endpoints. Each client key gets, per
+ * endpoint, a {@link TokenBucket} for its request rate and a counter of its requests in flight, so one
+ * caller flooding search cannot take the connections other callers' bookings need. While the
+ * connection pool is saturated, search is shed outright so that bookings get the connections that
+ * free up.
+ * <p>
+ * Everything is held in memory with atomics, so a decision costs a map lookup and a few CAS operations.
+ * Once {@code maxClients} clients are tracked, idle ones (full bucket, nothing in flight) are forgotten
+ * to make room for new ones. If none are idle, e.g. under a flood of new client keys, further clients
+ * share one overflow bucket per endpoint rather than growing the map without bound.
+ */
+public class ClientAdmissionLimiter {
+
+    public enum Endpoint {
+        SEARCH, BOOKING
+    }
+
+    public enum Outcome {
+        ALLOWED, RATE_LIMITED, CONCURRENCY_LIMITED, SHED
+    }
+
+    /**
+     * @param ratePerSecond sustained requests per second per client
+     * @param burst         requests a client may send at once after being idle
+     * @param maxConcurrent requests per client in flight at once
+     */
+    public record Limits(double ratePerSecond, int burst, int maxConcurrent) {
+    }
+
+    /**
+     * @param retryAfterNanos for a rejection, how long the client should wait before retrying
+     */
+    public record Decision(Outcome outcome, long retryAfterNanos, Client client) {
+
+        public boolean allowed() {
+            return outcome == Outcome.ALLOWED;
+        }
+
+        /**
+         * Ends an admitted request; a no-op for rejections.
+         */
+        public void release() {
+            if (client != null) {
+                client.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    public static final class Client {
+
+        private final TokenBucket bucket;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Client(Limits limits, long nowNanos) {
+            this.bucket = new TokenBucket(limits.ratePerSecond(), limits.burst(), nowNanos);
+        }
+
+        private boolean isIdle(long nowNanos) {
+            return inFlight.get() == 0 && bucket.isFull(nowNanos);
+        }
+    }
+
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long NEVER = Long.MIN_VALUE;
+    // Neither a busy pool nor a client's own requests in flight say when capacity frees up
+    private static final long DEFAULT_RETRY_AFTER_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<Endpoint, Limits> limits;
+    private final Map<Endpoint, ConcurrentHashMap<String, Client>> clients = new EnumMap<>(Endpoint.class);
+    private final ConcurrentHashMap<Endpoint, Client> overflow = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Map<Outcome, Counter>> decisions = new EnumMap<>(Endpoint.class);
+    private final BooleanSupplier poolSaturated;
+    private final int maxClients;
+    private final AtomicLong lastEviction = new AtomicLong(NEVER);
+
+    public ClientAdmissionLimiter(Map<Endpoint, Limits> limits, int maxClients, BooleanSupplier poolSaturated,
+                                  MeterRegistry meterRegistry) {
+        this.limits = new EnumMap<>(limits);
+        this.maxClients = maxClients;
+        this.poolSaturated = poolSaturated;
+        for (Endpoint endpoint : Endpoint.values()) {
+            ConcurrentHashMap<String, Client> endpointClients = new ConcurrentHashMap<>();
+            clients.put(endpoint, endpointClients);
+            Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counters.put(outcome, Counter.builder("http.admission.decisions")
+                        .description("Admission decisions for search and booking requests, by outcome")
+                        .tag("endpoint", endpoint.name().toLowerCase())
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            decisions.put(endpoint, counters);
+            meterRegistry.gauge("http.admission.clients", Tags.of("endpoint", endpoint.name().toLowerCase()),
+                    endpointClients, Map::size);
+        }
+    }
+
+    /**
+     * Decides whether a request may run. An allowed decision holds one of the client's concurrency
+     * slots until {@link Decision#release()} is called.
+     */
+    public Decision tryAcquire(Endpoint endpoint, String clientKey, long nowNanos) {
+        Decision decision = decide(endpoint, clientKey, nowNanos);
+        decisions.get(endpoint).get(decision.outcome()).increment();
+        return decision;
+    }
+
+    private Decision decide(Endpoint endpoint, String clientKey, long nowNanos) {
+        if (endpoint == Endpoint.SEARCH && poolSaturated.getAsBoolean()) {
+            return new Decision(Outcome.SHED, DEFAULT_RETRY_AFTER_NANOS, null);
+        }
+        Limits endpointLimits = limits.get(endpoint);
+        Client client = client(endpoint, clientKey, endpointLimits, nowNanos);
+
+        // Take the concurrency slot first: giving it back is free, a token is not
+        if (client.inFlight.incrementAndGet() > endpointLimits.maxConcurrent()) {
+            client.inFlight.decrementAndGet();
+            return new Decision(Outcome.CONCURRENCY_LIMITED, DEFAULT_RETRY_AFTER_NANOS, null);
+        }
+        long wait = client.bucket.tryAcquire(nowNanos);
+        if (wait > 0) {
+            client.inFlight.decrementAndGet();
+            return new Decision(Outcome.RATE_LIMITED, wait, null);
+        }
+        return new Decision(Outcome.ALLOWED, 0, client);
+    }
+
+    private Client client(Endpoint endpoint, String clientKey, Limits endpointLimits, long nowNanos) {
+        ConcurrentHashMap<String, Client> endpointClients = clients.get(endpoint);
+        Client client = endpointClients.get(clientKey);
+        if (client != null) {
+            return client;
+        }
+        // Make room before adding, so the new client is not evicted as idle before its request counts
+        if (endpointClients.size() >= maxClients) {
+            evictIdle(nowNanos);
+            if (endpointClients.size() >= maxClients) {
+                return overflow.computeIfAbsent(endpoint, key -> new Client(endpointLimits, nowNanos));
+            }
+        }
+        return endpointClients.computeIfAbsent(clientKey, key -> new Client(endpointLimits, nowNanos));
+    }
+
+    /**
+     * Forgets idle clients, at most once a second. A client evicted just as it sends a request starts
+     * over with a full bucket, which is what an idle client has anyway.
+     */
+    private void evictIdle(long nowNanos) {
+        long last = lastEviction.get();
+        if ((last != NEVER && nowNanos - last < EVICTION_INTERVAL_NANOS) || !lastEviction.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        for (ConcurrentHashMap<String, Client> endpointClients : clients.values()) {
+            endpointClients.values().removeIf(client -> client.isIdle(nowNanos));
+        }
+    }
+
+    /**
+     * Number of clients currently tracked for an endpoint, not counting those sharing the overflow bucket.
+     */
+    public int clientCount(Endpoint endpoint) {
+        return clients.get(endpoint).size();
+    }
+}
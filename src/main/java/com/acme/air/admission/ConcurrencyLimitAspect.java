@@ -0,0 +1,53 @@
+package com.acme.air.admission;
+
+import com.acme.air.exception.ServiceOverloadedException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.Map;
+
+/**
+ * Applies {@link ConcurrencyLimited}. Ordered ahead of the transaction interceptor, so the limiter
+ * sees the whole call including the wait for a connection, and a shed call never opens a transaction.
+ * Only calls that complete normally are latency samples; business failures (validation, conflicts,
+ * nothing found) are ignored, and database timeouts count as drops.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitAspect {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters;
+
+    public ConcurrencyLimitAspect(Map<String, AdaptiveConcurrencyLimiter> limiters) {
+        this.limiters = limiters;
+    }
+
+    @Around("@annotation(limited)")
+    public Object limit(ProceedingJoinPoint joinPoint, ConcurrencyLimited limited) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(limited.value());
+        if (limiter == null) {
+            throw new IllegalStateException("No concurrency limiter named " + limited.value());
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(System.nanoTime());
+        if (permit == null) {
+            throw new ServiceOverloadedException("Concurrency limit of " + limiter.getLimit() + " reached for " + limiter.getName());
+        }
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (QueryTimeoutException | CannotCreateTransactionException e) {
+            permit.dropped();
+            throw e;
+        } catch (Throwable e) {
+            permit.ignore();
+            throw e;
+        }
+        permit.success(System.nanoTime());
+        return result;
+    }
+}
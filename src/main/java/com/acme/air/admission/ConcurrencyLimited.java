@@ -0,0 +1,23 @@
+package com.acme.air.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method under the {@link AdaptiveConcurrencyLimiter} of the given name. Calls over
+ * the limit fail fast with {@link com.acme.air.exception.ServiceOverloadedException}. The limiter is
+ * applied outside the transaction, so a shed call never takes a connection.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimited {
+
+    /**
+     * Limiter name, e.g. {@code search} or {@code booking}.
+     */
+    String value();
+}
@@ -0,0 +1,56 @@
+package com.acme.air.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of {@code burst} tokens refilled at {@code ratePerSecond}. The bucket is kept
+ * in its virtual-scheduling form: a single timestamp, the time at which the bucket would be full
+ * again, instead of a token count plus a refill time. Taking a token moves that timestamp one token
+ * interval later with a compare-and-set, so a decision is a clock read, some arithmetic and usually
+ * one CAS, and two counters never have to be updated together.
+ * <p>
+ * Times are in nanoseconds from any monotonic clock, normally {@link System#nanoTime()}.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return 0 if a token was taken, otherwise how many nanoseconds until one will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // A bucket that has been full for a while holds no more than burst tokens
+            long base = current - nowNanos < 0 ? nowNanos : current;
+            long next = base + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, i.e. forgetting it would change no decision.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.acme.air.config;
+
+import com.acme.air.admission.AdaptiveConcurrencyLimiter;
+import com.acme.air.admission.ConcurrencyLimitAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Latency-driven concurrency limits around flight search and booking creation
+ * ({@code acme.concurrency.adaptive.*}). Each learns its own limit between the configured bounds;
+ * calls over it get 503 straight away instead of queueing for a connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.concurrency.adaptive.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter searchConcurrencyLimiter(
+            @Value("${acme.concurrency.adaptive.search.initial-limit:20}") int initialLimit,
+            @Value("${acme.concurrency.adaptive.search.min-limit:4}") int minLimit,
+            @Value("${acme.concurrency.adaptive.search.max-limit:200}") int maxLimit,
+            @Value("${acme.concurrency.adaptive.smoothing:0.2}") double smoothing,
+            @Value("${acme.concurrency.adaptive.tolerance:2.0}") double tolerance,
+            @Value("${acme.concurrency.adaptive.long-window:600}") int longWindow,
+            @Value("${acme.concurrency.adaptive.window:PT1S}") Duration window,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("search", initialLimit, minLimit, maxLimit,
+                smoothing, tolerance, longWindow, window, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter bookingConcurrencyLimiter(
+            @Value("${acme.concurrency.adaptive.booking.initial-limit:10}") int initialLimit,
+            @Value("${acme.concurrency.adaptive.booking.min-limit:2}") int minLimit,
+            @Value("${acme.concurrency.adaptive.booking.max-limit:50}") int maxLimit,
+            @Value("${acme.concurrency.adaptive.smoothing:0.2}") double smoothing,
+            @Value("${acme.concurrency.adaptive.tolerance:2.0}") double tolerance,
+            @Value("${acme.concurrency.adaptive.long-window:600}") int longWindow,
+            @Value("${acme.concurrency.adaptive.window:PT1S}") Duration window,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("booking", initialLimit, minLimit, maxLimit,
+                smoothing, tolerance, longWindow, window, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimitAspect concurrencyLimitAspect(AdaptiveConcurrencyLimiter searchConcurrencyLimiter,
+                                                         AdaptiveConcurrencyLimiter bookingConcurrencyLimiter) {
+        return new ConcurrencyLimitAspect(Map.of(
+                searchConcurrencyLimiter.getName(), searchConcurrencyLimiter,
+                bookingConcurrencyLimiter.getName(), bookingConcurrencyLimiter));
+    }
+}
@@ -0,0 +1,74 @@
+package com.acme.air.config;
+
+import com.acme.air.admission.ClientAdmissionLimiter;
+import com.acme.air.web.ClientAdmissionFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per-client rate and concurrency limits for flight search and bookings, configured separately under
+ * {@code acme.admission.search.*} and {@code acme.admission.booking.*}. Runs ahead of the other API
+ * filters, so a rejected request never waits for a database permit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public ClientAdmissionLimiter clientAdmissionLimiter(
+            @Value("${acme.admission.search.rate:50}") double searchRate,
+            @Value("${acme.admission.search.burst:100}") int searchBurst,
+            @Value("${acme.admission.search.max-concurrent:10}") int searchMaxConcurrent,
+            @Value("${acme.admission.booking.rate:5}") double bookingRate,
+            @Value("${acme.admission.booking.burst:10}") int bookingBurst,
+            @Value("${acme.admission.booking.max-concurrent:4}") int bookingMaxConcurrent,
+            @Value("${acme.admission.max-clients:100000}") int maxClients,
+            @Value("${acme.admission.shed-search-when-pool-saturated:true}") boolean shedSearch,
+            DataSource dataSource,
+            MeterRegistry meterRegistry) throws SQLException {
+        Map<ClientAdmissionLimiter.Endpoint, ClientAdmissionLimiter.Limits> limits = Map.of(
+                ClientAdmissionLimiter.Endpoint.SEARCH,
+                new ClientAdmissionLimiter.Limits(searchRate, searchBurst, searchMaxConcurrent),
+                ClientAdmissionLimiter.Endpoint.BOOKING,
+                new ClientAdmissionLimiter.Limits(bookingRate, bookingBurst, bookingMaxConcurrent));
+        BooleanSupplier poolSaturated = shedSearch && dataSource.isWrapperFor(HikariDataSource.class)
+                ? poolSaturated(dataSource.unwrap(HikariDataSource.class))
+                : () -> false;
+        return new ClientAdmissionLimiter(limits, maxClients, poolSaturated, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientAdmissionFilter> clientAdmissionFilter(
+            ClientAdmissionLimiter limiter,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<ClientAdmissionFilter> registration = new FilterRegistrationBean<>(
+                new ClientAdmissionFilter(limiter, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * The primary pool is saturated when requests are already queueing for a connection. Outside a
+     * transaction, as here at startup, a routing data source unwraps to the primary pool.
+     */
+    private static BooleanSupplier poolSaturated(HikariDataSource primary) {
+        return () -> {
+            HikariPoolMXBean pool = primary.getHikariPoolMXBean();
+            return pool != null && pool.getThreadsAwaitingConnection() > 0;
+        };
+    }
+}
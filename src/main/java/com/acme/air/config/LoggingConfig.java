@@ -0,0 +1,32 @@
+package com.acme.air.config;
+
+import com.acme.air.web.SqlTraceFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Per-request SQL tracing for API calls. Appenders and levels live in {@code logback-spring.xml}
+ * and the {@code prod} profile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.logging.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlTraceFilter> sqlTraceFilter(
+            @Value("${acme.logging.sql-trace.header:X-Debug-Sql}") String headerName,
+            @Value("${acme.logging.sql-trace.trusted-addresses:127.0.0.1,0:0:0:0:0:0:0:1}") Set<String> trustedAddresses,
+            @Value("${acme.logging.sql-trace.sample-rate:0.0}") double sampleRate,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlTraceFilter> registration = new FilterRegistrationBean<>(
+                new SqlTraceFilter(headerName, trustedAddresses, sampleRate, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
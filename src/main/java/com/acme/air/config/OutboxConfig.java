@@ -0,0 +1,29 @@
+package com.acme.air.config;
+
+import com.acme.air.outbox.FileOutboxEventSink;
+import com.acme.air.outbox.LoggingOutboxEventSink;
+import com.acme.air.outbox.OutboxEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "acme.outbox.sink", havingValue = "file")
+    public OutboxEventSink fileOutboxEventSink(
+            @Value("${acme.outbox.file-path:build/outbox/events.jsonl}") String filePath) {
+        return new FileOutboxEventSink(Path.of(filePath));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventSink.class)
+    public OutboxEventSink loggingOutboxEventSink() {
+        return new LoggingOutboxEventSink();
+    }
+}
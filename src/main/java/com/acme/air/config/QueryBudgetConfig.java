@@ -0,0 +1,24 @@
+package com.acme.air.config;
+
+import com.acme.air.metrics.QueryBudgetAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Checks the {@code @QueryBudget} of endpoints ({@code acme.query-budget.*}). Off by default; staging
+ * runs it to log over-budget calls and their N+1 call sites, CI can make them fail instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.query-budget.enabled", havingValue = "true")
+public class QueryBudgetConfig {
+
+    @Bean
+    public QueryBudgetAspect queryBudgetAspect(
+            @Value("${acme.query-budget.fail-on-exceed:false}") boolean failOnExceed,
+            MeterRegistry meterRegistry) {
+        return new QueryBudgetAspect(failOnExceed, meterRegistry);
+    }
+}
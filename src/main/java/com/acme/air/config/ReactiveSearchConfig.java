@@ -0,0 +1,59 @@
+package com.acme.air.config;
+
+import com.acme.air.repository.ReactiveFlightSearchRepository;
+import com.acme.air.service.ReactiveFlightService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Enabled with {@code acme.search.reactive.enabled=true}. Serves flight search over a small R2DBC pool
+ * instead of JDBC; everything else keeps using JPA and the Hikari pool. The pool connects to the same
+ * database as {@code spring.datasource.*} unless {@code acme.search.reactive.url} points elsewhere,
+ * e.g. at a read replica. Spring Boot's own R2DBC auto-configuration is excluded in the application
+ * class, so this pool is only created here and never takes the place of the JPA transaction manager.
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.search.reactive.enabled", havingValue = "true")
+public class ReactiveSearchConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveSearchConnectionPool(
+            @Value("${acme.search.reactive.url:}") String url,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${acme.search.reactive.username:${spring.datasource.username}}") String username,
+            @Value("${acme.search.reactive.password:${spring.datasource.password}}") String password,
+            @Value("${acme.search.reactive.pool-size:10}") int poolSize) {
+        // jdbc:postgresql://host:port/db becomes r2dbc:postgresql://host:port/db
+        String r2dbcUrl = url.isBlank() ? "r2dbc:" + jdbcUrl.substring("jdbc:".length()) : url;
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-search")
+                .initialSize(Math.min(2, poolSize))
+                .maxSize(poolSize)
+                .build());
+    }
+
+    @Bean
+    public ReactiveFlightSearchRepository reactiveFlightSearchRepository(
+            ConnectionPool reactiveSearchConnectionPool,
+            @Value("${acme.seats.storage:rows}") String storage) {
+        return new ReactiveFlightSearchRepository(DatabaseClient.create(reactiveSearchConnectionPool), storage);
+    }
+
+    @Bean
+    public ReactiveFlightService reactiveFlightService(
+            ReactiveFlightSearchRepository reactiveFlightSearchRepository,
+            @Value("${acme.search.reactive.lookup-concurrency:8}") int lookupConcurrency) {
+        return new ReactiveFlightService(reactiveFlightSearchRepository, lookupConcurrency);
+    }
+}
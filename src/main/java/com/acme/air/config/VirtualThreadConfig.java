@@ -0,0 +1,37 @@
+package com.acme.air.config;
+
+import com.acme.air.web.ConnectionPoolConcurrencyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active with the {@code virtual-threads} profile. Spring Boot itself moves Tomcat request handling,
+ * {@code @Async} and {@code @Scheduled} work (e.g. the outbox relay) onto virtual threads; this adds
+ * the concurrency cap that the platform thread pool used to provide implicitly.
+ *
+ * <p>Code that runs on these threads guards shared state with
+ * {@link java.util.concurrent.locks.ReentrantLock} or atomics, never {@code synchronized}: a virtual
+ * thread blocked inside a {@code synchronized} block on Java 21 pins its carrier thread, and a few of
+ * them can stall every request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPoolConcurrencyFilter> connectionPoolConcurrencyFilter(
+            @Value("${acme.concurrency.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrentRequests,
+            @Value("${acme.concurrency.max-wait-ms:2000}") long maxWaitMillis,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConnectionPoolConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                new ConnectionPoolConcurrencyFilter(maxConcurrentRequests, maxWaitMillis, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -7,6 +7,7 @@ import com.acme.air.dto.BookingResponse;
 import com.acme.air.exception.BookingConflictException;
 import com.acme.air.exception.SeatUnavailableException;
 import com.acme.air.generated.dto.BookingResponseWrapper;
+import com.acme.air.metrics.QueryBudget;
 import com.acme.air.service.BookingService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -18,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -38,12 +40,17 @@ public class BookingController implements BookingsApi {
     private static final Logger log = LoggerFactory.getLogger(BookingController.class);
 
     private final BookingService bookingService;
+    private final HttpServletRequest request;
 
+    // Passengers, seats, their locks and booking items are handled one by one, up to 3 of each: about 20
+    // statements for one passenger and 39 for three. Anything issued more often than once per passenger
+    // is an N+1 and breaks the budget.
     @Override
     @PostMapping
+    @QueryBudget(value = 42, maxRepeats = 3)
     public ResponseEntity<BookingResponseWrapper> createBooking(com.acme.air.generated.dto.BookingRequest bookingRequest) {
         var existingBookingRequest = convertToExistingDTO(bookingRequest);
-        String sessionId = getCurrentSessionId(); // You'll need to handle session differently
+        String sessionId = getCurrentSessionId();
         var bookingResponse = bookingService.createBooking(existingBookingRequest, sessionId);
 
         // Convert response back to generated DTO
@@ -57,7 +64,38 @@ public class BookingController implements BookingsApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Override
+    @GetMapping("/{reference}")
+    @QueryBudget(2)
+    public ResponseEntity<BookingResponseWrapper> getBooking(String reference) {
+        var bookingResponse = bookingService.getBooking(reference);
+
+        BookingResponseWrapper response = new BookingResponseWrapper()
+                .status(BookingResponseWrapper.StatusEnum.SUCCESS)
+                .data(convertToGeneratedBookingResponse(bookingResponse));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    @PostMapping("/{reference}/cancel")
+    @QueryBudget(value = 15, maxRepeats = 3)
+    public ResponseEntity<BookingResponseWrapper> cancelBooking(String reference) {
+        var bookingResponse = bookingService.cancelBooking(reference);
+
+        BookingResponseWrapper response = new BookingResponseWrapper()
+                .status(BookingResponseWrapper.StatusEnum.SUCCESS)
+                .data(convertToGeneratedBookingResponse(bookingResponse));
+
+        return ResponseEntity.ok(response);
+    }
+
     private String getCurrentSessionId() {
+        // Clients booking from a hold send the session that owns it; others get a one-off session
+        String sessionId = request.getHeader(SeatHoldController.SESSION_HEADER);
+        if (sessionId != null && !sessionId.isBlank()) {
+            return sessionId;
+        }
         // Replace with actual session management after authentication is implemented
         return "session-" + UUID.randomUUID().toString().substring(0, 8);
     }
@@ -1,27 +1,45 @@
 package com.acme.air.controller;
 
 import com.acme.air.api.FlightsApi;
+import com.acme.air.config.BinaryEncodingConfig;
 import com.acme.air.dto.ApiResponse;
 import com.acme.air.dto.FlightSearchResponse;
 import com.acme.air.generated.dto.FlightsResponseWrapper;
+import com.acme.air.metrics.QueryBudget;
 import com.acme.air.service.FlightService;
+import com.acme.air.web.FlightSearchJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 
 import static com.acme.air.mapper.DTOMapper.convertToGeneratedDTO;
 
 @RestController
 @RequestMapping("/api/v1/flights")
+// ReactiveFlightController serves search instead when acme.search.reactive.enabled=true
+@ConditionalOnProperty(name = "acme.search.reactive.enabled", havingValue = "false", matchIfMissing = true)
 public class FlightController implements FlightsApi {
 
     private static final Logger logger = LoggerFactory.getLogger(FlightController.class);
@@ -29,15 +47,43 @@ public class FlightController implements FlightsApi {
     @Autowired
     private FlightService flightService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Write JSON responses directly from the search results instead of mapping them into generated DTOs first
+    @Value("${acme.search.streaming:true}")
+    private boolean streaming;
+
+    // Both airports, the day's schedules, then availability and seat numbers for all of them at once
+    // (with packed seat storage, from seat maps and from rows for any schedule without one): 7 at most,
+    // however many flights there are. A statement per flight is an N+1 and breaks the budget.
     @Override
     @GetMapping("/search")
-    public ResponseEntity<FlightsResponseWrapper> searchFlights(String origin, String destination, LocalDate departureDate, Integer passengers, LocalDate returnDate) {
-        logger.info("Flight search request: {} -> {}, departure: {}, passengers: {}",
-                origin, destination, departureDate, passengers);
+    @QueryBudget(value = 8, maxRepeats = 2)
+    public ResponseEntity<FlightsResponseWrapper> searchFlights(String origin, String destination, LocalDate departureDate, Integer passengers, LocalDate returnDate, List<String> fields) {
+        logger.info("Flight search request: {} -> {}, departure: {}, passengers: {}, fields: {}",
+                origin, destination, departureDate, passengers, fields);
+        Set<FlightSearchResponse.Field> selectedFields = FlightSearchResponse.Field.parse(fields);
 
-        // Use your existing service - just adapt the response
+        // Loaded in full before anything is written: the search's transaction and concurrency permit are
+        // released first, so a slow client holds neither a connection nor a share of the search limit
         var searchResponse = flightService.searchFlights(
-                origin, destination, departureDate, returnDate, passengers);
+                origin, destination, departureDate, returnDate, passengers, selectedFields);
+
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        if (streaming && prefersJson(attributes.getRequest())) {
+            HttpServletResponse servletResponse = attributes.getResponse();
+            FlightSearchJsonWriter writer = new FlightSearchJsonWriter(objectMapper, () -> {
+                servletResponse.setStatus(HttpServletResponse.SC_OK);
+                servletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                return servletResponse.getOutputStream();
+            });
+            searchResponse.flights().forEach(writer);
+            writer.finish();
+            logger.info("Streamed {} flights for search request", searchResponse.flights().size());
+            // The response has been written; null tells Spring MVC there is nothing left to render
+            return null;
+        }
 
         // Convert to generated wrapper format
         FlightsResponseWrapper response = new FlightsResponseWrapper()
@@ -47,4 +93,36 @@ public class FlightController implements FlightsApi {
         logger.info("Returning {} flights for search request", response.getData().getFlights().size());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Whether JSON is what content negotiation would pick: the first acceptable type by quality is JSON or
+     * a wildcard rather than one of the binary encodings. Anything else takes the mapped path, where the
+     * message converters negotiate (or reject) the type.
+     */
+    private static boolean prefersJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        // Stable sort, so types of equal quality keep the client's order
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (BinaryEncodingConfig.MEDIA_TYPES.stream().anyMatch(mediaType::includes)) {
+                return false;
+            }
+        }
+        return false;
+    }
 }
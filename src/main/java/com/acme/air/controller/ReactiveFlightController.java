@@ -0,0 +1,97 @@
+package com.acme.air.controller;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.service.ReactiveFlightService;
+import com.acme.air.web.FlightSearchJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flight search served by {@link ReactiveFlightService} when {@code acme.search.reactive.enabled=true},
+ * in place of {@link FlightController}. Same parameters, JSON body and errors as the contract's
+ * {@code GET /api/v1/flights/search}, but JSON only: the CBOR and Smile encodings stay on the blocking
+ * controller. The request thread is released as soon as the search is started; the status is decided by
+ * the first flight or error, and the flights are then written as they arrive, with
+ * {@link FlightSearchJsonWriter} producing the same bytes as the streaming blocking path.
+ */
+@RestController
+@RequestMapping("/api/v1/flights")
+@ConditionalOnProperty(name = "acme.search.reactive.enabled", havingValue = "true")
+public class ReactiveFlightController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveFlightController.class);
+
+    private final ReactiveFlightService flightService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveFlightController(ReactiveFlightService flightService, ObjectMapper objectMapper) {
+        this.flightService = flightService;
+        this.objectMapper = objectMapper;
+    }
+
+    // produces makes Spring MVC write the Flux<String> chunks as application/json rather than text/plain
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<String>>> searchFlights(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam Integer passengers,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate,
+            @RequestParam(required = false) List<String> fields) {
+        logger.info("Flight search request: {} -> {}, departure: {}, passengers: {}, fields: {}",
+                origin, destination, departureDate, passengers, fields);
+        Set<FlightSearchResponse.Field> selectedFields = FlightSearchResponse.Field.parse(fields);
+
+        // Search never completes empty: no flights is a ResourceNotFoundException, so an error or a first
+        // flight always arrives, and errors become the usual error responses before any output is written
+        return flightService.searchFlights(origin, destination, departureDate, returnDate, passengers, selectedFields)
+                .switchOnFirst((first, flights) -> first.hasValue()
+                        ? Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json(flights)))
+                        : Mono.error(first.getThrowable()), false)
+                .single();
+    }
+
+    /**
+     * @return the response body in chunks: the wrapper's start with the first flight, then one chunk per
+     * flight, then the end of the wrapper
+     */
+    private Flux<String> json(Flux<FlightSearchResponse.FlightDTO> flights) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            FlightSearchJsonWriter writer = new FlightSearchJsonWriter(objectMapper, () -> buffer);
+            return flights
+                    .map(flight -> {
+                        writer.accept(flight);
+                        writer.flush();
+                        return drain(buffer);
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        writer.finish();
+                        return drain(buffer);
+                    }));
+        });
+    }
+
+    private static String drain(ByteArrayOutputStream buffer) {
+        String chunk = buffer.toString(StandardCharsets.UTF_8);
+        buffer.reset();
+        return chunk;
+    }
+}
@@ -0,0 +1,41 @@
+package com.acme.air.controller;
+
+import com.acme.air.api.SchedulesApi;
+import com.acme.air.generated.dto.SchedulePublishRequest;
+import com.acme.air.generated.dto.SchedulePublishResponseWrapper;
+import com.acme.air.service.SchedulePublishingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.acme.air.mapper.DTOMapper.convertToExistingDTO;
+import static com.acme.air.mapper.DTOMapper.convertToGeneratedSchedulePublishResponse;
+
+@RestController
+@RequestMapping("/api/v1/schedules")
+@RequiredArgsConstructor
+public class ScheduleController implements SchedulesApi {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleController.class);
+
+    private final SchedulePublishingService schedulePublishingService;
+
+    @Override
+    @PostMapping
+    public ResponseEntity<SchedulePublishResponseWrapper> publishSchedules(SchedulePublishRequest schedulePublishRequest) {
+        var published = schedulePublishingService.publish(convertToExistingDTO(schedulePublishRequest));
+
+        SchedulePublishResponseWrapper response = new SchedulePublishResponseWrapper()
+                .status(SchedulePublishResponseWrapper.StatusEnum.SUCCESS)
+                .data(convertToGeneratedSchedulePublishResponse(published));
+
+        log.info("Published {} schedules with {} seats", published.schedulesCreated(), published.seatsCreated());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+}
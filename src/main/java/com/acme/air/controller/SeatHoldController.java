@@ -0,0 +1,56 @@
+package com.acme.air.controller;
+
+import com.acme.air.api.HoldsApi;
+import com.acme.air.generated.dto.HoldRequest;
+import com.acme.air.generated.dto.HoldResponseWrapper;
+import com.acme.air.metrics.QueryBudget;
+import com.acme.air.service.SeatHoldService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.acme.air.mapper.DTOMapper.convertToGeneratedHoldResponse;
+
+@RestController
+@RequestMapping("/api/v1/holds")
+@RequiredArgsConstructor
+public class SeatHoldController implements HoldsApi {
+
+    /** Identifies the client session that owns a hold; also read by {@link BookingController}. */
+    public static final String SESSION_HEADER = "X-Session-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldController.class);
+
+    private final SeatHoldService seatHoldService;
+
+    // Each seat is locked and checked on its own, up to 3 per hold
+    @Override
+    @PostMapping
+    @QueryBudget(value = 30, maxRepeats = 3)
+    public ResponseEntity<HoldResponseWrapper> createHold(String xSessionId, HoldRequest holdRequest) {
+        var holdResponse = seatHoldService.createHold(
+                holdRequest.getFlightScheduleId(), holdRequest.getSeatNumbers(), xSessionId);
+
+        HoldResponseWrapper response = new HoldResponseWrapper()
+                .status(HoldResponseWrapper.StatusEnum.SUCCESS)
+                .data(convertToGeneratedHoldResponse(holdResponse));
+
+        log.info("Created hold {} for seats {}", holdResponse.holdId(), holdResponse.seatNumbers());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Override
+    @DeleteMapping("/{holdId}")
+    @QueryBudget(value = 10, maxRepeats = 3)
+    public ResponseEntity<Void> releaseHold(String holdId, String xSessionId) {
+        seatHoldService.releaseHold(holdId, xSessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.acme.air.controller;
+
+import com.acme.air.exception.ServiceOverloadedException;
+import com.acme.air.service.SeatMapBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Server-Sent Events stream of a schedule's seat map: a {@code snapshot} event with every seat on
+ * connect, then {@code update} events with the seats that changed. Not part of the OpenAPI contract,
+ * which has no way to describe an event stream. The request thread is released as soon as the stream
+ * is open; after {@code acme.seat-map.stream.timeout} the server closes it and clients such as
+ * {@code EventSource} reconnect to a fresh snapshot.
+ */
+@RestController
+@RequestMapping("/api/v1/schedules")
+@ConditionalOnProperty(name = "acme.seat-map.stream.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatMapStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatMapStreamController.class);
+
+    private final SeatMapBroadcaster seatMapBroadcaster;
+    private final long timeoutMillis;
+
+    public SeatMapStreamController(SeatMapBroadcaster seatMapBroadcaster,
+                                   @Value("${acme.seat-map.stream.timeout:PT30M}") Duration timeout) {
+        this.seatMapBroadcaster = seatMapBroadcaster;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @GetMapping(path = "/{scheduleId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeatMap(@PathVariable Long scheduleId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Optional<SeatMapBroadcaster.Subscription> subscription;
+        // An ErrorResponse body can't be written to a client that only accepts text/event-stream
+        try {
+            subscription = seatMapBroadcaster.subscribe(scheduleId, new EmitterSink(emitter));
+        } catch (ServiceOverloadedException e) {
+            log.debug("Seat map stream refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        if (subscription.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        emitter.onCompletion(subscription.get()::cancel);
+        emitter.onTimeout(subscription.get()::cancel);
+        emitter.onError(error -> subscription.get().cancel());
+        return ResponseEntity.ok(emitter);
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements SeatMapBroadcaster.Sink {
+
+        @Override
+        public void send(String event, String data) throws IOException {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.acme.air.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transaction of the annotated method be served by the read replica, when one is
+ * configured. Only for reads that tolerate replication lag, such as flight search: read-only work
+ * without it stays on the primary, so a booking can always be read back right after it was made.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,26 @@
+package com.acme.air.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Applies {@link ReadFromReplica}. Ordered ahead of the transaction interceptor, so the whole
+ * transaction, commit included, runs with replica reads allowed.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadFromReplicaAspect {
+
+    @Around("@annotation(com.acme.air.datasource.ReadFromReplica)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.allowReplicaReads(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.allowReplicaReads(previous);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.acme.air.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions that opted in with {@link ReadFromReplica} to a replica,
+ * and everything else to the primary. Read-only transactions without it, such as reading a booking back
+ * right after creating it, stay on the primary and never see replication lag. The replica is only
+ * used while it is reachable and no further behind than {@code maxLag}; otherwise read-only work
+ * falls back to the primary until a later {@link #checkReplica()} finds it healthy again.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is fetched after the transaction's read-only flag has been set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Zero while the replica has replayed everything it received, so an idle primary does not look like lag
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private static final ThreadLocal<Boolean> REPLICA_READS_ALLOWED = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable = true;
+    private volatile double replicaLagSeconds;
+
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because the replica could not be reached")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, routing -> routing.replicaUsable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.lag", this, routing -> routing.replicaLagSeconds)
+                .description("Replication lag last observed on the replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Allows or disallows replica reads on the current thread, as {@link ReadFromReplicaAspect} does
+     * around a {@link ReadFromReplica} method.
+     *
+     * @return whether they were allowed before, to restore afterwards
+     */
+    public static boolean allowReplicaReads(boolean allowed) {
+        boolean previous = REPLICA_READS_ALLOWED.get();
+        if (allowed) {
+            REPLICA_READS_ALLOWED.set(true);
+        } else {
+            REPLICA_READS_ALLOWED.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return REPLICA_READS_ALLOWED.get() && TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaUsable
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Target.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markUnusable("unreachable: " + e.getMessage());
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pools are configured with their own credentials; per-call credentials are not supported
+        return getConnection();
+    }
+
+    /**
+     * Measures replication lag and decides whether read-only work may use the replica.
+     */
+    @Scheduled(fixedDelayString = "${acme.datasource.replica.check-interval-ms:2000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            replicaLagSeconds = resultSet.getDouble(1);
+        } catch (SQLException e) {
+            markUnusable("unreachable: " + e.getMessage());
+            return;
+        }
+        if (replicaLagSeconds * 1000 > maxLag.toMillis()) {
+            markUnusable(String.format("%.1fs behind the primary (tolerance %s)", replicaLagSeconds, maxLag));
+        } else if (!replicaUsable) {
+            replicaUsable = true;
+            log.info("Read replica is healthy again ({}s behind); routing read-only transactions to it", replicaLagSeconds);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    private void markUnusable(String reason) {
+        if (replicaUsable) {
+            replicaUsable = false;
+            log.warn("Read replica {}; routing read-only transactions to the primary", reason);
+        }
+    }
+}
@@ -18,8 +18,13 @@ public record BookingRequest(
         List<PassengerDTO> passengers,
         @NotNull(message = "Payment information is required")
         @Valid
-        PaymentInfoDTO payment
+        PaymentInfoDTO payment,
+        String holdId
 ) {
+        public BookingRequest(Long flightScheduleId, List<PassengerDTO> passengers, PaymentInfoDTO payment) {
+                this(flightScheduleId, passengers, payment, null);
+        }
+
         public record PassengerDTO(
                 @NotBlank(message = "First name is required")
                 String firstName,
@@ -2,11 +2,17 @@ package com.acme.air.dto;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public record FlightSearchResponse(
         List<FlightDTO> flights
 ) {
+    /**
+     * A flight in the results. Fields the search was not asked for are null.
+     */
     public record FlightDTO(
             Long flightScheduleId,
             String flightNumber,
@@ -16,11 +22,69 @@ public record FlightSearchResponse(
             ZonedDateTime departureTime,
             ZonedDateTime arrivalTime,
             BigDecimal pricePerSeat,
-            int numberOfPassengers,
+            Integer numberOfPassengers,
             BigDecimal totalPrice,
-            int availableSeats,
+            Integer availableSeats,
             List<String> availableSeatNumbers
     ) {
     }
 
+    /**
+     * The {@link FlightDTO} fields a search can be asked for, by their name in the API contract.
+     */
+    public enum Field {
+        FLIGHT_SCHEDULE_ID("flightScheduleId"),
+        FLIGHT_NUMBER("flightNumber"),
+        AIRLINE("airline"),
+        ORIGIN("origin"),
+        DESTINATION("destination"),
+        DEPARTURE_TIME("departureTime"),
+        ARRIVAL_TIME("arrivalTime"),
+        PRICE_PER_SEAT("pricePerSeat"),
+        NUMBER_OF_PASSENGERS("numberOfPassengers"),
+        TOTAL_PRICE("totalPrice"),
+        AVAILABLE_SEATS("availableSeats"),
+        AVAILABLE_SEAT_NUMBERS("availableSeatNumbers");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+
+        public static Set<Field> all() {
+            return EnumSet.allOf(Field.class);
+        }
+
+        /**
+         * Parses the {@code fields} request parameter.
+         *
+         * @param names field names as in the contract; null or empty selects every field
+         * @throws IllegalArgumentException for a name that is not a field
+         */
+        public static Set<Field> parse(Collection<String> names) {
+            if (names == null || names.isEmpty()) {
+                return all();
+            }
+            Set<Field> fields = EnumSet.noneOf(Field.class);
+            for (String name : names) {
+                fields.add(of(name.trim()));
+            }
+            return fields;
+        }
+
+        private static Field of(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown flight field: " + name);
+        }
+    }
+
 }
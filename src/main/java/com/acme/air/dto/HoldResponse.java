@@ -0,0 +1,11 @@
+package com.acme.air.dto;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public record HoldResponse(
+        String holdId,
+        Long flightScheduleId,
+        List<String> seatNumbers,
+        ZonedDateTime expiresAt
+) {}
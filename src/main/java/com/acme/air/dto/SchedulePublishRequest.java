@@ -0,0 +1,27 @@
+package com.acme.air.dto;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+public record SchedulePublishRequest(
+        CabinLayout cabinLayout,
+        List<ScheduleDraft> schedules
+) {
+
+        public record CabinLayout(
+                int rows,
+                String seatLetters,
+                int firstRow,
+                Set<Integer> skipRowNumbers
+        ) { }
+
+        public record ScheduleDraft(
+                Long flightId,
+                ZonedDateTime departureTime,
+                ZonedDateTime arrivalTime,
+                BigDecimal price,
+                String currency
+        ) { }
+}
@@ -0,0 +1,9 @@
+package com.acme.air.dto;
+
+import java.util.List;
+
+public record SchedulePublishResponse(
+        int schedulesCreated,
+        long seatsCreated,
+        List<Long> flightScheduleIds
+) {}
@@ -0,0 +1,14 @@
+package com.acme.air.dto;
+
+import com.acme.air.model.Seat;
+
+import java.util.Map;
+
+/**
+ * Payload of a seat map stream event: every seat of the schedule for a snapshot, only the seats that
+ * changed for an update. Seats released by a cancellation or an expired hold are AVAILABLE again.
+ */
+public record SeatMapUpdate(
+        Long scheduleId,
+        Map<String, Seat.SeatStatus> seats
+) {}
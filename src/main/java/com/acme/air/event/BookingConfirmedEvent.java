@@ -0,0 +1,22 @@
+package com.acme.air.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Published inside the booking transaction once a booking is confirmed; recorded in the outbox
+ * and relayed to confirmation channels (email, downstream systems) after commit.
+ */
+public record BookingConfirmedEvent(
+        String bookingReference,
+        Long scheduleId,
+        String flightNumber,
+        ZonedDateTime departureTime,
+        List<String> passengerEmails,
+        BigDecimal amountPaid,
+        String currency,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,22 @@
+package com.acme.air.event;
+
+import com.acme.air.model.Seat;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published whenever seats of a schedule change status (booked, released on cancellation, ...).
+ * Search caches, availability counters and seat maps can subscribe to this instead of re-querying
+ * the seat table; use {@code @TransactionalEventListener} so only committed changes are observed.
+ */
+public record SeatInventoryChangedEvent(
+        Long scheduleId,
+        List<String> seatNumbers,
+        Seat.SeatStatus status,
+        Instant occurredAt
+) {
+    public SeatInventoryChangedEvent(Long scheduleId, List<String> seatNumbers, Seat.SeatStatus status) {
+        this(scheduleId, List.copyOf(seatNumbers), status, Instant.now());
+    }
+}
@@ -0,0 +1,17 @@
+package com.acme.air.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when seat locks that outlive the current request (holds) are created, so the expiry
+ * sweeper can schedule their deadlines once the transaction commits.
+ */
+public record SeatLocksAcquiredEvent(
+        List<Long> lockIds,
+        LocalDateTime expiresAt
+) {
+    public SeatLocksAcquiredEvent {
+        lockIds = List.copyOf(lockIds);
+    }
+}
@@ -1,7 +1,11 @@
 package com.acme.air.exception;
 
-public class BookingConflictException extends RuntimeException {
+public class BookingConflictException extends DomainException {
     public BookingConflictException(String message) {
         super(message);
     }
+
+    public BookingConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
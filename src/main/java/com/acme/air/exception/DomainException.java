@@ -0,0 +1,18 @@
+package com.acme.air.exception;
+
+/**
+ * Base class for expected business outcomes such as seat conflicts or unknown resources.
+ * These are thrown at high rates under contention (flash sales, empty searches), so they skip
+ * stack trace capture; the message identifies the problem. Genuine failures should keep using
+ * ordinary exceptions so their full trace is logged.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
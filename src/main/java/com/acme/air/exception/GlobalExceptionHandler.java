@@ -1,18 +1,25 @@
 package com.acme.air.exception;
 
 import com.acme.air.dto.ErrorResponse;
+import com.acme.air.logging.RateLimitedLogger;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,6 +28,16 @@ import java.util.stream.Collectors;
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    // Expected outcomes (conflicts, unknown resources) are logged without stack traces and rate-limited
+    private final RateLimitedLogger domainLogger;
+    private final Counter concurrencyFailures;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.domainLogger = new RateLimitedLogger(logger, 20, meterRegistry);
+        this.concurrencyFailures = Counter.builder("http.concurrency.failures")
+                .description("Requests rejected by a serialization failure, deadlock or lock timeout")
+                .register(meterRegistry);
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
@@ -60,38 +77,86 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("BAD_REQUEST", "Malformed JSON or type mismatch in request body"));
     }
 
+    @ExceptionHandler(MissingRequestHeaderException.class)
+    public ResponseEntity<ErrorResponse> handleMissingHeader(MissingRequestHeaderException ex) {
+        logger.warn("Missing request header: {}", ex.getHeaderName());
+        ErrorResponse error = new ErrorResponse("INVALID_REQUEST", "Header " + ex.getHeaderName() + " is required");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
-        logger.error("Illegal argument", ex);
+        domainLogger.warn("Illegal argument: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse("INVALID_REQUEST", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(ResourceNotFoundException ex) {
-        logger.error("Resource not found", ex);
+        domainLogger.warn("Resource not found: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse("RESOURCE_NOT_FOUND", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
     @ExceptionHandler(BookingConflictException.class)
     public ResponseEntity<ErrorResponse> handleConflict(BookingConflictException ex) {
-        logger.error("Booking conflict", ex);
+        domainLogger.warn("Booking conflict: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse("BOOKING_CONFLICT", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
     @ExceptionHandler(SeatUnavailableException.class)
     public ResponseEntity<ErrorResponse> handleSeatUnavailable(SeatUnavailableException ex) {
-        logger.error("Seat unavailable", ex);
+        domainLogger.warn("Seat unavailable: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse("SEAT_UNAVAILABLE", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(ServiceOverloadedException ex) {
+        domainLogger.warn("Request shed: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse("SERVICE_UNAVAILABLE", "The service is busy. Please retry shortly.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        return concurrencyFailure(ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        // A serialization failure raised by the commit arrives wrapped, e.g. in a TransactionSystemException
+        if (isConcurrencyFailure(ex)) {
+            return concurrencyFailure(ex);
+        }
         logger.error("Unexpected error occurred", ex); // Important: Log the actual exception
         ErrorResponse error = new ErrorResponse("INTERNAL_SERVER_ERROR", "An unexpected error occurred. Please try again later.");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
-}
\ No newline at end of file
+
+    /**
+     * Contention under SERIALIZABLE bookings is expected during a flash sale: answered with a 409 the client
+     * can retry, counted, and logged rate-limited without a stack trace.
+     */
+    private ResponseEntity<ErrorResponse> concurrencyFailure(Exception ex) {
+        concurrencyFailures.increment();
+        domainLogger.warn("Concurrent update conflict: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse("CONCURRENT_UPDATE",
+                "The request conflicted with a concurrent update. Please retry.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // serialization_failure and deadlock_detected anywhere in the cause chain
+    private static boolean isConcurrencyFailure(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof ConcurrencyFailureException) {
+                return true;
+            }
+            if (e instanceof SQLException sql && ("40001".equals(sql.getSQLState()) || "40P01".equals(sql.getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
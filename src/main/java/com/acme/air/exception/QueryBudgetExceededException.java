@@ -0,0 +1,12 @@
+package com.acme.air.exception;
+
+/**
+ * A call issued more SQL statements than its {@link com.acme.air.metrics.QueryBudget} allows. Only
+ * thrown with {@code acme.query-budget.fail-on-exceed}, meant for tests and CI: the work itself has
+ * already been done by then, so the request fails as a 500.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
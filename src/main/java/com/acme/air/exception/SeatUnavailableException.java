@@ -1,6 +1,6 @@
 package com.acme.air.exception;
 
-public class SeatUnavailableException extends RuntimeException {
+public class SeatUnavailableException extends DomainException {
     public SeatUnavailableException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.acme.air.exception;
+
+public class ServiceOverloadedException extends DomainException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.acme.air.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs at most {@code maxPerSecond} messages per second at WARN and counts the rest, so expected
+ * events that can occur thousands of times a second (booking conflicts during a flash sale) stay
+ * visible without flooding the log. The next message written after a suppressed burst reports how
+ * many were dropped; the total is exported as the {@code logging.suppressed} counter.
+ */
+public final class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int maxPerSecond;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger loggedThisSecond = new AtomicInteger();
+    private final AtomicLong suppressedSinceLastLog = new AtomicLong();
+    private final Counter suppressed;
+
+    public RateLimitedLogger(Logger logger, int maxPerSecond, MeterRegistry meterRegistry) {
+        this.logger = logger;
+        this.maxPerSecond = maxPerSecond;
+        this.suppressed = Counter.builder("logging.suppressed")
+                .description("Log messages dropped by rate limiting")
+                .tag("logger", logger.getName())
+                .register(meterRegistry);
+    }
+
+    public void warn(String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        if (!tryAcquire()) {
+            suppressedSinceLastLog.incrementAndGet();
+            suppressed.increment();
+            return;
+        }
+        long dropped = suppressedSinceLastLog.getAndSet(0);
+        if (dropped == 0) {
+            logger.warn(format, args);
+        } else {
+            Object[] withDropped = Arrays.copyOf(args, args.length + 1);
+            withDropped[args.length] = dropped;
+            logger.warn(format + " ({} similar messages suppressed)", withDropped);
+        }
+    }
+
+    private boolean tryAcquire() {
+        long second = System.currentTimeMillis() / 1000;
+        long windowSecond = currentSecond.get();
+        if (second != windowSecond && currentSecond.compareAndSet(windowSecond, second)) {
+            loggedThisSecond.set(0);
+        }
+        return loggedThisSecond.incrementAndGet() <= maxPerSecond;
+    }
+}
@@ -0,0 +1,36 @@
+package com.acme.air.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-request SQL trace. While active on the current thread, every statement Hibernate prepares is
+ * logged at INFO to {@code com.acme.air.sql}, so a single request can be diagnosed in production
+ * without turning on {@code show-sql} for all traffic. Activated by {@link com.acme.air.web.SqlTraceFilter}.
+ */
+public final class SqlTrace {
+
+    private static final Logger log = LoggerFactory.getLogger("com.acme.air.sql");
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private SqlTrace() {
+    }
+
+    public static void begin() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    public static void end() {
+        ACTIVE.remove();
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    public static void statement(String sql) {
+        if (isActive()) {
+            log.info("{}", sql);
+        }
+    }
+}
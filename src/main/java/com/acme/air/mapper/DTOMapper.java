@@ -2,6 +2,8 @@ package com.acme.air.mapper;
 
 import com.acme.air.generated.dto.BookingRequest;
 
+import java.util.Set;
+
 public final class DTOMapper {
 
     // Private constructor to prevent instantiation
@@ -29,8 +31,8 @@ public final class DTOMapper {
                 .airline(existing.airline())
                 .origin(existing.origin())
                 .destination(existing.destination())
-                .departureTime(existing.departureTime().toOffsetDateTime())
-                .arrivalTime(existing.arrivalTime().toOffsetDateTime())
+                .departureTime(existing.departureTime() == null ? null : existing.departureTime().toOffsetDateTime())
+                .arrivalTime(existing.arrivalTime() == null ? null : existing.arrivalTime().toOffsetDateTime())
                 .pricePerSeat(existing.pricePerSeat())
                 .numberOfPassengers(existing.numberOfPassengers())
                 .totalPrice(existing.totalPrice())
@@ -59,7 +61,18 @@ public final class DTOMapper {
         return new com.acme.air.dto.BookingRequest(
                 generated.getFlightScheduleId(),
                 passengers,
-                payment);
+                payment,
+                generated.getHoldId());
+    }
+
+    public static com.acme.air.generated.dto.HoldResponse convertToGeneratedHoldResponse(
+            com.acme.air.dto.HoldResponse existing) {
+
+        return new com.acme.air.generated.dto.HoldResponse()
+                .holdId(existing.holdId())
+                .flightScheduleId(existing.flightScheduleId())
+                .seatNumbers(existing.seatNumbers())
+                .expiresAt(existing.expiresAt().toOffsetDateTime());
     }
 
     public static com.acme.air.generated.dto.BookingResponse convertToGeneratedBookingResponse(
@@ -88,6 +101,37 @@ public final class DTOMapper {
                 .createdAt(existing.createdAt());
     }
 
+    public static com.acme.air.dto.SchedulePublishRequest convertToExistingDTO(
+            com.acme.air.generated.dto.SchedulePublishRequest generated) {
+
+        var layout = generated.getCabinLayout();
+        var cabinLayout = new com.acme.air.dto.SchedulePublishRequest.CabinLayout(
+                layout.getRows(),
+                layout.getSeatLetters(),
+                layout.getFirstRow() == null ? 1 : layout.getFirstRow(),
+                layout.getSkipRowNumbers() == null ? Set.of() : Set.copyOf(layout.getSkipRowNumbers()));
+
+        var schedules = generated.getSchedules().stream()
+                .map(s -> new com.acme.air.dto.SchedulePublishRequest.ScheduleDraft(
+                        s.getFlightId(),
+                        s.getDepartureTime().toZonedDateTime(),
+                        s.getArrivalTime().toZonedDateTime(),
+                        s.getPrice(),
+                        s.getCurrency() == null ? "NZD" : s.getCurrency()))
+                .toList();
+
+        return new com.acme.air.dto.SchedulePublishRequest(cabinLayout, schedules);
+    }
+
+    public static com.acme.air.generated.dto.SchedulePublishResponse convertToGeneratedSchedulePublishResponse(
+            com.acme.air.dto.SchedulePublishResponse existing) {
+
+        return new com.acme.air.generated.dto.SchedulePublishResponse()
+                .schedulesCreated(existing.schedulesCreated())
+                .seatsCreated(existing.seatsCreated())
+                .flightScheduleIds(existing.flightScheduleIds());
+    }
+
     private static com.acme.air.dto.PaymentMethod convertPaymentMethod(
             com.acme.air.generated.dto.PaymentMethod generated) {
         return com.acme.air.dto.PaymentMethod.valueOf(generated.getValue());
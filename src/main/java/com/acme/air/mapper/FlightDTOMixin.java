@@ -0,0 +1,14 @@
+package com.acme.air.mapper;
+
+import com.acme.air.generated.dto.FlightDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.boot.jackson.JsonMixin;
+
+/**
+ * Leaves null fields out of serialized search results. Every field of a flight is set when it was
+ * asked for, so only the ones deselected with the {@code fields} parameter are null.
+ */
+@JsonMixin(FlightDTO.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+abstract class FlightDTOMixin {
+}
@@ -0,0 +1,206 @@
+package com.acme.air.metrics;
+
+import com.acme.air.exception.BookingConflictException;
+import com.acme.air.exception.SeatUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for {@code BookingService.createBooking}.
+ * <ul>
+ *     <li>{@code booking.phase} - time per phase, tagged {@code phase}; only a sampled share of bookings
+ *     ({@code acme.metrics.booking.phase-sample-rate}) is timed</li>
+ *     <li>{@code booking.lock.wait} - time spent waiting for seat row locks per booking</li>
+ *     <li>{@code booking.conflicts} - seat conflicts, duplicate bookings and serialization failures, tagged {@code type}</li>
+ *     <li>{@code booking.schedule.attempts} / {@code booking.schedule.conflicts} - per-schedule hot-spot counters</li>
+ *     <li>{@code booking.db.statements} - SQL statements issued per booking</li>
+ *     <li>{@code booking.create} - end-to-end time, tagged {@code outcome}</li>
+ * </ul>
+ * Per-schedule counters are limited to the first {@value #MAX_TRACKED_SCHEDULES} schedules seen;
+ * the rest are reported as {@code other} to keep tag cardinality bounded. Outcomes are recorded once the
+ * booking transaction has completed, and classified on the whole cause chain, so a serialization failure
+ * raised by the commit counts as one rather than as a confirmed booking.
+ */
+@Component
+public class BookingMetrics {
+
+    static final int MAX_TRACKED_SCHEDULES = 500;
+    private static final String OTHER_SCHEDULE = "other";
+
+    private final MeterRegistry registry;
+    private final double phaseSampleRate;
+    private final Timer lockWait;
+    private final DistributionSummary statements;
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> conflictCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> outcomeTimers = new ConcurrentHashMap<>();
+    private final Map<String, ScheduleCounters> scheduleCounters = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry,
+                          @Value("${acme.metrics.booking.phase-sample-rate:1.0}") double phaseSampleRate) {
+        this.registry = registry;
+        this.phaseSampleRate = phaseSampleRate;
+        this.lockWait = Timer.builder("booking.lock.wait")
+                .description("Time spent waiting for seat row locks per booking")
+                .register(registry);
+        this.statements = DistributionSummary.builder("booking.db.statements")
+                .description("SQL statements issued per booking attempt")
+                .register(registry);
+    }
+
+    public Recording start(Long scheduleId) {
+        StatementCounter.reset();
+        ScheduleCounters schedule = scheduleCounters(scheduleId);
+        schedule.attempts().increment();
+        boolean sampled = phaseSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < phaseSampleRate;
+        return new Recording(schedule, sampled, System.nanoTime());
+    }
+
+    private ScheduleCounters scheduleCounters(Long scheduleId) {
+        String schedule = String.valueOf(scheduleId);
+        ScheduleCounters counters = scheduleCounters.get(schedule);
+        if (counters != null) {
+            return counters;
+        }
+        // Racing threads may both pass the size check, overshooting the limit by a few schedules at most
+        String tag = scheduleCounters.size() < MAX_TRACKED_SCHEDULES ? schedule : OTHER_SCHEDULE;
+        return scheduleCounters.computeIfAbsent(tag, this::newScheduleCounters);
+    }
+
+    private ScheduleCounters newScheduleCounters(String schedule) {
+        return new ScheduleCounters(
+                Counter.builder("booking.schedule.attempts")
+                        .description("Booking attempts per flight schedule")
+                        .tag("schedule", schedule)
+                        .register(registry),
+                Counter.builder("booking.schedule.conflicts")
+                        .description("Booking attempts per flight schedule rejected by a conflict")
+                        .tag("schedule", schedule)
+                        .register(registry));
+    }
+
+    private Timer phaseTimer(String phase) {
+        return phaseTimers.computeIfAbsent(phase, name -> Timer.builder("booking.phase")
+                .description("Time spent in each phase of createBooking")
+                .tag("phase", name)
+                .register(registry));
+    }
+
+    private Counter conflictCounter(String type) {
+        return conflictCounters.computeIfAbsent(type, name -> Counter.builder("booking.conflicts")
+                .description("Booking attempts rejected by contention or business conflicts")
+                .tag("type", name)
+                .register(registry));
+    }
+
+    private Timer outcomeTimer(String outcome) {
+        return outcomeTimers.computeIfAbsent(outcome, name -> Timer.builder("booking.create")
+                .description("End-to-end createBooking time by outcome")
+                .tag("outcome", name)
+                .register(registry));
+    }
+
+    /**
+     * @return the outcome tag for a failed booking, from the first recognised exception in its cause chain
+     */
+    private static String outcome(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof SeatUnavailableException) {
+                return "seat_unavailable";
+            }
+            if (e instanceof ConcurrencyFailureException || isSerializationFailure(e)) {
+                return "serialization_failure";
+            }
+            if (e instanceof BookingConflictException) {
+                return "duplicate_booking";
+            }
+            if (e instanceof IllegalArgumentException) {
+                return "invalid";
+            }
+        }
+        return "error";
+    }
+
+    // serialization_failure and deadlock_detected, e.g. wrapped in a TransactionSystemException by the commit
+    private static boolean isSerializationFailure(Throwable e) {
+        return e instanceof SQLException sql && ("40001".equals(sql.getSQLState()) || "40P01".equals(sql.getSQLState()));
+    }
+
+    private record ScheduleCounters(Counter attempts, Counter conflicts) {}
+
+    /**
+     * Measurements for a single booking attempt; not thread-safe, confined to the request thread.
+     */
+    public final class Recording {
+
+        private final ScheduleCounters schedule;
+        private final boolean sampled;
+        private final long startNanos;
+        private long lockWaitNanos;
+
+        private Recording(ScheduleCounters schedule, boolean sampled, long startNanos) {
+            this.schedule = schedule;
+            this.sampled = sampled;
+            this.startNanos = startNanos;
+        }
+
+        public <T> T phase(String name, Supplier<T> step) {
+            if (!sampled) {
+                return step.get();
+            }
+            long start = System.nanoTime();
+            try {
+                return step.get();
+            } finally {
+                phaseTimer(name).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        public void phase(String name, Runnable step) {
+            phase(name, () -> {
+                step.run();
+                return null;
+            });
+        }
+
+        public <T> T lockWait(Supplier<T> acquire) {
+            long start = System.nanoTime();
+            try {
+                return acquire.get();
+            } finally {
+                lockWaitNanos += System.nanoTime() - start;
+            }
+        }
+
+        public void success() {
+            finish("confirmed");
+        }
+
+        public void failure(Throwable e) {
+            String outcome = outcome(e);
+            if (!outcome.equals("invalid") && !outcome.equals("error")) {
+                conflictCounter(outcome).increment();
+                schedule.conflicts().increment();
+            }
+            finish(outcome);
+        }
+
+        private void finish(String outcome) {
+            lockWait.record(lockWaitNanos, TimeUnit.NANOSECONDS);
+            statements.record(StatementCounter.current());
+            outcomeTimer(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
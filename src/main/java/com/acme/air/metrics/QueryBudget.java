@@ -0,0 +1,31 @@
+package com.acme.air.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a call may issue. On an endpoint it is checked by
+ * {@link QueryBudgetAspect} when {@code acme.query-budget.enabled} is on; on a test method by the test
+ * suite's query budget extension, which fails the test. Besides the total, no single statement may be
+ * issued more than {@link #maxRepeats} times: the same statement over and over from one call site is
+ * the signature of an N+1, a query per row of something loaded earlier.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /**
+     * Most statements the call may issue.
+     */
+    int value();
+
+    /**
+     * Most times any one statement may be issued, e.g. the number of passengers when a query per
+     * passenger is intended.
+     */
+    int maxRepeats() default 1;
+}
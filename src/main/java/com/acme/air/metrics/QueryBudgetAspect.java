@@ -0,0 +1,88 @@
+package com.acme.air.metrics;
+
+import com.acme.air.exception.QueryBudgetExceededException;
+import com.acme.air.logging.RateLimitedLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link QueryBudget} to endpoints. Every statement the call issues is counted, including those
+ * of the transactions it runs and of the response it streams. A call over budget is logged with the
+ * call sites of its repeated statements, or fails with {@link QueryBudgetExceededException} when
+ * {@code failOnExceed} is set; a search that has already streamed its results cannot become a 500 any
+ * more, but the exception is still raised and logged. Calls that fail on their own are not checked, so
+ * their error is kept.
+ * Statement counts per endpoint are exported as {@code query.budget.statements}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetAspect.class);
+
+    private final boolean failOnExceed;
+    private final MeterRegistry meterRegistry;
+    private final RateLimitedLogger overBudgetLogger;
+    // Endpoints are a fixed set of annotated methods, so this stays small
+    private final Map<Method, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    public QueryBudgetAspect(boolean failOnExceed, MeterRegistry meterRegistry) {
+        this.failOnExceed = failOnExceed;
+        this.meterRegistry = meterRegistry;
+        this.overBudgetLogger = new RateLimitedLogger(logger, 10, meterRegistry);
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforce(ProceedingJoinPoint joinPoint, QueryBudget budget) throws Throwable {
+        Object result;
+        String violation;
+        int statements;
+        try (StatementScope scope = StatementScope.open()) {
+            result = joinPoint.proceed();
+            statements = scope.count();
+            violation = scope.check(budget.value(), budget.maxRepeats());
+        }
+
+        EndpointMeters meters = endpointMeters.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), method -> register(joinPoint));
+        meters.statements().record(statements);
+        if (violation == null) {
+            return result;
+        }
+        meters.exceeded().increment();
+        if (failOnExceed) {
+            throw new QueryBudgetExceededException("Query budget exceeded by " + meters.name() + ": " + violation);
+        }
+        overBudgetLogger.warn("Query budget exceeded by {}: {}", meters.name(), violation);
+        return result;
+    }
+
+    private EndpointMeters register(ProceedingJoinPoint joinPoint) {
+        // e.g. FlightController.searchFlights(..)
+        String name = joinPoint.getSignature().toShortString();
+        return new EndpointMeters(name,
+                DistributionSummary.builder("query.budget.statements")
+                        .description("SQL statements issued per call of an endpoint with a query budget")
+                        .tag("method", name)
+                        .register(meterRegistry),
+                Counter.builder("query.budget.exceeded")
+                        .description("Calls that issued more statements than their query budget allows")
+                        .tag("method", name)
+                        .register(meterRegistry));
+    }
+
+    private record EndpointMeters(String name, DistributionSummary statements, Counter exceeded) {}
+}
@@ -0,0 +1,32 @@
+package com.acme.air.metrics;
+
+import com.acme.air.logging.SqlTrace;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared on the current thread.
+ * Registered through {@code hibernate.session_factory.statement_inspector}; callers reset the count
+ * at the start of a unit of work and read it at the end. Being Hibernate's only inspector, it also
+ * hands statements to {@link SqlTrace} for requests that asked for an SQL trace, and to any open
+ * {@link StatementScope} checking a {@link QueryBudget}.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        SqlTrace.statement(sql);
+        StatementScope.statement(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
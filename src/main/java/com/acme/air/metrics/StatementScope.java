@@ -0,0 +1,142 @@
+package com.acme.air.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements issued on the current thread between {@link #open} and {@link #close}, fed by
+ * {@link StatementCounter}. Unlike the counter it keeps each statement's text, how often it was issued
+ * and where from: the first application frame outside the repositories, i.e. the service or controller
+ * line that ran the query. That call site is only looked up the first time a statement appears, so an
+ * N+1 loop costs a map lookup per query, not a stack walk. Scopes nest; a statement counts towards every
+ * open scope on the thread.
+ */
+public final class StatementScope implements AutoCloseable {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final StatementScope parent;
+    private final Map<String, Statement> statements = new LinkedHashMap<>();
+    private int count;
+
+    private StatementScope(StatementScope parent) {
+        this.parent = parent;
+    }
+
+    public static StatementScope open() {
+        StatementScope scope = new StatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void statement(String sql) {
+        String callSite = null;
+        for (StatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            callSite = scope.record(sql, callSite);
+        }
+    }
+
+    private String record(String sql, String callSite) {
+        count++;
+        Statement statement = statements.get(sql);
+        if (statement != null) {
+            statement.count++;
+            return callSite;
+        }
+        String site = callSite != null ? callSite : callSite();
+        statements.put(sql, new Statement(site));
+        return site;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the text of each distinct statement issued, in the order first seen
+     */
+    public List<String> statements() {
+        return List.copyOf(statements.keySet());
+    }
+
+    /**
+     * @return the statements issued more than {@code maxRepeats} times, most frequent first
+     */
+    public List<Repeat> repeatsOver(int maxRepeats) {
+        List<Repeat> repeats = new ArrayList<>();
+        statements.forEach((sql, statement) -> {
+            if (statement.count > maxRepeats) {
+                repeats.add(new Repeat(sql, statement.count, statement.callSite));
+            }
+        });
+        repeats.sort(Comparator.comparingInt(Repeat::count).reversed());
+        return repeats;
+    }
+
+    /**
+     * @return what broke the budget, with the call sites of repeated statements, or null if nothing did
+     */
+    public String check(int maxStatements, int maxRepeats) {
+        List<Repeat> repeats = repeatsOver(maxRepeats);
+        if (count <= maxStatements && repeats.isEmpty()) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder()
+                .append(count).append(" statements (budget ").append(maxStatements).append(')');
+        for (Repeat repeat : repeats) {
+            message.append("; ").append(repeat.count()).append("x (at most ").append(maxRepeats)
+                    .append(") at ").append(repeat.callSite()).append(": ").append(repeat.sql());
+        }
+        return message.toString();
+    }
+
+    /**
+     * Stops counting; statements issued afterwards go to the enclosing scope only.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> isApplicationCode(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.toStackTraceElement().toString())
+                .orElse("unknown"));
+    }
+
+    private static boolean isApplicationCode(String className) {
+        return className.startsWith("com.acme.air.")
+                && !className.startsWith("com.acme.air.metrics.")
+                && !className.startsWith("com.acme.air.repository.")
+                // Spring's CGLIB proxies of services and controllers
+                && !className.contains("$$");
+    }
+
+    private static final class Statement {
+
+        private final String callSite;
+        private int count = 1;
+
+        private Statement(String callSite) {
+            this.callSite = callSite;
+        }
+    }
+
+    /**
+     * A statement issued {@code count} times, first from {@code callSite}.
+     */
+    public record Repeat(String sql, int count, String callSite) {}
+}
@@ -5,11 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.ZonedDateTime;
 import java.util.List;
 
 @EqualsAndHashCode(callSuper = true, exclude = {"bookingItems", "payment"})
+@ToString(exclude = {"bookingItems", "payment"})
 @Entity
 @Data
 @AllArgsConstructor
@@ -23,9 +25,14 @@ public class Booking extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String bookingReference;
 
-    @ManyToOne
+    // Lazy, so a booking still loads once its departure month has been archived
+    @ManyToOne(fetch = FetchType.LAZY)
     private FlightSchedule schedule;
 
+    // Copied from the schedule when booked: the booking is rendered from these, not from the schedule
+    private String flightNumber;
+    private ZonedDateTime departureTime;
+
     @OneToMany(mappedBy = "booking", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<BookingItem> bookingItems;
 
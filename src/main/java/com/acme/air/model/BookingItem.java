@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @EqualsAndHashCode(callSuper = true, exclude = {"booking", "passenger", "seat"})
+@ToString(exclude = {"booking", "passenger", "seat"})
 @Entity
 @Data
 @AllArgsConstructor
@@ -25,7 +27,10 @@ public class BookingItem extends BaseEntity {
     @JoinColumn(name = "passenger_id", nullable = false)
     private Passenger passenger;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seat_id", nullable = false)
     private Seat seat;
+
+    // Copied from the seat when booked, so it survives the seat's partition being archived
+    private String seatNumber;
 }
@@ -0,0 +1,42 @@
+package com.acme.air.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.List;
+
+/**
+ * Seat numbers of a cabin in seat index order, shared by every {@link SeatMap} built from it.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY) // layouts are never changed once schedules use them
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CabinLayout extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(columnDefinition = "text")
+    private String seatNumbers; // "1A,1B,1C,..."
+
+    private Integer seatCount;
+
+    public CabinLayout(List<String> seatNumbers) {
+        this.seatNumbers = String.join(",", seatNumbers);
+        this.seatCount = seatNumbers.size();
+    }
+
+    public List<String> seatNumberList() {
+        return List.of(seatNumbers.split(","));
+    }
+}
@@ -5,12 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 @EqualsAndHashCode(callSuper = true, exclude = {"flight"})
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,5 +35,17 @@ public class FlightSchedule extends BaseEntity {
     private String currency = "NZD";
 
     private Integer totalSeats;
+
+    // Price and times can change; the version keeps concurrent edits and cached copies consistent
+    @Version
+    private Long version;
+
+    /**
+     * First day of the UTC month a flight departing at {@code departureTime} belongs to: the partition
+     * of its schedule row and the {@link Seat#getDepartureMonth() partition key} of its seats.
+     */
+    public static LocalDate departureMonth(ZonedDateTime departureTime) {
+        return departureTime.withZoneSameInstant(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+    }
 }
 
@@ -0,0 +1,43 @@
+package com.acme.air.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "outbox_event")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateType; // e.g., Booking, FlightSchedule
+    private String aggregateId;
+    private String eventType;
+
+    @Column(columnDefinition = "text")
+    private String payload; // JSON
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+    private String lastError;
+
+    private LocalDateTime occurredAt;
+    private LocalDateTime nextAttemptAt; // pending events are relayed once this has passed
+    private LocalDateTime sentAt;
+
+    public enum OutboxStatus {
+        PENDING, SENT, FAILED
+    }
+}
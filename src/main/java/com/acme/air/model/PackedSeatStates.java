@@ -0,0 +1,40 @@
+package com.acme.air.model;
+
+/**
+ * Encoding of {@link SeatMap#getStates()}: seat {@code i} occupies bits {@code 2 * (i % 4)} and up of
+ * byte {@code i / 4}, holding the {@link Seat.SeatStatus} ordinal. An all-zero array is a cabin with
+ * every seat available.
+ */
+public final class PackedSeatStates {
+
+    private static final Seat.SeatStatus[] STATUSES = Seat.SeatStatus.values();
+
+    private PackedSeatStates() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static byte[] allAvailable(int seatCount) {
+        return new byte[(seatCount + 3) / 4];
+    }
+
+    public static Seat.SeatStatus get(byte[] states, int seatIndex) {
+        int shift = (seatIndex & 3) << 1;
+        return STATUSES[(states[seatIndex >> 2] >> shift) & 3];
+    }
+
+    public static void set(byte[] states, int seatIndex, Seat.SeatStatus status) {
+        int shift = (seatIndex & 3) << 1;
+        int cleared = states[seatIndex >> 2] & ~(3 << shift);
+        states[seatIndex >> 2] = (byte) (cleared | (status.ordinal() << shift));
+    }
+
+    public static int countAvailable(byte[] states, int seatCount) {
+        int available = 0;
+        for (int i = 0; i < seatCount; i++) {
+            if (get(states, i) == Seat.SeatStatus.AVAILABLE) {
+                available++;
+            }
+        }
+        return available;
+    }
+}
@@ -5,10 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
 @EqualsAndHashCode(callSuper = true, exclude = {"booking"})
+@ToString(exclude = {"booking"})
 @Entity
 @Data
 @AllArgsConstructor
@@ -35,7 +37,7 @@ public class Payment extends BaseEntity {
     }
 
     public enum PaymentStatus {
-        SUCCESS, FAILED, PENDING
+        SUCCESS, FAILED, PENDING, REFUNDED
     }
 }
 
@@ -5,8 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
 
 @EqualsAndHashCode(callSuper = true, exclude = {"schedule"})
+@ToString(exclude = {"schedule"})
 @Entity
 @Data
 @AllArgsConstructor
@@ -25,6 +29,17 @@ public class Seat extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private SeatStatus status = SeatStatus.AVAILABLE;
 
+    // Partition key, copied from the schedule so seat lookups for a schedule touch one partition
+    @Column(nullable = false, updatable = false)
+    private LocalDate departureMonth;
+
+    @PrePersist
+    void assignDepartureMonth() {
+        if (departureMonth == null && schedule != null) {
+            departureMonth = FlightSchedule.departureMonth(schedule.getDepartureTime());
+        }
+    }
+
     public enum SeatStatus {
         AVAILABLE, LOCKED, BOOKED
     }
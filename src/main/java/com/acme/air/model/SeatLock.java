@@ -21,7 +21,9 @@ public class SeatLock extends BaseEntity {
 
     private String sessionId; // Track user session
 
-    @OneToOne
+    private String holdId; // Set when the lock was taken through the hold API
+
+    @ManyToOne
     private Seat seat;
 
     @ManyToOne
@@ -0,0 +1,34 @@
+package com.acme.air.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Terminal seat locks moved out of {@code seat_lock} by the retention job. Rows keep their original
+ * id and plain foreign key values so the live tables can be purged independently.
+ */
+@Entity
+@Table(name = "seat_lock_archive")
+@Data
+@NoArgsConstructor
+public class SeatLockArchive {
+
+    @Id
+    private Long id;
+
+    private Long seatId;
+    private Long passengerId;
+    private String sessionId;
+    private String holdId;
+
+    private LocalDateTime lockedAt;
+    private LocalDateTime expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    private SeatLock.LockStatus status;
+
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,29 @@
+package com.acme.air.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact seat inventory of one schedule: the state of every seat packed 2 bits per seat (see
+ * {@link PackedSeatStates}) plus the number still available. Written only through the repository's
+ * compare-and-set update on {@code version}, never by dirty checking.
+ */
+@Entity
+@Table(name = "seat_map")
+@Data
+@NoArgsConstructor
+public class SeatMap {
+
+    @Id
+    private Long scheduleId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private CabinLayout layout;
+
+    private byte[] states;
+
+    private Integer available;
+
+    private Long version;
+}
@@ -0,0 +1,37 @@
+package com.acme.air.outbox;
+
+import com.acme.air.model.OutboxEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends each event as one JSON line to a local file, e.g. for tests or for a log shipper to pick up.
+ */
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final Path file;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileOutboxEventSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void send(OutboxEvent event) throws IOException {
+        String line = String.format("{\"id\":%d,\"eventType\":\"%s\",\"aggregateType\":\"%s\",\"aggregateId\":\"%s\",\"payload\":%s}%n",
+                event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(), event.getPayload());
+        writeLock.lock();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.acme.air.outbox;
+
+import com.acme.air.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Default sink: writes each event to the application log. Useful locally and in tests until a
+ * real broker is wired in.
+ */
+@Slf4j
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    @Override
+    public void send(OutboxEvent event) {
+        log.info("Outbox event {} {} for {} {}: {}", event.getId(), event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getPayload());
+    }
+}
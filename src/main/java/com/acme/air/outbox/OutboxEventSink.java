@@ -0,0 +1,13 @@
+package com.acme.air.outbox;
+
+import com.acme.air.model.OutboxEvent;
+
+/**
+ * Destination the outbox relay delivers committed events to (message broker, notification
+ * service, ...). Implementations must be idempotent per event id: an event is redelivered if the
+ * relay fails before marking it sent.
+ */
+public interface OutboxEventSink {
+
+    void send(OutboxEvent event) throws Exception;
+}
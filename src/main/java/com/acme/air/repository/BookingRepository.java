@@ -1,7 +1,9 @@
 package com.acme.air.repository;
 
 import com.acme.air.model.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +24,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findByBookingReference(String bookingReference);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingReference = :bookingReference")
+    Optional<Booking> findByBookingReferenceForUpdate(@Param("bookingReference") String bookingReference);
+
+    /**
+     * Loads a booking together with everything needed to render it (items with passenger, payment) in a
+     * single statement. Flight and seat numbers come from the booking's own copies rather than from the
+     * schedule and seat rows, so bookings of archived departure months load too.
+     */
+    @Query("SELECT b FROM Booking b " +
+            "LEFT JOIN FETCH b.payment " +
+            "LEFT JOIN FETCH b.bookingItems bi " +
+            "LEFT JOIN FETCH bi.passenger " +
+            "WHERE b.bookingReference = :bookingReference")
+    Optional<Booking> findWithDetailsByBookingReference(@Param("bookingReference") String bookingReference);
+
 }
@@ -0,0 +1,13 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.CabinLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CabinLayoutRepository extends JpaRepository<CabinLayout, Long> {
+
+    Optional<CabinLayout> findFirstBySeatNumbers(String seatNumbers);
+}
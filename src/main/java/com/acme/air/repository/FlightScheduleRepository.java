@@ -12,6 +12,7 @@ import java.util.List;
 @Repository
 public interface FlightScheduleRepository extends JpaRepository<FlightSchedule, Long> {
 
+    // departure_time is the partition key, so only the partitions of the searched range are scanned
     @Query("SELECT fs FROM FlightSchedule fs " +
             "JOIN fs.flight f " +
             "JOIN f.origin o " +
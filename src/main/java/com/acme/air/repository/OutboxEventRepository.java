@@ -0,0 +1,25 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next batch of pending events that are due at {@code now}. Rows locked by another relay
+     * instance are skipped rather than waited on, so several instances can drain the outbox concurrently.
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    long countByStatus(OutboxEvent.OutboxStatus status);
+}
@@ -0,0 +1,175 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.PackedSeatStates;
+import com.acme.air.model.Seat;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The flight search reads over R2DBC, for the reactive search variant. Runs the same statements the JPA
+ * repositories generate for search, against either seat storage mode ({@code acme.seats.storage}), and
+ * like {@link SeatAvailabilityRepository} filters seats on their departure month so each lookup reads
+ * a single partition. Nothing here blocks; each method returns before its statement runs.
+ */
+public class ReactiveFlightSearchRepository {
+
+    private static final String AIRPORT_CODES_SQL =
+            "SELECT UPPER(code) AS code FROM airport WHERE UPPER(code) IN (:origin, :destination)";
+
+    // departure_time is the partition key, so only the partitions of the searched range are scanned
+    private static final String SCHEDULES_SQL =
+            "SELECT fs.id, fs.departure_time, fs.arrival_time, fs.price, f.flight_code, f.airline, " +
+                    "o.code AS origin_code, o.timezone_id AS origin_timezone, " +
+                    "d.code AS destination_code, d.timezone_id AS destination_timezone " +
+                    "FROM flight_schedule fs " +
+                    "JOIN flight f ON f.id = fs.flight_id " +
+                    "JOIN airport o ON o.id = f.origin_id " +
+                    "JOIN airport d ON d.id = f.destination_id " +
+                    "WHERE UPPER(o.code) = :origin AND UPPER(d.code) = :destination " +
+                    "AND fs.departure_time >= :startTime AND fs.departure_time <= :endTime " +
+                    "ORDER BY fs.departure_time ASC";
+
+    private static final String COUNT_AVAILABLE_SQL =
+            "SELECT COUNT(*) AS available FROM seat WHERE schedule_id = :scheduleId " +
+                    "AND departure_month = :departureMonth AND status = 'AVAILABLE'";
+
+    private static final String SEAT_MAP_AVAILABLE_SQL =
+            "SELECT available FROM seat_map WHERE schedule_id = :scheduleId";
+
+    private static final String AVAILABLE_SEAT_NUMBERS_SQL =
+            "SELECT seat_number FROM seat WHERE schedule_id = :scheduleId " +
+                    "AND departure_month = :departureMonth AND status = 'AVAILABLE' ORDER BY seat_number";
+
+    private static final String SEAT_MAP_STATES_SQL =
+            "SELECT m.states, l.seat_numbers FROM seat_map m JOIN cabin_layout l ON l.id = m.layout_id " +
+                    "WHERE m.schedule_id = :scheduleId";
+
+    private final DatabaseClient databaseClient;
+    private final boolean packed;
+
+    public ReactiveFlightSearchRepository(DatabaseClient databaseClient, String storage) {
+        this.databaseClient = databaseClient;
+        this.packed = "packed".equalsIgnoreCase(storage.trim());
+    }
+
+    /**
+     * @return which of the two airport codes exist, upper-cased
+     */
+    public Flux<String> findExistingAirportCodes(String origin, String destination) {
+        return databaseClient.sql(AIRPORT_CODES_SQL)
+                .bind("origin", origin.toUpperCase())
+                .bind("destination", destination.toUpperCase())
+                .map(row -> row.get("code", String.class))
+                .all();
+    }
+
+    public Flux<ScheduleRow> findFlightsByRouteAndDateRange(String origin, String destination,
+                                                            ZonedDateTime startTime, ZonedDateTime endTime) {
+        return databaseClient.sql(SCHEDULES_SQL)
+                .bind("origin", origin.toUpperCase())
+                .bind("destination", destination.toUpperCase())
+                .bind("startTime", startTime.toOffsetDateTime())
+                .bind("endTime", endTime.toOffsetDateTime())
+                .map(ReactiveFlightSearchRepository::scheduleRow)
+                .all();
+    }
+
+    public Mono<Integer> countAvailableSeatsBySchedule(ScheduleRow schedule) {
+        Mono<Integer> fromRows = databaseClient.sql(COUNT_AVAILABLE_SQL)
+                .bind("scheduleId", schedule.id())
+                .bind("departureMonth", schedule.departureMonth())
+                .map(row -> row.get("available", Long.class).intValue())
+                .one();
+        if (!packed) {
+            return fromRows;
+        }
+        // Schedules published before the switch have no seat map and are still counted from rows
+        return databaseClient.sql(SEAT_MAP_AVAILABLE_SQL)
+                .bind("scheduleId", schedule.id())
+                .map(row -> row.get("available", Integer.class))
+                .one()
+                .switchIfEmpty(fromRows);
+    }
+
+    /**
+     * @return available seat numbers in seat number order
+     */
+    public Mono<List<String>> findAvailableSeatNumbersBySchedule(ScheduleRow schedule) {
+        Mono<List<String>> fromRows = databaseClient.sql(AVAILABLE_SEAT_NUMBERS_SQL)
+                .bind("scheduleId", schedule.id())
+                .bind("departureMonth", schedule.departureMonth())
+                .map(row -> row.get("seat_number", String.class))
+                .all()
+                .collectList();
+        if (!packed) {
+            return fromRows;
+        }
+        return databaseClient.sql(SEAT_MAP_STATES_SQL)
+                .bind("scheduleId", schedule.id())
+                .map(ReactiveFlightSearchRepository::availableSeatNumbers)
+                .one()
+                .switchIfEmpty(fromRows);
+    }
+
+    private static ScheduleRow scheduleRow(Readable row) {
+        ZonedDateTime departureTime = row.get("departure_time", OffsetDateTime.class).toZonedDateTime();
+        OffsetDateTime arrivalTime = row.get("arrival_time", OffsetDateTime.class);
+        return new ScheduleRow(
+                row.get("id", Long.class),
+                departureTime,
+                arrivalTime == null ? null : arrivalTime.toZonedDateTime(),
+                row.get("price", BigDecimal.class),
+                row.get("flight_code", String.class),
+                row.get("airline", String.class),
+                row.get("origin_code", String.class),
+                row.get("origin_timezone", String.class),
+                row.get("destination_code", String.class),
+                row.get("destination_timezone", String.class));
+    }
+
+    private static List<String> availableSeatNumbers(Readable row) {
+        ByteBuffer buffer = row.get("states", ByteBuffer.class);
+        byte[] states = new byte[buffer.remaining()];
+        buffer.get(states);
+        String[] seatNumbers = row.get("seat_numbers", String.class).split(",");
+        List<String> available = new ArrayList<>();
+        for (int i = 0; i < seatNumbers.length; i++) {
+            if (PackedSeatStates.get(states, i) == Seat.SeatStatus.AVAILABLE) {
+                available.add(seatNumbers[i]);
+            }
+        }
+        available.sort(null);
+        return available;
+    }
+
+    /**
+     * A schedule with its flight and airports, as search needs them.
+     */
+    public record ScheduleRow(
+            Long id,
+            ZonedDateTime departureTime,
+            ZonedDateTime arrivalTime,
+            BigDecimal price,
+            String flightCode,
+            String airline,
+            String originCode,
+            String originTimezone,
+            String destinationCode,
+            String destinationTimezone
+    ) {
+        public LocalDate departureMonth() {
+            return FlightSchedule.departureMonth(departureTime);
+        }
+    }
+}
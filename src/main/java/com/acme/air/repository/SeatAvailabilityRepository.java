@@ -0,0 +1,60 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.Seat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seat availability reads behind {@link SeatRepository}, independent of how seats are stored
+ * ({@code acme.seats.storage}): one {@code seat} row per seat, or a packed {@code seat_map} per schedule
+ * with seat rows created only once a seat is locked or booked.
+ * <p>
+ * Every lookup by schedule also filters on the schedule's departure month, the partition key of
+ * {@code seat}, so it reads a single partition.
+ */
+public interface SeatAvailabilityRepository {
+
+    List<Seat> findByScheduleIdAndSeatNumberIn(Long scheduleId, List<String> seatNumbers);
+
+    List<SeatRepository.SeatStatusRef> findStatusesByScheduleIdAndSeatNumberIn(Long scheduleId,
+                                                                               Collection<String> seatNumbers);
+
+    int countAvailableSeatsBySchedule(Long scheduleId);
+
+    /**
+     * @return available seat numbers in seat number order
+     */
+    List<String> findAvailableSeatNumbersBySchedule(Long scheduleId);
+
+    /**
+     * Counts like {@link #countAvailableSeatsBySchedule} for several schedules in a statement or two
+     * rather than one per schedule.
+     *
+     * @return available seats by schedule id; schedules without seats are missing
+     */
+    Map<Long, Integer> countAvailableSeatsBySchedules(Collection<FlightSchedule> schedules);
+
+    /**
+     * Looks up like {@link #findAvailableSeatNumbersBySchedule} for several schedules in a statement or
+     * two rather than one per schedule.
+     *
+     * @return available seat numbers in seat number order by schedule id; schedules without any are missing
+     */
+    Map<Long, List<String>> findAvailableSeatNumbersBySchedules(Collection<FlightSchedule> schedules);
+
+    /**
+     * @return every seat of the schedule with its status, in seat number order; empty for an unknown schedule
+     */
+    List<SeatRepository.SeatStatusRef> findSeatStatusesBySchedule(Long scheduleId);
+
+    /**
+     * Makes sure the given seats of a schedule have {@code seat} rows, so they can be locked and booked.
+     * A no-op for row storage; with packed storage, missing rows for seats in the cabin layout are
+     * inserted as AVAILABLE (a seat without a row has never left that state). Unknown seat numbers are
+     * left missing for the caller to reject.
+     */
+    void materializeSeats(Long scheduleId, List<String> seatNumbers);
+}
@@ -0,0 +1,287 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.CabinLayout;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.PackedSeatStates;
+import com.acme.air.model.Seat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class SeatAvailabilityRepositoryImpl implements SeatAvailabilityRepository {
+
+    private static final String MATERIALIZE_SEAT_SQL =
+            "INSERT INTO seat (seat_number, schedule_id, status, departure_month, created_at, updated_at) " +
+                    "VALUES (:seatNumber, :scheduleId, 'AVAILABLE', :departureMonth, :now, :now) " +
+                    "ON CONFLICT (schedule_id, seat_number, departure_month) DO NOTHING";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SeatMapRepository seatMapRepository;
+    private final CabinLayoutRepository cabinLayoutRepository;
+    private final boolean packed;
+
+    public SeatAvailabilityRepositoryImpl(SeatMapRepository seatMapRepository,
+                                          CabinLayoutRepository cabinLayoutRepository,
+                                          @Value("${acme.seats.storage:rows}") String storage) {
+        this.seatMapRepository = seatMapRepository;
+        this.cabinLayoutRepository = cabinLayoutRepository;
+        this.packed = "packed".equalsIgnoreCase(storage.trim());
+    }
+
+    @Override
+    public List<Seat> findByScheduleIdAndSeatNumberIn(Long scheduleId, List<String> seatNumbers) {
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT s FROM Seat s WHERE s.schedule.id = :scheduleId AND s.departureMonth = :departureMonth " +
+                                "AND s.seatNumber IN :seatNumbers", Seat.class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("departureMonth", departureMonth.get())
+                .setParameter("seatNumbers", seatNumbers)
+                .getResultList();
+    }
+
+    @Override
+    public List<SeatRepository.SeatStatusRef> findStatusesByScheduleIdAndSeatNumberIn(Long scheduleId,
+                                                                                      Collection<String> seatNumbers) {
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT s.seatNumber, s.status FROM Seat s WHERE s.schedule.id = :scheduleId " +
+                                "AND s.departureMonth = :departureMonth AND s.seatNumber IN :seatNumbers", Object[].class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("departureMonth", departureMonth.get())
+                .setParameter("seatNumbers", seatNumbers)
+                .getResultList().stream()
+                .<SeatRepository.SeatStatusRef>map(row -> new SeatStatusRow((String) row[0], (Seat.SeatStatus) row[1]))
+                .toList();
+    }
+
+    @Override
+    public int countAvailableSeatsBySchedule(Long scheduleId) {
+        if (packed) {
+            // Schedules published before the switch have no seat map and are still counted from rows
+            Optional<Integer> available = seatMapRepository.findAvailableByScheduleId(scheduleId);
+            if (available.isPresent()) {
+                return available.get();
+            }
+        }
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery(
+                        "SELECT COUNT(s) FROM Seat s WHERE s.schedule.id = :scheduleId " +
+                                "AND s.departureMonth = :departureMonth AND s.status = 'AVAILABLE'", Long.class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("departureMonth", departureMonth.get())
+                .getSingleResult()
+                .intValue();
+    }
+
+    @Override
+    public List<String> findAvailableSeatNumbersBySchedule(Long scheduleId) {
+        if (packed) {
+            Optional<SeatMapRepository.SeatMapState> seatMap = seatMapRepository.findStateByScheduleId(scheduleId);
+            if (seatMap.isPresent()) {
+                byte[] states = seatMap.get().getStates();
+                List<String> seatNumbers = layout(seatMap.get().getLayoutId()).seatNumberList();
+                List<String> available = new ArrayList<>(seatMap.get().getAvailable());
+                for (int i = 0; i < seatNumbers.size(); i++) {
+                    if (PackedSeatStates.get(states, i) == Seat.SeatStatus.AVAILABLE) {
+                        available.add(seatNumbers.get(i));
+                    }
+                }
+                available.sort(null);
+                return available;
+            }
+        }
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT s.seatNumber FROM Seat s WHERE s.schedule.id = :scheduleId " +
+                                "AND s.departureMonth = :departureMonth AND s.status = 'AVAILABLE' " +
+                                "ORDER BY s.seatNumber", String.class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("departureMonth", departureMonth.get())
+                .getResultList();
+    }
+
+    @Override
+    public Map<Long, Integer> countAvailableSeatsBySchedules(Collection<FlightSchedule> schedules) {
+        Map<Long, Integer> available = new HashMap<>();
+        List<FlightSchedule> unpacked = new ArrayList<>(schedules);
+        if (packed && !schedules.isEmpty()) {
+            seatMapRepository.findAvailableByScheduleIdIn(scheduleIds(schedules))
+                    .forEach(seatMap -> available.put(seatMap.getScheduleId(), seatMap.getAvailable()));
+            unpacked.removeIf(schedule -> available.containsKey(schedule.getId()));
+        }
+        if (unpacked.isEmpty()) {
+            return available;
+        }
+        entityManager.createQuery(
+                        "SELECT s.schedule.id, COUNT(s) FROM Seat s WHERE s.schedule.id IN :scheduleIds " +
+                                "AND s.departureMonth IN :departureMonths AND s.status = 'AVAILABLE' " +
+                                "GROUP BY s.schedule.id", Object[].class)
+                .setParameter("scheduleIds", scheduleIds(unpacked))
+                .setParameter("departureMonths", departureMonths(unpacked))
+                .getResultList()
+                .forEach(row -> available.put((Long) row[0], ((Long) row[1]).intValue()));
+        return available;
+    }
+
+    @Override
+    public Map<Long, List<String>> findAvailableSeatNumbersBySchedules(Collection<FlightSchedule> schedules) {
+        Map<Long, List<String>> available = new HashMap<>();
+        List<FlightSchedule> unpacked = new ArrayList<>(schedules);
+        if (packed && !schedules.isEmpty()) {
+            for (SeatMapRepository.ScheduleSeatMapState seatMap
+                    : seatMapRepository.findStatesByScheduleIdIn(scheduleIds(schedules))) {
+                byte[] states = seatMap.getStates();
+                List<String> seatNumbers = layout(seatMap.getLayoutId()).seatNumberList();
+                List<String> seats = new ArrayList<>(seatMap.getAvailable());
+                for (int i = 0; i < seatNumbers.size(); i++) {
+                    if (PackedSeatStates.get(states, i) == Seat.SeatStatus.AVAILABLE) {
+                        seats.add(seatNumbers.get(i));
+                    }
+                }
+                seats.sort(null);
+                available.put(seatMap.getScheduleId(), seats);
+            }
+            unpacked.removeIf(schedule -> available.containsKey(schedule.getId()));
+        }
+        if (unpacked.isEmpty()) {
+            return available;
+        }
+        entityManager.createQuery(
+                        "SELECT s.schedule.id, s.seatNumber FROM Seat s WHERE s.schedule.id IN :scheduleIds " +
+                                "AND s.departureMonth IN :departureMonths AND s.status = 'AVAILABLE' " +
+                                "ORDER BY s.schedule.id, s.seatNumber", Object[].class)
+                .setParameter("scheduleIds", scheduleIds(unpacked))
+                .setParameter("departureMonths", departureMonths(unpacked))
+                .getResultList()
+                .forEach(row -> available.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]));
+        return available;
+    }
+
+    @Override
+    public List<SeatRepository.SeatStatusRef> findSeatStatusesBySchedule(Long scheduleId) {
+        if (packed) {
+            Optional<SeatMapRepository.SeatMapState> seatMap = seatMapRepository.findStateByScheduleId(scheduleId);
+            if (seatMap.isPresent()) {
+                byte[] states = seatMap.get().getStates();
+                List<String> seatNumbers = layout(seatMap.get().getLayoutId()).seatNumberList();
+                List<SeatRepository.SeatStatusRef> statuses = new ArrayList<>(seatNumbers.size());
+                for (int i = 0; i < seatNumbers.size(); i++) {
+                    statuses.add(new SeatStatusRow(seatNumbers.get(i), PackedSeatStates.get(states, i)));
+                }
+                statuses.sort(Comparator.comparing(SeatRepository.SeatStatusRef::getSeatNumber));
+                return statuses;
+            }
+        }
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT s.seatNumber, s.status FROM Seat s WHERE s.schedule.id = :scheduleId " +
+                                "AND s.departureMonth = :departureMonth ORDER BY s.seatNumber", Object[].class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("departureMonth", departureMonth.get())
+                .getResultList().stream()
+                .<SeatRepository.SeatStatusRef>map(row -> new SeatStatusRow((String) row[0], (Seat.SeatStatus) row[1]))
+                .toList();
+    }
+
+    @Override
+    public void materializeSeats(Long scheduleId, List<String> seatNumbers) {
+        if (!packed || seatNumbers.isEmpty()) {
+            return;
+        }
+        Optional<SeatMapRepository.SeatMapState> seatMap = seatMapRepository.findStateByScheduleId(scheduleId);
+        if (seatMap.isEmpty()) {
+            return;
+        }
+        Optional<LocalDate> departureMonth = departureMonth(scheduleId);
+        if (departureMonth.isEmpty()) {
+            return;
+        }
+        Set<String> layoutSeats = new HashSet<>(layout(seatMap.get().getLayoutId()).seatNumberList());
+        LocalDateTime now = LocalDateTime.now();
+        for (String seatNumber : seatNumbers) {
+            if (!layoutSeats.contains(seatNumber)) {
+                continue;
+            }
+            entityManager.createNativeQuery(MATERIALIZE_SEAT_SQL)
+                    .setParameter("seatNumber", seatNumber)
+                    .setParameter("scheduleId", scheduleId)
+                    .setParameter("departureMonth", departureMonth.get())
+                    .setParameter("now", now)
+                    .unwrap(NativeQuery.class)
+                    // Only the seat table changes; without this Hibernate would evict every cache region
+                    .addSynchronizedEntityClass(Seat.class)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * The partition of the schedule's seats. The schedule is normally already in the persistence context
+     * or the second-level cache, so this rarely costs a query.
+     */
+    private Optional<LocalDate> departureMonth(Long scheduleId) {
+        return Optional.ofNullable(entityManager.find(FlightSchedule.class, scheduleId))
+                .map(schedule -> FlightSchedule.departureMonth(schedule.getDepartureTime()));
+    }
+
+    private static List<Long> scheduleIds(Collection<FlightSchedule> schedules) {
+        return schedules.stream().map(FlightSchedule::getId).toList();
+    }
+
+    // The partitions the schedules' seats are in, usually just one for a day's search
+    private static Set<LocalDate> departureMonths(Collection<FlightSchedule> schedules) {
+        return schedules.stream()
+                .map(schedule -> FlightSchedule.departureMonth(schedule.getDepartureTime()))
+                .collect(Collectors.toSet());
+    }
+
+    private CabinLayout layout(Long layoutId) {
+        // Layouts are immutable and held in the second-level cache
+        return cabinLayoutRepository.findById(layoutId)
+                .orElseThrow(() -> new IllegalStateException("Seat map references missing cabin layout " + layoutId));
+    }
+
+    private record SeatStatusRow(String seatNumber, Seat.SeatStatus status) implements SeatRepository.SeatStatusRef {
+
+        @Override
+        public String getSeatNumber() {
+            return seatNumber;
+        }
+
+        @Override
+        public Seat.SeatStatus getStatus() {
+            return status;
+        }
+    }
+}
@@ -28,4 +28,66 @@ public interface SeatLockRepository extends JpaRepository<SeatLock, Long> {
     @Modifying
     @Query("UPDATE SeatLock sl SET sl.status = 'RELEASED' WHERE sl.seat.id IN :seatIds AND sl.status = 'ACTIVE'")
     void releaseLocksForSeats(@Param("seatIds") List<Long> seatIds);
+
+    @Query("SELECT sl FROM SeatLock sl JOIN FETCH sl.seat s WHERE sl.holdId = :holdId AND sl.status = 'ACTIVE'")
+    List<SeatLock> findActiveLocksByHoldId(@Param("holdId") String holdId);
+
+    /**
+     * Marks every lock of a hold CONFIRMED, provided none has expired. Returns the number of locks
+     * claimed, which is smaller than the hold size if the hold lapsed or was released concurrently.
+     */
+    @Modifying
+    @Query("UPDATE SeatLock sl SET sl.status = 'CONFIRMED' WHERE sl.holdId = :holdId AND sl.status = 'ACTIVE' AND sl.expiresAt > :now")
+    int confirmHold(@Param("holdId") String holdId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SeatLock sl SET sl.status = 'RELEASED' WHERE sl.holdId = :holdId AND sl.status = 'ACTIVE'")
+    int releaseHold(@Param("holdId") String holdId);
+
+    @Query("SELECT sl.id AS id, sl.expiresAt AS expiresAt FROM SeatLock sl WHERE sl.status = 'ACTIVE'")
+    List<LockDeadline> findActiveLockDeadlines();
+
+    @Query("SELECT sl.id AS id, sl.expiresAt AS expiresAt FROM SeatLock sl WHERE sl.status = 'ACTIVE' AND sl.expiresAt <= :now")
+    List<LockDeadline> findOverdueLockDeadlines(@Param("now") LocalDateTime now);
+
+    /**
+     * Locks the seats of the given locks that are still ACTIVE but past their expiry, in id order so
+     * concurrent sweepers and bookings cannot deadlock. Statements issued afterwards in the same
+     * transaction see any lock committed on these seats in the meantime.
+     */
+    @Query(value = "SELECT s.id FROM seat s WHERE s.id IN (SELECT sl.seat_id FROM seat_lock sl " +
+            "WHERE sl.id IN :lockIds AND sl.status = 'ACTIVE' AND sl.expires_at <= :now) ORDER BY s.id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockSeatsOfExpiredLocks(@Param("lockIds") List<Long> lockIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SeatLock sl SET sl.status = 'EXPIRED' WHERE sl.id IN :lockIds AND sl.status = 'ACTIVE' AND sl.expiresAt <= :now")
+    int expireLocks(@Param("lockIds") List<Long> lockIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves up to {@code batchSize} terminal locks taken before {@code cutoff} into
+     * {@code seat_lock_archive} in one statement. Rows locked by another transaction are skipped, so
+     * the job never waits on live traffic.
+     */
+    @Modifying
+    @Query(value = "WITH batch AS (SELECT id FROM seat_lock WHERE status <> 'ACTIVE' AND locked_at < :cutoff " +
+            "ORDER BY locked_at LIMIT :batchSize FOR UPDATE SKIP LOCKED), " +
+            "moved AS (DELETE FROM seat_lock sl USING batch WHERE sl.id = batch.id " +
+            "RETURNING sl.id, sl.seat_id, sl.passenger_id, sl.session_id, sl.hold_id, sl.locked_at, sl.expires_at, sl.status) " +
+            "INSERT INTO seat_lock_archive (id, seat_id, passenger_id, session_id, hold_id, locked_at, expires_at, status, archived_at) " +
+            "SELECT id, seat_id, passenger_id, session_id, hold_id, locked_at, expires_at, status, now() FROM moved",
+            nativeQuery = true)
+    int archiveTerminalLocks(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "DELETE FROM seat_lock WHERE id IN (SELECT id FROM seat_lock WHERE status <> 'ACTIVE' " +
+            "AND locked_at < :cutoff ORDER BY locked_at LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteTerminalLocks(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    interface LockDeadline {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
 }
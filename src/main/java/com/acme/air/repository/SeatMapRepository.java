@@ -0,0 +1,71 @@
+package com.acme.air.repository;
+
+import com.acme.air.model.SeatMap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SeatMapRepository extends JpaRepository<SeatMap, Long> {
+
+    @Query("SELECT m.available FROM SeatMap m WHERE m.scheduleId = :scheduleId")
+    Optional<Integer> findAvailableByScheduleId(@Param("scheduleId") Long scheduleId);
+
+    @Query("SELECT m.scheduleId AS scheduleId, m.available AS available FROM SeatMap m " +
+            "WHERE m.scheduleId IN :scheduleIds")
+    List<SeatMapAvailability> findAvailableByScheduleIdIn(@Param("scheduleIds") Collection<Long> scheduleIds);
+
+    // A projection rather than the entity, so a re-read after compareAndSet is never served stale
+    // from the persistence context
+    @Query("SELECT m.layout.id AS layoutId, m.states AS states, m.available AS available, m.version AS version " +
+            "FROM SeatMap m WHERE m.scheduleId = :scheduleId")
+    Optional<SeatMapState> findStateByScheduleId(@Param("scheduleId") Long scheduleId);
+
+    @Query("SELECT m.scheduleId AS scheduleId, m.layout.id AS layoutId, m.states AS states, " +
+            "m.available AS available, m.version AS version FROM SeatMap m WHERE m.scheduleId IN :scheduleIds")
+    List<ScheduleSeatMapState> findStatesByScheduleIdIn(@Param("scheduleIds") Collection<Long> scheduleIds);
+
+    @Query("SELECT m.scheduleId FROM SeatMap m WHERE m.scheduleId IN " +
+            "(SELECT fs.id FROM FlightSchedule fs WHERE fs.departureTime > :after)")
+    List<Long> findScheduleIdsDepartingAfter(@Param("after") ZonedDateTime after);
+
+    /**
+     * Replaces the packed states if nobody else has changed the map since {@code version} was read.
+     *
+     * @return 1 if the update won, 0 if the caller must re-read and retry
+     */
+    @Modifying
+    @Query("UPDATE SeatMap m SET m.states = :states, m.available = :available, m.version = m.version + 1 " +
+            "WHERE m.scheduleId = :scheduleId AND m.version = :version")
+    int compareAndSet(@Param("scheduleId") Long scheduleId,
+                      @Param("version") Long version,
+                      @Param("states") byte[] states,
+                      @Param("available") int available);
+
+    interface SeatMapState {
+        Long getLayoutId();
+
+        byte[] getStates();
+
+        Integer getAvailable();
+
+        Long getVersion();
+    }
+
+    interface ScheduleSeatMapState extends SeatMapState {
+        Long getScheduleId();
+    }
+
+    interface SeatMapAvailability {
+        Long getScheduleId();
+
+        Integer getAvailable();
+    }
+}
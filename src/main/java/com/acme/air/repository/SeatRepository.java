@@ -4,26 +4,61 @@ import com.acme.air.model.Seat;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SeatRepository extends JpaRepository<Seat, Long> {
-    @Query("SELECT COUNT(s) FROM Seat s WHERE s.schedule.id = :scheduleId AND s.status = 'AVAILABLE'")
-    int countAvailableSeatsBySchedule(@Param("scheduleId") Long scheduleId);
+public interface SeatRepository extends JpaRepository<Seat, Long>, SeatAvailabilityRepository {
 
-    @Query("SELECT s.seatNumber FROM Seat s WHERE s.schedule.id = :scheduleId AND s.status = 'AVAILABLE' ORDER BY s.seatNumber")
-    List<String> findAvailableSeatNumbersBySchedule(@Param("scheduleId") Long scheduleId);
+    @Modifying
+    @Query("UPDATE Seat s SET s.status = 'AVAILABLE' WHERE s.id IN :seatIds AND s.status = 'BOOKED'")
+    int releaseBookedSeats(@Param("seatIds") List<Long> seatIds);
 
-    @Query("SELECT s FROM Seat s WHERE s.schedule.id = :scheduleId AND s.seatNumber IN :seatNumbers")
-    List<Seat> findByScheduleIdAndSeatNumberIn(@Param("scheduleId") Long scheduleId,
-                                               @Param("seatNumbers") List<String> seatNumbers);
+    /**
+     * Locks the seats among the given ones that are still BOOKED, so exactly those can be released.
+     */
+    @Query(value = "SELECT s.id AS id, s.schedule_id AS scheduleId, s.seat_number AS seatNumber FROM seat s " +
+            "WHERE s.id IN :seatIds AND s.status = 'BOOKED' FOR UPDATE", nativeQuery = true)
+    List<SeatRef> lockBookedSeats(@Param("seatIds") List<Long> seatIds);
+
+    @Modifying
+    @Query("UPDATE Seat s SET s.status = 'AVAILABLE' WHERE s.status = 'LOCKED' AND s.id IN " +
+            "(SELECT sl.seat.id FROM SeatLock sl WHERE sl.holdId = :holdId AND sl.status = 'ACTIVE')")
+    int releaseSeatsLockedByHold(@Param("holdId") String holdId);
+
+    /**
+     * Seats among the given ones that are LOCKED without any live lock left, i.e. whose holds lapsed.
+     */
+    @Query("SELECT s.id AS id, s.schedule.id AS scheduleId, s.seatNumber AS seatNumber FROM Seat s " +
+            "WHERE s.id IN :seatIds AND s.status = 'LOCKED' AND NOT EXISTS " +
+            "(SELECT sl.id FROM SeatLock sl WHERE sl.seat = s AND sl.status = 'ACTIVE' AND sl.expiresAt > :now)")
+    List<SeatRef> findLockedSeatsWithoutLiveLock(@Param("seatIds") List<Long> seatIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Seat s SET s.status = 'AVAILABLE' WHERE s.id IN :seatIds AND s.status = 'LOCKED'")
+    int releaseLockedSeats(@Param("seatIds") List<Long> seatIds);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Seat s WHERE s.id = :seatId")
     Optional<Seat> findByIdForUpdate(@Param("seatId") Long seatId);
+
+    interface SeatRef {
+        Long getId();
+
+        Long getScheduleId();
+
+        String getSeatNumber();
+    }
+
+    interface SeatStatusRef {
+        String getSeatNumber();
+
+        Seat.SeatStatus getStatus();
+    }
 }
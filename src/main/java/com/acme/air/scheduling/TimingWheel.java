@@ -0,0 +1,139 @@
+package com.acme.air.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of deadlines with coarse precision. Adding a deadline
+ * is O(1); advancing the clock costs one bucket per elapsed tick, no matter how many deadlines are
+ * pending. Deadlines beyond the range of a wheel go to an overflow wheel whose tick is the full range
+ * of the wheel below it. When an overflow bucket comes due, its entries cascade down into the finer wheels.
+ * <p>
+ * Deadlines are rounded <em>up</em> to the tick, so an entry is never reported before its deadline
+ * and at most one tick after it. The wheel is not thread-safe; callers synchronise access.
+ */
+public final class TimingWheel<T> {
+
+    public record Entry<T>(T item, long deadlineMillis) {}
+
+    private final Level root;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel must have at least 2 buckets");
+        }
+        this.root = new Level(tickMillis, wheelSize, startMillis - Math.floorMod(startMillis, tickMillis));
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @return {@code false} if the deadline has already passed; the item is then not stored and the
+     *         caller should handle it immediately
+     */
+    public boolean add(T item, long deadlineMillis) {
+        long tick = root.tickMillis;
+        long rounded = Math.floorDiv(deadlineMillis + tick - 1, tick) * tick;
+        if (!root.add(new Entry<>(item, rounded), deadlineMillis)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis} and returns every entry that came due.
+     */
+    public List<Entry<T>> advance(long nowMillis) {
+        List<Entry<T>> due = new ArrayList<>();
+        root.advance(nowMillis, due);
+        size -= due.size();
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private final class Level {
+
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long intervalMillis;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tickMillis, int wheelSize, long currentTime) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.currentTime = currentTime;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * Stores an entry whose tick-aligned deadline is at least one tick ahead of this level's clock.
+         * Entries keep their original deadline so cascades and lag measurements stay exact.
+         */
+        private boolean add(Entry<T> rounded, long originalDeadline) {
+            long deadline = rounded.deadlineMillis();
+            if (deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (deadline < currentTime + intervalMillis) {
+                int index = (int) Math.floorMod(Math.floorDiv(deadline, tickMillis), (long) wheelSize);
+                buckets.get(index).add(new Entry<>(rounded.item(), originalDeadline));
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(intervalMillis, wheelSize, currentTime - Math.floorMod(currentTime, intervalMillis));
+            }
+            return overflow.add(rounded, originalDeadline);
+        }
+
+        private void advance(long nowMillis, List<Entry<T>> due) {
+            while (currentTime + tickMillis <= nowMillis) {
+                currentTime += tickMillis;
+                // Pull down entries from coarser wheels first: some of them may be due at this very tick
+                if (overflow != null) {
+                    overflow.cascade(currentTime, this, due);
+                }
+                drain(buckets.get(bucketIndex(currentTime)), due);
+            }
+        }
+
+        private void cascade(long targetTime, Level rootLevel, List<Entry<T>> due) {
+            while (currentTime + tickMillis <= targetTime) {
+                currentTime += tickMillis;
+                if (overflow != null) {
+                    overflow.cascade(currentTime, rootLevel, due);
+                }
+                List<Entry<T>> bucket = buckets.get(bucketIndex(currentTime));
+                List<Entry<T>> entries = new ArrayList<>(bucket);
+                bucket.clear();
+                for (Entry<T> entry : entries) {
+                    long deadline = entry.deadlineMillis();
+                    long tick = rootLevel.tickMillis;
+                    Entry<T> rounded = new Entry<>(entry.item(), Math.floorDiv(deadline + tick - 1, tick) * tick);
+                    if (!rootLevel.add(rounded, deadline)) {
+                        due.add(entry);
+                    }
+                }
+            }
+        }
+
+        private void drain(List<Entry<T>> bucket, List<Entry<T>> due) {
+            due.addAll(bucket);
+            bucket.clear();
+        }
+
+        private int bucketIndex(long time) {
+            return (int) Math.floorMod(Math.floorDiv(time, tickMillis), (long) wheelSize);
+        }
+    }
+}
@@ -1,23 +1,31 @@
 package com.acme.air.service;
 
+import com.acme.air.admission.ConcurrencyLimited;
 import com.acme.air.dto.BookingRequest;
 import com.acme.air.dto.BookingResponse;
+import com.acme.air.event.BookingConfirmedEvent;
+import com.acme.air.event.SeatInventoryChangedEvent;
 import com.acme.air.exception.BookingConflictException;
 import com.acme.air.exception.ResourceNotFoundException;
 import com.acme.air.exception.SeatUnavailableException;
+import com.acme.air.metrics.BookingMetrics;
 import com.acme.air.model.*;
 import com.acme.air.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
@@ -38,6 +46,10 @@ public class BookingService {
     private final BookingItemRepository bookingItemRepository;
     private final BookingIdGenerator bookingIdGenerator;
     private final SeatLockService seatLockService;
+    private final SeatHoldService seatHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingMetrics bookingMetrics;
+    private final PlatformTransactionManager transactionManager;
 
     private static final int MAX_PASSENGERS_PER_BOOKING = 3;
     private static final int MIN_BOOKING_HOURS_BEFORE_DEPARTURE = 2;
@@ -45,53 +57,159 @@ public class BookingService {
     /**
      * Creates a new booking for one or more passengers on a flight
      * Handles all edge cases including seat conflicts, double bookings, flight validation
+     * Runs in a SERIALIZABLE transaction; its outcome is recorded in {@link BookingMetrics} after commit
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE, propagation = Propagation.REQUIRED,
-            rollbackFor = Exception.class)
+    @ConcurrencyLimited("booking")
     public BookingResponse createBooking(BookingRequest request, String sessionId) {
         log.info("Creating booking for flight schedule {} with {} passengers",
                 request.flightScheduleId(), request.passengers().size());
 
+        BookingMetrics.Recording metrics = bookingMetrics.start(request.flightScheduleId());
+        try {
+            BookingResponse response = bookingTransaction()
+                    .execute(status -> createBookingInTransaction(request, sessionId, metrics));
+            // Recorded once committed: serialization failures under SERIALIZABLE often only surface on commit
+            metrics.success();
+            return response;
+        } catch (RuntimeException e) {
+            // Logged once by GlobalExceptionHandler: rate-limited for rejections and serialization failures,
+            // with the stack otherwise
+            metrics.failure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The SERIALIZABLE transaction a booking runs in; joins the caller's transaction if there is one.
+     */
+    private TransactionTemplate bookingTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return transaction;
+    }
+
+    private BookingResponse createBookingInTransaction(BookingRequest request, String sessionId,
+                                                       BookingMetrics.Recording metrics) {
         // Debug: Check transaction status at start
         log.debug("Transaction active at start: {}",
                 TransactionSynchronizationManager.isActualTransactionActive());
 
         try {
             // All validation and business logic here...
-            validateBookingRequest(request);
-            FlightSchedule schedule = getAndValidateFlightSchedule(request.flightScheduleId());
-            List<Passenger> passengers = processPassengers(request.passengers());
-            List<Seat> seats = validateAndLockSeats(request, schedule, sessionId);
-            validateNoDuplicateBookings(passengers, schedule);
-            validateFlightCapacity(schedule, seats.size());
+            metrics.phase("validate_request", () -> validateBookingRequest(request));
+            FlightSchedule schedule = metrics.phase("load_schedule",
+                    () -> getAndValidateFlightSchedule(request.flightScheduleId()));
+            List<Passenger> passengers = metrics.phase("process_passengers",
+                    () -> processPassengers(request.passengers()));
+            // Seats held beforehand are already locked for this session and only need to be claimed
+            List<Seat> seats = request.holdId() != null
+                    ? metrics.phase("claim_hold", () -> claimHeldSeats(request, schedule, sessionId))
+                    : metrics.phase("validate_and_lock_seats",
+                            () -> validateAndLockSeats(request, schedule, sessionId, metrics));
+            metrics.phase("validate_no_duplicate_bookings", () -> validateNoDuplicateBookings(passengers, schedule));
+            metrics.phase("validate_capacity", () -> validateFlightCapacity(schedule, seats.size()));
 
             // Debug: Check transaction status before calling createBookingForPassengers
             log.debug("Transaction active before creating booking: {}",
                     TransactionSynchronizationManager.isActualTransactionActive());
 
             // Create booking (participates in main transaction)
-            Booking booking = createBookingForPassengers(passengers, seats, schedule, request);
-            Payment payment = createPaymentRecord(booking, request.payment());
+            Booking booking = metrics.phase("create_booking",
+                    () -> createBookingForPassengers(passengers, seats, schedule, request));
+            Payment payment = metrics.phase("create_payment", () -> createPaymentRecord(booking, request.payment()));
             booking.setPayment(payment);
-            confirmSeatsAndReleaseLocks(seats, sessionId);
-
-            // Send async confirmation notifications
+            metrics.phase("confirm_seats", () -> confirmSeatsAndReleaseLocks(seats, sessionId));
+            eventPublisher.publishEvent(new SeatInventoryChangedEvent(schedule.getId(),
+                    seats.stream().map(Seat::getSeatNumber).toList(), Seat.SeatStatus.BOOKED));
+
+            // Confirmation notifications go out asynchronously via the outbox relay
+            eventPublisher.publishEvent(new BookingConfirmedEvent(
+                    booking.getBookingReference(),
+                    schedule.getId(),
+                    schedule.getFlight().getFlightCode(),
+                    schedule.getDepartureTime(),
+                    passengers.stream().map(Passenger::getEmail).toList(),
+                    payment.getTotalAmountPaid(),
+                    payment.getCurrency(),
+                    Instant.now()));
 
             BookingResponse response = buildBookingResponse(booking);
             log.info("Successfully created booking {} for {} passengers on flight {}",
                     response.bookingId(), passengers.size(), schedule.getFlight().getFlightCode());
-
             return response;
 
         } catch (Exception e) {
-            log.error("Failed to create booking for flight schedule {}: {}",
-                    request.flightScheduleId(), e.getMessage(), e);
             // Cleanup: release any locks that might have been created
             cleanupFailedBooking(request, sessionId);
             throw e;
         }
     }
 
+    /**
+     * Retrieves a booking by reference. Items, passengers, seats and payment are fetched
+     * in one query so rendering the response never triggers lazy loading.
+     */
+    @Transactional(readOnly = true)
+    public BookingResponse getBooking(String bookingReference) {
+        Booking booking = bookingRepository.findWithDetailsByBookingReference(bookingReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found: " + bookingReference));
+        return buildBookingResponse(booking);
+    }
+
+    /**
+     * Cancels a confirmed booking: its seats go back to AVAILABLE in one bulk update, the booking
+     * becomes CANCELLED and a successful payment is marked REFUNDED.
+     * The booking row is locked first, so two concurrent cancellations cannot both release the seats.
+     * Only seats still BOOKED are released and announced as AVAILABLE; one that already left that
+     * state, e.g. released by hand, is left alone. The check is on the seat's status only, not on which
+     * booking holds it.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public BookingResponse cancelBooking(String bookingReference) {
+        log.info("Cancelling booking {}", bookingReference);
+
+        bookingRepository.findByBookingReferenceForUpdate(bookingReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found: " + bookingReference));
+        Booking booking = bookingRepository.findWithDetailsByBookingReference(bookingReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found: " + bookingReference));
+
+        if (booking.getStatus() != Booking.BookingStatus.CONFIRMED) {
+            throw new BookingConflictException(
+                    String.format("Booking %s cannot be cancelled - current status is %s",
+                            bookingReference, booking.getStatus()));
+        }
+        if (booking.getDepartureTime().isBefore(ZonedDateTime.now())) {
+            throw new IllegalArgumentException("Cannot cancel a booking for a flight that has already departed");
+        }
+
+        List<Long> seatIds = booking.getBookingItems().stream()
+                .map(item -> item.getSeat().getId())
+                .toList();
+        List<SeatRepository.SeatRef> released = seatRepository.lockBookedSeats(seatIds);
+        if (released.size() != seatIds.size()) {
+            log.warn("Booking {} held {} seats but only {} were still BOOKED",
+                    bookingReference, seatIds.size(), released.size());
+        }
+        if (!released.isEmpty()) {
+            seatRepository.releaseBookedSeats(released.stream().map(SeatRepository.SeatRef::getId).toList());
+        }
+
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        Payment payment = booking.getPayment();
+        if (payment != null && payment.getStatus() == Payment.PaymentStatus.SUCCESS) {
+            payment.setStatus(Payment.PaymentStatus.REFUNDED);
+        }
+        bookingRepository.save(booking);
+
+        if (!released.isEmpty()) {
+            eventPublisher.publishEvent(new SeatInventoryChangedEvent(booking.getSchedule().getId(),
+                    released.stream().map(SeatRepository.SeatRef::getSeatNumber).toList(), Seat.SeatStatus.AVAILABLE));
+        }
+
+        log.info("Cancelled booking {} and released {} seats", bookingReference, released.size());
+        return buildBookingResponse(booking);
+    }
+
     private void validateBookingRequest(BookingRequest request) {
         if (request.passengers() == null || request.passengers().isEmpty()) {
             throw new IllegalArgumentException("At least one passenger is required");
@@ -173,10 +291,12 @@ public class BookingService {
         return passengerRepository.save(passenger);
     }
 
-    private List<Seat> validateAndLockSeats(BookingRequest request, FlightSchedule schedule, String sessionId) {
+    private List<Seat> validateAndLockSeats(BookingRequest request, FlightSchedule schedule, String sessionId,
+                                            BookingMetrics.Recording metrics) {
         List<String> requestedSeatNumbers = request.passengers().stream()
                 .map(p -> p.selectedSeatNumber().toUpperCase())
                 .collect(Collectors.toList());
+        seatRepository.materializeSeats(schedule.getId(), requestedSeatNumbers);
         List<Seat> requestedSeats = seatRepository.findByScheduleIdAndSeatNumberIn(
                 schedule.getId(), requestedSeatNumbers);
         if (requestedSeats.size() != requestedSeatNumbers.size()) {
@@ -188,37 +308,37 @@ public class BookingService {
             throw new ResourceNotFoundException("Invalid seat numbers for this flight: " + missingSeats);
         }
         // Atomically lock seats to prevent race conditions
-        return lockSeatsAtomically(requestedSeats, sessionId);
+        return lockSeatsAtomically(requestedSeats, sessionId, metrics);
+    }
+
+    private List<Seat> claimHeldSeats(BookingRequest request, FlightSchedule schedule, String sessionId) {
+        List<String> requestedSeatNumbers = request.passengers().stream()
+                .map(BookingRequest.PassengerDTO::selectedSeatNumber)
+                .collect(Collectors.toList());
+        return seatHoldService.claimHold(request.holdId(), sessionId, schedule.getId(), requestedSeatNumbers);
     }
 
-    private List<Seat> lockSeatsAtomically(List<Seat> seats, String sessionId) {
+    private List<Seat> lockSeatsAtomically(List<Seat> seats, String sessionId, BookingMetrics.Recording metrics) {
         List<Seat> lockedSeats = new ArrayList<>();
-        try {
-            for (Seat seat : seats) {
-                // Use SELECT FOR UPDATE to prevent race conditions
-                Seat currentSeat = seatRepository.findByIdForUpdate(seat.getId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + seat.getSeatNumber()));
-                if (currentSeat.getStatus() != Seat.SeatStatus.AVAILABLE) {
-                    throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is not available");
-                }
-                // Check for active locks by other sessions
-                Optional<SeatLock> existingLock = seatLockRepository.findActiveLockBySeatId(currentSeat.getId(), LocalDateTime.now());
-                if (existingLock.isPresent() && !existingLock.get().getSessionId().equals(sessionId)) {
-                    throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is temporarily reserved by another user");
-                }
-                // Lock the seat
-                currentSeat.setStatus(Seat.SeatStatus.LOCKED);
-                seatRepository.save(currentSeat);
-                // Create/update seat lock record
-                seatLockService.createOrUpdateSeatLock(currentSeat, sessionId);
-                lockedSeats.add(currentSeat);
+        for (Seat seat : seats) {
+            // SELECT FOR UPDATE holds the row until the booking commits, so the seat is not also marked
+            // LOCKED: nobody else could see that status before confirmSeatsAndReleaseLocks books it, and
+            // it would cost a second update of every seat
+            Seat currentSeat = metrics.lockWait(() -> seatRepository.findByIdForUpdate(seat.getId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + seat.getSeatNumber()));
+            if (currentSeat.getStatus() != Seat.SeatStatus.AVAILABLE) {
+                throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is not available");
             }
-            return lockedSeats;
-        } catch (Exception e) {
-            // Release any seats we managed to lock
-            releaseSeats(lockedSeats);
-            throw e;
+            // Check for active locks by other sessions
+            Optional<SeatLock> existingLock = seatLockRepository.findActiveLockBySeatId(currentSeat.getId(), LocalDateTime.now());
+            if (existingLock.isPresent() && !existingLock.get().getSessionId().equals(sessionId)) {
+                throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is temporarily reserved by another user");
+            }
+            // Create/update seat lock record
+            seatLockService.createOrUpdateSeatLock(currentSeat, sessionId);
+            lockedSeats.add(currentSeat);
         }
+        return lockedSeats;
     }
 
     private void validateNoDuplicateBookings(List<Passenger> passengers, FlightSchedule schedule) {
@@ -257,12 +377,12 @@ public class BookingService {
             throw new IllegalStateException("Passenger count must match seat count");
         }
         try {
-            schedule = flightScheduleRepository.findById(schedule.getId())
-                    .orElseThrow(() -> new RuntimeException("Schedule not found"));
-
+            // schedule is already managed: it was loaded by getAndValidateFlightSchedule in this transaction
             Booking booking = new Booking();
             booking.setBookingReference(bookingIdGenerator.generateBookingReference());
             booking.setSchedule(schedule);
+            booking.setFlightNumber(schedule.getFlight().getFlightCode());
+            booking.setDepartureTime(schedule.getDepartureTime());
             booking.setBookingTime(ZonedDateTime.now());
             booking.setStatus(Booking.BookingStatus.CONFIRMED);
             booking = bookingRepository.saveAndFlush(booking);
@@ -279,12 +399,9 @@ public class BookingService {
                     booking.getBookingReference(), bookingItems.size());
             return booking;
         } catch (DataIntegrityViolationException e) {
-            log.error("Data integrity violation while creating booking", e);
+            log.debug("Data integrity violation while creating booking: {}", e.getMostSpecificCause().getMessage());
             throw new BookingConflictException(
-                    "Booking conflict detected - one or more passengers may already be booked on this flight");
-        } catch (Exception e) {
-            log.error("Unexpected error while creating booking", e);
-            throw new BookingConflictException("Failed to create booking: " + e.getMessage());
+                    "Booking conflict detected - one or more passengers may already be booked on this flight", e);
         }
     }
 
@@ -304,16 +421,17 @@ public class BookingService {
             item.setBooking(booking);
             item.setPassenger(passenger);
             item.setSeat(seat);
+            item.setSeatNumber(seat.getSeatNumber());
             BookingItem savedItem = bookingItemRepository.saveAndFlush(item);
             log.debug("Created booking item for passenger {} on seat {}",
                     passenger.getPassportNumber(), seat.getSeatNumber());
             return savedItem;
         } catch (DataIntegrityViolationException e) {
-            log.error("Data integrity violation while creating booking item for passenger {}",
-                    passenger.getPassportNumber(), e);
+            log.debug("Data integrity violation while creating booking item for passenger {}: {}",
+                    passenger.getPassportNumber(), e.getMostSpecificCause().getMessage());
             throw new BookingConflictException(
                     String.format("Booking conflict for passenger %s %s - may already be booked on this flight",
-                            passenger.getFirstName(), passenger.getLastName()));
+                            passenger.getFirstName(), passenger.getLastName()), e);
         }
     }
 
@@ -347,7 +465,7 @@ public class BookingService {
                         item.getPassenger().getFirstName(),
                         item.getPassenger().getLastName(),
                         item.getPassenger().getEmail(),
-                        item.getSeat().getSeatNumber()
+                        item.getSeatNumber()
                 ))
                 .collect(Collectors.toList());
         BookingResponse.PaymentInfoDTO paymentInfo = new BookingResponse.PaymentInfoDTO(
@@ -358,8 +476,8 @@ public class BookingService {
         return new BookingResponse(
                 booking.getBookingReference(),
                 booking.getStatus().name(),
-                booking.getSchedule().getFlight().getFlightCode(),
-                booking.getSchedule().getDepartureTime(),
+                booking.getFlightNumber(),
+                booking.getDepartureTime(),
                 passengerSeats,
                 paymentInfo,
                 booking.getBookingTime().toLocalDate()
@@ -377,15 +495,4 @@ public class BookingService {
             log.error("Failed to cleanup failed booking for session: {}", sessionId, e);
         }
     }
-
-    private void releaseSeats(List<Seat> seats) {
-        for (Seat seat : seats) {
-            try {
-                seat.setStatus(Seat.SeatStatus.AVAILABLE);
-                seatRepository.save(seat);
-            } catch (Exception e) {
-                log.error("Failed to release seat: {}", seat.getSeatNumber(), e);
-            }
-        }
-    }
 }
@@ -1,8 +1,11 @@
 package com.acme.air.service;
 
+import com.acme.air.admission.ConcurrencyLimited;
+import com.acme.air.datasource.ReadFromReplica;
 import com.acme.air.dto.FlightSearchResponse;
 import com.acme.air.exception.ResourceNotFoundException;
 import com.acme.air.model.Airport;
+import com.acme.air.model.Flight;
 import com.acme.air.model.FlightSchedule;
 import com.acme.air.repository.AirportRepository;
 import com.acme.air.repository.FlightScheduleRepository;
@@ -11,13 +14,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class FlightService {
@@ -33,9 +39,28 @@ public class FlightService {
     @Autowired
     private SeatRepository seatRepository;
 
+    // Served by the read replica when one is configured; search tolerates a few seconds of lag
+    @ConcurrencyLimited("search")
+    @ReadFromReplica
+    @Transactional(readOnly = true)
     public FlightSearchResponse searchFlights(String origin, String destination,
                                               LocalDate departureDate, LocalDate returnDate,
                                               int numberOfPassengers) {
+        return searchFlights(origin, destination, departureDate, returnDate, numberOfPassengers,
+                FlightSearchResponse.Field.all());
+    }
+
+    /**
+     * Searches like {@link #searchFlights(String, String, LocalDate, LocalDate, int)} but only fills in
+     * the given fields of each flight; the others are null and never computed. The result is fully loaded,
+     * so callers write the response after the transaction and the concurrency permit have been released.
+     */
+    @ConcurrencyLimited("search")
+    @ReadFromReplica
+    @Transactional(readOnly = true)
+    public FlightSearchResponse searchFlights(String origin, String destination,
+                                              LocalDate departureDate, LocalDate returnDate,
+                                              int numberOfPassengers, Set<FlightSearchResponse.Field> fields) {
 
         logger.info("Searching flights: {} -> {}, departure: {}, passengers: {}",
                 origin, destination, departureDate, numberOfPassengers);
@@ -46,30 +71,25 @@ public class FlightService {
         // Validate airport codes exist
         validateAirportCodes(origin, destination);
 
-        // Search for outbound flights
-        List<FlightSearchResponse.FlightDTO> outboundFlights = searchOneWayFlights(origin, destination, departureDate, numberOfPassengers);
-
-        // For round-trip, search return flights
-        List<FlightSearchResponse.FlightDTO> returnFlights = null;
+        // Only outbound flights are returned for now; return flights would need combining into itineraries
         if (returnDate != null) {
-            logger.info("Searching return flights: {} -> {}, return: {}", destination, origin, returnDate);
-            returnFlights = searchOneWayFlights(destination, origin, returnDate, numberOfPassengers);
+            logger.info("Return date {} given; returning outbound flights {} -> {} only", returnDate, origin, destination);
         }
 
-        // Combine results - for now just return outbound flights
-        // In a real system, you might want to create flight combinations
-        List<FlightSearchResponse.FlightDTO> allFlights = outboundFlights;
+        List<FlightSearchResponse.FlightDTO> flights =
+                searchOneWayFlights(origin, destination, departureDate, numberOfPassengers, fields);
 
-        logger.info("Found {} flights for search criteria", allFlights.size());
+        logger.info("Found {} flights for search criteria", flights.size());
 
-        if (allFlights.isEmpty()) {
+        if (flights.isEmpty()) {
             throw new ResourceNotFoundException("No flights found matching the search criteria");
         }
 
-        return new FlightSearchResponse(allFlights);
+        return new FlightSearchResponse(flights);
     }
 
-    private void validateSearchCriteria(String origin, String destination, LocalDate departureDate, int numberOfPassengers) {
+    // Shared with ReactiveFlightService, so both search variants reject the same requests
+    static void validateSearchCriteria(String origin, String destination, LocalDate departureDate, int numberOfPassengers) {
         if (origin == null || origin.trim().isEmpty()) {
             throw new IllegalArgumentException("Origin airport code is required");
         }
@@ -108,7 +128,7 @@ public class FlightService {
         }
     }
 
-    private boolean isValidIATACode(String code) {
+    private static boolean isValidIATACode(String code) {
         return code != null && code.matches("^[A-Z]{3}$");
     }
 
@@ -124,7 +144,8 @@ public class FlightService {
     }
 
     private List<FlightSearchResponse.FlightDTO> searchOneWayFlights(String origin, String destination,
-                                                                     LocalDate departureDate, int numberOfPassengers) {
+                                                                     LocalDate departureDate, int numberOfPassengers,
+                                                                     Set<FlightSearchResponse.Field> fields) {
 
         // Get start and end of the departure date in the system timezone
         ZonedDateTime startOfDay = departureDate.atStartOfDay(ZonedDateTime.now().getZone());
@@ -139,15 +160,34 @@ public class FlightService {
 
         logger.debug("Found {} flight schedules for route", schedules.size());
 
-        // Filter schedules that have enough available seats and convert to DTOs
-        return schedules.stream()
-                .filter(schedule -> hasEnoughAvailableSeats(schedule, numberOfPassengers))
-                .map(schedule -> mapToFlightDTO(schedule, numberOfPassengers))
-                .collect(Collectors.toList());
+        if (schedules.isEmpty()) {
+            return List.of();
+        }
+        // Availability of every schedule in one go rather than a query per schedule
+        Map<Long, Integer> availableSeats = seatRepository.countAvailableSeatsBySchedules(schedules);
+        List<FlightSchedule> matching = schedules.stream()
+                .filter(schedule -> hasEnoughAvailableSeats(schedule,
+                        availableSeats.getOrDefault(schedule.getId(), 0), numberOfPassengers))
+                .toList();
+
+        // Seat numbers are the expensive part, only looked up when asked for and only for matching flights
+        Map<Long, List<String>> availableSeatNumbers =
+                fields.contains(FlightSearchResponse.Field.AVAILABLE_SEAT_NUMBERS) && !matching.isEmpty()
+                        ? seatRepository.findAvailableSeatNumbersBySchedules(matching)
+                        : null;
+
+        List<FlightSearchResponse.FlightDTO> flights = new ArrayList<>(matching.size());
+        for (FlightSchedule schedule : matching) {
+            List<String> seatNumbers = availableSeatNumbers == null
+                    ? null
+                    : availableSeatNumbers.getOrDefault(schedule.getId(), List.of());
+            flights.add(mapToFlightDTO(schedule, numberOfPassengers,
+                    availableSeats.getOrDefault(schedule.getId(), 0), seatNumbers, fields));
+        }
+        return flights;
     }
 
-    private boolean hasEnoughAvailableSeats(FlightSchedule schedule, int numberOfPassengers) {
-        int availableSeats = seatRepository.countAvailableSeatsBySchedule(schedule.getId());
+    private boolean hasEnoughAvailableSeats(FlightSchedule schedule, int availableSeats, int numberOfPassengers) {
         boolean hasEnough = availableSeats >= numberOfPassengers;
 
         if (!hasEnough) {
@@ -158,34 +198,45 @@ public class FlightService {
         return hasEnough;
     }
 
-    private FlightSearchResponse.FlightDTO mapToFlightDTO(FlightSchedule schedule, int numberOfPassengers) {
-        // Get available seat numbers
-        List<String> availableSeatNumbers = seatRepository.findAvailableSeatNumbersBySchedule(schedule.getId());
-        int availableSeats = availableSeatNumbers.size();
+    private FlightSearchResponse.FlightDTO mapToFlightDTO(FlightSchedule schedule, int numberOfPassengers,
+                                                          int availableSeats, List<String> availableSeatNumbers,
+                                                          Set<FlightSearchResponse.Field> fields) {
+        // Counted together with the numbers when they were looked up, so the two always agree
+        if (availableSeatNumbers != null) {
+            availableSeats = availableSeatNumbers.size();
+        }
 
         // Calculate pricing
         BigDecimal pricePerSeat = schedule.getPrice();
-        BigDecimal totalPrice = pricePerSeat.multiply(BigDecimal.valueOf(numberOfPassengers));
-
-        Airport origin = schedule.getFlight().getOrigin();
-        Airport destination = schedule.getFlight().getDestination();
-
-        ZoneId originZone = ZoneId.of(origin.getTimezoneId());
-        ZoneId destinationZone = ZoneId.of(destination.getTimezoneId());
+        BigDecimal totalPrice = fields.contains(FlightSearchResponse.Field.TOTAL_PRICE)
+                ? pricePerSeat.multiply(BigDecimal.valueOf(numberOfPassengers))
+                : null;
+
+        Flight flight = schedule.getFlight();
+        ZonedDateTime departureTime = fields.contains(FlightSearchResponse.Field.DEPARTURE_TIME)
+                ? schedule.getDepartureTime().withZoneSameInstant(ZoneId.of(flight.getOrigin().getTimezoneId()))
+                : null;
+        ZonedDateTime arrivalTime = fields.contains(FlightSearchResponse.Field.ARRIVAL_TIME)
+                ? schedule.getArrivalTime().withZoneSameInstant(ZoneId.of(flight.getDestination().getTimezoneId()))
+                : null;
 
         return new FlightSearchResponse.FlightDTO(
-                schedule.getId(),
-                schedule.getFlight().getFlightCode(),
-                schedule.getFlight().getAirline(),
-                schedule.getFlight().getOrigin().getCode(),
-                schedule.getFlight().getDestination().getCode(),
-                schedule.getDepartureTime().withZoneSameInstant(originZone),
-                schedule.getArrivalTime().withZoneSameInstant(destinationZone),
-                pricePerSeat,
-                numberOfPassengers,
+                select(fields, FlightSearchResponse.Field.FLIGHT_SCHEDULE_ID, schedule.getId()),
+                select(fields, FlightSearchResponse.Field.FLIGHT_NUMBER, flight.getFlightCode()),
+                select(fields, FlightSearchResponse.Field.AIRLINE, flight.getAirline()),
+                select(fields, FlightSearchResponse.Field.ORIGIN, flight.getOrigin().getCode()),
+                select(fields, FlightSearchResponse.Field.DESTINATION, flight.getDestination().getCode()),
+                departureTime,
+                arrivalTime,
+                select(fields, FlightSearchResponse.Field.PRICE_PER_SEAT, pricePerSeat),
+                select(fields, FlightSearchResponse.Field.NUMBER_OF_PASSENGERS, numberOfPassengers),
                 totalPrice,
-                availableSeats,
+                select(fields, FlightSearchResponse.Field.AVAILABLE_SEATS, availableSeats),
                 availableSeatNumbers
         );
     }
+
+    static <T> T select(Set<FlightSearchResponse.Field> fields, FlightSearchResponse.Field field, T value) {
+        return fields.contains(field) ? value : null;
+    }
 }
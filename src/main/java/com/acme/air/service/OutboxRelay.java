@@ -0,0 +1,185 @@
+package com.acme.air.service;
+
+import com.acme.air.model.OutboxEvent;
+import com.acme.air.outbox.OutboxEventSink;
+import com.acme.air.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background relay that drains the outbox. A short transaction claims a batch of due events with
+ * {@code FOR UPDATE SKIP LOCKED} and pushes their {@code nextAttemptAt} past {@code claimTimeout}, so no
+ * other relay picks them up; the events are then handed to the configured {@link OutboxEventSink}
+ * outside any transaction, and a second short transaction records the outcomes. A failed delivery is
+ * retried after an exponential backoff, starting at {@code initialBackoff} and capped at
+ * {@code maxBackoff}, until {@code maxAttempts} is reached. Events claimed by a relay that dies before
+ * recording the outcome are picked up again once their claim has timed out.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Timer relayLag;
+    private final DistributionSummary batchSizes;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxEventSink sink,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${acme.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${acme.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${acme.outbox.relay.initial-backoff:PT1S}") Duration initialBackoff,
+                       @Value("${acme.outbox.relay.max-backoff:PT5M}") Duration maxBackoff,
+                       @Value("${acme.outbox.relay.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.sentCounter = Counter.builder("outbox.events.sent")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed")
+                .description("Outbox events abandoned after exhausting delivery attempts")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("outbox.events.retried")
+                .description("Outbox delivery attempts that failed and will be retried")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("outbox.relay.lag")
+                .description("Time between an event being recorded and being delivered")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Number of events claimed per relay poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${acme.outbox.relay.poll-interval-ms:500}")
+    public void poll() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Relays one batch and returns the number of events claimed.
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Delivery> deliveries = batch.stream().map(this::send).toList();
+        transactionTemplate.executeWithoutResult(status -> record(deliveries));
+        batchSizes.record(batch.size());
+        log.debug("Relayed outbox batch of {} events", batch.size());
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockNextDueBatch(now, batchSize);
+        // Flushed on commit; the events are not due again until the claim times out
+        batch.forEach(event -> event.setNextAttemptAt(now.plus(claimTimeout)));
+        return batch;
+    }
+
+    private Delivery send(OutboxEvent event) {
+        try {
+            sink.send(event);
+            return new Delivery(event.getId(), LocalDateTime.now(), null);
+        } catch (Exception e) {
+            return new Delivery(event.getId(), null, e);
+        }
+    }
+
+    private void record(List<Delivery> deliveries) {
+        Map<Long, OutboxEvent> events = outboxEventRepository.findAllById(deliveries.stream().map(Delivery::eventId).toList())
+                .stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, Function.identity()));
+        for (Delivery delivery : deliveries) {
+            OutboxEvent event = events.get(delivery.eventId());
+            if (event == null) {
+                continue;
+            }
+            if (delivery.error() == null) {
+                sent(event, delivery.sentAt());
+            } else {
+                failed(event, delivery.error());
+            }
+        }
+    }
+
+    private void sent(OutboxEvent event, LocalDateTime sentAt) {
+        event.setStatus(OutboxEvent.OutboxStatus.SENT);
+        event.setSentAt(sentAt);
+        sentCounter.increment();
+        if (event.getOccurredAt() != null) {
+            relayLag.record(Duration.between(event.getOccurredAt(), sentAt));
+        }
+    }
+
+    private void failed(OutboxEvent event, Exception e) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(abbreviate(e.getMessage()));
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxEvent.OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on outbox event {} after {} attempts", event.getId(), event.getAttempts(), e);
+        } else {
+            Duration backoff = backoff(event.getAttempts());
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+            retriedCounter.increment();
+            log.warn("Delivery of outbox event {} failed (attempt {}), retrying in {}: {}",
+                    event.getId(), event.getAttempts(), backoff, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the wait before the next attempt: {@code initialBackoff} after the first failure, doubling
+     * with each further one up to {@code maxBackoff}
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String abbreviate(String message) {
+        return message == null || message.length() <= 255 ? message : message.substring(0, 255);
+    }
+
+    private record Delivery(long eventId, LocalDateTime sentAt, Exception error) {}
+}
@@ -0,0 +1,65 @@
+package com.acme.air.service;
+
+import com.acme.air.event.BookingConfirmedEvent;
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.model.OutboxEvent;
+import com.acme.air.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Records domain events in the outbox table as part of the transaction that produced them, so an
+ * event exists if and only if its booking change committed. Delivery happens later in
+ * {@link OutboxRelay}, off the request path.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        append("Booking", event.bookingReference(), event, LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault()));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        append("FlightSchedule", String.valueOf(event.scheduleId()), event,
+                LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault()));
+    }
+
+    private void append(String aggregateType, String aggregateId, Object event, LocalDateTime occurredAt) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateType(aggregateType);
+        outboxEvent.setAggregateId(aggregateId);
+        outboxEvent.setEventType(event.getClass().getSimpleName());
+        outboxEvent.setPayload(toJson(event));
+        outboxEvent.setStatus(OutboxEvent.OutboxStatus.PENDING);
+        outboxEvent.setOccurredAt(occurredAt);
+        outboxEvent.setNextAttemptAt(LocalDateTime.now());
+        outboxEventRepository.save(outboxEvent);
+        log.debug("Recorded outbox event {} for {} {}", outboxEvent.getEventType(), aggregateType, aggregateId);
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize outbox event " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.acme.air.service;
+
+import com.acme.air.model.FlightSchedule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of {@code flight_schedule} and {@code seat}: creates the partitions
+ * for the months ahead, so publishing and seat writes never have to, and takes departed months out of
+ * the live tables once the retention period after the month's end has passed. A departed month is
+ * detached from both tables and moved to the {@code archive} schema, or dropped; its seat maps are
+ * deleted. Bookings are untouched and stay readable through the API: they carry their own copy of the
+ * flight number, departure time and seat numbers rather than reading them from the archived rows.
+ * <p>
+ * Each partition is handled in its own short transaction with a lock timeout: creating and detaching a
+ * partition briefly locks the parent table, and a job waiting behind a long query would otherwise
+ * queue every search behind it. A partition that times out is retried on the next run.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    public enum Mode {
+        ARCHIVE, DROP
+    }
+
+    private static final Pattern SCHEDULE_PARTITION = Pattern.compile("flight_schedule_(p|before_)(\\d{6})");
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ENSURE_PARTITIONS_SQL = "SELECT ensure_departure_month_partitions(?)";
+    private static final String LIST_SCHEDULE_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'flight_schedule'::regclass ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Mode mode;
+    private final int monthsAhead;
+    private final Duration archiveAfter;
+    private final Duration lockTimeout;
+
+    private final Counter createdCounter;
+    private final Counter archivedCounter;
+    private final Counter failedCounter;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${acme.partitions.maintenance.mode:archive}") String mode,
+                                   @Value("${acme.partitions.maintenance.months-ahead:12}") int monthsAhead,
+                                   @Value("${acme.partitions.maintenance.archive-after:P90D}") Duration archiveAfter,
+                                   @Value("${acme.partitions.maintenance.lock-timeout:PT5S}") Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.monthsAhead = monthsAhead;
+        this.archiveAfter = archiveAfter;
+        this.lockTimeout = lockTimeout;
+        this.createdCounter = Counter.builder("partitions.created")
+                .description("Departure months whose flight_schedule and seat partitions were created ahead of time")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("partitions.archived")
+                .description("Departed months detached from flight_schedule and seat")
+                .tag("mode", this.mode.name().toLowerCase())
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("partitions.failed")
+                .description("Partition operations that failed, usually on the lock timeout, and are retried next run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${acme.partitions.maintenance.interval-ms:3600000}",
+            initialDelayString = "${acme.partitions.maintenance.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        createAhead();
+        archiveDeparted();
+    }
+
+    /**
+     * Makes sure this month and the configured number of months after it have partitions.
+     *
+     * @return the number of months whose partitions had to be created
+     */
+    public int createAhead() {
+        LocalDate thisMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = thisMonth.plusMonths(i);
+            try {
+                Boolean createdMonth = transactionTemplate.execute(status -> {
+                    setLockTimeout();
+                    return jdbcTemplate.queryForObject(ENSURE_PARTITIONS_SQL, Boolean.class, month);
+                });
+                if (Boolean.TRUE.equals(createdMonth)) {
+                    created++;
+                    createdCounter.increment();
+                }
+            } catch (DataAccessException e) {
+                failedCounter.increment();
+                log.warn("Could not create the partitions for departures in {}: {}", YearMonth.from(month), e.getMessage());
+            }
+        }
+        if (created > 0) {
+            log.info("Created flight_schedule and seat partitions for {} departure months", created);
+        }
+        return created;
+    }
+
+    /**
+     * Detaches every month, and the partition of history before the first monthly one, that ended more
+     * than the retention period ago.
+     *
+     * @return the names of the flight_schedule partitions taken out of the live table
+     */
+    public List<String> archiveDeparted() {
+        ZonedDateTime cutoff = ZonedDateTime.now(ZoneOffset.UTC).minus(archiveAfter);
+        List<String> archived = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(LIST_SCHEDULE_PARTITIONS_SQL, String.class)) {
+            Matcher name = SCHEDULE_PARTITION.matcher(partition);
+            if (!name.matches()) {
+                continue;
+            }
+            LocalDate month = YearMonth.parse(name.group(2), MONTH_SUFFIX).atDay(1);
+            // A monthly partition ends with its month, the history partition where the monthly ones begin
+            LocalDate end = name.group(1).equals("p") ? month.plusMonths(1) : month;
+            if (end.atStartOfDay(ZoneOffset.UTC).isAfter(cutoff)) {
+                continue;
+            }
+            String seatPartition = "seat_" + name.group(1) + name.group(2);
+            try {
+                transactionTemplate.executeWithoutResult(status -> archive(partition, seatPartition));
+                archived.add(partition);
+                archivedCounter.increment();
+            } catch (DataAccessException e) {
+                failedCounter.increment();
+                log.warn("Could not {} partition {}: {}", mode.name().toLowerCase(), partition, e.getMessage());
+            }
+        }
+        if (!archived.isEmpty()) {
+            // Cached schedules of the detached months would otherwise outlive their rows
+            entityManagerFactory.getCache().evict(FlightSchedule.class);
+            log.info("Partition maintenance ({}) detached departed partitions {}", mode, archived);
+        }
+        return archived;
+    }
+
+    private void archive(String schedulePartition, String seatPartition) {
+        setLockTimeout();
+        jdbcTemplate.update("DELETE FROM seat_map WHERE schedule_id IN (SELECT id FROM " + schedulePartition + ")");
+        jdbcTemplate.execute("ALTER TABLE seat DETACH PARTITION " + seatPartition);
+        jdbcTemplate.execute("ALTER TABLE flight_schedule DETACH PARTITION " + schedulePartition);
+        for (String table : List.of(seatPartition, schedulePartition)) {
+            jdbcTemplate.execute(mode == Mode.ARCHIVE
+                    ? "ALTER TABLE " + table + " SET SCHEMA archive"
+                    : "DROP TABLE " + table);
+        }
+    }
+
+    private void setLockTimeout() {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+    }
+}
@@ -0,0 +1,124 @@
+package com.acme.air.service;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.repository.ReactiveFlightSearchRepository;
+import com.acme.air.repository.ReactiveFlightSearchRepository.ScheduleRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.acme.air.service.FlightService.select;
+
+/**
+ * Non-blocking counterpart of {@link FlightService#searchFlights(String, String, LocalDate, LocalDate, int, Set)}
+ * over R2DBC, enabled with {@code acme.search.reactive.enabled}. Validation, results and errors are the
+ * same; the difference is that no thread waits on the database. The airport check and the schedule query
+ * run one after the other, then the availability lookups of up to {@code lookupConcurrency} schedules run
+ * at once, and each flight is emitted, in departure order, as soon as its own lookups finish.
+ */
+public class ReactiveFlightService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveFlightService.class);
+
+    private final ReactiveFlightSearchRepository repository;
+    private final int lookupConcurrency;
+
+    public ReactiveFlightService(ReactiveFlightSearchRepository repository, int lookupConcurrency) {
+        this.repository = repository;
+        this.lookupConcurrency = lookupConcurrency;
+    }
+
+    /**
+     * @return the matching flights; fails with {@link IllegalArgumentException} for invalid criteria and
+     * {@link ResourceNotFoundException} for unknown airports or when no flight matches, always before
+     * the first flight is emitted
+     */
+    public Flux<FlightSearchResponse.FlightDTO> searchFlights(String origin, String destination,
+                                                             LocalDate departureDate, LocalDate returnDate,
+                                                             int numberOfPassengers,
+                                                             Set<FlightSearchResponse.Field> fields) {
+        return Flux.defer(() -> {
+            logger.info("Searching flights reactively: {} -> {}, departure: {}, passengers: {}",
+                    origin, destination, departureDate, numberOfPassengers);
+            FlightService.validateSearchCriteria(origin, destination, departureDate, numberOfPassengers);
+            if (returnDate != null) {
+                logger.info("Return date {} given; returning outbound flights {} -> {} only", returnDate, origin, destination);
+            }
+
+            ZonedDateTime startOfDay = departureDate.atStartOfDay(ZonedDateTime.now().getZone());
+            ZonedDateTime endOfDay = startOfDay.plusDays(1).minusNanos(1);
+            return validateAirportCodes(origin, destination)
+                    .thenMany(repository.findFlightsByRouteAndDateRange(origin, destination, startOfDay, endOfDay))
+                    .flatMapSequential(schedule -> toFlight(schedule, numberOfPassengers, fields), lookupConcurrency)
+                    .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No flights found matching the search criteria")));
+        });
+    }
+
+    private Mono<Void> validateAirportCodes(String origin, String destination) {
+        return repository.findExistingAirportCodes(origin, destination)
+                .collectList()
+                .flatMap(codes -> {
+                    if (!codes.contains(origin.toUpperCase())) {
+                        return Mono.error(new ResourceNotFoundException("Origin airport not found: " + origin));
+                    }
+                    if (!codes.contains(destination.toUpperCase())) {
+                        return Mono.error(new ResourceNotFoundException("Destination airport not found: " + destination));
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @return the flight, or nothing if it has too few available seats
+     */
+    private Mono<FlightSearchResponse.FlightDTO> toFlight(ScheduleRow schedule, int numberOfPassengers,
+                                                          Set<FlightSearchResponse.Field> fields) {
+        Mono<Integer> availableSeats = repository.countAvailableSeatsBySchedule(schedule)
+                .filter(available -> available >= numberOfPassengers);
+        if (!fields.contains(FlightSearchResponse.Field.AVAILABLE_SEAT_NUMBERS)) {
+            return availableSeats.map(available -> mapToFlightDTO(schedule, numberOfPassengers, available, null, fields));
+        }
+        // Seat numbers are one more query per flight; only fetched for flights that have enough seats
+        return availableSeats.flatMap(available -> repository.findAvailableSeatNumbersBySchedule(schedule)
+                .map(seatNumbers -> mapToFlightDTO(schedule, numberOfPassengers, seatNumbers.size(), seatNumbers, fields)));
+    }
+
+    private static FlightSearchResponse.FlightDTO mapToFlightDTO(ScheduleRow schedule, int numberOfPassengers,
+                                                                 int availableSeats, List<String> availableSeatNumbers,
+                                                                 Set<FlightSearchResponse.Field> fields) {
+        BigDecimal pricePerSeat = schedule.price();
+        BigDecimal totalPrice = fields.contains(FlightSearchResponse.Field.TOTAL_PRICE)
+                ? pricePerSeat.multiply(BigDecimal.valueOf(numberOfPassengers))
+                : null;
+        ZonedDateTime departureTime = fields.contains(FlightSearchResponse.Field.DEPARTURE_TIME)
+                ? schedule.departureTime().withZoneSameInstant(ZoneId.of(schedule.originTimezone()))
+                : null;
+        ZonedDateTime arrivalTime = fields.contains(FlightSearchResponse.Field.ARRIVAL_TIME)
+                ? schedule.arrivalTime().withZoneSameInstant(ZoneId.of(schedule.destinationTimezone()))
+                : null;
+
+        return new FlightSearchResponse.FlightDTO(
+                select(fields, FlightSearchResponse.Field.FLIGHT_SCHEDULE_ID, schedule.id()),
+                select(fields, FlightSearchResponse.Field.FLIGHT_NUMBER, schedule.flightCode()),
+                select(fields, FlightSearchResponse.Field.AIRLINE, schedule.airline()),
+                select(fields, FlightSearchResponse.Field.ORIGIN, schedule.originCode()),
+                select(fields, FlightSearchResponse.Field.DESTINATION, schedule.destinationCode()),
+                departureTime,
+                arrivalTime,
+                select(fields, FlightSearchResponse.Field.PRICE_PER_SEAT, pricePerSeat),
+                select(fields, FlightSearchResponse.Field.NUMBER_OF_PASSENGERS, numberOfPassengers),
+                totalPrice,
+                select(fields, FlightSearchResponse.Field.AVAILABLE_SEATS, availableSeats),
+                availableSeatNumbers
+        );
+    }
+}
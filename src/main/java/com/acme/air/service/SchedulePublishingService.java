@@ -0,0 +1,322 @@
+package com.acme.air.service;
+
+import com.acme.air.dto.SchedulePublishRequest;
+import com.acme.air.dto.SchedulePublishRequest.ScheduleDraft;
+import com.acme.air.dto.SchedulePublishResponse;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.model.CabinLayout;
+import com.acme.air.model.Flight;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.PackedSeatStates;
+import com.acme.air.repository.CabinLayoutRepository;
+import com.acme.air.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes flight schedules together with their seat inventory. Seats are generated from a cabin
+ * layout and, like the schedules, written with PostgreSQL {@code COPY} rather than one INSERT per row,
+ * so a season of schedules (hundreds of thousands to millions of seats) is created in one round trip
+ * per table. Schedule ids are taken from the identity sequence up front so the seat rows can reference
+ * them without reading anything back. Everything runs in one transaction: either the whole request is
+ * published or nothing is.
+ * <p>
+ * The partitions of the departure months are created first, in their own short transaction, when
+ * {@link PartitionMaintenanceJob} has not already created them: creating a partition locks the parent
+ * table, which must not be held for the length of the copy.
+ * <p>
+ * With {@code acme.seats.storage=packed} each schedule gets one {@code seat_map} row against a shared
+ * {@link CabinLayout} instead of a row per seat; seat rows are then created only when seats are locked.
+ * <p>
+ * The rows bypass Hibernate, so no entity or query cache entries are touched; schedules are new and
+ * load into the second-level cache on first read.
+ */
+@Service
+@Slf4j
+public class SchedulePublishingService {
+
+    private static final int MAX_SCHEDULES_PER_REQUEST = 10_000;
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+    private static final DateTimeFormatter COPY_TIMESTAMP = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final DateTimeFormatter COPY_LOCAL_TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String ALLOCATE_SCHEDULE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('flight_schedule', 'id')) FROM generate_series(1, ?)";
+    private static final String COPY_SCHEDULES_SQL = "COPY flight_schedule (id, flight_id, departure_time, "
+            + "arrival_time, price, currency, total_seats, version, created_at, updated_at) FROM STDIN";
+    private static final String COPY_SEATS_SQL =
+            "COPY seat (seat_number, schedule_id, status, departure_month, created_at, updated_at) FROM STDIN";
+    private static final String ENSURE_PARTITIONS_SQL = "SELECT ensure_departure_month_partitions(?)";
+    private static final String COPY_SEAT_MAPS_SQL =
+            "COPY seat_map (schedule_id, layout_id, states, available, version) FROM STDIN";
+
+    private final FlightRepository flightRepository;
+    private final CabinLayoutRepository cabinLayoutRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate partitionTransaction;
+    private final Duration partitionLockTimeout;
+    private final boolean packedSeats;
+
+    private final Timer publishTimer;
+    private final Counter schedulesCounter;
+    private final Counter seatsCounter;
+
+    public SchedulePublishingService(FlightRepository flightRepository,
+                                     CabinLayoutRepository cabinLayoutRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${acme.seats.storage:rows}") String seatStorage,
+                                     @Value("${acme.partitions.maintenance.lock-timeout:PT5S}") Duration partitionLockTimeout) {
+        this.flightRepository = flightRepository;
+        this.cabinLayoutRepository = cabinLayoutRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partitionLockTimeout = partitionLockTimeout;
+        this.packedSeats = "packed".equalsIgnoreCase(seatStorage.trim());
+        this.publishTimer = Timer.builder("schedules.publish")
+                .description("Time to publish a batch of schedules and their seats")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.schedulesCounter = Counter.builder("schedules.published")
+                .description("Flight schedules created through the publishing API")
+                .register(meterRegistry);
+        this.seatsCounter = Counter.builder("schedules.published.seats")
+                .description("Seats generated for published schedules")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public SchedulePublishResponse publish(SchedulePublishRequest request) {
+        List<String> seatNumbers = seatNumbers(request.cabinLayout());
+        List<ScheduleDraft> drafts = request.schedules();
+        validateSchedules(drafts);
+        ensurePartitions(drafts);
+        Long layoutId = packedSeats ? findOrCreateLayout(seatNumbers).getId() : null;
+
+        Timer.Sample sample = Timer.start();
+        List<Long> scheduleIds = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = allocateScheduleIds(connection, drafts.size());
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            LocalDateTime now = LocalDateTime.now();
+            copy(pgConnection, COPY_SCHEDULES_SQL, out -> writeSchedules(out, drafts, ids, seatNumbers.size(), now));
+            if (packedSeats) {
+                copy(pgConnection, COPY_SEAT_MAPS_SQL, out -> writeSeatMaps(out, ids, layoutId, seatNumbers.size()));
+            } else {
+                copy(pgConnection, COPY_SEATS_SQL, out -> writeSeats(out, drafts, ids, seatNumbers, now));
+            }
+            return ids;
+        });
+        sample.stop(publishTimer);
+
+        long seatsCreated = (long) scheduleIds.size() * seatNumbers.size();
+        schedulesCounter.increment(scheduleIds.size());
+        seatsCounter.increment(seatsCreated);
+        log.debug("Copied {} schedules and {} seats", scheduleIds.size(), seatsCreated);
+
+        return new SchedulePublishResponse(scheduleIds.size(), seatsCreated, scheduleIds);
+    }
+
+    /**
+     * Seat numbers for one schedule, row by row: {@code rows} rows numbered from {@code firstRow},
+     * skipping the numbers the aircraft does not have, each with every seat letter ({@code 1A}, {@code 1B}, ...).
+     */
+    static List<String> seatNumbers(SchedulePublishRequest.CabinLayout layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException("Cabin layout is required");
+        }
+        if (layout.rows() <= 0) {
+            throw new IllegalArgumentException("Cabin layout must have at least one row");
+        }
+        String letters = layout.seatLetters();
+        if (letters == null || letters.isEmpty()) {
+            throw new IllegalArgumentException("Cabin layout must have at least one seat letter");
+        }
+        if (letters.chars().distinct().count() != letters.length()) {
+            throw new IllegalArgumentException("Seat letters must not repeat");
+        }
+        Set<Integer> skipped = layout.skipRowNumbers() == null ? Set.of() : layout.skipRowNumbers();
+
+        List<String> seatNumbers = new ArrayList<>(layout.rows() * letters.length());
+        int rowNumber = Math.max(layout.firstRow(), 1);
+        for (int row = 0; row < layout.rows(); rowNumber++) {
+            if (skipped.contains(rowNumber)) {
+                continue;
+            }
+            for (int i = 0; i < letters.length(); i++) {
+                seatNumbers.add(rowNumber + String.valueOf(letters.charAt(i)));
+            }
+            row++;
+        }
+        return seatNumbers;
+    }
+
+    private void validateSchedules(List<ScheduleDraft> drafts) {
+        if (drafts == null || drafts.isEmpty()) {
+            throw new IllegalArgumentException("At least one schedule is required");
+        }
+        if (drafts.size() > MAX_SCHEDULES_PER_REQUEST) {
+            throw new IllegalArgumentException("Maximum " + MAX_SCHEDULES_PER_REQUEST + " schedules allowed per request");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        for (ScheduleDraft draft : drafts) {
+            if (draft.flightId() == null || draft.departureTime() == null || draft.arrivalTime() == null) {
+                throw new IllegalArgumentException("Flight, departure time and arrival time are required");
+            }
+            if (!draft.arrivalTime().isAfter(draft.departureTime())) {
+                throw new IllegalArgumentException("Arrival must be after departure for flight " + draft.flightId()
+                        + " departing " + draft.departureTime());
+            }
+            if (draft.departureTime().isBefore(now)) {
+                throw new IllegalArgumentException("Departure time cannot be in the past: " + draft.departureTime());
+            }
+            if (draft.price() == null || draft.price().signum() <= 0) {
+                throw new IllegalArgumentException("Price must be positive for flight " + draft.flightId());
+            }
+        }
+
+        Set<Long> flightIds = drafts.stream().map(ScheduleDraft::flightId).collect(Collectors.toSet());
+        Map<Long, Flight> flights = flightRepository.findAllById(flightIds).stream()
+                .collect(Collectors.toMap(Flight::getId, Function.identity()));
+        List<Long> missing = flightIds.stream().filter(id -> !flights.containsKey(id)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Flights not found: " + missing);
+        }
+    }
+
+    private void ensurePartitions(List<ScheduleDraft> drafts) {
+        Set<LocalDate> months = drafts.stream()
+                .map(draft -> FlightSchedule.departureMonth(draft.departureTime()))
+                .collect(Collectors.toCollection(TreeSet::new));
+        partitionTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + partitionLockTimeout.toMillis());
+            months.forEach(month -> jdbcTemplate.queryForObject(ENSURE_PARTITIONS_SQL, Boolean.class, month));
+        });
+    }
+
+    private CabinLayout findOrCreateLayout(List<String> seatNumbers) {
+        CabinLayout layout = new CabinLayout(seatNumbers);
+        return cabinLayoutRepository.findFirstBySeatNumbers(layout.getSeatNumbers())
+                .orElseGet(() -> cabinLayoutRepository.save(layout));
+    }
+
+    private static List<Long> allocateScheduleIds(Connection connection, int count) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_SCHEDULE_IDS_SQL)) {
+            statement.setInt(1, count);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private static void writeSchedules(Writer out, List<ScheduleDraft> drafts, List<Long> ids,
+                                       int seatsPerSchedule, LocalDateTime now) throws IOException {
+        String timestamp = COPY_LOCAL_TIMESTAMP.format(now);
+        for (int i = 0; i < drafts.size(); i++) {
+            ScheduleDraft draft = drafts.get(i);
+            out.write(Long.toString(ids.get(i)));
+            out.write('\t');
+            out.write(Long.toString(draft.flightId()));
+            out.write('\t');
+            out.write(COPY_TIMESTAMP.format(draft.departureTime()));
+            out.write('\t');
+            out.write(COPY_TIMESTAMP.format(draft.arrivalTime()));
+            out.write('\t');
+            out.write(draft.price().toPlainString());
+            out.write('\t');
+            out.write(draft.currency() == null ? "NZD" : draft.currency());
+            out.write('\t');
+            out.write(Integer.toString(seatsPerSchedule));
+            out.write("\t0\t");
+            out.write(timestamp);
+            out.write('\t');
+            out.write(timestamp);
+            out.write('\n');
+        }
+    }
+
+    private static void writeSeats(Writer out, List<ScheduleDraft> drafts, List<Long> scheduleIds,
+                                   List<String> seatNumbers, LocalDateTime now) throws IOException {
+        // Everything after the seat number is the same for every seat of a schedule
+        String timestamp = COPY_LOCAL_TIMESTAMP.format(now);
+        for (int i = 0; i < scheduleIds.size(); i++) {
+            LocalDate departureMonth = FlightSchedule.departureMonth(drafts.get(i).departureTime());
+            String suffix = "\t" + scheduleIds.get(i) + "\tAVAILABLE\t" + departureMonth + "\t"
+                    + timestamp + "\t" + timestamp + "\n";
+            for (String seatNumber : seatNumbers) {
+                out.write(seatNumber);
+                out.write(suffix);
+            }
+        }
+    }
+
+    private static void writeSeatMaps(Writer out, List<Long> scheduleIds, Long layoutId, int seatCount)
+            throws IOException {
+        // bytea hex input, backslash escaped for COPY's text format; all zero is every seat available
+        String suffix = "\t" + layoutId + "\t\\\\x" + "00".repeat(PackedSeatStates.allAvailable(seatCount).length)
+                + "\t" + seatCount + "\t0\n";
+        for (Long scheduleId : scheduleIds) {
+            out.write(Long.toString(scheduleId));
+            out.write(suffix);
+        }
+    }
+
+    private static void copy(PGConnection connection, String sql, CopyWriter rows) throws SQLException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, sql, COPY_BUFFER_BYTES), StandardCharsets.UTF_8), COPY_BUFFER_BYTES)) {
+            rows.write(out);
+        } catch (IOException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyWriter {
+        void write(Writer out) throws IOException;
+    }
+}
@@ -0,0 +1,299 @@
+package com.acme.air.service;
+
+import com.acme.air.dto.HoldResponse;
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.event.SeatLocksAcquiredEvent;
+import com.acme.air.exception.BookingConflictException;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.exception.SeatUnavailableException;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.Seat;
+import com.acme.air.model.SeatLock;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.SeatLockRepository;
+import com.acme.air.repository.SeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Seat holds: seats reserved for a client session for a limited time before the booking is made.
+ * Each held seat is LOCKED and backed by an ACTIVE {@code seat_lock} row carrying the hold id, so a
+ * hold survives restarts and is honoured by every instance. Conflicting hold requests handled by this
+ * instance are rejected by the in-memory {@link SeatLeaseTable} before any row lock is taken.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    private static final int MAX_SEATS_PER_HOLD = 3;
+    private static final int MIN_HOLD_HOURS_BEFORE_DEPARTURE = 2;
+
+    private final SeatRepository seatRepository;
+    private final SeatLockRepository seatLockRepository;
+    private final FlightScheduleRepository flightScheduleRepository;
+    private final SeatLockService seatLockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdTtl;
+    private final SeatLeaseTable leaseTable = new SeatLeaseTable();
+
+    private final Counter leaseConflicts;
+
+    public SeatHoldService(SeatRepository seatRepository,
+                           SeatLockRepository seatLockRepository,
+                           FlightScheduleRepository flightScheduleRepository,
+                           SeatLockService seatLockService,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${acme.holds.ttl:PT10M}") Duration holdTtl) {
+        this.seatRepository = seatRepository;
+        this.seatLockRepository = seatLockRepository;
+        this.flightScheduleRepository = flightScheduleRepository;
+        this.seatLockService = seatLockService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holdTtl = holdTtl;
+        this.leaseConflicts = Counter.builder("seat.holds.lease.conflicts")
+                .description("Hold requests rejected by the in-memory lease table without a database round trip")
+                .register(meterRegistry);
+        Gauge.builder("seat.holds.active", leaseTable, SeatLeaseTable::size)
+                .description("Holds currently leased on this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Holds the given seats for the session until the hold TTL elapses.
+     */
+    public HoldResponse createHold(Long scheduleId, List<String> seatNumbers, String sessionId) {
+        List<String> normalized = validateHoldRequest(scheduleId, seatNumbers, sessionId);
+        LocalDateTime now = LocalDateTime.now();
+        SeatLeaseTable.Hold hold = new SeatLeaseTable.Hold(generateHoldId(), sessionId, scheduleId,
+                normalized, now.plus(holdTtl));
+
+        leaseTable.tryAcquire(hold, now).ifPresent(seatNumber -> {
+            leaseConflicts.increment();
+            throw new SeatUnavailableException("Seat " + seatNumber + " is temporarily reserved by another user");
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistHold(hold, now));
+        } catch (RuntimeException e) {
+            leaseTable.remove(hold);
+            throw e;
+        }
+
+        log.info("Session {} holds seats {} on flight schedule {} until {}",
+                sessionId, normalized, scheduleId, hold.expiresAt());
+        return new HoldResponse(hold.holdId(), scheduleId, normalized, toZoned(hold.expiresAt()));
+    }
+
+    /**
+     * Releases a hold owned by the session and makes its seats available again.
+     * Holds of other sessions are reported as not found.
+     */
+    public void releaseHold(String holdId, String sessionId) {
+        Optional<SeatLeaseTable.Hold> cached = leaseTable.find(holdId);
+        if (cached.isPresent() && !cached.get().sessionId().equals(sessionId)) {
+            throw new ResourceNotFoundException("Hold not found: " + holdId);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> seatNumbers;
+                Long scheduleId;
+                if (cached.isPresent()) {
+                    seatNumbers = cached.get().seatNumbers();
+                    scheduleId = cached.get().scheduleId();
+                } else {
+                    // Not leased on this instance (restart or another node): verify ownership in the database
+                    List<SeatLock> locks = findOwnedLocks(holdId, sessionId);
+                    seatNumbers = locks.stream().map(lock -> lock.getSeat().getSeatNumber()).toList();
+                    scheduleId = locks.get(0).getSeat().getSchedule().getId();
+                }
+                seatRepository.releaseSeatsLockedByHold(holdId);
+                if (seatLockRepository.releaseHold(holdId) == 0) {
+                    throw new ResourceNotFoundException("Hold not found: " + holdId);
+                }
+                eventPublisher.publishEvent(new SeatInventoryChangedEvent(scheduleId, seatNumbers,
+                        Seat.SeatStatus.AVAILABLE));
+            });
+        } finally {
+            leaseTable.remove(holdId);
+        }
+        log.info("Session {} released hold {}", sessionId, holdId);
+    }
+
+    /**
+     * Converts a hold into the seats of a booking without re-locking them: the hold's locks are
+     * claimed with one conditional update inside the booking transaction. The seats are returned in
+     * the order requested so they line up with the booking's passengers.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Seat> claimHold(String holdId, String sessionId, Long scheduleId, List<String> seatNumbers) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> requested = seatNumbers.stream().map(String::toUpperCase).toList();
+
+        Optional<SeatLeaseTable.Hold> cached = leaseTable.find(holdId);
+        if (cached.isPresent()) {
+            SeatLeaseTable.Hold hold = cached.get();
+            if (!hold.sessionId().equals(sessionId)) {
+                throw new ResourceNotFoundException("Hold not found: " + holdId);
+            }
+            if (hold.isExpired(now)) {
+                throw new BookingConflictException("Hold " + holdId + " has expired");
+            }
+            validateHoldMatches(holdId, hold.scheduleId(), hold.seatNumbers(), scheduleId, requested);
+        }
+
+        List<SeatLock> locks = findOwnedLocks(holdId, sessionId);
+        validateHoldMatches(holdId, locks.get(0).getSeat().getSchedule().getId(),
+                locks.stream().map(lock -> lock.getSeat().getSeatNumber()).toList(), scheduleId, requested);
+        if (seatLockRepository.confirmHold(holdId, now) != locks.size()) {
+            throw new BookingConflictException("Hold " + holdId + " has expired");
+        }
+
+        // The lease is only dropped once the booking commits; a rolled back booking keeps its hold
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                leaseTable.remove(holdId);
+            }
+        });
+
+        Map<String, Seat> seatsByNumber = locks.stream()
+                .map(SeatLock::getSeat)
+                .collect(Collectors.toMap(Seat::getSeatNumber, Function.identity()));
+        return requested.stream().map(seatsByNumber::get).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${acme.holds.purge-interval-ms:60000}")
+    public void purgeExpiredLeases() {
+        int purged = leaseTable.purgeExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired seat holds from the lease table", purged);
+        }
+    }
+
+    private List<String> validateHoldRequest(Long scheduleId, List<String> seatNumbers, String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("Session id is required to hold seats");
+        }
+        if (scheduleId == null) {
+            throw new IllegalArgumentException("Flight schedule ID is required");
+        }
+        if (seatNumbers == null || seatNumbers.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat is required");
+        }
+        if (seatNumbers.size() > MAX_SEATS_PER_HOLD) {
+            throw new IllegalArgumentException(
+                    String.format("Maximum %d seats allowed per hold", MAX_SEATS_PER_HOLD));
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String seatNumber : seatNumbers) {
+            String normalized = seatNumber == null ? "" : seatNumber.trim().toUpperCase();
+            if (!normalized.matches("^[1-9]\\d*[A-Z]$")) {
+                throw new IllegalArgumentException("Invalid seat number format: " + seatNumber);
+            }
+            if (!unique.add(normalized)) {
+                throw new IllegalArgumentException("Duplicate seat selection: " + seatNumber);
+            }
+        }
+        return List.copyOf(unique);
+    }
+
+    private void persistHold(SeatLeaseTable.Hold hold, LocalDateTime now) {
+        FlightSchedule schedule = flightScheduleRepository.findById(hold.scheduleId())
+                .orElseThrow(() -> new ResourceNotFoundException("Flight schedule not found: " + hold.scheduleId()));
+        if (schedule.getDepartureTime().isBefore(ZonedDateTime.now().plusHours(MIN_HOLD_HOURS_BEFORE_DEPARTURE))) {
+            throw new IllegalArgumentException(
+                    String.format("Booking window closed - flight departs within %d hours", MIN_HOLD_HOURS_BEFORE_DEPARTURE));
+        }
+
+        seatRepository.materializeSeats(schedule.getId(), hold.seatNumbers());
+        List<Seat> seats = new ArrayList<>(
+                seatRepository.findByScheduleIdAndSeatNumberIn(schedule.getId(), hold.seatNumbers()));
+        if (seats.size() != hold.seatNumbers().size()) {
+            Set<String> missingSeats = new HashSet<>(hold.seatNumbers());
+            seats.forEach(seat -> missingSeats.remove(seat.getSeatNumber()));
+            throw new ResourceNotFoundException("Invalid seat numbers for this flight: " + missingSeats);
+        }
+
+        // Lock rows in id order so concurrent holds on overlapping seats cannot deadlock
+        seats.sort(Comparator.comparing(Seat::getId));
+        List<Long> lockIds = new ArrayList<>();
+        for (Seat seat : seats) {
+            Seat currentSeat = seatRepository.findByIdForUpdate(seat.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + seat.getSeatNumber()));
+            if (currentSeat.getStatus() == Seat.SeatStatus.BOOKED) {
+                throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is not available");
+            }
+            if (seatLockRepository.findActiveLockBySeatId(currentSeat.getId(), now).isPresent()) {
+                throw new SeatUnavailableException("Seat " + currentSeat.getSeatNumber() + " is temporarily reserved by another user");
+            }
+            // A LOCKED seat without a live lock belongs to a lapsed hold and can be taken over
+            seatLockService.releaseExpiredLocksForSeat(currentSeat.getId());
+            currentSeat.setStatus(Seat.SeatStatus.LOCKED);
+            seatRepository.save(currentSeat);
+
+            SeatLock seatLock = new SeatLock();
+            seatLock.setSeat(currentSeat);
+            seatLock.setSessionId(hold.sessionId());
+            seatLock.setHoldId(hold.holdId());
+            seatLock.setLockedAt(now);
+            seatLock.setExpiresAt(hold.expiresAt());
+            seatLock.setStatus(SeatLock.LockStatus.ACTIVE);
+            lockIds.add(seatLockRepository.save(seatLock).getId());
+        }
+
+        eventPublisher.publishEvent(new SeatInventoryChangedEvent(schedule.getId(), hold.seatNumbers(),
+                Seat.SeatStatus.LOCKED));
+        eventPublisher.publishEvent(new SeatLocksAcquiredEvent(lockIds, hold.expiresAt()));
+    }
+
+    private List<SeatLock> findOwnedLocks(String holdId, String sessionId) {
+        List<SeatLock> locks = seatLockRepository.findActiveLocksByHoldId(holdId);
+        if (locks.isEmpty() || !locks.get(0).getSessionId().equals(sessionId)) {
+            throw new ResourceNotFoundException("Hold not found: " + holdId);
+        }
+        return locks;
+    }
+
+    private void validateHoldMatches(String holdId, Long heldScheduleId, List<String> heldSeats,
+                                     Long scheduleId, List<String> requestedSeats) {
+        if (!heldScheduleId.equals(scheduleId)) {
+            throw new IllegalArgumentException("Hold " + holdId + " is for a different flight schedule");
+        }
+        if (!new HashSet<>(heldSeats).equals(new HashSet<>(requestedSeats)) || heldSeats.size() != requestedSeats.size()) {
+            throw new IllegalArgumentException(
+                    "Selected seats " + requestedSeats + " do not match the seats held by " + holdId + ": " + heldSeats);
+        }
+    }
+
+    private String generateHoldId() {
+        return "HLD" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+
+    private ZonedDateTime toZoned(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault());
+    }
+}
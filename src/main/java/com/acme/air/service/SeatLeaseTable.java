@@ -0,0 +1,83 @@
+package com.acme.air.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the seat holds taken on this instance. A seat can be leased by at most one live
+ * hold, so competing hold requests for the same seat are rejected here without touching the
+ * database. The {@code seat_lock} table stays the source of truth; this table is only a cache in
+ * front of it and is rebuilt lazily (a hold missing here is looked up in the database).
+ */
+class SeatLeaseTable {
+
+    record SeatKey(Long scheduleId, String seatNumber) {}
+
+    record Hold(String holdId, String sessionId, Long scheduleId, List<String> seatNumbers,
+                LocalDateTime expiresAt) {
+
+        boolean isExpired(LocalDateTime now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+
+    private final ConcurrentHashMap<SeatKey, Hold> leases = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * Leases every seat of the hold or none of them. Expired leases are taken over.
+     *
+     * @return the first seat already leased by another live hold, or empty if the hold was registered
+     */
+    Optional<String> tryAcquire(Hold hold, LocalDateTime now) {
+        List<SeatKey> acquired = new ArrayList<>();
+        for (String seatNumber : hold.seatNumbers()) {
+            SeatKey key = new SeatKey(hold.scheduleId(), seatNumber);
+            Hold owner = leases.compute(key, (k, existing) ->
+                    existing == null || existing.isExpired(now) ? hold : existing);
+            if (owner != hold) {
+                acquired.forEach(k -> leases.remove(k, hold));
+                return Optional.of(seatNumber);
+            }
+            acquired.add(key);
+        }
+        holds.put(hold.holdId(), hold);
+        return Optional.empty();
+    }
+
+    Optional<Hold> find(String holdId) {
+        return Optional.ofNullable(holds.get(holdId));
+    }
+
+    void remove(Hold hold) {
+        holds.remove(hold.holdId(), hold);
+        for (String seatNumber : hold.seatNumbers()) {
+            leases.remove(new SeatKey(hold.scheduleId(), seatNumber), hold);
+        }
+    }
+
+    void remove(String holdId) {
+        find(holdId).ifPresent(this::remove);
+    }
+
+    /**
+     * Drops holds whose TTL has passed. Their {@code seat_lock} rows are left to the database side.
+     */
+    int purgeExpired(LocalDateTime now) {
+        int purged = 0;
+        for (Hold hold : holds.values()) {
+            if (hold.isExpired(now)) {
+                remove(hold);
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    int size() {
+        return holds.size();
+    }
+}
@@ -0,0 +1,201 @@
+package com.acme.air.service;
+
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.event.SeatLocksAcquiredEvent;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.SeatLockRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.scheduling.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Expires seat locks that outlive their request (holds) and returns their seats to AVAILABLE.
+ * Deadlines are kept in a {@link TimingWheel}, so each tick only touches the locks that are due instead
+ * of scanning {@code seat_lock}. Due locks are expired in batches of a few bulk statements. Pending
+ * deadlines are reloaded from the database on startup, and a periodic scan picks up overdue locks this
+ * instance never tracked (e.g. holds taken on an instance that has since stopped).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.seat-locks.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatLockExpirySweeper {
+
+    private final SeatLockRepository seatLockRepository;
+    private final SeatRepository seatRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // Guards the wheel and the overdue list
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final TimingWheel<Long> wheel;
+    private final List<TimingWheel.Entry<Long>> overdue = new ArrayList<>();
+
+    private final Timer expiryLag;
+    private final DistributionSummary batchSizes;
+    private final Counter expiredCounter;
+    private final Counter releasedSeatsCounter;
+
+    public SeatLockExpirySweeper(SeatLockRepository seatLockRepository,
+                                 SeatRepository seatRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${acme.seat-locks.expiry.tick-ms:1000}") long tickMillis,
+                                 @Value("${acme.seat-locks.expiry.wheel-size:64}") int wheelSize,
+                                 @Value("${acme.seat-locks.expiry.batch-size:500}") int batchSize) {
+        this.seatLockRepository = seatLockRepository;
+        this.seatRepository = seatRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.expiryLag = Timer.builder("seat.locks.expiry.lag")
+                .description("Time between a seat lock's expiry and the sweeper releasing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("seat.locks.expiry.batch.size")
+                .description("Number of due seat locks expired per bulk update")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("seat.locks.expired")
+                .description("Seat locks moved from ACTIVE to EXPIRED by the sweeper")
+                .register(meterRegistry);
+        this.releasedSeatsCounter = Counter.builder("seat.locks.seats.released")
+                .description("Seats returned to AVAILABLE because their lock expired")
+                .register(meterRegistry);
+        Gauge.builder("seat.locks.expiry.pending", this, SeatLockExpirySweeper::pending)
+                .description("Seat lock deadlines tracked by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingDeadlines() {
+        List<SeatLockRepository.LockDeadline> deadlines = seatLockRepository.findActiveLockDeadlines();
+        deadlines.forEach(deadline -> track(deadline.getId(), deadline.getExpiresAt()));
+        log.info("Recovered {} pending seat lock deadlines", deadlines.size());
+    }
+
+    @TransactionalEventListener
+    public void onSeatLocksAcquired(SeatLocksAcquiredEvent event) {
+        event.lockIds().forEach(lockId -> track(lockId, event.expiresAt()));
+    }
+
+    public void track(Long lockId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheelLock.lock();
+        try {
+            if (!wheel.add(lockId, deadline)) {
+                overdue.add(new TimingWheel.Entry<>(lockId, deadline));
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${acme.seat-locks.expiry.tick-ms:1000}")
+    public void sweep() {
+        List<TimingWheel.Entry<Long>> due;
+        wheelLock.lock();
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+            due.addAll(overdue);
+            overdue.clear();
+        } finally {
+            wheelLock.unlock();
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            expireBatch(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${acme.seat-locks.expiry.reconcile-interval-ms:300000}",
+            initialDelayString = "${acme.seat-locks.expiry.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<SeatLockRepository.LockDeadline> overdueLocks =
+                seatLockRepository.findOverdueLockDeadlines(LocalDateTime.now());
+        if (!overdueLocks.isEmpty()) {
+            log.info("Found {} overdue seat locks not yet expired", overdueLocks.size());
+            overdueLocks.forEach(deadline -> track(deadline.getId(), deadline.getExpiresAt()));
+        }
+    }
+
+    private void expireBatch(List<TimingWheel.Entry<Long>> batch) {
+        List<Long> lockIds = batch.stream().map(TimingWheel.Entry::item).toList();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Integer expired = transactionTemplate.execute(status -> {
+                // Seat rows first, in the same order bookings and holds lock them
+                List<Long> seatIds = seatLockRepository.lockSeatsOfExpiredLocks(lockIds, now);
+                int count = seatLockRepository.expireLocks(lockIds, now);
+                if (!seatIds.isEmpty()) {
+                    releaseSeats(seatRepository.findLockedSeatsWithoutLiveLock(seatIds, now));
+                }
+                return count;
+            });
+            expiredCounter.increment(expired == null ? 0 : expired);
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire {} seat locks, retrying on next sweep: {}", batch.size(), e.getMessage());
+            wheelLock.lock();
+            try {
+                overdue.addAll(batch);
+            } finally {
+                wheelLock.unlock();
+            }
+            return;
+        }
+
+        batchSizes.record(batch.size());
+        long nowMillis = System.currentTimeMillis();
+        for (TimingWheel.Entry<Long> entry : batch) {
+            expiryLag.record(Duration.ofMillis(Math.max(0, nowMillis - entry.deadlineMillis())));
+        }
+        log.debug("Processed {} due seat locks", batch.size());
+    }
+
+    private void releaseSeats(List<SeatRepository.SeatRef> seats) {
+        if (seats.isEmpty()) {
+            return;
+        }
+        seatRepository.releaseLockedSeats(seats.stream().map(SeatRepository.SeatRef::getId).toList());
+        releasedSeatsCounter.increment(seats.size());
+
+        Map<Long, List<String>> seatNumbersBySchedule = seats.stream()
+                .collect(Collectors.groupingBy(SeatRepository.SeatRef::getScheduleId,
+                        Collectors.mapping(SeatRepository.SeatRef::getSeatNumber, Collectors.toList())));
+        seatNumbersBySchedule.forEach((scheduleId, seatNumbers) -> eventPublisher.publishEvent(
+                new SeatInventoryChangedEvent(scheduleId, seatNumbers, Seat.SeatStatus.AVAILABLE)));
+    }
+
+    private int pending() {
+        wheelLock.lock();
+        try {
+            return wheel.size() + overdue.size();
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.acme.air.service;
+
+import com.acme.air.repository.SeatLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps {@code seat_lock} small by moving terminal locks (RELEASED, EXPIRED, CONFIRMED) older than the
+ * retention period into {@code seat_lock_archive}, or deleting them. Work is done in bounded batches,
+ * each in its own short transaction, with a pause in between so row locks and WAL bursts stay small.
+ * A run stops after {@code max-run-time} and leaves the rest to the next one, so it never keeps a
+ * scheduler thread from the other jobs for long.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.seat-locks.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatLockRetentionJob {
+
+    public enum Mode {
+        ARCHIVE, DELETE
+    }
+
+    private final SeatLockRepository seatLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMillis;
+    private final Duration maxRunTime;
+
+    private final Counter rowsCounter;
+    private final Timer batchTimer;
+
+    public SeatLockRetentionJob(SeatLockRepository seatLockRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${acme.seat-locks.retention.mode:archive}") String mode,
+                                @Value("${acme.seat-locks.retention.retain:P7D}") Duration retention,
+                                @Value("${acme.seat-locks.retention.batch-size:5000}") int batchSize,
+                                @Value("${acme.seat-locks.retention.max-batches-per-run:200}") int maxBatchesPerRun,
+                                @Value("${acme.seat-locks.retention.pause-ms:50}") long pauseMillis,
+                                @Value("${acme.seat-locks.retention.max-run-time:PT30S}") Duration maxRunTime) {
+        this.seatLockRepository = seatLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMillis = pauseMillis;
+        this.maxRunTime = maxRunTime;
+        this.rowsCounter = Counter.builder("seat.locks.retention.rows")
+                .description("Terminal seat locks removed from seat_lock by the retention job")
+                .tag("mode", this.mode.name().toLowerCase())
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("seat.locks.retention.batch")
+                .description("Duration of one retention batch, i.e. how long its row locks are held")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${acme.seat-locks.retention.interval-ms:600000}",
+            initialDelayString = "${acme.seat-locks.retention.interval-ms:600000}")
+    public void scheduledRun() {
+        run();
+    }
+
+    /**
+     * Runs batches until no eligible rows remain or the per-run batch or time cap is reached.
+     *
+     * @return the number of locks archived or deleted
+     */
+    public long run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved = runBatch(cutoff);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                log.info("Seat lock retention stopped after {}; the remaining locks are left to the next run", maxRunTime);
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Seat lock retention ({}) removed {} locks taken before {}", mode, total, cutoff);
+        }
+        return total;
+    }
+
+    private int runBatch(LocalDateTime cutoff) {
+        Integer moved = batchTimer.record(() -> transactionTemplate.execute(status -> mode == Mode.ARCHIVE
+                ? seatLockRepository.archiveTerminalLocks(cutoff, batchSize)
+                : seatLockRepository.deleteTerminalLocks(cutoff, batchSize)));
+        int count = moved == null ? 0 : moved;
+        rowsCounter.increment(count);
+        return count;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.acme.air.service;
+
+import com.acme.air.dto.SeatMapUpdate;
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.exception.ServiceOverloadedException;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.SeatRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes seat status changes of a schedule to its open seat map streams, so seat pickers don't have to
+ * poll flight search. A subscriber first gets a snapshot of every seat, then updates built from committed
+ * {@link SeatInventoryChangedEvent}s (locked, booked, released). The seats changed within
+ * {@code coalesce-window} are collected per schedule and their committed status is read once the window
+ * closes, so an update never shows whichever of two racing events happened to arrive last. It is
+ * serialized once for all of the schedule's subscribers. A schedule takes at most
+ * {@code max-subscribers-per-schedule} streams; further ones are turned away with
+ * {@link ServiceOverloadedException}.
+ * <p>
+ * Each subscriber has a bounded buffer and a virtual thread of its own that reads the snapshot and then
+ * writes the buffer out, so a slow connection never holds up the others. A subscriber whose buffer fills
+ * up is dropped; its client reconnects and starts again from a fresh snapshot. An idle subscriber costs a
+ * parked virtual thread and a heartbeat every {@code heartbeat}. Like the seat maps, updates are a view
+ * of the seat rows: one that arrives before the snapshot is written is sent after it and may repeat what
+ * the snapshot already shows.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.seat-map.stream.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatMapBroadcaster {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String UPDATE_EVENT = "update";
+
+    private static final Frame HEARTBEAT = new Frame(null, null);
+
+    /**
+     * Where a subscriber's events go, e.g. an SSE connection. Only called from the subscriber's own
+     * thread, except {@link #close}.
+     */
+    public interface Sink {
+
+        void send(String event, String data) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        /**
+         * Ends the stream; called once, whichever side ended it.
+         */
+        void close();
+    }
+
+    private final SeatRepository seatRepository;
+    private final FlightScheduleRepository flightScheduleRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final long coalesceWindowNanos;
+    private final int bufferSize;
+    private final int maxSubscribersPerSchedule;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadFactory writerThreads = Thread.ofVirtual().name("seat-map-stream-", 0).factory();
+    private final ThreadFactory flushThreads = Thread.ofVirtual().name("seat-map-flush-", 0).factory();
+
+    private final Counter updatesCounter;
+    private final Counter droppedCounter;
+
+    public SeatMapBroadcaster(SeatRepository seatRepository,
+                              FlightScheduleRepository flightScheduleRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${acme.seat-map.stream.coalesce-window:PT0.2S}") Duration coalesceWindow,
+                              @Value("${acme.seat-map.stream.buffer-size:32}") int bufferSize,
+                              @Value("${acme.seat-map.stream.max-subscribers-per-schedule:500}") int maxSubscribersPerSchedule,
+                              @Value("${acme.seat-map.stream.heartbeat:PT15S}") Duration heartbeat) {
+        this.seatRepository = seatRepository;
+        this.flightScheduleRepository = flightScheduleRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        this.bufferSize = bufferSize;
+        this.maxSubscribersPerSchedule = maxSubscribersPerSchedule;
+
+        // Only times flushes and queues heartbeats; reading seats and writing to connections happen elsewhere
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-map-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("seat.map.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open seat map streams")
+                .register(meterRegistry);
+        this.updatesCounter = Counter.builder("seat.map.stream.updates")
+                .description("Coalesced seat map updates sent to the subscribers of a schedule")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("seat.map.stream.dropped")
+                .description("Seat map streams closed because the client fell too far behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the schedule's seat map into {@code sink}. The snapshot is read and sent on the
+     * subscriber's own thread, so this returns straight away.
+     *
+     * @return the subscription to cancel once the client goes away, or empty if the schedule doesn't exist
+     * @throws ServiceOverloadedException if the schedule already has as many streams as it may
+     */
+    public Optional<Subscription> subscribe(Long scheduleId, Sink sink) {
+        if (!flightScheduleRepository.existsById(scheduleId)) {
+            return Optional.empty();
+        }
+        Subscription subscription = new Subscription(scheduleId, sink);
+        // Registered before the snapshot is read, so no change committed after the read is missed
+        channels.compute(scheduleId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel(id);
+            if (target.subscribers.size() >= maxSubscribersPerSchedule) {
+                // Leaves the channels as they were
+                throw new ServiceOverloadedException("Seat map of schedule " + id + " already has "
+                        + maxSubscribersPerSchedule + " streams");
+            }
+            target.subscribers.add(subscription);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+        subscription.start();
+        return Optional.of(subscription);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        Channel channel = channels.get(event.scheduleId());
+        if (channel != null) {
+            channel.record(event.seatNumbers());
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscription::cancel));
+    }
+
+    private void sendHeartbeats() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscription -> subscription.offer(HEARTBEAT)));
+    }
+
+    private String snapshot(Long scheduleId) throws JsonProcessingException {
+        List<SeatRepository.SeatStatusRef> statuses = readOnlyTransaction.execute(
+                status -> seatRepository.findSeatStatusesBySchedule(scheduleId));
+        Map<String, Seat.SeatStatus> seats = new LinkedHashMap<>(statuses.size() * 2);
+        statuses.forEach(seat -> seats.put(seat.getSeatNumber(), seat.getStatus()));
+        return objectMapper.writeValueAsString(new SeatMapUpdate(scheduleId, seats));
+    }
+
+    private record Frame(String event, String data) {}
+
+    /**
+     * The subscribers of one schedule and the changes not yet sent to them.
+     */
+    private final class Channel {
+
+        private final Long scheduleId;
+        private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+
+        // Guards pending and flushScheduled
+        private final ReentrantLock lock = new ReentrantLock();
+        private Set<String> pending = new LinkedHashSet<>();
+        // Stays set while a flush runs, so flushes of one schedule never overlap and send out of order
+        private boolean flushScheduled;
+
+        private Channel(Long scheduleId) {
+            this.scheduleId = scheduleId;
+        }
+
+        private void record(Collection<String> seatNumbers) {
+            lock.lock();
+            try {
+                pending.addAll(seatNumbers);
+                if (!flushScheduled) {
+                    flushScheduled = true;
+                    scheduleFlush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Called with the lock held
+        private void scheduleFlush() {
+            scheduler.schedule(() -> flushThreads.newThread(this::flush).start(),
+                    coalesceWindowNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void flush() {
+            Set<String> seatNumbers;
+            lock.lock();
+            try {
+                seatNumbers = pending;
+                pending = new LinkedHashSet<>();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                send(seatNumbers);
+            } catch (RuntimeException e) {
+                // Tried again with the next window's changes, so subscribers don't keep a stale seat
+                log.warn("Could not read seat map changes of schedule {}: {}", scheduleId, e.toString());
+                lock.lock();
+                try {
+                    pending.addAll(seatNumbers);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    flushScheduled = false;
+                } else {
+                    scheduleFlush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void send(Set<String> seatNumbers) {
+            List<SeatRepository.SeatStatusRef> statuses = readOnlyTransaction.execute(
+                    status -> seatRepository.findStatusesByScheduleIdAndSeatNumberIn(scheduleId, seatNumbers));
+            Map<String, Seat.SeatStatus> changes = new LinkedHashMap<>(statuses.size() * 2);
+            statuses.forEach(seat -> changes.put(seat.getSeatNumber(), seat.getStatus()));
+            if (changes.isEmpty()) {
+                return;
+            }
+            Frame frame;
+            try {
+                frame = new Frame(UPDATE_EVENT, objectMapper.writeValueAsString(new SeatMapUpdate(scheduleId, changes)));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize seat map update of schedule {}", scheduleId, e);
+                return;
+            }
+            updatesCounter.increment();
+            subscribers.forEach(subscription -> subscription.offer(frame));
+        }
+    }
+
+    /**
+     * One open stream. Its thread sends the snapshot, then whatever reaches the buffer, until the client
+     * goes away, the stream is cancelled or the buffer overflows.
+     */
+    public final class Subscription {
+
+        private final Long scheduleId;
+        private final Sink sink;
+        private final BlockingQueue<Frame> buffer;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread writer;
+
+        private Subscription(Long scheduleId, Sink sink) {
+            this.scheduleId = scheduleId;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Ends the stream, e.g. because the client disconnected or timed out. Safe to call more than once.
+         */
+        public void cancel() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            channels.computeIfPresent(scheduleId, (id, channel) -> {
+                channel.subscribers.remove(this);
+                return channel.subscribers.isEmpty() ? null : channel;
+            });
+            subscriberCount.decrementAndGet();
+            Thread thread = writer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+            sink.close();
+        }
+
+        private void start() {
+            writer = writerThreads.newThread(this::run);
+            writer.start();
+        }
+
+        private void offer(Frame frame) {
+            if (!buffer.offer(frame) && !closed.get()) {
+                droppedCounter.increment();
+                log.debug("Dropping a seat map stream of schedule {} that fell {} events behind", scheduleId, bufferSize);
+                cancel();
+            }
+        }
+
+        private void run() {
+            try {
+                sink.send(SNAPSHOT_EVENT, snapshot(scheduleId));
+                while (!closed.get()) {
+                    Frame frame = buffer.take();
+                    if (frame == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(frame.event(), frame.data());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Cancelled
+            } catch (IOException | RuntimeException e) {
+                // Usually the client went away mid-write
+                log.debug("Seat map stream of schedule {} ended: {}", scheduleId, e.toString());
+            } finally {
+                cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.acme.air.service;
+
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.model.CabinLayout;
+import com.acme.air.model.PackedSeatStates;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.CabinLayoutRepository;
+import com.acme.air.repository.SeatMapRepository;
+import com.acme.air.repository.SeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps packed seat maps in step with the seat rows, which stay the source of truth for locking and
+ * booking. After a change commits, the affected seats' committed statuses are copied into the map with
+ * a compare-and-set on its version, retried on conflict. Reading the version before the rows means a
+ * writer that loses the race always re-reads newer rows, so maps converge whatever order commits and
+ * listeners run in. A map can still fall behind: an update may give up after repeated conflicts or
+ * fail, and a crash between commit and update loses it. Schedules whose update gave up or failed are
+ * rebuilt from their seat rows on the next retry tick, and every map of an upcoming schedule is rebuilt
+ * from its rows on a slower interval to catch lost updates. Until then a stale map only affects what
+ * search shows, never what can be booked.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "acme.seats.storage", havingValue = "packed")
+public class SeatMapUpdater {
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final SeatMapRepository seatMapRepository;
+    private final SeatRepository seatRepository;
+    private final CabinLayoutRepository cabinLayoutRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Schedules whose last update gave up or failed, rebuilt by retryFailed()
+    private final Set<Long> behind = ConcurrentHashMap.newKeySet();
+
+    private final Counter conflicts;
+    private final Counter failures;
+    private final Counter rebuilds;
+
+    public SeatMapUpdater(SeatMapRepository seatMapRepository,
+                          SeatRepository seatRepository,
+                          CabinLayoutRepository cabinLayoutRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.seatMapRepository = seatMapRepository;
+        this.seatRepository = seatRepository;
+        this.cabinLayoutRepository = cabinLayoutRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.conflicts = Counter.builder("seat.map.cas.conflicts")
+                .description("Seat map updates retried because another writer changed the map first")
+                .register(meterRegistry);
+        this.failures = Counter.builder("seat.map.cas.failures")
+                .description("Seat map updates given up after repeated conflicts")
+                .register(meterRegistry);
+        this.rebuilds = Counter.builder("seat.map.rebuilds")
+                .description("Seat maps rebuilt from their seat rows by the retry or reconcile pass")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        try {
+            refresh(event.scheduleId(), event.seatNumbers());
+        } catch (RuntimeException e) {
+            behind.add(event.scheduleId());
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds the maps whose last update gave up or failed on this instance.
+     */
+    @Scheduled(fixedDelayString = "${acme.seat-map.reconcile.retry-interval-ms:5000}")
+    public void retryFailed() {
+        for (Long scheduleId : List.copyOf(behind)) {
+            behind.remove(scheduleId);
+            rebuildQuietly(scheduleId);
+        }
+    }
+
+    /**
+     * Rebuilds every map of a schedule that has not departed yet, catching updates lost when an
+     * instance stopped between a commit and its map update.
+     */
+    @Scheduled(fixedDelayString = "${acme.seat-map.reconcile.interval-ms:600000}",
+            initialDelayString = "${acme.seat-map.reconcile.interval-ms:600000}")
+    public void reconcile() {
+        List<Long> scheduleIds = seatMapRepository.findScheduleIdsDepartingAfter(ZonedDateTime.now());
+        scheduleIds.forEach(this::rebuildQuietly);
+        log.debug("Reconciled {} seat maps with their seat rows", scheduleIds.size());
+    }
+
+    /**
+     * Copies the committed status of every seat of the schedule into its seat map.
+     *
+     * @return false if the schedule has no seat map or every attempt lost to a concurrent update
+     */
+    public boolean rebuild(Long scheduleId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                seatMapRepository.findStateByScheduleId(scheduleId)
+                        .map(seatMap -> refresh(scheduleId,
+                                cabinLayoutRepository.findById(seatMap.getLayoutId()).orElseThrow().seatNumberList()))
+                        .orElse(false)));
+    }
+
+    private void rebuildQuietly(Long scheduleId) {
+        try {
+            if (rebuild(scheduleId)) {
+                rebuilds.increment();
+            }
+        } catch (RuntimeException e) {
+            behind.add(scheduleId);
+            log.warn("Failed to rebuild the seat map of schedule {}", scheduleId, e);
+        }
+    }
+
+    /**
+     * Copies the committed status of the given seats into the schedule's seat map.
+     *
+     * @return false if the schedule has no seat map or every attempt lost to a concurrent update
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean refresh(Long scheduleId, List<String> seatNumbers) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Optional<SeatMapRepository.SeatMapState> seatMap = seatMapRepository.findStateByScheduleId(scheduleId);
+            if (seatMap.isEmpty()) {
+                return false;
+            }
+            Map<String, Seat.SeatStatus> statuses = seatRepository
+                    .findStatusesByScheduleIdAndSeatNumberIn(scheduleId, seatNumbers).stream()
+                    .collect(Collectors.toMap(SeatRepository.SeatStatusRef::getSeatNumber,
+                            SeatRepository.SeatStatusRef::getStatus));
+
+            CabinLayout layout = cabinLayoutRepository.findById(seatMap.get().getLayoutId()).orElseThrow();
+            Map<String, Integer> seatIndexes = seatIndexes(layout);
+            byte[] states = Arrays.copyOf(seatMap.get().getStates(), seatMap.get().getStates().length);
+            int available = seatMap.get().getAvailable();
+            for (String seatNumber : seatNumbers) {
+                Integer index = seatIndexes.get(seatNumber);
+                if (index == null) {
+                    continue;
+                }
+                Seat.SeatStatus before = PackedSeatStates.get(states, index);
+                Seat.SeatStatus after = statuses.getOrDefault(seatNumber, Seat.SeatStatus.AVAILABLE);
+                if (before != after) {
+                    PackedSeatStates.set(states, index, after);
+                    available += (after == Seat.SeatStatus.AVAILABLE ? 1 : 0) - (before == Seat.SeatStatus.AVAILABLE ? 1 : 0);
+                }
+            }
+
+            if (seatMapRepository.compareAndSet(scheduleId, seatMap.get().getVersion(), states, available) == 1) {
+                return true;
+            }
+            conflicts.increment();
+        }
+        failures.increment();
+        behind.add(scheduleId);
+        log.warn("Gave up updating the seat map of schedule {} after {} conflicting attempts", scheduleId, MAX_ATTEMPTS);
+        return false;
+    }
+
+    private static Map<String, Integer> seatIndexes(CabinLayout layout) {
+        List<String> seatNumbers = layout.seatNumberList();
+        Map<String, Integer> indexes = new HashMap<>(seatNumbers.size() * 2);
+        for (int i = 0; i < seatNumbers.size(); i++) {
+            indexes.put(seatNumbers.get(i), i);
+        }
+        return indexes;
+    }
+}
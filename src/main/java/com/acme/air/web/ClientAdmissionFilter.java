@@ -0,0 +1,119 @@
+package com.acme.air.web;
+
+import com.acme.air.admission.ClientAdmissionLimiter;
+import com.acme.air.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link ClientAdmissionLimiter} to flight search and the booking endpoints. The client is
+ * identified by its authenticated principal, or by its address for anonymous callers; never by
+ * anything the client could simply vary per request, such as a header. A client over its rate or
+ * concurrency limit gets 429; search shed while the connection pool is saturated gets 503. Both
+ * carry {@code Retry-After}. Other paths pass through untouched.
+ */
+public class ClientAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String SEARCH_PATH = "/api/v1/flights/search";
+    private static final String BOOKINGS_PATH = "/api/v1/bookings";
+
+    private final ClientAdmissionLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public ClientAdmissionFilter(ClientAdmissionLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientAdmissionLimiter.Endpoint endpoint = endpoint(request);
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ClientAdmissionLimiter.Decision decision = limiter.tryAcquire(endpoint, clientKey(request), System.nanoTime());
+        if (!decision.allowed()) {
+            reject(response, decision);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Reactive search returns its thread before the response is written; count it until then
+                request.getAsyncContext().addListener(new ReleaseOnComplete(decision));
+            } else {
+                decision.release();
+            }
+        }
+    }
+
+    private static ClientAdmissionLimiter.Endpoint endpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(SEARCH_PATH)) {
+            return ClientAdmissionLimiter.Endpoint.SEARCH;
+        }
+        if (path.equals(BOOKINGS_PATH) || path.startsWith(BOOKINGS_PATH + "/")) {
+            return ClientAdmissionLimiter.Endpoint.BOOKING;
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        // Prefixed so a principal can never share a bucket with an address
+        return principal != null ? "principal:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, ClientAdmissionLimiter.Decision decision) throws IOException {
+        boolean shed = decision.outcome() == ClientAdmissionLimiter.Outcome.SHED;
+        response.setStatus(shed ? HttpStatus.SERVICE_UNAVAILABLE.value() : HttpStatus.TOO_MANY_REQUESTS.value());
+        // Whole seconds, rounded up so a client retrying on time finds a token
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), shed
+                ? new ErrorResponse("SERVICE_UNAVAILABLE", "The service is busy. Please retry shortly.")
+                : new ErrorResponse("TOO_MANY_REQUESTS", "Request limit exceeded. Please retry after the indicated delay."));
+    }
+
+    private record ReleaseOnComplete(ClientAdmissionLimiter.Decision decision) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            decision.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Another async cycle of the same request; keep listening for its end
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
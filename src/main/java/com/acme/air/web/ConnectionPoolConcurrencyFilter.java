@@ -0,0 +1,76 @@
+package com.acme.air.web;
+
+import com.acme.air.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests executing at once to the size of the JDBC pool.
+ * With virtual threads Tomcat no longer bounds concurrency, so without this every request would
+ * queue inside Hikari and time out there instead; here excess requests wait briefly for a permit
+ * and are rejected with 503 if none frees up.
+ */
+public class ConnectionPoolConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+    private final Timer permitWait;
+
+    public ConnectionPoolConcurrencyFilter(int maxConcurrentRequests, long maxWaitMillis,
+                                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWaitMillis = maxWaitMillis;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("http.db.permits.rejected")
+                .description("Requests rejected because no database permit became available in time")
+                .register(meterRegistry);
+        this.permitWait = Timer.builder("http.db.permits.wait")
+                .description("Time requests spent waiting for a database permit")
+                .register(meterRegistry);
+        meterRegistry.gauge("http.db.permits.available", permits, Semaphore::availablePermits);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        permitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("SERVICE_UNAVAILABLE", "The service is busy. Please retry shortly."));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.acme.air.web;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Writes a flight search response ({@code FlightsResponseWrapper} in the API contract) straight to an
+ * output stream, one flight at a time, with a single {@link JsonGenerator}. This skips the list of
+ * generated {@code FlightDTO}s and the wrapper that the mapped path builds only to serialize them.
+ * Feed it results that are already loaded, after the search's transaction has ended, so writing to a
+ * slow client never holds a database connection.
+ * <p>
+ * Output starts with the first flight. Until then nothing has been written, so an exception thrown
+ * before it can still become a normal error response. Once a flight has been written, a failure leaves
+ * the response truncated. The output matches what the {@link ObjectMapper}
+ * writes for the generated wrapper: same field names, ISO offset date-times, numbers as Jackson writes
+ * {@link BigDecimal}, and null fields (those left out with the {@code fields} parameter) omitted.
+ */
+public class FlightSearchJsonWriter implements Consumer<FlightSearchResponse.FlightDTO> {
+
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString FLIGHTS = new SerializedString("flights");
+    private static final SerializableString FLIGHT_SCHEDULE_ID = new SerializedString("flightScheduleId");
+    private static final SerializableString FLIGHT_NUMBER = new SerializedString("flightNumber");
+    private static final SerializableString AIRLINE = new SerializedString("airline");
+    private static final SerializableString ORIGIN = new SerializedString("origin");
+    private static final SerializableString DESTINATION = new SerializedString("destination");
+    private static final SerializableString DEPARTURE_TIME = new SerializedString("departureTime");
+    private static final SerializableString ARRIVAL_TIME = new SerializedString("arrivalTime");
+    private static final SerializableString PRICE_PER_SEAT = new SerializedString("pricePerSeat");
+    private static final SerializableString NUMBER_OF_PASSENGERS = new SerializedString("numberOfPassengers");
+    private static final SerializableString TOTAL_PRICE = new SerializedString("totalPrice");
+    private static final SerializableString AVAILABLE_SEATS = new SerializedString("availableSeats");
+    private static final SerializableString AVAILABLE_SEAT_NUMBERS = new SerializedString("availableSeatNumbers");
+
+    private final ObjectMapper objectMapper;
+    private final Output output;
+
+    private JsonGenerator generator;
+
+    /**
+     * @param output opened when the first flight is written, e.g. after setting the response status
+     */
+    public FlightSearchJsonWriter(ObjectMapper objectMapper, Output output) {
+        this.objectMapper = objectMapper;
+        this.output = output;
+    }
+
+    @Override
+    public void accept(FlightSearchResponse.FlightDTO flight) {
+        try {
+            if (generator == null) {
+                start();
+            }
+            writeFlight(flight);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Pushes what has been written so far to the output, e.g. to hand each flight on as it is written.
+     */
+    public void flush() {
+        if (generator == null) {
+            return;
+        }
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the flights array and the wrapper and flushes the output. Call only after every flight was
+     * written successfully; a failed search must leave the output unfinished rather than look complete.
+     *
+     * @return false if no flight was written, so the output was never opened
+     */
+    public boolean finish() {
+        if (generator == null) {
+            return false;
+        }
+        try {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.close();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void start() throws IOException {
+        // Uses the mapper's generator settings, e.g. pretty printing when INDENT_OUTPUT is enabled
+        generator = objectMapper.createGenerator(output.open(), JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeFieldName(STATUS);
+        generator.writeString("SUCCESS");
+        generator.writeFieldName(DATA);
+        generator.writeStartObject();
+        generator.writeFieldName(FLIGHTS);
+        generator.writeStartArray();
+    }
+
+    private void writeFlight(FlightSearchResponse.FlightDTO flight) throws IOException {
+        generator.writeStartObject();
+        if (flight.flightScheduleId() != null) {
+            generator.writeFieldName(FLIGHT_SCHEDULE_ID);
+            generator.writeNumber(flight.flightScheduleId());
+        }
+        writeString(FLIGHT_NUMBER, flight.flightNumber());
+        writeString(AIRLINE, flight.airline());
+        writeString(ORIGIN, flight.origin());
+        writeString(DESTINATION, flight.destination());
+        writeDateTime(DEPARTURE_TIME, flight.departureTime());
+        writeDateTime(ARRIVAL_TIME, flight.arrivalTime());
+        writeNumber(PRICE_PER_SEAT, flight.pricePerSeat());
+        writeNumber(NUMBER_OF_PASSENGERS, flight.numberOfPassengers());
+        writeNumber(TOTAL_PRICE, flight.totalPrice());
+        writeNumber(AVAILABLE_SEATS, flight.availableSeats());
+        if (flight.availableSeatNumbers() != null) {
+            generator.writeFieldName(AVAILABLE_SEAT_NUMBERS);
+            generator.writeStartArray();
+            for (String seatNumber : flight.availableSeatNumbers()) {
+                generator.writeString(seatNumber);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeString(SerializableString name, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+
+    private void writeNumber(SerializableString name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private void writeNumber(SerializableString name, BigDecimal value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private void writeDateTime(SerializableString name, ZonedDateTime value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            // Same text as Jackson writes for the OffsetDateTime fields of the generated DTO
+            generator.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Output {
+        OutputStream open() throws IOException;
+    }
+}
@@ -0,0 +1,75 @@
+package com.acme.air.web;
+
+import com.acme.air.logging.SqlTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Turns on {@link SqlTrace} for a request when it carries the trace header (e.g. {@code X-Debug-Sql: true})
+ * or is picked by the sampling rate. Traced requests are tagged {@code sqlTrace=true} in the MDC so their
+ * statements can be filtered alongside the rest of the request's log lines.
+ * <p>
+ * Traced SQL exposes the schema and costs a log line per statement, so the header is only honoured from
+ * an authenticated caller or one of the {@code trustedAddresses}; {@code *} trusts everyone, which suits
+ * local development only.
+ */
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    static final String MDC_KEY = "sqlTrace";
+    static final String ANY_ADDRESS = "*";
+
+    private final String headerName;
+    private final Set<String> trustedAddresses;
+    private final double sampleRate;
+    private final Counter traced;
+
+    public SqlTraceFilter(String headerName, Set<String> trustedAddresses, double sampleRate, MeterRegistry meterRegistry) {
+        this.headerName = headerName;
+        this.trustedAddresses = Set.copyOf(trustedAddresses);
+        this.sampleRate = sampleRate;
+        this.traced = Counter.builder("logging.sql.traced.requests")
+                .description("Requests whose SQL statements were logged")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!shouldTrace(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        traced.increment();
+        SqlTrace.begin();
+        MDC.put(MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+            SqlTrace.end();
+        }
+    }
+
+    private boolean shouldTrace(HttpServletRequest request) {
+        if (!headerName.isEmpty() && Boolean.parseBoolean(request.getHeader(headerName)) && isTrusted(request)) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean isTrusted(HttpServletRequest request) {
+        return trustedAddresses.contains(ANY_ADDRESS)
+                || request.getUserPrincipal() != null
+                || trustedAddresses.contains(request.getRemoteAddr());
+    }
+}
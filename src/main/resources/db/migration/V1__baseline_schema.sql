@@ -0,0 +1,129 @@
+-- Baseline schema, matching what the entities map to. Databases previously created with
+-- ddl-auto=update are adopted at this version (spring.flyway.baseline-on-migrate) and only receive
+-- the migrations after it.
+
+CREATE TABLE airport (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code        VARCHAR(255),
+    name        VARCHAR(255),
+    city        VARCHAR(255),
+    country     VARCHAR(255),
+    timezone_id VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE flight (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    flight_code    VARCHAR(255),
+    airline        VARCHAR(255),
+    origin_id      BIGINT REFERENCES airport (id),
+    destination_id BIGINT REFERENCES airport (id),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE flight_schedule (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    flight_id      BIGINT REFERENCES flight (id),
+    departure_time TIMESTAMP(6) WITH TIME ZONE,
+    arrival_time   TIMESTAMP(6) WITH TIME ZONE,
+    price          NUMERIC(38, 2),
+    currency       VARCHAR(255),
+    total_seats    INTEGER,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE seat (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seat_number VARCHAR(255),
+    schedule_id BIGINT REFERENCES flight_schedule (id),
+    status      VARCHAR(255) CHECK (status IN ('AVAILABLE', 'LOCKED', 'BOOKED')),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE passenger (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    phone           VARCHAR(255),
+    email           VARCHAR(255),
+    date_of_birth   DATE,
+    passport_number VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6)
+);
+
+CREATE TABLE booking (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_reference VARCHAR(255) NOT NULL UNIQUE,
+    schedule_id       BIGINT REFERENCES flight_schedule (id),
+    booking_time      TIMESTAMP(6) WITH TIME ZONE,
+    status            SMALLINT CHECK (status BETWEEN 0 AND 3),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6)
+);
+
+CREATE TABLE booking_item (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id   BIGINT NOT NULL REFERENCES booking (id),
+    passenger_id BIGINT NOT NULL REFERENCES passenger (id),
+    seat_id      BIGINT NOT NULL REFERENCES seat (id),
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE payment (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id        BIGINT UNIQUE REFERENCES booking (id),
+    method            VARCHAR(255) CHECK (method IN ('CREDIT_CARD', 'DEBIT_CARD', 'PAYPAL')),
+    total_amount_paid NUMERIC(38, 2),
+    currency          VARCHAR(255),
+    transaction_id    VARCHAR(255),
+    status            SMALLINT CHECK (status BETWEEN 0 AND 3),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6)
+);
+
+CREATE TABLE seat_lock (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_id   VARCHAR(255),
+    hold_id      VARCHAR(255),
+    seat_id      BIGINT REFERENCES seat (id),
+    passenger_id BIGINT REFERENCES passenger (id),
+    locked_at    TIMESTAMP(6),
+    expires_at   TIMESTAMP(6),
+    status       VARCHAR(255) CHECK (status IN ('ACTIVE', 'EXPIRED', 'CONFIRMED', 'RELEASED')),
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+-- Plain values rather than foreign keys, so live rows can be purged independently of the archive
+CREATE TABLE seat_lock_archive (
+    id           BIGINT PRIMARY KEY,
+    seat_id      BIGINT,
+    passenger_id BIGINT,
+    session_id   VARCHAR(255),
+    hold_id      VARCHAR(255),
+    locked_at    TIMESTAMP(6),
+    expires_at   TIMESTAMP(6),
+    status       VARCHAR(255) CHECK (status IN ('ACTIVE', 'EXPIRED', 'CONFIRMED', 'RELEASED')),
+    archived_at  TIMESTAMP(6)
+);
+
+CREATE TABLE outbox_event (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(255),
+    aggregate_id   VARCHAR(255),
+    event_type     VARCHAR(255),
+    payload        TEXT,
+    status         VARCHAR(255) CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts       INTEGER NOT NULL,
+    last_error     VARCHAR(255),
+    occurred_at    TIMESTAMP(6),
+    sent_at        TIMESTAMP(6),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
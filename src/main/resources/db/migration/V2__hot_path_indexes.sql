@@ -0,0 +1,34 @@
+-- Indexes for every filter used by the repositories. CONCURRENTLY keeps writers unblocked when this
+-- runs against a large database adopted from ddl-auto=update; Flyway runs the script outside a
+-- transaction because of it. Unique indexes enforce what find-or-create lookups already assume.
+
+-- Seat inventory: one row per seat number in a schedule; availability counts and seat-number lists
+-- are answered from the (schedule_id, status, seat_number) index alone.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_seat_schedule_seat_number ON seat (schedule_id, seat_number);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_schedule_status ON seat (schedule_id, status, seat_number);
+
+-- Partial indexes cover only the few rows still ACTIVE, so active-lock lookups stay as cheap as the
+-- set of live locks no matter how much history seat_lock keeps.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_active_seat ON seat_lock (seat_id, expires_at) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_active_session ON seat_lock (session_id) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_active_hold ON seat_lock (hold_id) WHERE status = 'ACTIVE';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_active_expiry ON seat_lock (expires_at) INCLUDE (id) WHERE status = 'ACTIVE';
+-- Any-status lookups by seat (findBySessionIdAndSeatId) and the seat foreign key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_seat_session ON seat_lock (seat_id, session_id);
+-- Lets the retention job find the oldest terminal locks without scanning live ones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_seat_lock_terminal_locked_at ON seat_lock (locked_at) WHERE status <> 'ACTIVE';
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_passenger_email ON passenger (email);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_schedule_status ON booking (schedule_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_item_booking ON booking_item (booking_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_item_passenger ON booking_item (passenger_id) INCLUDE (booking_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_booking_item_seat ON booking_item (seat_id);
+
+-- Flight search matches airport codes case-insensitively and ranges over departure time per flight
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_airport_code ON airport (upper(code));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_flight_route ON flight (origin_id, destination_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_flight_schedule_flight_departure ON flight_schedule (flight_id, departure_time);
+
+-- The outbox relay only ever reads PENDING events, in id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_event_pending ON outbox_event (id) WHERE status = 'PENDING';
@@ -0,0 +1,2 @@
+-- Optimistic-lock version for FlightSchedule, which is now held in the second-level cache
+ALTER TABLE flight_schedule ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,21 @@
+-- Optional compact seat storage (acme.seats.storage=packed): one row per schedule holding every seat's
+-- state in 2 bits, against a shared cabin layout that maps seat index to seat number. Seat rows are
+-- then only created for seats that get locked or booked.
+
+CREATE TABLE cabin_layout (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seat_numbers TEXT    NOT NULL, -- comma-separated, in seat index order
+    seat_count   INTEGER NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE seat_map (
+    schedule_id BIGINT  NOT NULL PRIMARY KEY REFERENCES flight_schedule (id),
+    layout_id   BIGINT  NOT NULL REFERENCES cabin_layout (id),
+    states      BYTEA   NOT NULL, -- 2 bits per seat, seat i in byte i / 4; 0 available, 1 locked, 2 booked
+    available   INTEGER NOT NULL,
+    version     BIGINT  NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_seat_map_layout ON seat_map (layout_id);
@@ -0,0 +1,149 @@
+-- Declarative partitioning by departure month (UTC) for the schedule-keyed tables: flight_schedule by
+-- range of departure_time and seat by range of departure_month, a copy of its schedule's month. Flight
+-- search and every per-schedule seat lookup then touch one month's partitions, and departed months can
+-- be detached whole instead of deleted row by row. Everything before the month this runs in shares one
+-- "before" partition; PartitionMaintenanceJob creates the months ahead and archives departed ones.
+--
+-- A foreign key can only reference a partitioned table through a key that includes the partition key,
+-- so the foreign keys pointing at flight_schedule and seat are dropped. Neither row is ever deleted
+-- other than by archiving its whole month.
+--
+-- Runs in one transaction and rewrites both tables; schedule it for a quiet period on large databases.
+
+-- Foreign keys into the two tables, whatever they were named (V1, or Hibernate on adopted databases)
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS table_name, conname
+              FROM pg_constraint
+              WHERE contype = 'f' AND confrelid IN ('flight_schedule'::regclass, 'seat'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END
+$$;
+
+ALTER TABLE flight_schedule RENAME TO flight_schedule_unpartitioned;
+ALTER TABLE seat RENAME TO seat_unpartitioned;
+ALTER INDEX IF EXISTS flight_schedule_pkey RENAME TO flight_schedule_unpartitioned_pkey;
+ALTER INDEX IF EXISTS seat_pkey RENAME TO seat_unpartitioned_pkey;
+ALTER INDEX IF EXISTS uk_seat_schedule_seat_number RENAME TO uk_seat_unpartitioned_schedule_seat_number;
+ALTER INDEX IF EXISTS idx_seat_schedule_status RENAME TO idx_seat_unpartitioned_schedule_status;
+ALTER INDEX IF EXISTS idx_flight_schedule_flight_departure RENAME TO idx_flight_schedule_unpartitioned_flight_departure;
+
+-- Primary and unique keys of a partitioned table must include the partition key
+CREATE TABLE flight_schedule (
+    id             BIGINT                      NOT NULL,
+    flight_id      BIGINT REFERENCES flight (id),
+    departure_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    arrival_time   TIMESTAMP(6) WITH TIME ZONE,
+    price          NUMERIC(38, 2),
+    currency       VARCHAR(255),
+    total_seats    INTEGER,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    version        BIGINT                      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, departure_time)
+) PARTITION BY RANGE (departure_time);
+
+CREATE TABLE seat (
+    id              BIGINT NOT NULL,
+    seat_number     VARCHAR(255),
+    schedule_id     BIGINT,
+    status          VARCHAR(255) CHECK (status IN ('AVAILABLE', 'LOCKED', 'BOOKED')),
+    departure_month DATE   NOT NULL, -- first day of the schedule's UTC departure month
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id, departure_month)
+) PARTITION BY RANGE (departure_month);
+
+CREATE INDEX idx_flight_schedule_flight_departure ON flight_schedule (flight_id, departure_time);
+CREATE UNIQUE INDEX uk_seat_schedule_seat_number ON seat (schedule_id, seat_number, departure_month);
+CREATE INDEX idx_seat_schedule_status ON seat (schedule_id, status, seat_number);
+
+-- Creates the flight_schedule and seat partitions of the month containing the given day, unless they
+-- exist. Called here, by PartitionMaintenanceJob and before schedules are published. Takes no locks
+-- when both partitions already exist.
+CREATE FUNCTION ensure_departure_month_partitions(month_day DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    first_day DATE := date_trunc('month', month_day)::date;
+    next_day  DATE := (date_trunc('month', month_day) + INTERVAL '1 month')::date;
+    suffix    TEXT := to_char(first_day, 'YYYYMM');
+    created   BOOLEAN := false;
+BEGIN
+    IF to_regclass('flight_schedule_p' || suffix) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF flight_schedule FOR VALUES FROM (%L) TO (%L)',
+                       'flight_schedule_p' || suffix,
+                       first_day::timestamp AT TIME ZONE 'UTC', next_day::timestamp AT TIME ZONE 'UTC');
+        created := true;
+    END IF;
+    IF to_regclass('seat_p' || suffix) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF seat FOR VALUES FROM (%L) TO (%L)',
+                       'seat_p' || suffix, first_day, next_day);
+        created := true;
+    END IF;
+    RETURN created;
+END
+$$;
+
+-- History before this month in one partition per table, then a year ahead, or further if existing
+-- schedules depart later than that
+DO $$
+DECLARE
+    this_month DATE := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    last_month DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE %I PARTITION OF flight_schedule FOR VALUES FROM (MINVALUE) TO (%L)',
+                   'flight_schedule_before_' || to_char(this_month, 'YYYYMM'),
+                   this_month::timestamp AT TIME ZONE 'UTC');
+    EXECUTE format('CREATE TABLE %I PARTITION OF seat FOR VALUES FROM (MINVALUE) TO (%L)',
+                   'seat_before_' || to_char(this_month, 'YYYYMM'), this_month);
+
+    SELECT greatest((this_month + INTERVAL '12 months')::date,
+                    date_trunc('month', max(departure_time) AT TIME ZONE 'UTC')::date)
+    INTO last_month
+    FROM flight_schedule_unpartitioned;
+
+    FOR i IN 0..(extract(YEAR FROM age(last_month, this_month)) * 12
+                 + extract(MONTH FROM age(last_month, this_month)))::int LOOP
+        PERFORM ensure_departure_month_partitions((this_month + make_interval(months => i))::date);
+    END LOOP;
+END
+$$;
+
+-- Schedules without a departure time were never searchable or bookable and cannot be placed in a
+-- partition; they are dropped along with their seats
+INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price, currency, total_seats,
+                             created_at, updated_at, version)
+SELECT id, flight_id, departure_time, arrival_time, price, currency, total_seats, created_at, updated_at, version
+FROM flight_schedule_unpartitioned
+WHERE departure_time IS NOT NULL;
+
+INSERT INTO seat (id, seat_number, schedule_id, status, departure_month, created_at, updated_at)
+SELECT s.id, s.seat_number, s.schedule_id, s.status,
+       date_trunc('month', fs.departure_time AT TIME ZONE 'UTC')::date, s.created_at, s.updated_at
+FROM seat_unpartitioned s
+         JOIN flight_schedule_unpartitioned fs ON fs.id = s.schedule_id
+WHERE fs.departure_time IS NOT NULL;
+
+DELETE FROM seat_map sm
+WHERE NOT EXISTS (SELECT 1 FROM flight_schedule fs WHERE fs.id = sm.schedule_id);
+
+DROP TABLE seat_unpartitioned;
+DROP TABLE flight_schedule_unpartitioned;
+
+-- Identity columns are not supported on partitioned tables (before PostgreSQL 17); sequences owned by
+-- the id columns behave the same for inserts and pg_get_serial_sequence()
+CREATE SEQUENCE flight_schedule_id_seq OWNED BY flight_schedule.id;
+ALTER TABLE flight_schedule ALTER COLUMN id SET DEFAULT nextval('flight_schedule_id_seq');
+SELECT setval('flight_schedule_id_seq', coalesce((SELECT max(id) FROM flight_schedule), 0) + 1, false);
+
+CREATE SEQUENCE seat_id_seq OWNED BY seat.id;
+ALTER TABLE seat ALTER COLUMN id SET DEFAULT nextval('seat_id_seq');
+SELECT setval('seat_id_seq', coalesce((SELECT max(id) FROM seat), 0) + 1, false);
+
+-- Departed months detached by PartitionMaintenanceJob in archive mode
+CREATE SCHEMA IF NOT EXISTS archive;
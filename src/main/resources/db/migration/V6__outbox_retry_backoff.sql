@@ -0,0 +1,7 @@
+-- When a pending outbox event is next due for delivery. The relay pushes it into the future while it
+-- has the event claimed, and after a failed delivery by an exponentially growing backoff, so a sink
+-- outage does not use up every event's attempts within one poll.
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP(6) NOT NULL DEFAULT now();
+
+-- The relay only reads PENDING events that are due
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending_due ON outbox_event (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,39 @@
+-- Databases first created by ddl-auto=update and adopted at V1 by baseline-on-migrate still carry the
+-- unique keys Hibernate generated for the former one-to-one seat mappings of booking_item and
+-- seat_lock. They stop a cancelled seat from ever being resold and a seat from ever getting a second
+-- lock. Their generated names differ from database to database, so they are found by column: any
+-- unique constraint, or unique index without one, on seat_id alone. On databases the migrations
+-- created there is nothing to drop.
+
+DO $$
+DECLARE
+    target RECORD;
+BEGIN
+    FOR target IN
+        SELECT c.conrelid::regclass AS table_name, c.conname AS constraint_name
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.contype = 'u'
+          AND c.conrelid IN ('booking_item'::regclass, 'seat_lock'::regclass)
+          AND cardinality(c.conkey) = 1
+          AND a.attname = 'seat_id'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', target.table_name, target.constraint_name);
+    END LOOP;
+
+    -- indkey is zero-based; partial unique indexes are deliberate and left alone
+    FOR target IN
+        SELECT i.indexrelid::regclass AS index_name
+        FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+        WHERE i.indisunique
+          AND NOT i.indisprimary
+          AND i.indpred IS NULL
+          AND i.indnkeyatts = 1
+          AND i.indrelid IN ('booking_item'::regclass, 'seat_lock'::regclass)
+          AND a.attname = 'seat_id'
+          AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)
+    LOOP
+        EXECUTE format('DROP INDEX %s', target.index_name);
+    END LOOP;
+END $$;
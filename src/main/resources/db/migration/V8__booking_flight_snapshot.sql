@@ -0,0 +1,37 @@
+-- Bookings keep their own copy of what they show of the flight (flight number and departure time) and
+-- of each passenger's seat number, so a booking stays readable and its history intact after
+-- PartitionMaintenanceJob has moved its departure month out of flight_schedule and seat.
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS flight_number VARCHAR(255);
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS departure_time TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE booking_item ADD COLUMN IF NOT EXISTS seat_number VARCHAR(255);
+
+UPDATE booking b
+SET flight_number = f.flight_code, departure_time = fs.departure_time
+FROM flight_schedule fs
+JOIN flight f ON f.id = fs.flight_id
+WHERE fs.id = b.schedule_id AND b.flight_number IS NULL;
+
+UPDATE booking_item bi
+SET seat_number = s.seat_number
+FROM seat s
+WHERE s.id = bi.seat_id AND bi.seat_number IS NULL;
+
+-- Months already archived are still readable in the archive schema; dropped ones are lost
+DO $$
+DECLARE
+    archived RECORD;
+BEGIN
+    FOR archived IN
+        SELECT tablename FROM pg_tables WHERE schemaname = 'archive' AND tablename ~ '^flight_schedule_(p|before_)\d{6}$'
+    LOOP
+        EXECUTE format('UPDATE booking b SET flight_number = f.flight_code, departure_time = fs.departure_time ' ||
+                       'FROM archive.%I fs JOIN flight f ON f.id = fs.flight_id ' ||
+                       'WHERE fs.id = b.schedule_id AND b.flight_number IS NULL', archived.tablename);
+    END LOOP;
+    FOR archived IN
+        SELECT tablename FROM pg_tables WHERE schemaname = 'archive' AND tablename ~ '^seat_(p|before_)\d{6}$'
+    LOOP
+        EXECUTE format('UPDATE booking_item bi SET seat_number = s.seat_number FROM archive.%I s ' ||
+                       'WHERE s.id = bi.seat_id AND bi.seat_number IS NULL', archived.tablename);
+    END LOOP;
+END $$;
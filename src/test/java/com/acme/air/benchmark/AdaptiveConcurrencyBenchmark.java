@@ -0,0 +1,95 @@
+package com.acme.air.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overloads flight search (many more users than database connections) with the adaptive concurrency
+ * limit off and on. Without it every request queues for a connection and latency grows with the
+ * number of users; with it the excess is shed with 503 and the requests that are served keep a
+ * stable p99. Reports both runs plus the latency of the successful searches alone.
+ * Run with {@code ./gradlew benchmark --tests "*AdaptiveConcurrencyBenchmark"}; tune with
+ * {@code -Dbench.users}, {@code -Dbench.durationSeconds}, {@code -Dbench.poolSize}.
+ */
+@Tag("benchmark")
+class AdaptiveConcurrencyBenchmark {
+
+    @Test
+    void compareSearchLatencyUnderOverloadWithAndWithoutAdaptiveLimit() throws Exception {
+        int users = Integer.getInteger("bench.users", 1000);
+        int poolSize = Integer.getInteger("bench.poolSize", 10);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 15));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        LoadDriver driver = new LoadDriver();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment()) {
+            for (boolean adaptive : new boolean[]{false, true}) {
+                String name = adaptive ? "adaptiveLimit" : "noLimit";
+                try (ConfigurableApplicationContext context = environment.start(Map.of(
+                        "spring.datasource.hikari.maximum-pool-size", poolSize,
+                        // Waiting for a connection is what the limit is meant to avoid, don't fail it early
+                        "spring.datasource.hikari.connection-timeout", 60_000,
+                        "acme.concurrency.adaptive.enabled", adaptive))) {
+                    URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                    results.put(name, run(driver, name, baseUri, users, warmup, duration, departureDate));
+                }
+            }
+        }
+
+        var report = BenchmarkReport.write("adaptive-concurrency",
+                Map.of("users", users, "poolSize", poolSize, "durationSeconds", duration.toSeconds()), results);
+        results.values().forEach(System.out::println);
+        System.out.println("Report written to " + report);
+
+        LoadResult limited = (LoadResult) results.get("adaptiveLimit");
+        LoadResult unlimited = (LoadResult) results.get("noLimit");
+        assertTrue(limited.count(200) > 0, "The limited run should still serve searches: " + limited);
+        LoadResult limitedServed = (LoadResult) limited.extra().get("served");
+        LoadResult unlimitedServed = (LoadResult) unlimited.extra().get("served");
+        assertTrue(limitedServed.p99Millis() < unlimitedServed.p99Millis(),
+                "Shedding should keep served searches faster than queueing all of them: " + results);
+    }
+
+    private static LoadResult run(LoadDriver driver, String name, URI baseUri, int users,
+                                  Duration warmup, Duration duration, LocalDate departureDate) throws Exception {
+        // The driver times every response, 503s included; served searches are timed separately
+        ThreadLocal<Long> sentAt = new ThreadLocal<>();
+        ConcurrentLinkedQueue<Long> servedLatencies = new ConcurrentLinkedQueue<>();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+
+        LoadDriver.Scenario search = (uri, user, random) -> {
+            sentAt.set(System.nanoTime());
+            return HttpRequest.newBuilder(uri.resolve(
+                            "/api/v1/flights/search?origin=AKL&destination=" + (random.nextBoolean() ? "SYD" : "WLG")
+                                    + "&departureDate=" + departureDate + "&passengers=" + (1 + random.nextInt(3))))
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+        };
+        LoadDriver.ResponseListener listener = (request, response) -> {
+            long start = sentAt.get();
+            if (response.statusCode() == 200 && start >= measureFrom) {
+                servedLatencies.add(System.nanoTime() - start);
+            }
+        };
+
+        LoadResult result = driver.run(name, baseUri, users, warmup, duration, search, listener);
+        long[] served = servedLatencies.stream().mapToLong(Long::longValue).toArray();
+        return result.withExtra("served", LoadResult.of(name + "-served", users, duration.toMillis() / 1000.0,
+                served, Map.of(200, (long) served.length)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.admission.ClientAdmissionLimiter;
+import com.acme.air.admission.ClientAdmissionLimiter.Endpoint;
+import com.acme.air.admission.ClientAdmissionLimiter.Limits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Micro benchmark of {@link ClientAdmissionLimiter} decisions (acquire plus release), single-threaded
+ * and from several platform threads sharing the client population, with the real meters. Clients
+ * get a rate high enough that the measurement covers the allowed path; rejections do the same work
+ * minus the release. No database or server is involved. Run with
+ * {@code ./gradlew benchmark --tests "*AdmissionControlBenchmark"}; tune with {@code -Dbench.clients},
+ * {@code -Dbench.threads}, {@code -Dbench.iterations}.
+ */
+@Tag("benchmark")
+class AdmissionControlBenchmark {
+
+    @Test
+    void measureDecisionCost() throws Exception {
+        int clients = Integer.getInteger("bench.clients", 10_000);
+        int threads = Integer.getInteger("bench.threads", Runtime.getRuntime().availableProcessors());
+        int iterations = Integer.getInteger("bench.iterations", 5_000_000);
+
+        Limits limits = new Limits(1e9, 1_000_000, 1_000);
+        ClientAdmissionLimiter limiter = new ClientAdmissionLimiter(
+                Map.of(Endpoint.SEARCH, limits, Endpoint.BOOKING, limits),
+                clients * 2, () -> false, new SimpleMeterRegistry());
+        String[] clientKeys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientKeys[i] = "client-" + i;
+        }
+
+        decide(limiter, clientKeys, iterations, 0); // warmup
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("singleThreadNanosPerDecision", nanosPerDecision(limiter, clientKeys, iterations, 1));
+        results.put("multiThreadNanosPerDecision", nanosPerDecision(limiter, clientKeys, iterations, threads));
+        System.out.println(results);
+
+        assertTrue((double) results.get("singleThreadNanosPerDecision") < 1_000,
+                "A decision should cost well under a microsecond: " + results);
+
+        var report = BenchmarkReport.write("admission-control",
+                Map.of("clients", clients, "threads", threads, "iterations", iterations), results);
+        System.out.println("Report written to " + report);
+    }
+
+    private static double nanosPerDecision(ClientAdmissionLimiter limiter, String[] clientKeys,
+                                           int iterations, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                workers.add(executor.submit(() -> decide(limiter, clientKeys, iterations, offset)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            // Each thread made every iteration's decision, so this is the cost as seen by one caller
+            return (double) (System.nanoTime() - started) / iterations;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int decide(ClientAdmissionLimiter limiter, String[] clientKeys, int iterations, int offset) {
+        int allowed = 0;
+        for (int i = 0; i < iterations; i++) {
+            String client = clientKeys[(i + offset * 7919) % clientKeys.length];
+            ClientAdmissionLimiter.Decision decision = limiter.tryAcquire(Endpoint.SEARCH, client, System.nanoTime());
+            if (decision.allowed()) {
+                allowed++;
+            }
+            decision.release();
+        }
+        return allowed;
+    }
+}
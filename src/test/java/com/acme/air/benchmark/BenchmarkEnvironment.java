@@ -0,0 +1,101 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.FlightBookingServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Postgres container plus a real application instance listening on a random port, seeded with
+ * {@code benchmark/seed-data.sql}. Each {@link #start} drops the schema and lets the Flyway migrations
+ * rebuild it, so runs are independent.
+ */
+final class BenchmarkEnvironment implements AutoCloseable {
+
+    static final String SEED_SCRIPT = "benchmark/seed-data.sql";
+
+    private final PostgreSQLContainer<?> postgres;
+
+    BenchmarkEnvironment() {
+        // Seed data is laid out in UTC days; make the application's "today" agree with it
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("acmeair")
+                .withUsername("test")
+                .withPassword("test")
+                .withCommand("postgres", "-c", "max_connections=300");
+        postgres.start();
+    }
+
+    PostgreSQLContainer<?> postgres() {
+        return postgres;
+    }
+
+    ConfigurableApplicationContext start(Map<String, Object> overrides, String... profiles) {
+        resetSchema();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.jpa.properties.hibernate.format_sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.acme.air", "WARN");
+        // Every simulated user shares one address, so per-client limits would throttle the whole run
+        properties.put("acme.admission.enabled", false);
+        // Shedding would blur the comparisons the other benchmarks make; AdaptiveConcurrencyBenchmark turns it on
+        properties.put("acme.concurrency.adaptive.enabled", false);
+        properties.putAll(overrides);
+
+        // Passed as command-line arguments so they win over application.yaml and profile files
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FlightBookingServiceApplication.class)
+                .profiles(profiles)
+                .run(args);
+        seed(context.getBean(DataSource.class));
+        return context;
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private void resetSchema() {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA public CASCADE");
+            statement.execute("CREATE SCHEMA public");
+            statement.execute("DROP SCHEMA IF EXISTS archive CASCADE");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to reset benchmark schema", e);
+        }
+    }
+
+    private static void seed(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(SEED_SCRIPT));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to seed benchmark data", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        postgres.stop();
+    }
+}
@@ -0,0 +1,38 @@
+package com.acme.air.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes benchmark results as JSON under {@code build/benchmarks} so runs can be diffed or charted.
+ */
+final class BenchmarkReport {
+
+    private static final Path OUTPUT_DIR = Path.of(System.getProperty("bench.outputDir", "build/benchmarks"));
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private BenchmarkReport() {
+    }
+
+    static Path write(String name, Map<String, ?> parameters, Map<String, ?> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("benchmark", name);
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("parameters", parameters);
+        report.put("results", results);
+
+        Files.createDirectories(OUTPUT_DIR);
+        Path file = OUTPUT_DIR.resolve(name + ".json");
+        MAPPER.writeValue(file.toFile(), report);
+        return file;
+    }
+}
@@ -0,0 +1,121 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.generated.dto.FlightsResponseWrapper;
+import com.acme.air.mapper.DTOMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro benchmark of the encodings the API negotiates for a flight search response: JSON, CBOR and
+ * Smile, each written and read with a mapper built the way {@code BinaryEncodingConfig} builds the
+ * converter's. Reports payload size, and time and bytes allocated to serialize and to deserialize the
+ * generated {@link FlightsResponseWrapper}. No database or server is involved. Run with
+ * {@code ./gradlew benchmark --tests "*BinaryEncodingBenchmark"}; tune with {@code -Dbench.flights},
+ * {@code -Dbench.seatsPerFlight}, {@code -Dbench.iterations}.
+ */
+@Tag("benchmark")
+class BinaryEncodingBenchmark {
+
+    private static final ZoneId ORIGIN_ZONE = ZoneId.of("Pacific/Auckland");
+    private static final ZoneId DESTINATION_ZONE = ZoneId.of("Australia/Sydney");
+
+    @Test
+    void compareJsonCborAndSmile() throws Exception {
+        int flights = Integer.getInteger("bench.flights", 20);
+        int seatsPerFlight = Integer.getInteger("bench.seatsPerFlight", 180);
+        int iterations = Integer.getInteger("bench.iterations", 20_000);
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+
+        FlightsResponseWrapper response = response(flights, seatsPerFlight);
+        ObjectMapper json = mappers.get("json");
+        FlightsResponseWrapper decodedJson = json.readValue(json.writeValueAsBytes(response), FlightsResponseWrapper.class);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(response);
+            // Every encoding carries the same document
+            assertEquals(decodedJson, mapper.readValue(payload, FlightsResponseWrapper.class));
+
+            Operation serialize = () -> mapper.writeValueAsBytes(response);
+            Operation deserialize = () -> mapper.readValue(payload, FlightsResponseWrapper.class);
+            run(serialize, iterations); // warmup
+            run(deserialize, iterations);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("payloadBytes", payload.length);
+            result.put("serialize", measure(serialize, iterations));
+            result.put("deserialize", measure(deserialize, iterations));
+            results.put(entry.getKey(), result);
+        }
+        System.out.println(results);
+
+        var report = BenchmarkReport.write("binary-encoding",
+                Map.of("flights", flights, "seatsPerFlight", seatsPerFlight, "iterations", iterations), results);
+        System.out.println("Report written to " + report);
+    }
+
+    private static FlightsResponseWrapper response(int flights, int seatsPerFlight) {
+        List<String> seatNumbers = new ArrayList<>(seatsPerFlight);
+        for (int i = 0; i < seatsPerFlight; i++) {
+            seatNumbers.add((i / 6 + 1) + String.valueOf((char) ('A' + i % 6)));
+        }
+        ZonedDateTime departure = ZonedDateTime.now(ORIGIN_ZONE).plusDays(7).withNano(0);
+        List<FlightSearchResponse.FlightDTO> results = new ArrayList<>(flights);
+        for (int i = 0; i < flights; i++) {
+            ZonedDateTime departs = departure.plusMinutes(30L * i);
+            BigDecimal price = BigDecimal.valueOf(19_900 + i * 1_000L, 2);
+            results.add(new FlightSearchResponse.FlightDTO((long) i + 1, "NZ" + (100 + i), "ACME AIR",
+                    "AKL", "SYD", departs, departs.plusHours(3).withZoneSameInstant(DESTINATION_ZONE),
+                    price, 2, price.multiply(BigDecimal.TWO), seatNumbers.size(), seatNumbers));
+        }
+        return new FlightsResponseWrapper()
+                .status(FlightsResponseWrapper.StatusEnum.SUCCESS)
+                .data(DTOMapper.convertToGeneratedDTO(new FlightSearchResponse(results)));
+    }
+
+    private static Map<String, Object> measure(Operation operation, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        run(operation, iterations);
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("microsPerResponse", elapsed / 1_000.0 / iterations);
+        result.put("bytesAllocatedPerResponse", allocated / iterations);
+        return result;
+    }
+
+    private static void run(Operation operation, int iterations) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
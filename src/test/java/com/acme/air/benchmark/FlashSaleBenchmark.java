@@ -0,0 +1,143 @@
+package com.acme.air.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Flash-sale load harness: many users hammer a single schedule with a mix of searches and bookings
+ * against the real HTTP endpoints. Reports throughput, p50/p99/p999 latency per operation, the
+ * booking conflict rate and oversell violations (seats sold twice, or more seats sold than exist).
+ *
+ * <p>Parameters ({@code -Dbench.*}):
+ * <ul>
+ *     <li>{@code users} - concurrent users (default 500)</li>
+ *     <li>{@code searchRatio} - fraction of requests that are searches (default 0.5)</li>
+ *     <li>{@code hotSeatRatio} - fraction of bookings aimed at the hot seats (default 0.8)</li>
+ *     <li>{@code hotSeats} - size of the hot seat set, taken from the front rows (default 12)</li>
+ *     <li>{@code warmupSeconds}, {@code durationSeconds} - run length (defaults 5 / 30)</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class FlashSaleBenchmark {
+
+    private static final long HOT_SCHEDULE_ID = 1L;
+    private static final int SEATS_PER_ROW = 6;
+    private static final int SEATS_PER_SCHEDULE = 180;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Test
+    void flashSaleOnSingleSchedule() throws Exception {
+        int users = Integer.getInteger("bench.users", 500);
+        double searchRatio = Double.parseDouble(System.getProperty("bench.searchRatio", "0.5"));
+        double hotSeatRatio = Double.parseDouble(System.getProperty("bench.hotSeatRatio", "0.8"));
+        int hotSeats = Integer.getInteger("bench.hotSeats", 12);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        LoadDriver.Scenario scenario = (baseUri, user, random) -> random.nextDouble() < searchRatio
+                ? search(baseUri, departureDate)
+                : book(baseUri, user, seatNumber(random, hotSeatRatio, hotSeats));
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("users", users);
+        parameters.put("searchRatio", searchRatio);
+        parameters.put("hotSeatRatio", hotSeatRatio);
+        parameters.put("hotSeats", hotSeats);
+        parameters.put("durationSeconds", duration.toSeconds());
+
+        LoadResult result;
+        long oversold;
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment();
+             ConfigurableApplicationContext context = environment.start(Map.of())) {
+            URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+            result = new LoadDriver().run("flash-sale", baseUri, users, warmup, duration, scenario);
+            oversold = countOversellViolations(new JdbcTemplate(context.getBean(DataSource.class)));
+        }
+
+        if (result.extra().get("operations") instanceof Map<?, ?> operations
+                && operations.get("POST") instanceof LoadResult bookings && bookings.requests() > 0) {
+            long conflicts = bookings.count(409);
+            result.withExtra("bookingsConfirmed", bookings.count(201))
+                    .withExtra("bookingConflicts", conflicts)
+                    .withExtra("conflictRate", (double) conflicts / bookings.requests());
+        }
+        result.withExtra("oversellViolations", oversold);
+
+        var report = BenchmarkReport.write("flash-sale", parameters, Map.of("flashSale", result));
+        System.out.println(result);
+        System.out.println("Report written to " + report);
+
+        assertEquals(0, oversold, "No seat may be sold twice and no schedule may sell more seats than it has");
+    }
+
+    private static HttpRequest search(URI baseUri, LocalDate departureDate) {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/v1/flights/search?origin=AKL&destination=SYD&departureDate="
+                        + departureDate + "&passengers=1"))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest book(URI baseUri, int user, String seatNumber) {
+        long id = sequence.incrementAndGet();
+        String body = """
+                {"flightScheduleId":%d,
+                 "passengers":[{"firstName":"Load","lastName":"User%d","email":"user%d-%d@load.test",
+                                "passportNumber":"P%d","selectedSeatNumber":"%s"}],
+                 "payment":{"method":"CREDIT_CARD","transactionId":"TXN-%d",
+                            "price":{"amountPaid":209.00,"currency":"NZD"},"status":"SUCCESS"}}
+                """.formatted(HOT_SCHEDULE_ID, user, user, id, id, seatNumber, id);
+        return HttpRequest.newBuilder(baseUri.resolve("/api/v1/bookings"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String seatNumber(ThreadLocalRandom random, double hotSeatRatio, int hotSeats) {
+        int index = random.nextDouble() < hotSeatRatio
+                ? random.nextInt(hotSeats)
+                : random.nextInt(SEATS_PER_SCHEDULE);
+        return (index / SEATS_PER_ROW + 1) + String.valueOf((char) ('A' + index % SEATS_PER_ROW));
+    }
+
+    /**
+     * Seats held by more than one confirmed booking, plus any confirmed seats beyond the schedule capacity.
+     * Booking status is stored by ordinal; 0 is CONFIRMED.
+     */
+    private static long countOversellViolations(JdbcTemplate jdbc) {
+        Long doubleSold = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM (
+                    SELECT bi.seat_id FROM booking_item bi
+                    JOIN booking b ON b.id = bi.booking_id
+                    WHERE b.status = 0
+                    GROUP BY bi.seat_id HAVING COUNT(*) > 1) double_sold
+                """, Long.class);
+        Long overCapacity = jdbc.queryForObject("""
+                SELECT COALESCE(SUM(GREATEST(sold - fs.total_seats, 0)), 0) FROM (
+                    SELECT b.schedule_id, COUNT(*) AS sold FROM booking_item bi
+                    JOIN booking b ON b.id = bi.booking_id
+                    WHERE b.status = 0
+                    GROUP BY b.schedule_id) sales
+                JOIN flight_schedule fs ON fs.id = sales.schedule_id
+                """, Long.class);
+        return (doubleSold == null ? 0 : doubleSold) + (overCapacity == null ? 0 : overCapacity);
+    }
+}
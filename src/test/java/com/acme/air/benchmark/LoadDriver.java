@@ -0,0 +1,137 @@
+package com.acme.air.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator: each simulated user (a virtual thread) sends a request, waits for
+ * the response and immediately sends the next one until the run ends. Requests issued during the
+ * warm-up period are not recorded. Results are reported overall and per operation, where the
+ * operation is the request method (e.g. GET for search, POST for booking).
+ */
+final class LoadDriver {
+
+    /**
+     * Produces the next request for a user; {@code random} is that user's private random source.
+     */
+    interface Scenario {
+        HttpRequest next(URI baseUri, int user, ThreadLocalRandom random);
+    }
+
+    /**
+     * Optional per-response hook, e.g. to count business-level conflicts.
+     */
+    interface ResponseListener {
+        void onResponse(HttpRequest request, HttpResponse<String> response);
+    }
+
+    private final HttpClient client;
+
+    LoadDriver() {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    LoadResult run(String name, URI baseUri, int users, Duration warmup, Duration duration, Scenario scenario) throws Exception {
+        return run(name, baseUri, users, warmup, duration, scenario, (request, response) -> { });
+    }
+
+    LoadResult run(String name, URI baseUri, int users, Duration warmup, Duration duration,
+                   Scenario scenario, ResponseListener listener) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Future<Map<String, Samples>>> futures = new ArrayList<>(users);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int userId = user;
+                futures.add(executor.submit(() -> runUser(baseUri, userId, measureFrom, end, scenario, listener)));
+            }
+        }
+
+        Map<String, Samples> byOperation = new TreeMap<>();
+        for (Future<Map<String, Samples>> future : futures) {
+            future.get().forEach((operation, samples) ->
+                    byOperation.computeIfAbsent(operation, key -> new Samples()).addAll(samples));
+        }
+        Samples all = new Samples();
+        byOperation.values().forEach(all::addAll);
+
+        double seconds = duration.toMillis() / 1000.0;
+        LoadResult result = all.toResult(name, users, seconds);
+        if (byOperation.size() > 1) {
+            Map<String, LoadResult> operations = new LinkedHashMap<>();
+            byOperation.forEach((operation, samples) -> operations.put(operation, samples.toResult(operation, users, seconds)));
+            result.withExtra("operations", operations);
+        }
+        return result;
+    }
+
+    private Map<String, Samples> runUser(URI baseUri, int user, long measureFrom, long end,
+                                         Scenario scenario, ResponseListener listener) {
+        Map<String, Samples> stats = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            HttpRequest request = scenario.next(baseUri, user, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                listener.onResponse(request, response);
+            } catch (Exception e) {
+                status = -1; // transport failure
+            }
+            if (start >= measureFrom) {
+                stats.computeIfAbsent(request.method(), key -> new Samples()).record(System.nanoTime() - start, status);
+            }
+        }
+        return stats;
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<Integer, Long> statusCounts = new HashMap<>();
+
+        void record(long nanos, int status) {
+            ensureCapacity(size + 1);
+            latencies[size++] = nanos;
+            statusCounts.merge(status, 1L, Long::sum);
+        }
+
+        void addAll(Samples other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            other.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+        }
+
+        LoadResult toResult(String name, int users, double seconds) {
+            return LoadResult.of(name, users, seconds, Arrays.copyOf(latencies, size), statusCounts);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(capacity, latencies.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.acme.air.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of one load run. Latencies are reported in milliseconds.
+ */
+record LoadResult(
+        String name,
+        int users,
+        double durationSeconds,
+        long requests,
+        double throughputPerSecond,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis,
+        Map<Integer, Long> statusCounts,
+        Map<String, Object> extra
+) {
+
+    static LoadResult of(String name, int users, double durationSeconds, long[] latenciesNanos,
+                         Map<Integer, Long> statusCounts) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadResult(name, users, durationSeconds, sorted.length,
+                sorted.length / durationSeconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                new TreeMap<>(statusCounts), new TreeMap<>());
+    }
+
+    LoadResult withExtra(String key, Object value) {
+        extra.put(key, value);
+        return this;
+    }
+
+    long count(int status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: users=%d requests=%d throughput=%.1f/s p50=%.2fms p99=%.2fms p999=%.2fms status=%s extra=%s",
+                name, users, requests, throughputPerSecond, p50Millis, p99Millis, p999Millis, statusCounts, extra);
+    }
+}
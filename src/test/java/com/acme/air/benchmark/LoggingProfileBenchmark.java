@@ -0,0 +1,77 @@
+package com.acme.air.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares flight search throughput and latency under the shipped development logging (DEBUG,
+ * formatted SQL on the console) and the {@code prod} profile (INFO, async JSON, no SQL), plus the
+ * {@code prod} profile with a share of requests SQL-traced. Console output of the first run is part of
+ * the cost being measured. Run with {@code ./gradlew benchmark --tests "*LoggingProfileBenchmark"};
+ * tune with {@code -Dbench.users}, {@code -Dbench.durationSeconds}, {@code -Dbench.sqlTraceRate}.
+ */
+@Tag("benchmark")
+class LoggingProfileBenchmark {
+
+    @Test
+    void compareDevelopmentAndProductionLogging() throws Exception {
+        int users = Integer.getInteger("bench.users", 200);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+        double sqlTraceRate = Double.parseDouble(System.getProperty("bench.sqlTraceRate", "0.01"));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        LoadDriver.Scenario search = (baseUri, user, random) -> HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/v1/flights/search?origin=AKL&destination=" + (random.nextBoolean() ? "SYD" : "WLG")
+                                + "&departureDate=" + departureDate + "&passengers=" + (1 + random.nextInt(3))))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        LoadDriver driver = new LoadDriver();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment()) {
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "logging.level.root", "DEBUG",
+                    "logging.level.com.acme.air", "DEBUG",
+                    "spring.jpa.show-sql", true,
+                    "spring.jpa.properties.hibernate.format_sql", true))) {
+                URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                results.put("development", driver.run("development", baseUri, users, warmup, duration, search));
+            }
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "logging.level.root", "INFO",
+                    "logging.level.com.acme.air", "INFO"), "prod")) {
+                URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                results.put("prod", driver.run("prod", baseUri, users, warmup, duration, search));
+            }
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "logging.level.root", "INFO",
+                    "logging.level.com.acme.air", "INFO",
+                    "acme.logging.sql-trace.sample-rate", sqlTraceRate), "prod")) {
+                URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                results.put("prodSqlSampled", driver.run("prod-sql-sampled", baseUri, users, warmup, duration, search)
+                        .withExtra("sqlTraceRate", sqlTraceRate));
+            }
+        }
+
+        var report = BenchmarkReport.write("logging-profiles",
+                Map.of("users", users, "durationSeconds", duration.toSeconds(), "sqlTraceRate", sqlTraceRate), results);
+        results.values().forEach(System.out::println);
+        System.out.println("Report written to " + report);
+
+        results.values().forEach(result -> assertTrue(((LoadResult) result).count(200) > 0,
+                "Every profile should serve successful searches: " + result));
+    }
+}
@@ -0,0 +1,97 @@
+package com.acme.air.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares flight search served by the blocking JPA path, on Tomcat's usual 200 request threads, with the
+ * reactive R2DBC path ({@code acme.search.reactive.enabled}) on a small request thread pool, both against
+ * the same number of database connections. Besides throughput and p99 latency it reports the peak number
+ * of live platform threads and the CPU time the process used during each run. The application runs in
+ * the benchmark's JVM, so both include the load driver, which is the same for both runs.
+ * Run with {@code ./gradlew benchmark --tests "*ReactiveSearchBenchmark"}; tune with
+ * {@code -Dbench.users}, {@code -Dbench.durationSeconds}, {@code -Dbench.poolSize},
+ * {@code -Dbench.tomcatThreads}.
+ */
+@Tag("benchmark")
+class ReactiveSearchBenchmark {
+
+    @Test
+    void compareBlockingAndReactiveSearch() throws Exception {
+        int users = Integer.getInteger("bench.users", 500);
+        int poolSize = Integer.getInteger("bench.poolSize", 20);
+        int tomcatThreads = Integer.getInteger("bench.tomcatThreads", 20);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        LoadDriver.Scenario search = (baseUri, user, random) -> HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/v1/flights/search?origin=AKL&destination=" + (random.nextBoolean() ? "SYD" : "WLG")
+                                + "&departureDate=" + departureDate + "&passengers=" + (1 + random.nextInt(3))))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        LoadDriver driver = new LoadDriver();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment()) {
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "server.tomcat.threads.max", 200,
+                    "spring.datasource.hikari.maximum-pool-size", poolSize))) {
+                results.put("blocking", measure(driver, "blocking", context, users, warmup, duration, search));
+            }
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "server.tomcat.threads.max", tomcatThreads,
+                    "server.tomcat.threads.min-spare", Math.min(10, tomcatThreads),
+                    // Search no longer uses Hikari; it only keeps the few connections the rest of the app needs
+                    "spring.datasource.hikari.maximum-pool-size", 2,
+                    "acme.search.reactive.enabled", true,
+                    "acme.search.reactive.pool-size", poolSize))) {
+                results.put("reactive", measure(driver, "reactive", context, users, warmup, duration, search));
+            }
+        }
+
+        var report = BenchmarkReport.write("reactive-search",
+                Map.of("users", users, "poolSize", poolSize, "tomcatThreads", tomcatThreads,
+                        "durationSeconds", duration.toSeconds()), results);
+        results.values().forEach(System.out::println);
+        System.out.println("Report written to " + report);
+
+        results.values().forEach(result -> assertTrue(((LoadResult) result).count(200) > 0,
+                "Every mode should serve successful searches: " + result));
+    }
+
+    private static LoadResult measure(LoadDriver driver, String name, ConfigurableApplicationContext context,
+                                      int users, Duration warmup, Duration duration,
+                                      LoadDriver.Scenario scenario) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+
+        threads.resetPeakThreadCount();
+        long cpuBefore = os.getProcessCpuTime();
+        LoadResult result = driver.run(name, baseUri, users, warmup, duration, scenario);
+        long cpuNanos = os.getProcessCpuTime() - cpuBefore;
+
+        // The CPU time includes the warmup, whose requests aren't counted; scale the measured requests up to the whole run
+        return result
+                .withExtra("peakPlatformThreads", threads.getPeakThreadCount())
+                .withExtra("cpuSeconds", cpuNanos / 1e9)
+                .withExtra("cpuMillisPerRequest", result.requests() == 0 ? 0
+                        : cpuNanos / 1e6 / result.requests() * duration.toNanos() / (double) (warmup.toNanos() + duration.toNanos()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.acme.air.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Publishes a season of schedules through {@code POST /api/v1/schedules} in one request and reports how
+ * long the schedules and their seats take to create. The default is 10,000 schedules of a 34-row
+ * six-abreast cabin, about 2M seats; the target is under a minute end to end. Run with
+ * {@code ./gradlew benchmark --tests "*SchedulePublishingBenchmark"}; tune with {@code -Dbench.schedules},
+ * {@code -Dbench.rows}, {@code -Dbench.seatLetters}.
+ */
+@Tag("benchmark")
+class SchedulePublishingBenchmark {
+
+    private static final int FLIGHTS = 5; // flights in benchmark/seed-data.sql
+    private static final Duration TARGET = Duration.ofMinutes(1);
+
+    @Test
+    void publishSeasonInOneRequest() throws Exception {
+        int schedules = Integer.getInteger("bench.schedules", 10_000);
+        int rows = Integer.getInteger("bench.rows", 34);
+        String seatLetters = System.getProperty("bench.seatLetters", "ABCDEF");
+
+        ObjectMapper mapper = new ObjectMapper();
+        String body = mapper.writeValueAsString(request(mapper, schedules, rows, seatLetters));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment();
+             ConfigurableApplicationContext context = environment.start(Map.of())) {
+            URI uri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context) + "/api/v1/schedules");
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            long schedulesBefore = jdbc.queryForObject("SELECT count(*) FROM flight_schedule", Long.class);
+            long seatsBefore = jdbc.queryForObject("SELECT count(*) FROM seat", Long.class);
+
+            HttpClient client = HttpClient.newHttpClient();
+            long started = System.nanoTime();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .timeout(Duration.ofMinutes(10))
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            assertEquals(201, response.statusCode(), response.body());
+            JsonNode data = mapper.readTree(response.body()).get("data");
+            long seatsCreated = data.get("seatsCreated").asLong();
+            long schedulesAfter = jdbc.queryForObject("SELECT count(*) FROM flight_schedule", Long.class);
+            long seatsAfter = jdbc.queryForObject("SELECT count(*) FROM seat", Long.class);
+
+            results.put("schedulesCreated", data.get("schedulesCreated").asInt());
+            results.put("seatsCreated", seatsCreated);
+            results.put("requestBytes", body.length());
+            results.put("seconds", seconds);
+            results.put("seatsPerSecond", seatsCreated / Math.max(seconds, 1e-9));
+            results.put("withinTarget", seconds <= TARGET.toSeconds());
+            System.out.println(results);
+
+            assertEquals(schedules, schedulesAfter - schedulesBefore);
+            assertEquals((long) schedules * rows * seatLetters.length(), seatsAfter - seatsBefore);
+            assertEquals(seatsAfter - seatsBefore, seatsCreated);
+        }
+
+        var report = BenchmarkReport.write("schedule-publishing",
+                Map.of("schedules", schedules, "rows", rows, "seatLetters", seatLetters,
+                        "targetSeconds", TARGET.toSeconds()), results);
+        System.out.println("Report written to " + report);
+    }
+
+    /**
+     * Spreads the schedules over the seeded flights, one departure per flight every few hours, starting
+     * a month out so they never clash with the seeded week.
+     */
+    private static ObjectNode request(ObjectMapper mapper, int schedules, int rows, String seatLetters) {
+        ObjectNode request = mapper.createObjectNode();
+        request.putObject("cabinLayout")
+                .put("rows", rows)
+                .put("seatLetters", seatLetters)
+                .putArray("skipRowNumbers").add(13);
+        ArrayNode drafts = request.putArray("schedules");
+        ZonedDateTime start = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30).truncatedTo(ChronoUnit.DAYS);
+        for (int i = 0; i < schedules; i++) {
+            ZonedDateTime departure = start.plusHours(4L * (i / FLIGHTS));
+            drafts.addObject()
+                    .put("flightId", 1 + i % FLIGHTS)
+                    .put("departureTime", departure.toOffsetDateTime().toString())
+                    .put("arrivalTime", departure.plusHours(3).toOffsetDateTime().toString())
+                    .put("price", 199.00 + (i % 10) * 10)
+                    .put("currency", "NZD");
+        }
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.generated.dto.FlightsResponseWrapper;
+import com.acme.air.mapper.DTOMapper;
+import com.acme.air.web.FlightSearchJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro benchmark of the two ways a flight search response is produced from the search results: the
+ * mapped chain (collect {@code FlightDTO} records, copy them into generated DTOs, serialize the wrapper
+ * with Jackson) and {@link FlightSearchJsonWriter} writing each loaded flight straight to the output. Reports time
+ * and bytes allocated per response, measured with the per-thread allocation counter after a warmup.
+ * No database or server is involved. Run with
+ * {@code ./gradlew benchmark --tests "*SearchSerializationBenchmark"}; tune with {@code -Dbench.flights},
+ * {@code -Dbench.seatsPerFlight}, {@code -Dbench.iterations}.
+ */
+@Tag("benchmark")
+class SearchSerializationBenchmark {
+
+    private static final ZoneId ORIGIN_ZONE = ZoneId.of("Pacific/Auckland");
+    private static final ZoneId DESTINATION_ZONE = ZoneId.of("Australia/Sydney");
+
+    @Test
+    void compareMappedAndStreamedSearchResponses() throws Exception {
+        int flights = Integer.getInteger("bench.flights", 20);
+        int seatsPerFlight = Integer.getInteger("bench.seatsPerFlight", 180);
+        int iterations = Integer.getInteger("bench.iterations", 20_000);
+
+        // Configured like the application's mapper (JavaTimeModule, ISO dates)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<String> seatNumbers = seatNumbers(seatsPerFlight);
+        ZonedDateTime departure = ZonedDateTime.now(ORIGIN_ZONE).plusDays(7).withNano(0);
+
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("mapped", out -> {
+            List<FlightSearchResponse.FlightDTO> results = new ArrayList<>();
+            search(flights, departure, seatNumbers, results::add);
+            objectMapper.writeValue(out, new FlightsResponseWrapper()
+                    .status(FlightsResponseWrapper.StatusEnum.SUCCESS)
+                    .data(DTOMapper.convertToGeneratedDTO(new FlightSearchResponse(results))));
+        });
+        variants.put("streamed", out -> {
+            List<FlightSearchResponse.FlightDTO> results = new ArrayList<>();
+            search(flights, departure, seatNumbers, results::add);
+            FlightSearchJsonWriter writer = new FlightSearchJsonWriter(objectMapper, () -> out);
+            results.forEach(writer);
+            writer.finish();
+        });
+
+        // Same document either way
+        ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        variants.get("mapped").write(mapped);
+        variants.get("streamed").write(streamed);
+        assertEquals(objectMapper.readTree(mapped.toByteArray()), objectMapper.readTree(streamed.toByteArray()));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Variant> variant : variants.entrySet()) {
+            run(variant.getValue(), iterations); // warmup
+            results.put(variant.getKey(), measure(variant.getValue(), iterations));
+        }
+        results.put("responseBytes", streamed.size());
+        System.out.println(results);
+
+        var report = BenchmarkReport.write("search-serialization",
+                Map.of("flights", flights, "seatsPerFlight", seatsPerFlight, "iterations", iterations), results);
+        System.out.println("Report written to " + report);
+    }
+
+    /**
+     * Stands in for {@code FlightService}: produces the flights of one search.
+     */
+    private static void search(int flights, ZonedDateTime departure, List<String> seatNumbers,
+                               Consumer<FlightSearchResponse.FlightDTO> consumer) {
+        for (int i = 0; i < flights; i++) {
+            ZonedDateTime departs = departure.plusMinutes(30L * i);
+            BigDecimal price = BigDecimal.valueOf(19_900 + i * 1_000L, 2);
+            consumer.accept(new FlightSearchResponse.FlightDTO((long) i + 1, "NZ" + (100 + i), "ACME AIR",
+                    "AKL", "SYD", departs, departs.plusHours(3).withZoneSameInstant(DESTINATION_ZONE),
+                    price, 2, price.multiply(BigDecimal.TWO), seatNumbers.size(), seatNumbers));
+        }
+    }
+
+    private static Map<String, Object> measure(Variant variant, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        run(variant, iterations);
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("microsPerResponse", elapsed / 1_000.0 / iterations);
+        result.put("responsesPerSecond", iterations / (elapsed / 1e9));
+        result.put("bytesAllocatedPerResponse", allocated / iterations);
+        return result;
+    }
+
+    private static void run(Variant variant, int iterations) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            variant.write(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static List<String> seatNumbers(int count) {
+        List<String> seatNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seatNumbers.add((i / 6 + 1) + String.valueOf((char) ('A' + i % 6)));
+        }
+        return seatNumbers;
+    }
+
+    @FunctionalInterface
+    private interface Variant {
+        void write(OutputStream out) throws Exception;
+    }
+}
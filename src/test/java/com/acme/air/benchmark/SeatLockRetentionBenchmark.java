@@ -0,0 +1,159 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.service.SeatLockRetentionJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Grows {@code seat_lock} with terminal history in steps and measures the active-lock lookups used on
+ * the booking path at each size, showing that the partial indexes keep them flat. Finally runs the
+ * retention job over the accumulated history and reports its throughput and per-batch duration.
+ * Run with {@code ./gradlew benchmark --tests "*SeatLockRetentionBenchmark"}; for tens of millions of
+ * rows use e.g. {@code -Dbench.rowSteps=1000000,10000000,30000000}. Other knobs: {@code -Dbench.lookups},
+ * {@code -Dbench.activeLocks}.
+ */
+@Tag("benchmark")
+class SeatLockRetentionBenchmark {
+
+    private static final int SEATS = 50 * 180; // seats in benchmark/seed-data.sql
+    private static final int INSERT_CHUNK = 1_000_000;
+
+    @Test
+    void activeLockLookupsStayFlatAsHistoryGrows() throws Exception {
+        List<Long> rowSteps = Arrays.stream(System.getProperty("bench.rowSteps", "1000000,5000000,10000000").split(","))
+                .map(String::trim)
+                .map(Long::parseLong)
+                .toList();
+        int lookups = Integer.getInteger("bench.lookups", 20_000);
+        int activeLocks = Integer.getInteger("bench.activeLocks", 2_000);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment();
+             ConfigurableApplicationContext context = environment.start(Map.of(
+                     "acme.seat-locks.expiry.enabled", false,
+                     "acme.seat-locks.retention.interval-ms", 86_400_000,
+                     "acme.seat-locks.retention.max-batches-per-run", Integer.MAX_VALUE,
+                     "acme.seat-locks.retention.max-run-time", "P1D",
+                     "acme.seat-locks.retention.pause-ms", 0))) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            insertActiveLocks(jdbc, activeLocks);
+
+            List<Map<String, Object>> steps = new ArrayList<>();
+            long rows = 0;
+            for (long target : rowSteps) {
+                rows = insertTerminalHistory(jdbc, rows, target);
+                jdbc.execute("VACUUM ANALYZE seat_lock");
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("terminalRows", rows);
+                step.put("activeBySeat", measure(dataSource, lookups,
+                        "SELECT id FROM seat_lock WHERE seat_id = ? AND status = 'ACTIVE' AND expires_at > ?",
+                        (statement, random) -> {
+                            statement.setLong(1, 1 + random.nextInt(SEATS));
+                            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                        }));
+                step.put("activeBySession", measure(dataSource, lookups,
+                        "SELECT id FROM seat_lock WHERE session_id = ? AND status = 'ACTIVE'",
+                        (statement, random) -> statement.setString(1, "active-" + random.nextInt(activeLocks))));
+                step.put("activeBySeatPlan", plan(jdbc,
+                        "SELECT id FROM seat_lock WHERE seat_id = 42 AND status = 'ACTIVE' AND expires_at > now()"));
+                steps.add(step);
+                System.out.println(step);
+            }
+            results.put("lookups", steps);
+
+            SeatLockRetentionJob retentionJob = context.getBean(SeatLockRetentionJob.class);
+            long started = System.nanoTime();
+            long archived = retentionJob.run();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            Timer batchTimer = context.getBean(MeterRegistry.class).get("seat.locks.retention.batch").timer();
+            Map<String, Object> retention = new LinkedHashMap<>();
+            retention.put("archivedRows", archived);
+            retention.put("seconds", seconds);
+            retention.put("rowsPerSecond", archived / Math.max(seconds, 1e-9));
+            retention.put("batches", batchTimer.count());
+            retention.put("maxBatchMillis", batchTimer.max(TimeUnit.MILLISECONDS));
+            results.put("retention", retention);
+            System.out.println(retention);
+
+            steps.forEach(step -> assertTrue(String.valueOf(step.get("activeBySeatPlan")).contains("idx_seat_lock_active_seat"),
+                    "Active lock lookup should use the partial index: " + step));
+            assertTrue(archived >= rows, "Retention should archive all aged terminal locks");
+        }
+
+        var report = BenchmarkReport.write("seat-lock-retention",
+                Map.of("rowSteps", rowSteps, "lookups", lookups, "activeLocks", activeLocks), results);
+        System.out.println("Report written to " + report);
+    }
+
+    private static void insertActiveLocks(JdbcTemplate jdbc, int count) {
+        jdbc.update("INSERT INTO seat_lock (seat_id, session_id, locked_at, expires_at, status) " +
+                "SELECT 1 + (g % " + SEATS + "), 'active-' || g, now(), now() + interval '10 minutes', 'ACTIVE' " +
+                "FROM generate_series(0, ?) g", count - 1);
+    }
+
+    /**
+     * Adds aged RELEASED/EXPIRED/CONFIRMED locks until the table holds {@code target} of them.
+     */
+    private static long insertTerminalHistory(JdbcTemplate jdbc, long current, long target) {
+        for (long from = current; from < target; from += INSERT_CHUNK) {
+            long to = Math.min(from + INSERT_CHUNK, target) - 1;
+            jdbc.update("INSERT INTO seat_lock (seat_id, session_id, locked_at, expires_at, status) " +
+                    "SELECT 1 + (g % " + SEATS + "), 'session-' || g, " +
+                    "now() - interval '30 days' - (g % 86400) * interval '1 second', " +
+                    "now() - interval '30 days' - (g % 86400) * interval '1 second' + interval '10 minutes', " +
+                    "(ARRAY['RELEASED', 'EXPIRED', 'CONFIRMED'])[1 + (g % 3)] " +
+                    "FROM generate_series(?, ?) g", from, to);
+        }
+        return Math.max(current, target);
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement statement, Random random) throws SQLException;
+    }
+
+    private static Map<String, Object> measure(DataSource dataSource, int lookups, String sql, Binder binder)
+            throws SQLException {
+        Random random = new Random(42);
+        long[] nanos = new long[lookups];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < lookups; i++) {
+                binder.bind(statement, random);
+                long started = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getLong(1);
+                    }
+                }
+                nanos[i] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(nanos);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50Micros", nanos[lookups / 2] / 1_000.0);
+        latency.put("p99Micros", nanos[(int) (lookups * 0.99)] / 1_000.0);
+        latency.put("maxMicros", nanos[lookups - 1] / 1_000.0);
+        return latency;
+    }
+
+    private static String plan(JdbcTemplate jdbc, String sql) {
+        return String.join(" | ", jdbc.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
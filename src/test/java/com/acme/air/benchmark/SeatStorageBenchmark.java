@@ -0,0 +1,112 @@
+package com.acme.air.benchmark;
+
+import com.acme.air.dto.SchedulePublishRequest;
+import com.acme.air.dto.SchedulePublishRequest.CabinLayout;
+import com.acme.air.dto.SchedulePublishRequest.ScheduleDraft;
+import com.acme.air.service.SchedulePublishingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the two seat storage modes ({@code acme.seats.storage}): one {@code seat} row per seat
+ * against a packed 2-bit {@code seat_map} per schedule. For each, publishes the same season of
+ * schedules, reports the on-disk size of the seat tables and then drives flight search, which reads
+ * seat counts and available seat numbers for every schedule it returns. Run with
+ * {@code ./gradlew benchmark --tests "*SeatStorageBenchmark"}; tune with {@code -Dbench.schedules},
+ * {@code -Dbench.rows}, {@code -Dbench.seatLetters}, {@code -Dbench.users}, {@code -Dbench.durationSeconds}.
+ */
+@Tag("benchmark")
+class SeatStorageBenchmark {
+
+    private static final int FLIGHTS = 5; // flights in benchmark/seed-data.sql
+    private static final int HOURS_BETWEEN_DEPARTURES = 4;
+
+    @Test
+    void compareRowAndPackedSeatStorage() throws Exception {
+        int schedules = Integer.getInteger("bench.schedules", 10_000);
+        int rows = Integer.getInteger("bench.rows", 30);
+        String seatLetters = System.getProperty("bench.seatLetters", "ABCDEF");
+        int users = Integer.getInteger("bench.users", 100);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+
+        ZonedDateTime firstDeparture = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30).toLocalDate()
+                .atStartOfDay(ZoneOffset.UTC);
+        SchedulePublishRequest season = season(firstDeparture, schedules, rows, seatLetters);
+        int days = Math.max(1, schedules / FLIGHTS * HOURS_BETWEEN_DEPARTURES / 24);
+        LocalDate firstDay = firstDeparture.toLocalDate();
+
+        // Flight 1 is AKL -> SYD; every searched day has a few of its published departures
+        LoadDriver.Scenario search = (baseUri, user, random) -> HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/v1/flights/search?origin=AKL&destination=SYD&departureDate="
+                                + firstDay.plusDays(random.nextInt(days)) + "&passengers=" + (1 + random.nextInt(3))))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        LoadDriver driver = new LoadDriver();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment()) {
+            for (String storage : List.of("rows", "packed")) {
+                try (ConfigurableApplicationContext context = environment.start(Map.of("acme.seats.storage", storage))) {
+                    long started = System.nanoTime();
+                    context.getBean(SchedulePublishingService.class).publish(season);
+                    double publishSeconds = (System.nanoTime() - started) / 1e9;
+
+                    JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+                    jdbc.execute("VACUUM ANALYZE");
+                    Map<String, Object> storageSize = new LinkedHashMap<>();
+                    for (String table : List.of("seat", "seat_map", "cabin_layout")) {
+                        storageSize.put(table + "Bytes", jdbc.queryForObject(
+                                "SELECT sum(pg_total_relation_size(relid)) FROM pg_partition_tree(?::regclass)",
+                                Long.class, table));
+                    }
+
+                    URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                    LoadResult result = driver.run(storage, baseUri, users, warmup, duration, search)
+                            .withExtra("publishSeconds", publishSeconds)
+                            .withExtra("storage", storageSize);
+                    results.put(storage, result);
+                    System.out.println(result);
+                }
+            }
+        }
+
+        var report = BenchmarkReport.write("seat-storage",
+                Map.of("schedules", schedules, "rows", rows, "seatLetters", seatLetters,
+                        "users", users, "durationSeconds", duration.toSeconds()), results);
+        System.out.println("Report written to " + report);
+
+        results.values().forEach(result -> assertTrue(((LoadResult) result).count(200) > 0,
+                "Both storage modes should serve successful searches: " + result));
+    }
+
+    private static SchedulePublishRequest season(ZonedDateTime firstDeparture, int schedules, int rows,
+                                                 String seatLetters) {
+        List<ScheduleDraft> drafts = new ArrayList<>(schedules);
+        for (int i = 0; i < schedules; i++) {
+            ZonedDateTime departure = firstDeparture.plusHours((long) HOURS_BETWEEN_DEPARTURES * (i / FLIGHTS));
+            drafts.add(new ScheduleDraft((long) (1 + i % FLIGHTS), departure, departure.plusHours(3),
+                    BigDecimal.valueOf(199 + (i % 10) * 10), "NZD"));
+        }
+        return new SchedulePublishRequest(new CabinLayout(rows, seatLetters, 1, Set.of()), drafts);
+    }
+}
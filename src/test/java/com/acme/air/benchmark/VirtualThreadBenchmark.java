@@ -0,0 +1,66 @@
+package com.acme.air.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares throughput and p99 latency of flight search with Tomcat on a bounded platform thread
+ * pool versus the {@code virtual-threads} profile, both against the same Hikari pool size.
+ * Run with {@code ./gradlew benchmark --tests "*VirtualThreadBenchmark"}; tune with
+ * {@code -Dbench.users}, {@code -Dbench.durationSeconds}, {@code -Dbench.poolSize}.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+
+    @Test
+    void compareVirtualAndPlatformThreadsUnderSearchLoad() throws Exception {
+        int users = Integer.getInteger("bench.users", 500);
+        int poolSize = Integer.getInteger("bench.poolSize", 20);
+        Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("bench.durationSeconds", 30));
+        LocalDate departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+        LoadDriver.Scenario search = (baseUri, user, random) -> HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/v1/flights/search?origin=AKL&destination=" + (random.nextBoolean() ? "SYD" : "WLG")
+                                + "&departureDate=" + departureDate + "&passengers=" + (1 + random.nextInt(3))))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        LoadDriver driver = new LoadDriver();
+        try (BenchmarkEnvironment environment = new BenchmarkEnvironment()) {
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "server.tomcat.threads.max", 200,
+                    "spring.datasource.hikari.maximum-pool-size", poolSize))) {
+                URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                results.put("platformThreads", driver.run("platform-threads", baseUri, users, warmup, duration, search));
+            }
+            try (ConfigurableApplicationContext context = environment.start(Map.of(
+                    "spring.datasource.hikari.maximum-pool-size", poolSize,
+                    "acme.concurrency.max-concurrent-requests", poolSize), "virtual-threads")) {
+                URI baseUri = URI.create("http://localhost:" + BenchmarkEnvironment.port(context));
+                results.put("virtualThreads", driver.run("virtual-threads", baseUri, users, warmup, duration, search));
+            }
+        }
+
+        var report = BenchmarkReport.write("virtual-threads",
+                Map.of("users", users, "poolSize", poolSize, "durationSeconds", duration.toSeconds()), results);
+        results.values().forEach(System.out::println);
+        System.out.println("Report written to " + report);
+
+        results.values().forEach(result -> assertTrue(((LoadResult) result).count(200) > 0,
+                "Every mode should serve successful searches: " + result));
+    }
+}
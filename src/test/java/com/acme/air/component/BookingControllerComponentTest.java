@@ -1,36 +1,49 @@
 package com.acme.air.component;
 
+import com.acme.air.config.BinaryEncodingConfig;
 import com.acme.air.controller.BookingController;
 import com.acme.air.dto.BookingRequest;
 import com.acme.air.dto.BookingResponse;
+import com.acme.air.exception.ResourceNotFoundException;
 import com.acme.air.exception.SeatUnavailableException;
 import com.acme.air.generated.dto.PaymentMethod;
 import com.acme.air.generated.dto.PaymentStatus;
 import com.acme.air.service.BookingService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.TransactionSystemException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(BookingController.class)
+@Import({BinaryEncodingConfig.class, SimpleMeterRegistry.class})
 @DisplayName("BookingController Component Tests")
 class BookingControllerComponentTest {
 
@@ -91,6 +104,33 @@ class BookingControllerComponentTest {
                 .andExpect(jsonPath("$.data.payment.currency").value("NZD"));
     }
 
+    @Test
+    @DisplayName("FAILURE: Should return 409 when the booking transaction loses a lock race")
+    void shouldReturn409OnLockFailure() throws Exception {
+        when(bookingService.createBooking(any(BookingRequest.class), anyString()))
+                .thenThrow(new CannotAcquireLockException("could not obtain lock on row in relation \"seat\""));
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidGeneratedBookingRequest())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.code").value("CONCURRENT_UPDATE"));
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 409 when the commit fails to serialize")
+    void shouldReturn409OnSerializationFailureAtCommit() throws Exception {
+        when(bookingService.createBooking(any(BookingRequest.class), anyString()))
+                .thenThrow(new TransactionSystemException("Could not commit JPA transaction",
+                        new RuntimeException(new SQLException("could not serialize access", "40001"))));
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidGeneratedBookingRequest())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.code").value("CONCURRENT_UPDATE"));
+    }
+
     @Test
     @DisplayName("FAILURE: Should return 409 when seats are unavailable")
     void shouldReturn409WhenSeatsUnavailable() throws Exception {
@@ -117,6 +157,93 @@ class BookingControllerComponentTest {
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
 
+    @Test
+    @DisplayName("SUCCESS: Should return booking by reference")
+    void shouldReturnBookingByReference() throws Exception {
+        // Given
+        when(bookingService.getBooking("AIR1234ABCD")).thenReturn(createMockBookingResponse());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/bookings/AIR1234ABCD"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.bookingId").value("AIR1234ABCD"))
+                .andExpect(jsonPath("$.data.passengers", hasSize(2)))
+                .andExpect(jsonPath("$.data.payment.transactionId").value("TXN123456"));
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should encode booking as Smile when the client asks for it")
+    void shouldReturnBookingAsSmile_WhenAccepted() throws Exception {
+        // Given
+        when(bookingService.getBooking("AIR1234ABCD")).thenReturn(createMockBookingResponse());
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/v1/bookings/AIR1234ABCD")
+                        .accept(BinaryEncodingConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryEncodingConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals("SUCCESS", decoded.get("status").asText());
+        assertEquals("AIR1234ABCD", decoded.at("/data/bookingId").asText());
+        assertEquals(2, decoded.at("/data/passengers").size());
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should accept a CBOR booking request and keep JSON as the default response")
+    void shouldCreateBookingFromCborRequest() throws Exception {
+        // Given
+        when(bookingService.createBooking(any(BookingRequest.class), anyString()))
+                .thenReturn(createMockBookingResponse());
+        byte[] request = objectMapper.copyWith(new CBORFactory()).writeValueAsBytes(createValidGeneratedBookingRequest());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.bookingId").value("AIR1234ABCD"));
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 404 for unknown booking reference")
+    void shouldReturn404ForUnknownBookingReference() throws Exception {
+        // Given
+        when(bookingService.getBooking("UNKNOWN"))
+                .thenThrow(new ResourceNotFoundException("Booking not found: UNKNOWN"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/bookings/UNKNOWN"))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("ERROR"))
+                .andExpect(jsonPath("$.error.code").value("RESOURCE_NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should cancel booking by reference")
+    void shouldCancelBooking() throws Exception {
+        // Given
+        var confirmed = createMockBookingResponse();
+        var cancelled = new BookingResponse(confirmed.bookingId(), "CANCELLED", confirmed.flightNumber(),
+                confirmed.departureDate(), confirmed.passengers(), confirmed.payment(), confirmed.createdAt());
+        when(bookingService.cancelBooking("AIR1234ABCD")).thenReturn(cancelled);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/bookings/AIR1234ABCD/cancel"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.bookingId").value("AIR1234ABCD"))
+                .andExpect(jsonPath("$.data.status").value("CANCELLED"));
+    }
+
     // Helper methods to create test data
     private com.acme.air.generated.dto.BookingRequest createValidGeneratedBookingRequest() {
         var passenger1 = new com.acme.air.generated.dto.PassengerDTO();
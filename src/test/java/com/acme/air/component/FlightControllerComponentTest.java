@@ -1,7 +1,10 @@
 package com.acme.air.component;
 
 
+import com.acme.air.config.BinaryEncodingConfig;
 import com.acme.air.controller.FlightController;
+import com.acme.air.generated.dto.FlightsResponseWrapper;
+import com.acme.air.mapper.DTOMapper;
 import com.acme.air.model.Airport;
 import com.acme.air.model.Flight;
 import com.acme.air.model.FlightSchedule;
@@ -9,7 +12,10 @@ import com.acme.air.repository.AirportRepository;
 import com.acme.air.repository.FlightScheduleRepository;
 import com.acme.air.repository.SeatRepository;
 import com.acme.air.service.FlightService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,19 +28,25 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(FlightController.class)
-@Import(FlightService.class)
+@Import({FlightService.class, BinaryEncodingConfig.class, SimpleMeterRegistry.class})
 class FlightControllerComponentTest {
 
     @Autowired
@@ -43,6 +55,9 @@ class FlightControllerComponentTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private FlightService flightService;
+
     @MockBean
     private FlightScheduleRepository flightScheduleRepository;
 
@@ -81,13 +96,11 @@ class FlightControllerComponentTest {
                 .thenReturn(schedules);
 
         // Mock seat availability
-        when(seatRepository.countAvailableSeatsBySchedule(1L)).thenReturn(50);
-        when(seatRepository.countAvailableSeatsBySchedule(2L)).thenReturn(30);
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 50, 2L, 30));
 
-        when(seatRepository.findAvailableSeatNumbersBySchedule(1L))
-                .thenReturn(Arrays.asList("1A", "1B", "2A", "2B", "3A"));
-        when(seatRepository.findAvailableSeatNumbersBySchedule(2L))
-                .thenReturn(Arrays.asList("10A", "10B", "11A", "11B"));
+        when(seatRepository.findAvailableSeatNumbersBySchedules(anyCollection())).thenReturn(Map.of(
+                1L, Arrays.asList("1A", "1B", "2A", "2B", "3A"),
+                2L, Arrays.asList("10A", "10B", "11A", "11B")));
 
         // When & Then
         mockMvc.perform(get("/api/v1/flights/search")
@@ -115,6 +128,140 @@ class FlightControllerComponentTest {
                 .andExpect(jsonPath("$.data.flights[1].availableSeats").value(4));
     }
 
+    @Test
+    @DisplayName("SUCCESS: Streamed search response should match the mapped FlightsResponseWrapper")
+    void shouldStreamSameJsonAsMappedResponse() throws Exception {
+        // Given
+        LocalDate departureDate = LocalDate.now().plusDays(7);
+        Airport laxAirport = createAirport("LAX", "Los Angeles International", "America/Los_Angeles");
+        Airport jfkAirport = createAirport("JFK", "John F. Kennedy International", "America/New_York");
+        when(airportRepository.findByCodeIgnoreCase("LAX")).thenReturn(Optional.of(laxAirport));
+        when(airportRepository.findByCodeIgnoreCase("JFK")).thenReturn(Optional.of(jfkAirport));
+
+        FlightSchedule schedule = createFlightSchedule(1L, "AA123", "American Airlines",
+                laxAirport, jfkAirport, departureDate, new BigDecimal("299.90"));
+        when(flightScheduleRepository.findFlightsByRouteAndDateRange(
+                eq("LAX"), eq("JFK"), any(ZonedDateTime.class), any(ZonedDateTime.class)))
+                .thenReturn(List.of(schedule));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 3));
+        when(seatRepository.findAvailableSeatNumbersBySchedules(anyCollection()))
+                .thenReturn(Map.of(1L, List.of("1A", "1B", "2A")));
+
+        FlightsResponseWrapper mapped = new FlightsResponseWrapper()
+                .status(FlightsResponseWrapper.StatusEnum.SUCCESS)
+                .data(DTOMapper.convertToGeneratedDTO(
+                        flightService.searchFlights("LAX", "JFK", departureDate, null, 2)));
+
+        // When
+        String streamed = mockMvc.perform(get("/api/v1/flights/search")
+                        .param("origin", "LAX")
+                        .param("destination", "JFK")
+                        .param("departureDate", departureDate.toString())
+                        .param("passengers", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(mapped)), objectMapper.readTree(streamed));
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should encode search results as CBOR when the client asks for it")
+    void shouldReturnCbor_WhenAccepted() throws Exception {
+        // Given
+        LocalDate departureDate = LocalDate.now().plusDays(7);
+        Airport laxAirport = createAirport("LAX", "Los Angeles International", "America/Los_Angeles");
+        Airport jfkAirport = createAirport("JFK", "John F. Kennedy International", "America/New_York");
+        when(airportRepository.findByCodeIgnoreCase("LAX")).thenReturn(Optional.of(laxAirport));
+        when(airportRepository.findByCodeIgnoreCase("JFK")).thenReturn(Optional.of(jfkAirport));
+
+        FlightSchedule schedule = createFlightSchedule(1L, "AA123", "American Airlines",
+                laxAirport, jfkAirport, departureDate, new BigDecimal("299.90"));
+        when(flightScheduleRepository.findFlightsByRouteAndDateRange(
+                eq("LAX"), eq("JFK"), any(ZonedDateTime.class), any(ZonedDateTime.class)))
+                .thenReturn(List.of(schedule));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 3));
+        when(seatRepository.findAvailableSeatNumbersBySchedules(anyCollection()))
+                .thenReturn(Map.of(1L, List.of("1A", "1B", "2A")));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/v1/flights/search")
+                        .param("origin", "LAX")
+                        .param("destination", "JFK")
+                        .param("departureDate", departureDate.toString())
+                        .param("passengers", "2")
+                        .header("Accept", "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then - same document as JSON, in the binary encoding
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals("SUCCESS", decoded.get("status").asText());
+        assertEquals("AA123", decoded.at("/data/flights/0/flightNumber").asText());
+        assertEquals(3, decoded.at("/data/flights/0/availableSeatNumbers").size());
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should return only the requested fields")
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        // Given
+        LocalDate departureDate = LocalDate.now().plusDays(7);
+        Airport laxAirport = createAirport("LAX", "Los Angeles International", "America/Los_Angeles");
+        Airport jfkAirport = createAirport("JFK", "John F. Kennedy International", "America/New_York");
+        when(airportRepository.findByCodeIgnoreCase("LAX")).thenReturn(Optional.of(laxAirport));
+        when(airportRepository.findByCodeIgnoreCase("JFK")).thenReturn(Optional.of(jfkAirport));
+
+        FlightSchedule schedule = createFlightSchedule(1L, "AA123", "American Airlines",
+                laxAirport, jfkAirport, departureDate, new BigDecimal("299.90"));
+        when(flightScheduleRepository.findFlightsByRouteAndDateRange(
+                eq("LAX"), eq("JFK"), any(ZonedDateTime.class), any(ZonedDateTime.class)))
+                .thenReturn(List.of(schedule));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 3));
+
+        // When & Then - streamed JSON and the mapped CBOR response leave out the same fields
+        mockMvc.perform(get("/api/v1/flights/search")
+                        .param("origin", "LAX")
+                        .param("destination", "JFK")
+                        .param("departureDate", departureDate.toString())
+                        .param("passengers", "2")
+                        .param("fields", "flightScheduleId,pricePerSeat,availableSeats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.flights[0].flightScheduleId").value(1))
+                .andExpect(jsonPath("$.data.flights[0].availableSeats").value(3))
+                .andExpect(jsonPath("$.data.flights[0].flightNumber").doesNotExist())
+                .andExpect(jsonPath("$.data.flights[0].availableSeatNumbers").doesNotExist());
+
+        byte[] body = mockMvc.perform(get("/api/v1/flights/search")
+                        .param("origin", "LAX")
+                        .param("destination", "JFK")
+                        .param("departureDate", departureDate.toString())
+                        .param("passengers", "2")
+                        .param("fields", "flightScheduleId,pricePerSeat,availableSeats")
+                        .header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        List<String> fieldNames = new ArrayList<>();
+        new ObjectMapper(new CBORFactory()).readTree(body).at("/data/flights/0").fieldNames()
+                .forEachRemaining(fieldNames::add);
+        assertEquals(List.of("flightScheduleId", "pricePerSeat", "availableSeats"), fieldNames);
+
+        verify(seatRepository, never()).findAvailableSeatNumbersBySchedules(anyCollection());
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 400 for an unknown field")
+    void shouldReturn400_WhenUnknownFieldRequested() throws Exception {
+        mockMvc.perform(get("/api/v1/flights/search")
+                        .param("origin", "LAX")
+                        .param("destination", "JFK")
+                        .param("departureDate", LocalDate.now().plusDays(7).toString())
+                        .param("passengers", "2")
+                        .param("fields", "flightNumber,seatMap"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("FAILURE: Should return 404 when no flights found")
     void shouldReturn404_WhenNoFlightsFound() throws Exception {
@@ -0,0 +1,128 @@
+package com.acme.air.component;
+
+import com.acme.air.controller.SeatHoldController;
+import com.acme.air.dto.HoldResponse;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.exception.SeatUnavailableException;
+import com.acme.air.generated.dto.HoldRequest;
+import com.acme.air.service.SeatHoldService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SeatHoldController.class)
+@Import(SimpleMeterRegistry.class)
+@DisplayName("SeatHoldController Component Tests")
+class SeatHoldControllerComponentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SeatHoldService seatHoldService;
+
+    @Test
+    @DisplayName("SUCCESS: Should hold seats for the client session")
+    void shouldCreateHold() throws Exception {
+        // Given
+        when(seatHoldService.createHold(1L, List.of("12A", "12B"), "session-123"))
+                .thenReturn(new HoldResponse("HLD0123456789ABCDEF", 1L, List.of("12A", "12B"),
+                        ZonedDateTime.now().plusMinutes(10)));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/holds")
+                        .header("X-Session-Id", "session-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createHoldRequest())))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.holdId").value("HLD0123456789ABCDEF"))
+                .andExpect(jsonPath("$.data.flightScheduleId").value(1))
+                .andExpect(jsonPath("$.data.seatNumbers[1]").value("12B"))
+                .andExpect(jsonPath("$.data.expiresAt").exists());
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 400 when the session header is missing")
+    void shouldReturn400WithoutSessionHeader() throws Exception {
+        mockMvc.perform(post("/api/v1/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createHoldRequest())))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_REQUEST"));
+
+        verifyNoInteractions(seatHoldService);
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 409 when a seat is held by another session")
+    void shouldReturn409WhenSeatAlreadyHeld() throws Exception {
+        // Given
+        when(seatHoldService.createHold(1L, List.of("12A", "12B"), "session-123"))
+                .thenThrow(new SeatUnavailableException("Seat 12A is temporarily reserved by another user"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/holds")
+                        .header("X-Session-Id", "session-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createHoldRequest())))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.code").value("SEAT_UNAVAILABLE"));
+    }
+
+    @Test
+    @DisplayName("SUCCESS: Should release a hold")
+    void shouldReleaseHold() throws Exception {
+        mockMvc.perform(delete("/api/v1/holds/HLD0123456789ABCDEF")
+                        .header("X-Session-Id", "session-123"))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        verify(seatHoldService).releaseHold("HLD0123456789ABCDEF", "session-123");
+    }
+
+    @Test
+    @DisplayName("FAILURE: Should return 404 when releasing an unknown hold")
+    void shouldReturn404ForUnknownHold() throws Exception {
+        doThrow(new ResourceNotFoundException("Hold not found: UNKNOWN"))
+                .when(seatHoldService).releaseHold("UNKNOWN", "session-123");
+
+        mockMvc.perform(delete("/api/v1/holds/UNKNOWN")
+                        .header("X-Session-Id", "session-123"))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("RESOURCE_NOT_FOUND"));
+    }
+
+    private HoldRequest createHoldRequest() {
+        var holdRequest = new HoldRequest();
+        holdRequest.setFlightScheduleId(1L);
+        holdRequest.setSeatNumbers(List.of("12A", "12B"));
+        return holdRequest;
+    }
+}
@@ -0,0 +1,81 @@
+package com.acme.air.unit;
+
+import com.acme.air.admission.AdaptiveConcurrencyLimiter;
+import com.acme.air.admission.AdaptiveConcurrencyLimiter.Permit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            "search", 20, 2, 100, 0.5, 2.0, 600, Duration.ZERO, meterRegistry);
+    private long now = 1_000 * MILLI;
+
+    @Test
+    void tryAcquire_ShedsRequestsOverTheLimitUntilOneCompletes() {
+        List<Permit> permits = acquireAll();
+
+        assertEquals(20, permits.size());
+        assertNull(limiter.tryAcquire(now));
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected").tag("name", "search").counter().count());
+
+        permits.get(0).ignore();
+        assertNotNull(limiter.tryAcquire(now));
+        assertEquals(20, limiter.getInFlight());
+    }
+
+    @Test
+    void limit_GrowsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        for (int i = 0; i < 40; i++) {
+            round(10);
+        }
+        assertEquals(100, limiter.getLimit());
+        assertEquals(100.0, meterRegistry.get("concurrency.limit").tag("name", "search").gauge().value());
+
+        // Four times the baseline latency: requests are queueing somewhere downstream
+        round(40);
+        assertTrue(limiter.getLimit() < 40, "limit should shrink quickly: " + limiter.getLimit());
+        int afterFirstSlowRound = limiter.getLimit();
+        round(40);
+        assertTrue(limiter.getLimit() < afterFirstSlowRound);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void dropped_CutsTheLimitByATenth() {
+        Permit permit = limiter.tryAcquire(now);
+
+        permit.dropped();
+
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("concurrency.dropped").tag("name", "search").counter().count());
+    }
+
+    /**
+     * Admits as many requests as the limit allows and completes them all after {@code latencyMillis}.
+     */
+    private void round(long latencyMillis) {
+        List<Permit> permits = acquireAll();
+        now += latencyMillis * MILLI;
+        permits.forEach(permit -> permit.success(now));
+    }
+
+    private List<Permit> acquireAll() {
+        List<Permit> permits = new ArrayList<>();
+        for (Permit permit = limiter.tryAcquire(now); permit != null; permit = limiter.tryAcquire(now)) {
+            permits.add(permit);
+        }
+        return permits;
+    }
+}
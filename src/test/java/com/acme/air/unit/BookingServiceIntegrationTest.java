@@ -2,21 +2,33 @@ package com.acme.air.unit;
 
 import com.acme.air.dto.BookingRequest;
 import com.acme.air.dto.BookingResponse;
+import com.acme.air.dto.HoldResponse;
 import com.acme.air.dto.PaymentMethod;
 import com.acme.air.dto.PaymentStatus;
+import com.acme.air.event.SeatInventoryChangedEvent;
 import com.acme.air.exception.BookingConflictException;
+import com.acme.air.exception.ResourceNotFoundException;
 import com.acme.air.exception.SeatUnavailableException;
+import com.acme.air.metrics.QueryBudget;
 import com.acme.air.model.*;
 import com.acme.air.repository.*;
 import com.acme.air.service.BookingIdGenerator;
 import com.acme.air.service.BookingService;
+import com.acme.air.service.SeatHoldService;
+import com.acme.air.service.SeatLockRetentionJob;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -40,6 +52,8 @@ import org.testcontainers.shaded.com.google.common.base.Verify;
 @SpringBootTest
 @Testcontainers
 @Transactional
+@RecordApplicationEvents
+@ExtendWith(QueryBudgetExtension.class)
 class BookingServiceIntegrationTest {
 
     @Container
@@ -55,7 +69,7 @@ class BookingServiceIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
     }
 
     @Autowired
@@ -78,6 +92,18 @@ class BookingServiceIntegrationTest {
     PassengerRepository passengerRepository;
     @Autowired
     SeatLockRepository seatLockRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    PaymentRepository paymentRepository;
+    @Autowired
+    ApplicationEvents applicationEvents;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    @Autowired
+    SeatHoldService seatHoldService;
+    @Autowired
+    SeatLockRetentionJob seatLockRetentionJob;
 
     private BookingRequest validRequest;
     private FlightSchedule flightSchedule;
@@ -137,6 +163,8 @@ class BookingServiceIntegrationTest {
     }
 
     @Test
+    // About 20 statements for one passenger; only the two outbox events share a statement
+    @QueryBudget(value = 22, maxRepeats = 2)
     void createBooking_ValidSinglePassenger_Success() {
         // Act
         BookingResponse response = bookingService.createBooking(validRequest, sessionId);
@@ -201,6 +229,9 @@ class BookingServiceIntegrationTest {
         Booking booking = savedBooking.get();
         assertEquals(Booking.BookingStatus.CONFIRMED, booking.getStatus());
         assertEquals(flightSchedule.getId(), booking.getSchedule().getId());
+        // The booking keeps its own copy of the flight, to stay readable once the schedule is archived
+        assertEquals("AA123", booking.getFlightNumber());
+        assertEquals(flightSchedule.getDepartureTime().toInstant(), booking.getDepartureTime().toInstant());
 
         // Verify all passengers were booked
         assertNotNull(booking.getBookingItems());
@@ -213,6 +244,7 @@ class BookingServiceIntegrationTest {
                 .sorted()
                 .toList();
         assertEquals(expectedSeatNumbers, actualSeatNumbers);
+        assertEquals(expectedSeatNumbers, booking.getBookingItems().stream().map(BookingItem::getSeatNumber).sorted().toList());
 
         // Verify passenger details
         List<String> expectedEmails = Stream.of("john@example.com", "jane@example.com", "bob@example.com").sorted().toList();
@@ -386,4 +418,298 @@ class BookingServiceIntegrationTest {
         assertTrue(passengerEmails.contains("other@example.com"), "Should contain lock-holding passenger");
         assertTrue(passengerEmails.contains("jane.smith@example.com"), "Should contain failed booking passenger");
     }
+
+    @Test
+    void getBooking_LoadsBookingGraphInSingleStatementRegardlessOfPassengerCount() {
+        // Arrange - one single-passenger booking and one three-passenger booking
+        when(bookingIdGenerator.generateBookingReference()).thenReturn("ABC123", "DEF456");
+        bookingService.createBooking(validRequest, sessionId);
+
+        Seat seat2 = new Seat();
+        seat2.setSeatNumber("14A");
+        seat2.setStatus(Seat.SeatStatus.AVAILABLE);
+        seat2.setSchedule(flightSchedule);
+        seatRepository.save(seat2);
+        Seat seat3 = new Seat();
+        seat3.setSeatNumber("14B");
+        seat3.setStatus(Seat.SeatStatus.AVAILABLE);
+        seat3.setSchedule(flightSchedule);
+        seatRepository.save(seat3);
+        Seat seat4 = new Seat();
+        seat4.setSeatNumber("14C");
+        seat4.setStatus(Seat.SeatStatus.AVAILABLE);
+        seat4.setSchedule(flightSchedule);
+        seatRepository.save(seat4);
+
+        BookingRequest.PriceDTO priceDTO = new BookingRequest.PriceDTO(new BigDecimal("899.97"), "USD");
+        BookingRequest groupRequest = new BookingRequest(flightSchedule.getId(), List.of(
+                new BookingRequest.PassengerDTO("Jane", "Smith", "jane@example.com", "P789012", "14A"),
+                new BookingRequest.PassengerDTO("Bob", "Johnson", "bob@example.com", "P345678", "14B"),
+                new BookingRequest.PassengerDTO("Amy", "Lee", "amy@example.com", "P901234", "14C")),
+                new BookingRequest.PaymentInfoDTO(PaymentMethod.CREDIT_CARD, "TXN456", priceDTO, PaymentStatus.SUCCESS));
+        bookingService.createBooking(groupRequest, "session-456");
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        // Act
+        statistics.clear();
+        BookingResponse single = bookingService.getBooking("ABC123");
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        BookingResponse group = bookingService.getBooking("DEF456");
+        long groupStatements = statistics.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(1, single.passengers().size());
+        assertEquals(3, group.passengers().size());
+        assertEquals("TXN456", group.payment().transactionId());
+        assertTrue(singleStatements >= 1 && singleStatements <= 2,
+                "Single-passenger retrieval issued " + singleStatements + " statements");
+        assertEquals(singleStatements, groupStatements,
+                "Statement count must not grow with the number of passengers");
+    }
+
+    @Test
+    void getBooking_UnknownReference_ThrowsResourceNotFoundException() {
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> bookingService.getBooking("UNKNOWN")
+        );
+        assertEquals("Booking not found: UNKNOWN", exception.getMessage());
+    }
+
+    @Test
+    void cancelBooking_ConfirmedBooking_ReleasesSeatsAndAllowsRebooking() {
+        // Arrange
+        BookingResponse booked = bookingService.createBooking(validRequest, sessionId);
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        assertEquals(Seat.SeatStatus.BOOKED, seat.getStatus());
+
+        // Act
+        BookingResponse cancelled = bookingService.cancelBooking(booked.bookingId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert - booking, payment and seat state
+        assertEquals("CANCELLED", cancelled.status());
+        Booking booking = bookingRepository.findByBookingReference(booked.bookingId()).orElseThrow();
+        assertEquals(Booking.BookingStatus.CANCELLED, booking.getStatus());
+        assertEquals(Payment.PaymentStatus.REFUNDED, paymentRepository.findAll().get(0).getStatus());
+        assertEquals(Seat.SeatStatus.AVAILABLE, seatRepository.findById(seat.getId()).orElseThrow().getStatus());
+
+        // Assert - inventory change published for the released seat
+        List<SeatInventoryChangedEvent> releases = applicationEvents.stream(SeatInventoryChangedEvent.class)
+                .filter(event -> event.status() == Seat.SeatStatus.AVAILABLE)
+                .toList();
+        assertEquals(1, releases.size());
+        assertEquals(List.of("12A"), releases.get(0).seatNumbers());
+
+        // Assert - the released seat can be sold again
+        when(bookingIdGenerator.generateBookingReference()).thenReturn("DEF456");
+        BookingRequest rebookRequest = new BookingRequest(flightSchedule.getId(),
+                List.of(new BookingRequest.PassengerDTO("Jane", "Smith", "jane@example.com", "P789012", "12A")),
+                validRequest.payment());
+        BookingResponse rebooked = bookingService.createBooking(rebookRequest, "session-456");
+        assertEquals("CONFIRMED", rebooked.status());
+        assertEquals("12A", rebooked.passengers().get(0).seatNumber());
+    }
+
+    @Test
+    void cancelBooking_SeatNoLongerBooked_IsNotAnnouncedAsReleased() {
+        // Arrange - the booked seat was already put back by hand
+        BookingResponse booked = bookingService.createBooking(validRequest, sessionId);
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        seatRepository.releaseBookedSeats(List.of(seat.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        BookingResponse cancelled = bookingService.cancelBooking(booked.bookingId());
+
+        // Assert - booking cancelled, but no AVAILABLE event for a seat this cancellation did not release
+        assertEquals("CANCELLED", cancelled.status());
+        assertTrue(applicationEvents.stream(SeatInventoryChangedEvent.class)
+                .noneMatch(event -> event.status() == Seat.SeatStatus.AVAILABLE));
+    }
+
+    @Test
+    void cancelBooking_AlreadyCancelled_ThrowsBookingConflictException() {
+        BookingResponse booked = bookingService.createBooking(validRequest, sessionId);
+        bookingService.cancelBooking(booked.bookingId());
+
+        BookingConflictException exception = assertThrows(
+                BookingConflictException.class,
+                () -> bookingService.cancelBooking(booked.bookingId())
+        );
+        assertTrue(exception.getMessage().contains("CANCELLED"),
+                "Exception message should mention the current status: " + exception.getMessage());
+    }
+
+    @Test
+    void createBooking_RecordsConfirmationAndInventoryEventsInOutbox() {
+        // Act
+        bookingService.createBooking(validRequest, sessionId);
+        entityManager.flush();
+
+        // Assert - both events were written in the booking transaction, pending relay
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(Set.of("BookingConfirmedEvent", "SeatInventoryChangedEvent"),
+                events.stream().map(OutboxEvent::getEventType).collect(Collectors.toSet()));
+        assertTrue(events.stream().allMatch(event -> event.getStatus() == OutboxEvent.OutboxStatus.PENDING));
+        OutboxEvent confirmation = events.stream()
+                .filter(event -> event.getEventType().equals("BookingConfirmedEvent"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("ABC123", confirmation.getAggregateId());
+        assertTrue(confirmation.getPayload().contains("john@example.com"));
+    }
+
+    @Test
+    void createHold_LocksSeatsForSessionAndRejectsOtherSessions() {
+        // Act
+        HoldResponse hold = seatHoldService.createHold(flightSchedule.getId(), List.of("12a"), sessionId);
+
+        // Assert - seat locked and backed by an active lock carrying the hold id
+        assertEquals(List.of("12A"), hold.seatNumbers());
+        assertTrue(hold.expiresAt().isAfter(ZonedDateTime.now()));
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        assertEquals(Seat.SeatStatus.LOCKED, seat.getStatus());
+        List<SeatLock> locks = seatLockRepository.findActiveLocksByHoldId(hold.holdId());
+        assertEquals(1, locks.size());
+        assertEquals(sessionId, locks.get(0).getSessionId());
+
+        // Assert - another session can neither hold nor book the seat
+        assertThrows(SeatUnavailableException.class,
+                () -> seatHoldService.createHold(flightSchedule.getId(), List.of("12A"), "session-456"));
+        BookingRequest otherRequest = new BookingRequest(flightSchedule.getId(),
+                List.of(new BookingRequest.PassengerDTO("Jane", "Smith", "jane@example.com", "P789012", "12A")),
+                validRequest.payment());
+        assertThrows(SeatUnavailableException.class, () -> bookingService.createBooking(otherRequest, "session-456"));
+    }
+
+    @Test
+    void createBooking_FromHold_ConvertsHoldIntoBooking() {
+        // Arrange
+        HoldResponse hold = seatHoldService.createHold(flightSchedule.getId(), List.of("12A"), sessionId);
+        BookingRequest holdRequest = new BookingRequest(validRequest.flightScheduleId(), validRequest.passengers(),
+                validRequest.payment(), hold.holdId());
+
+        // Act
+        BookingResponse response = bookingService.createBooking(holdRequest, sessionId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert - seat booked and the hold consumed
+        assertEquals("CONFIRMED", response.status());
+        assertEquals("12A", response.passengers().get(0).seatNumber());
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        assertEquals(Seat.SeatStatus.BOOKED, seat.getStatus());
+        assertTrue(seatLockRepository.findActiveLocksByHoldId(hold.holdId()).isEmpty());
+        assertEquals(SeatLock.LockStatus.CONFIRMED, seatLockRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void createBooking_FromHoldOfAnotherSession_ThrowsResourceNotFoundException() {
+        HoldResponse hold = seatHoldService.createHold(flightSchedule.getId(), List.of("12A"), sessionId);
+        BookingRequest holdRequest = new BookingRequest(validRequest.flightScheduleId(), validRequest.passengers(),
+                validRequest.payment(), hold.holdId());
+
+        assertThrows(ResourceNotFoundException.class, () -> bookingService.createBooking(holdRequest, "session-456"));
+    }
+
+    @Test
+    void releaseHold_MakesSeatsAvailableAgain() {
+        // Arrange
+        HoldResponse hold = seatHoldService.createHold(flightSchedule.getId(), List.of("12A"), sessionId);
+
+        // Act
+        seatHoldService.releaseHold(hold.holdId(), sessionId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        assertEquals(Seat.SeatStatus.AVAILABLE, seat.getStatus());
+        assertEquals(SeatLock.LockStatus.RELEASED, seatLockRepository.findAll().get(0).getStatus());
+        HoldResponse rehold = seatHoldService.createHold(flightSchedule.getId(), List.of("12A"), "session-456");
+        assertEquals(List.of("12A"), rehold.seatNumbers());
+    }
+
+    @Test
+    void expiredLockQueries_ReleaseLapsedSeatsButKeepLiveOnes() {
+        // Arrange - 12A held by a lapsed lock, 12B held by a live one
+        Seat lapsedSeat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        Seat liveSeat = new Seat();
+        liveSeat.setSeatNumber("12B");
+        liveSeat.setSchedule(flightSchedule);
+        seatRepository.save(liveSeat);
+        SeatLock lapsed = saveLock(lapsedSeat, LocalDateTime.now().minusMinutes(1));
+        SeatLock live = saveLock(liveSeat, LocalDateTime.now().plusMinutes(5));
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> lockIds = List.of(lapsed.getId(), live.getId());
+
+        // Act - the statements the expiry sweeper runs for one batch
+        List<Long> seatIds = seatLockRepository.lockSeatsOfExpiredLocks(lockIds, now);
+        int expired = seatLockRepository.expireLocks(lockIds, now);
+        List<SeatRepository.SeatRef> releasable = seatRepository.findLockedSeatsWithoutLiveLock(seatIds, now);
+        int released = seatRepository.releaseLockedSeats(releasable.stream().map(SeatRepository.SeatRef::getId).toList());
+        entityManager.clear();
+
+        // Assert
+        assertEquals(List.of(lapsedSeat.getId()), seatIds);
+        assertEquals(1, expired);
+        assertEquals(1, released);
+        assertEquals("12A", releasable.get(0).getSeatNumber());
+        assertEquals(flightSchedule.getId(), releasable.get(0).getScheduleId());
+        assertEquals(Seat.SeatStatus.AVAILABLE, seatRepository.findById(lapsedSeat.getId()).orElseThrow().getStatus());
+        assertEquals(Seat.SeatStatus.LOCKED, seatRepository.findById(liveSeat.getId()).orElseThrow().getStatus());
+        assertEquals(SeatLock.LockStatus.EXPIRED, seatLockRepository.findById(lapsed.getId()).orElseThrow().getStatus());
+        assertEquals(SeatLock.LockStatus.ACTIVE, seatLockRepository.findById(live.getId()).orElseThrow().getStatus());
+    }
+
+    private SeatLock saveLock(Seat seat, LocalDateTime expiresAt) {
+        seat.setStatus(Seat.SeatStatus.LOCKED);
+        seatRepository.save(seat);
+        SeatLock lock = new SeatLock();
+        lock.setSeat(seat);
+        lock.setSessionId(sessionId);
+        lock.setLockedAt(expiresAt.minusMinutes(10));
+        lock.setExpiresAt(expiresAt);
+        lock.setStatus(SeatLock.LockStatus.ACTIVE);
+        return seatLockRepository.save(lock);
+    }
+
+    @Test
+    void retentionJob_ArchivesOnlyOldTerminalLocks() {
+        // Arrange - an old released lock, a recent released lock and an old lock that is still active
+        Seat seat = seatRepository.findByScheduleIdAndSeatNumberIn(flightSchedule.getId(), List.of("12A")).get(0);
+        SeatLock oldReleased = saveLock(seat, LocalDateTime.now().minusDays(30));
+        oldReleased.setStatus(SeatLock.LockStatus.RELEASED);
+        SeatLock recentReleased = saveLock(seat, LocalDateTime.now().minusHours(1));
+        recentReleased.setStatus(SeatLock.LockStatus.RELEASED);
+        SeatLock oldActive = saveLock(seat, LocalDateTime.now().minusDays(30));
+        seatLockRepository.saveAll(List.of(oldReleased, recentReleased));
+        entityManager.flush();
+
+        // Act
+        long archived = seatLockRetentionJob.run();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, archived);
+        assertTrue(seatLockRepository.findById(oldReleased.getId()).isEmpty());
+        assertTrue(seatLockRepository.findById(recentReleased.getId()).isPresent());
+        assertTrue(seatLockRepository.findById(oldActive.getId()).isPresent());
+        SeatLockArchive archive = entityManager.find(SeatLockArchive.class, oldReleased.getId());
+        assertNotNull(archive);
+        assertEquals(seat.getId(), archive.getSeatId());
+        assertEquals(SeatLock.LockStatus.RELEASED, archive.getStatus());
+        assertNotNull(archive.getArchivedAt());
+    }
 }
@@ -7,11 +7,15 @@ import com.acme.air.dto.PaymentStatus;
 import com.acme.air.exception.BookingConflictException;
 import com.acme.air.exception.ResourceNotFoundException;
 import com.acme.air.exception.SeatUnavailableException;
+import com.acme.air.metrics.BookingMetrics;
 import com.acme.air.model.*;
 import com.acme.air.repository.*;
 import com.acme.air.service.BookingIdGenerator;
 import com.acme.air.service.BookingService;
+import com.acme.air.service.SeatHoldService;
 import com.acme.air.service.SeatLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -19,12 +23,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
@@ -58,6 +68,15 @@ class BookingServiceTest {
     private BookingIdGenerator bookingIdGenerator;
     @Mock
     private SeatLockService seatLockService;
+    @Mock
+    private SeatHoldService seatHoldService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry, 1.0);
 
     @InjectMocks
     private BookingService bookingService;
@@ -76,6 +95,11 @@ class BookingServiceTest {
         setupValidRequest();
     }
 
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
     private void setupTestData() {
         // Flight Schedule
         flightSchedule = new FlightSchedule();
@@ -119,6 +143,8 @@ class BookingServiceTest {
         booking.setBookingReference("ABC123");
         booking.setStatus(Booking.BookingStatus.CONFIRMED);
         booking.setSchedule(flightSchedule);
+        booking.setFlightNumber("AA123");
+        booking.setDepartureTime(flightSchedule.getDepartureTime());
         booking.setBookingTime(ZonedDateTime.now());
 
         // Payment
@@ -216,6 +242,112 @@ class BookingServiceTest {
         assertTrue(exception.getMessage().contains("Invalid seat numbers for this flight"));
     }
 
+    @Test
+    void createBooking_SeatAlreadyBooked_RecordsSeatConflictMetrics() {
+        seat1.setStatus(Seat.SeatStatus.BOOKED);
+        when(flightScheduleRepository.findById(1L)).thenReturn(Optional.of(flightSchedule));
+        when(passengerRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(passenger1);
+        when(seatRepository.findByScheduleIdAndSeatNumberIn(1L, List.of("12A"))).thenReturn(List.of(seat1));
+        when(seatRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(seat1));
+
+        assertThrows(SeatUnavailableException.class, () -> bookingService.createBooking(validRequest, sessionId));
+
+        assertEquals(1.0, meterRegistry.get("booking.conflicts").tag("type", "seat_unavailable").counter().count());
+        assertEquals(1.0, meterRegistry.get("booking.schedule.conflicts").tag("schedule", "1").counter().count());
+        assertEquals(1L, meterRegistry.get("booking.create").tag("outcome", "seat_unavailable").timer().count());
+        assertEquals(1L, meterRegistry.get("booking.phase").tag("phase", "validate_and_lock_seats").timer().count());
+    }
+
+    @Test
+    void createBooking_Committed_RecordsConfirmedOutcome() {
+        setupSeatLockingMocks();
+        setupBookingCreationMocks();
+
+        BookingResponse response = bookingService.createBooking(validRequest, sessionId);
+
+        assertEquals("ABC123", response.bookingId());
+        verify(transactionManager).commit(any());
+        assertEquals(1L, meterRegistry.get("booking.create").tag("outcome", "confirmed").timer().count());
+    }
+
+    @Test
+    void createBooking_SerializationFailureOnCommit_RecordsSerializationFailure() {
+        setupSeatLockingMocks();
+        setupBookingCreationMocks();
+        doThrow(new TransactionSystemException("Could not commit JPA transaction",
+                new RuntimeException(new SQLException("could not serialize access", "40001"))))
+                .when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class, () -> bookingService.createBooking(validRequest, sessionId));
+
+        assertNull(meterRegistry.find("booking.create").tag("outcome", "confirmed").timer());
+        assertEquals(1L, meterRegistry.get("booking.create").tag("outcome", "serialization_failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("booking.conflicts").tag("type", "serialization_failure").counter().count());
+        assertEquals(1.0, meterRegistry.get("booking.schedule.conflicts").tag("schedule", "1").counter().count());
+    }
+
+    @Test
+    void createBooking_WithHold_ClaimsHeldSeatsWithoutRelocking() {
+        BookingRequest holdRequest = new BookingRequest(1L, validRequest.passengers(), validRequest.payment(), "HLD1");
+        when(flightScheduleRepository.findById(1L)).thenReturn(Optional.of(flightSchedule));
+        when(passengerRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(passenger1);
+        when(seatHoldService.claimHold("HLD1", sessionId, 1L, List.of("12A"))).thenReturn(List.of(seat1));
+        setupBookingCreationMocks();
+
+        BookingResponse response = bookingService.createBooking(holdRequest, sessionId);
+
+        assertEquals("ABC123", response.bookingId());
+        assertEquals(Seat.SeatStatus.BOOKED, seat1.getStatus());
+        verify(seatRepository, never()).findByIdForUpdate(anyLong());
+        verify(seatLockService, never()).createOrUpdateSeatLock(any(Seat.class), anyString());
+        verify(transactionManager).commit(any());
+        assertEquals(1L, meterRegistry.get("booking.phase").tag("phase", "claim_hold").timer().count());
+        assertEquals(1L, meterRegistry.get("booking.create").tag("outcome", "confirmed").timer().count());
+    }
+
+    @Test
+    void createBooking_WithExpiredHold_ThrowsConflict() {
+        BookingRequest holdRequest = new BookingRequest(1L, validRequest.passengers(), validRequest.payment(), "HLD1");
+        when(flightScheduleRepository.findById(1L)).thenReturn(Optional.of(flightSchedule));
+        when(passengerRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(passenger1);
+        when(seatHoldService.claimHold("HLD1", sessionId, 1L, List.of("12A")))
+                .thenThrow(new BookingConflictException("Hold HLD1 has expired"));
+
+        BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.createBooking(holdRequest, sessionId));
+
+        assertEquals("Hold HLD1 has expired", exception.getMessage());
+        verify(seatRepository, never()).findByIdForUpdate(anyLong());
+        verify(seatLockService, never()).createOrUpdateSeatLock(any(Seat.class), anyString());
+        assertEquals(1L, meterRegistry.get("booking.phase").tag("phase", "claim_hold").timer().count());
+    }
+
+    private void setupSeatLockingMocks() {
+        when(flightScheduleRepository.findById(1L)).thenReturn(Optional.of(flightSchedule));
+        when(passengerRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(passenger1);
+        when(seatRepository.findByScheduleIdAndSeatNumberIn(1L, List.of("12A"))).thenReturn(List.of(seat1));
+        when(seatRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(seat1));
+    }
+
+    /**
+     * Stubs everything after the seats have been taken: the booking, its item and the payment. The
+     * transaction manager is a mock, so the booking is marked as running in a transaction by hand.
+     */
+    private void setupBookingCreationMocks() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(bookingIdGenerator.generateBookingReference()).thenReturn("ABC123");
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(passengerRepository.findById(1L)).thenReturn(Optional.of(passenger1));
+        when(seatRepository.findById(1L)).thenReturn(Optional.of(seat1));
+        when(bookingItemRepository.saveAndFlush(any(BookingItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+    }
+
     private void setupMultiPassengerBookingMocks() {
         when(flightScheduleRepository.findById(1L)).thenReturn(Optional.of(flightSchedule));
         when(passengerRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
@@ -0,0 +1,119 @@
+package com.acme.air.unit;
+
+import com.acme.air.admission.ClientAdmissionLimiter;
+import com.acme.air.admission.ClientAdmissionLimiter.Decision;
+import com.acme.air.admission.ClientAdmissionLimiter.Endpoint;
+import com.acme.air.admission.ClientAdmissionLimiter.Limits;
+import com.acme.air.admission.ClientAdmissionLimiter.Outcome;
+import com.acme.air.admission.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAdmissionLimiterTest {
+
+    private static final long START = 1_000_000_000L;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean poolSaturated = new AtomicBoolean();
+
+    @Test
+    void tokenBucket_AllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, START);
+
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(0, bucket.tryAcquire(START));
+        assertEquals(SECOND / 10, bucket.tryAcquire(START));
+
+        // One token back every 100ms, never more than the burst
+        assertEquals(0, bucket.tryAcquire(START + SECOND / 10));
+        assertTrue(bucket.tryAcquire(START + SECOND / 10) > 0);
+        assertTrue(bucket.isFull(START + 10 * SECOND));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(START + 10 * SECOND));
+        }
+        assertTrue(bucket.tryAcquire(START + 10 * SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_RateLimitsEachClientSeparately() {
+        ClientAdmissionLimiter limiter = limiter(100);
+
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "aggregator", START).allowed());
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "aggregator", START).allowed());
+        Decision limited = limiter.tryAcquire(Endpoint.SEARCH, "aggregator", START);
+
+        assertEquals(Outcome.RATE_LIMITED, limited.outcome());
+        assertEquals(SECOND / 2, limited.retryAfterNanos());
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "web", START).allowed());
+        // Booking has its own bucket
+        assertTrue(limiter.tryAcquire(Endpoint.BOOKING, "aggregator", START).allowed());
+        assertEquals(1.0, meterRegistry.get("http.admission.decisions")
+                .tags("endpoint", "search", "outcome", "rate_limited").counter().count());
+    }
+
+    @Test
+    void tryAcquire_LimitsRequestsInFlightUntilReleased() {
+        ClientAdmissionLimiter limiter = limiter(100);
+
+        Decision first = limiter.tryAcquire(Endpoint.BOOKING, "agent", START);
+        assertTrue(first.allowed());
+        assertEquals(Outcome.CONCURRENCY_LIMITED, limiter.tryAcquire(Endpoint.BOOKING, "agent", START + SECOND).outcome());
+
+        first.release();
+        assertTrue(limiter.tryAcquire(Endpoint.BOOKING, "agent", START + SECOND).allowed());
+    }
+
+    @Test
+    void tryAcquire_ShedsSearchButNotBookingWhilePoolIsSaturated() {
+        ClientAdmissionLimiter limiter = limiter(100);
+        poolSaturated.set(true);
+
+        assertEquals(Outcome.SHED, limiter.tryAcquire(Endpoint.SEARCH, "web", START).outcome());
+        assertTrue(limiter.tryAcquire(Endpoint.BOOKING, "web", START).allowed());
+    }
+
+    @Test
+    void tryAcquire_ForgetsIdleClientsBeyondMaxClients() {
+        ClientAdmissionLimiter limiter = limiter(2);
+        limiter.tryAcquire(Endpoint.SEARCH, "a", START).release();
+        Decision busy = limiter.tryAcquire(Endpoint.SEARCH, "b", START);
+        assertEquals(2, limiter.clientCount(Endpoint.SEARCH));
+
+        // Once its bucket refills, a is idle and makes room; b still has a request in flight
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "c", START + 10 * SECOND).allowed());
+
+        assertEquals(2, limiter.clientCount(Endpoint.SEARCH));
+        busy.release();
+    }
+
+    @Test
+    void tryAcquire_SharesOneBucketAmongClientsBeyondMaxClients() {
+        ClientAdmissionLimiter limiter = limiter(2);
+        Decision a = limiter.tryAcquire(Endpoint.SEARCH, "a", START);
+        Decision b = limiter.tryAcquire(Endpoint.SEARCH, "b", START);
+
+        // Nobody is idle, so newcomers are not tracked but draw on the overflow bucket, burst 2
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "c", START).allowed());
+        assertTrue(limiter.tryAcquire(Endpoint.SEARCH, "d", START).allowed());
+        assertEquals(Outcome.RATE_LIMITED, limiter.tryAcquire(Endpoint.SEARCH, "e", START).outcome());
+
+        assertEquals(2, limiter.clientCount(Endpoint.SEARCH));
+        a.release();
+        b.release();
+    }
+
+    private ClientAdmissionLimiter limiter(int maxClients) {
+        return new ClientAdmissionLimiter(Map.of(
+                Endpoint.SEARCH, new Limits(2, 2, 5),
+                Endpoint.BOOKING, new Limits(1, 5, 1)),
+                maxClients, poolSaturated::get, meterRegistry);
+    }
+}
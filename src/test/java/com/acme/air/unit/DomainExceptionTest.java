@@ -0,0 +1,35 @@
+package com.acme.air.unit;
+
+import com.acme.air.exception.BookingConflictException;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.exception.SeatUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainExceptionTest {
+
+    @Test
+    void domainExceptions_CaptureNoStackTrace() {
+        for (RuntimeException e : List.of(new BookingConflictException("Seat 12A is taken"),
+                new SeatUnavailableException("Seat 12A is not available"),
+                new ResourceNotFoundException("Booking not found: ABC123"))) {
+            assertEquals(0, e.getStackTrace().length, e.getClass().getSimpleName());
+            e.addSuppressed(new IllegalStateException("ignored"));
+            assertEquals(0, e.getSuppressed().length, e.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void domainException_KeepsItsCauseWithItsStackTrace() {
+        IllegalStateException cause = new IllegalStateException("duplicate key");
+
+        BookingConflictException e = new BookingConflictException("Booking conflict detected", cause);
+
+        assertEquals("Booking conflict detected", e.getMessage());
+        assertSame(cause, e.getCause());
+        assertTrue(cause.getStackTrace().length > 0);
+    }
+}
@@ -22,11 +22,15 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -86,9 +90,9 @@ class FlightServiceTest {
         when(flightScheduleRepository.findFlightsByRouteAndDateRange(
                 eq("JFK"), eq("LAX"), any(ZonedDateTime.class), any(ZonedDateTime.class)))
                 .thenReturn(List.of(flightSchedule));
-        when(seatRepository.countAvailableSeatsBySchedule(1L)).thenReturn(5);
-        when(seatRepository.findAvailableSeatNumbersBySchedule(1L))
-                .thenReturn(Arrays.asList("1A", "1B", "2A", "2B", "3A"));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 5));
+        when(seatRepository.findAvailableSeatNumbersBySchedules(anyCollection()))
+                .thenReturn(Map.of(1L, Arrays.asList("1A", "1B", "2A", "2B", "3A")));
 
         // Act
         FlightSearchResponse response = flightService.searchFlights("JFK", "LAX", departureDate, null, 2);
@@ -127,7 +131,7 @@ class FlightServiceTest {
         when(flightScheduleRepository.findFlightsByRouteAndDateRange(
                 anyString(), anyString(), any(ZonedDateTime.class), any(ZonedDateTime.class)))
                 .thenReturn(List.of(flightSchedule));
-        when(seatRepository.countAvailableSeatsBySchedule(1L)).thenReturn(1); // Only 1 seat available
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 1)); // Only 1 seat available
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
@@ -251,9 +255,9 @@ class FlightServiceTest {
         when(flightScheduleRepository.findFlightsByRouteAndDateRange(
                 anyString(), anyString(), any(ZonedDateTime.class), any(ZonedDateTime.class)))
                 .thenReturn(List.of(flightSchedule));
-        when(seatRepository.countAvailableSeatsBySchedule(1L)).thenReturn(10);
-        when(seatRepository.findAvailableSeatNumbersBySchedule(1L))
-                .thenReturn(Arrays.asList("1A", "1B", "2A", "2B", "3A", "3B", "4A", "4B", "5A", "5B"));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 10));
+        when(seatRepository.findAvailableSeatNumbersBySchedules(anyCollection()))
+                .thenReturn(Map.of(1L, Arrays.asList("1A", "1B", "2A", "2B", "3A", "3B", "4A", "4B", "5A", "5B")));
 
         // Act
         FlightSearchResponse response = flightService.searchFlights("JFK", "LAX", departureDate, null, 9);
@@ -264,5 +268,40 @@ class FlightServiceTest {
         FlightSearchResponse.FlightDTO flightDto = response.flights().get(0);
         assertEquals(new BigDecimal("2699.91"), flightDto.totalPrice()); // 299.99 * 9
     }
-}
 
+    @Test
+    void searchFlights_SelectedFields_SkipsSeatNumberQuery() {
+        // Arrange
+        when(airportRepository.findByCodeIgnoreCase("JFK")).thenReturn(Optional.of(originAirport));
+        when(airportRepository.findByCodeIgnoreCase("LAX")).thenReturn(Optional.of(destinationAirport));
+        when(flightScheduleRepository.findFlightsByRouteAndDateRange(
+                eq("JFK"), eq("LAX"), any(ZonedDateTime.class), any(ZonedDateTime.class)))
+                .thenReturn(List.of(flightSchedule));
+        when(seatRepository.countAvailableSeatsBySchedules(anyCollection())).thenReturn(Map.of(1L, 5));
+
+        // Act
+        FlightSearchResponse response = flightService.searchFlights("JFK", "LAX", departureDate, null, 2,
+                EnumSet.of(FlightSearchResponse.Field.FLIGHT_SCHEDULE_ID, FlightSearchResponse.Field.PRICE_PER_SEAT,
+                        FlightSearchResponse.Field.AVAILABLE_SEATS));
+
+        // Assert - only the selected fields are set, and seat numbers were never loaded
+        FlightSearchResponse.FlightDTO flightDto = response.flights().get(0);
+        assertEquals(1L, flightDto.flightScheduleId());
+        assertEquals(new BigDecimal("299.99"), flightDto.pricePerSeat());
+        assertEquals(5, flightDto.availableSeats());
+        assertNull(flightDto.flightNumber());
+        assertNull(flightDto.departureTime());
+        assertNull(flightDto.totalPrice());
+        assertNull(flightDto.availableSeatNumbers());
+        verify(seatRepository, never()).findAvailableSeatNumbersBySchedules(anyCollection());
+    }
+
+    @Test
+    void parseFields_UnknownField_ThrowsIllegalArgumentException() {
+        assertEquals(FlightSearchResponse.Field.all(), FlightSearchResponse.Field.parse(null));
+        assertEquals(EnumSet.of(FlightSearchResponse.Field.AIRLINE),
+                FlightSearchResponse.Field.parse(List.of(" airline")));
+        assertThrows(IllegalArgumentException.class,
+                () -> FlightSearchResponse.Field.parse(List.of("airline", "seatMap")));
+    }
+}
@@ -0,0 +1,161 @@
+package com.acme.air.unit;
+
+import com.acme.air.model.OutboxEvent;
+import com.acme.air.outbox.OutboxEventSink;
+import com.acme.air.repository.OutboxEventRepository;
+import com.acme.air.service.OutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives {@link OutboxRelay} by hand against a real outbox table; the scheduled relay is switched off.
+ * Not transactional, because the relay commits its claim and its outcomes in transactions of its own.
+ */
+@SpringBootTest(properties = "acme.outbox.relay.enabled=false")
+@Testcontainers
+class OutboxRelayIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> delivered = new CopyOnWriteArrayList<>();
+    private volatile boolean sinkDown;
+
+    private final OutboxEventSink sink = event -> {
+        if (sinkDown) {
+            throw new IOException("broker unavailable");
+        }
+        delivered.add(event.getId());
+    };
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void relayBatch_DeliversDueEvents_AndMarksThemSent() {
+        // Arrange
+        OutboxEvent first = pendingEvent();
+        OutboxEvent second = pendingEvent();
+
+        // Act
+        int relayed = relay(10).relayBatch();
+
+        // Assert
+        assertEquals(2, relayed);
+        assertEquals(List.of(first.getId(), second.getId()), delivered);
+        for (OutboxEvent event : outboxEventRepository.findAll()) {
+            assertEquals(OutboxEvent.OutboxStatus.SENT, event.getStatus());
+            assertNotNull(event.getSentAt());
+            assertEquals(0, event.getAttempts());
+        }
+    }
+
+    @Test
+    void relayBatch_FailedDelivery_IsRetriedOnlyAfterBackoff() {
+        // Arrange
+        OutboxEvent event = pendingEvent();
+        OutboxRelay relay = relay(10);
+        sinkDown = true;
+
+        // Act - fails once, then is not due again within the same poll
+        assertEquals(1, relay.relayBatch());
+        assertEquals(0, relay.relayBatch());
+
+        // Assert
+        OutboxEvent failed = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(OutboxEvent.OutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("broker unavailable", failed.getLastError());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)),
+                "Retry should wait for the one-minute initial backoff: " + failed.getNextAttemptAt());
+
+        // Act - the backoff has passed and the sink is back
+        makeDue(failed);
+        sinkDown = false;
+        assertEquals(1, relay.relayBatch());
+
+        // Assert
+        OutboxEvent sent = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(OutboxEvent.OutboxStatus.SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+        assertEquals(List.of(event.getId()), delivered);
+    }
+
+    @Test
+    void relayBatch_ExhaustedAttempts_MarksEventFailed() {
+        // Arrange
+        OutboxEvent event = pendingEvent();
+        OutboxRelay relay = relay(2);
+        sinkDown = true;
+
+        // Act
+        relay.relayBatch();
+        makeDue(outboxEventRepository.findById(event.getId()).orElseThrow());
+        relay.relayBatch();
+
+        // Assert
+        OutboxEvent failed = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(OutboxEvent.OutboxStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        makeDue(failed);
+        assertEquals(0, relay.relayBatch(), "Failed events are never relayed again");
+        assertTrue(delivered.isEmpty());
+    }
+
+    private OutboxRelay relay(int maxAttempts) {
+        return new OutboxRelay(outboxEventRepository, sink, transactionManager, new SimpleMeterRegistry(),
+                10, maxAttempts, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    private OutboxEvent pendingEvent() {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("Booking");
+        event.setAggregateId("ABC123");
+        event.setEventType("BookingConfirmedEvent");
+        event.setPayload("{}");
+        event.setOccurredAt(LocalDateTime.now());
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        return outboxEventRepository.save(event);
+    }
+
+    private void makeDue(OutboxEvent event) {
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(event);
+    }
+}
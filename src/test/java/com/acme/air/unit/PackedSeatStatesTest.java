@@ -0,0 +1,48 @@
+package com.acme.air.unit;
+
+import com.acme.air.model.PackedSeatStates;
+import com.acme.air.model.Seat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedSeatStatesTest {
+
+    @Test
+    void allAvailable_UsesTwoBitsPerSeat() {
+        assertEquals(1, PackedSeatStates.allAvailable(4).length);
+        assertEquals(2, PackedSeatStates.allAvailable(5).length);
+        assertEquals(45, PackedSeatStates.allAvailable(180).length);
+        assertEquals(180, PackedSeatStates.countAvailable(PackedSeatStates.allAvailable(180), 180));
+    }
+
+    @Test
+    void set_ChangesOnlyTheGivenSeat() {
+        byte[] states = PackedSeatStates.allAvailable(9);
+
+        PackedSeatStates.set(states, 3, Seat.SeatStatus.BOOKED);
+        PackedSeatStates.set(states, 4, Seat.SeatStatus.LOCKED);
+        PackedSeatStates.set(states, 8, Seat.SeatStatus.BOOKED);
+
+        for (int i = 0; i < 9; i++) {
+            Seat.SeatStatus expected = switch (i) {
+                case 3, 8 -> Seat.SeatStatus.BOOKED;
+                case 4 -> Seat.SeatStatus.LOCKED;
+                default -> Seat.SeatStatus.AVAILABLE;
+            };
+            assertEquals(expected, PackedSeatStates.get(states, i), "seat " + i);
+        }
+        assertEquals(6, PackedSeatStates.countAvailable(states, 9));
+    }
+
+    @Test
+    void set_OverwritesPreviousState() {
+        byte[] states = PackedSeatStates.allAvailable(4);
+
+        PackedSeatStates.set(states, 1, Seat.SeatStatus.BOOKED);
+        PackedSeatStates.set(states, 1, Seat.SeatStatus.LOCKED);
+        PackedSeatStates.set(states, 1, Seat.SeatStatus.AVAILABLE);
+
+        assertEquals(0, states[0]);
+    }
+}
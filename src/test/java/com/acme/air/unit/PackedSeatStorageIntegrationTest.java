@@ -0,0 +1,169 @@
+package com.acme.air.unit;
+
+import com.acme.air.dto.HoldResponse;
+import com.acme.air.dto.SchedulePublishRequest;
+import com.acme.air.dto.SchedulePublishRequest.CabinLayout;
+import com.acme.air.dto.SchedulePublishRequest.ScheduleDraft;
+import com.acme.air.model.Airport;
+import com.acme.air.model.Flight;
+import com.acme.air.repository.AirportRepository;
+import com.acme.air.repository.FlightRepository;
+import com.acme.air.repository.SeatMapRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.service.SchedulePublishingService;
+import com.acme.air.service.SeatHoldService;
+import com.acme.air.service.SeatMapUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with {@code acme.seats.storage=packed}. Not transactional: seat maps are updated after the seat
+ * changes commit, so each step has to commit for the next one to observe it.
+ */
+@SpringBootTest(properties = "acme.seats.storage=packed")
+@Testcontainers
+class PackedSeatStorageIntegrationTest {
+
+    private static final AtomicInteger DAY = new AtomicInteger(3);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SchedulePublishingService schedulePublishingService;
+    @Autowired
+    private SeatHoldService seatHoldService;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private SeatMapRepository seatMapRepository;
+    @Autowired
+    private SeatMapUpdater seatMapUpdater;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long scheduleId;
+
+    @BeforeEach
+    void setUp() {
+        Flight flight = flightRepository.findAll().stream().findFirst().orElseGet(this::seedFlight);
+        // Each test publishes its own schedule on its own day
+        ZonedDateTime departure = ZonedDateTime.now().plusDays(DAY.getAndIncrement()).truncatedTo(ChronoUnit.HOURS);
+        CabinLayout layout = new CabinLayout(3, "ABC", 1, Set.of());
+        ScheduleDraft draft = new ScheduleDraft(flight.getId(), departure, departure.plusHours(3),
+                new BigDecimal("299.00"), "NZD");
+        scheduleId = schedulePublishingService.publish(new SchedulePublishRequest(layout, List.of(draft)))
+                .flightScheduleIds().get(0);
+    }
+
+    @Test
+    void publish_StoresSeatMapInsteadOfSeatRows() {
+        // Assert
+        assertEquals(0, seatRows(scheduleId));
+        assertTrue(seatMapRepository.existsById(scheduleId));
+        assertEquals(9, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+        assertEquals(List.of("1A", "1B", "1C", "2A", "2B", "2C", "3A", "3B", "3C"),
+                seatRepository.findAvailableSeatNumbersBySchedule(scheduleId));
+    }
+
+    @Test
+    void hold_CreatesRowsOnlyForHeldSeatsAndUpdatesSeatMap() {
+        // Act
+        HoldResponse hold = seatHoldService.createHold(scheduleId, List.of("1A", "2B"), "session-packed");
+
+        // Assert
+        assertEquals(2, seatRows(scheduleId));
+        assertEquals(7, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+        assertEquals(List.of("1B", "1C", "2A", "2C", "3A", "3B", "3C"),
+                seatRepository.findAvailableSeatNumbersBySchedule(scheduleId));
+
+        // Act - released seats keep their rows but are available again in the map
+        seatHoldService.releaseHold(hold.holdId(), "session-packed");
+
+        // Assert
+        assertEquals(2, seatRows(scheduleId));
+        assertEquals(9, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+    }
+
+    @Test
+    void hold_UnknownSeatNumber_IsRejectedWithoutCreatingRows() {
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> seatHoldService.createHold(scheduleId, List.of("9Z"), "session-unknown"));
+        assertEquals(0, seatRows(scheduleId));
+        assertEquals(9, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+    }
+
+    @Test
+    void reconcile_RebuildsSeatMapThatMissedAnUpdate() {
+        // Arrange - the map loses the hold's update, as if the instance had stopped before applying it
+        byte[] freshStates = jdbcTemplate.queryForObject(
+                "SELECT states FROM seat_map WHERE schedule_id = ?", byte[].class, scheduleId);
+        seatHoldService.createHold(scheduleId, List.of("1A", "2B"), "session-lost-update");
+        jdbcTemplate.update("UPDATE seat_map SET states = ?, available = 9 WHERE schedule_id = ?",
+                freshStates, scheduleId);
+        assertEquals(9, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+
+        // Act
+        seatMapUpdater.reconcile();
+
+        // Assert
+        assertEquals(7, seatRepository.countAvailableSeatsBySchedule(scheduleId));
+        assertEquals(List.of("1B", "1C", "2A", "2C", "3A", "3B", "3C"),
+                seatRepository.findAvailableSeatNumbersBySchedule(scheduleId));
+    }
+
+    private int seatRows(Long scheduleId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM seat WHERE schedule_id = ?", Integer.class, scheduleId);
+    }
+
+    private Flight seedFlight() {
+        Flight flight = new Flight();
+        flight.setFlightCode("NZ101");
+        flight.setAirline("ACME AIR");
+        flight.setOrigin(airport("AKL", "Auckland Airport", "Pacific/Auckland"));
+        flight.setDestination(airport("SYD", "Kingsford Smith Airport", "Australia/Sydney"));
+        return flightRepository.save(flight);
+    }
+
+    private Airport airport(String code, String name, String timezoneId) {
+        Airport airport = new Airport();
+        airport.setCode(code);
+        airport.setName(name);
+        airport.setTimezoneId(timezoneId);
+        return airportRepository.save(airport);
+    }
+}
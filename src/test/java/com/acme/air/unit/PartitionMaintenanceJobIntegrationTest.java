@@ -0,0 +1,188 @@
+package com.acme.air.unit;
+
+import com.acme.air.dto.BookingResponse;
+import com.acme.air.model.Airport;
+import com.acme.air.model.Flight;
+import com.acme.air.repository.AirportRepository;
+import com.acme.air.repository.FlightRepository;
+import com.acme.air.service.BookingService;
+import com.acme.air.service.PartitionMaintenanceJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the job in the test transaction, so the partitions it creates and detaches are rolled back
+ * after each test.
+ */
+@SpringBootTest
+@Testcontainers
+@Transactional
+class PartitionMaintenanceJobIntegrationTest {
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private BookingService bookingService;
+
+    private Flight flight;
+    private LocalDate thisMonth;
+
+    @BeforeEach
+    void setUp() {
+        flight = new Flight();
+        flight.setFlightCode("NZ101");
+        flight.setAirline("ACME AIR");
+        flight.setOrigin(airport("AKL", "Auckland Airport", "Pacific/Auckland"));
+        flight.setDestination(airport("SYD", "Kingsford Smith Airport", "Australia/Sydney"));
+        flightRepository.save(flight);
+
+        thisMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    }
+
+    @Test
+    void createAhead_CreatesOnlyMissingMonths() {
+        // Arrange - the migration created this month and the twelve after it
+        PartitionMaintenanceJob job = job("archive", 14, Duration.ofDays(90));
+
+        // Act
+        int created = job.createAhead();
+
+        // Assert
+        assertEquals(2, created);
+        assertTrue(partitionExists("flight_schedule_p" + MONTH_SUFFIX.format(thisMonth.plusMonths(14))));
+        assertTrue(partitionExists("seat_p" + MONTH_SUFFIX.format(thisMonth.plusMonths(14))));
+        assertEquals(0, job.createAhead());
+    }
+
+    @Test
+    void archiveDeparted_MovesDepartedMonthsToArchiveSchema() {
+        // Arrange - one schedule that departed years ago, one departing next week
+        long departed = insertSchedule(OffsetDateTime.of(2012, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+        long upcoming = insertSchedule(OffsetDateTime.now(ZoneOffset.UTC).plusDays(7));
+        PartitionMaintenanceJob job = job("archive", 12, Duration.ZERO);
+
+        // Act
+        List<String> archived = job.archiveDeparted();
+
+        // Assert - only the history partition has ended; months still in progress stay
+        assertTrue(archived.stream().allMatch(name -> name.startsWith("flight_schedule_before_")), archived.toString());
+        assertFalse(archived.isEmpty());
+        assertEquals(0, countSchedules("flight_schedule", departed));
+        assertEquals(1, countSchedules("flight_schedule", upcoming));
+        assertEquals(1, countSchedules("archive." + archived.get(0), departed));
+        assertFalse(partitionExists(archived.get(0).replace("flight_schedule_", "seat_")));
+    }
+
+    @Test
+    void archiveDeparted_KeepsBookingsOfArchivedFlightsReadable() {
+        // Arrange - a booking on a flight that departed years ago
+        OffsetDateTime departure = OffsetDateTime.of(2012, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        long schedule = insertSchedule(departure);
+        long seat = jdbcTemplate.queryForObject("INSERT INTO seat (seat_number, schedule_id, status, departure_month) " +
+                "VALUES ('12A', ?, 'BOOKED', ?) RETURNING id", Long.class, schedule, LocalDate.of(2012, 3, 1));
+        long passenger = jdbcTemplate.queryForObject("INSERT INTO passenger (first_name, last_name, email) " +
+                "VALUES ('John', 'Doe', 'john@example.com') RETURNING id", Long.class);
+        long booking = jdbcTemplate.queryForObject("INSERT INTO booking (booking_reference, schedule_id, flight_number, " +
+                "departure_time, booking_time, status) VALUES ('OLD123', ?, 'NZ101', ?, ?, 0) RETURNING id", Long.class,
+                schedule, departure, departure.minusDays(30));
+        jdbcTemplate.update("INSERT INTO booking_item (booking_id, passenger_id, seat_id, seat_number) VALUES (?, ?, ?, '12A')",
+                booking, passenger, seat);
+        jdbcTemplate.update("INSERT INTO payment (booking_id, method, total_amount_paid, currency, transaction_id, status) " +
+                "VALUES (?, 'CREDIT_CARD', 299.00, 'NZD', 'TXN1', 0)", booking);
+
+        // Act
+        assertFalse(job("archive", 12, Duration.ZERO).archiveDeparted().isEmpty());
+
+        // Assert - the booking still reads in full, and cannot be cancelled because the flight has departed
+        assertEquals(0, countSchedules("flight_schedule", schedule));
+        BookingResponse response = bookingService.getBooking("OLD123");
+        assertEquals("NZ101", response.flightNumber());
+        assertEquals(departure.toInstant(), response.departureDate().toInstant());
+        assertEquals("12A", response.passengers().get(0).seatNumber());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelBooking("OLD123"));
+    }
+
+    @Test
+    void archiveDeparted_WithinRetention_KeepsEverything() {
+        // Arrange
+        long departed = insertSchedule(OffsetDateTime.of(2012, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+        PartitionMaintenanceJob job = job("drop", 12, Duration.ofDays(365 * 100));
+
+        // Act & Assert
+        assertTrue(job.archiveDeparted().isEmpty());
+        assertEquals(1, countSchedules("flight_schedule", departed));
+    }
+
+    private PartitionMaintenanceJob job(String mode, int monthsAhead, Duration archiveAfter) {
+        return new PartitionMaintenanceJob(jdbcTemplate, transactionManager, entityManagerFactory,
+                new SimpleMeterRegistry(), mode, monthsAhead, archiveAfter, Duration.ofSeconds(5));
+    }
+
+    private long insertSchedule(OffsetDateTime departure) {
+        return jdbcTemplate.queryForObject("INSERT INTO flight_schedule (flight_id, departure_time, arrival_time, " +
+                        "price, currency, total_seats) VALUES (?, ?, ?, 299.00, 'NZD', 0) RETURNING id", Long.class,
+                flight.getId(), departure, departure.plusHours(3));
+    }
+
+    private int countSchedules(String table, long scheduleId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE id = ?", Integer.class, scheduleId);
+    }
+
+    private boolean partitionExists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+    }
+
+    private Airport airport(String code, String name, String timezoneId) {
+        Airport airport = new Airport();
+        airport.setCode(code);
+        airport.setName(name);
+        airport.setTimezoneId(timezoneId);
+        return airportRepository.save(airport);
+    }
+}
@@ -0,0 +1,79 @@
+package com.acme.air.unit;
+
+import com.acme.air.exception.QueryBudgetExceededException;
+import com.acme.air.metrics.QueryBudget;
+import com.acme.air.metrics.QueryBudgetAspect;
+import com.acme.air.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetAspectTest {
+
+    private static final String SELECT_PASSENGER = "select p.id from passenger p where p.id=?";
+    private static final String METHOD = "QueryBudgetAspectTest.Endpoint.lookupPerRow(..)";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void callWithinBudget_IsRecordedWithoutBreach() {
+        Endpoint endpoint = proxy(true);
+
+        endpoint.lookupPerRow(1);
+        endpoint.lookupPerRow(1);
+
+        assertEquals(2, meterRegistry.get("query.budget.statements").tag("method", METHOD).summary().count());
+        assertEquals(0, meterRegistry.get("query.budget.exceeded").tag("method", METHOD).counter().count());
+    }
+
+    @Test
+    void repeatedStatement_FailsWithItsCallSiteWhenFailOnExceed() {
+        Endpoint endpoint = proxy(true);
+
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> endpoint.lookupPerRow(2));
+
+        assertTrue(exception.getMessage().startsWith("Query budget exceeded by " + METHOD + ": 2 statements"),
+                exception.getMessage());
+        assertTrue(exception.getMessage().contains("2x (at most 1) at "), exception.getMessage());
+        assertTrue(exception.getMessage().contains("QueryBudgetAspectTest$Endpoint.lookupPerRow"),
+                exception.getMessage());
+        assertEquals(1, meterRegistry.get("query.budget.exceeded").tag("method", METHOD).counter().count());
+        assertEquals(2, meterRegistry.get("query.budget.statements").tag("method", METHOD).summary().totalAmount());
+    }
+
+    @Test
+    void breachedBudget_IsCountedButCallSucceedsWithoutFailOnExceed() {
+        Endpoint endpoint = proxy(false);
+
+        assertEquals(4, endpoint.lookupPerRow(4));
+        endpoint.lookupPerRow(4);
+
+        assertEquals(2, meterRegistry.get("query.budget.exceeded").tag("method", METHOD).counter().count());
+        assertEquals(1, meterRegistry.find("query.budget.statements").summaries().size());
+    }
+
+    private Endpoint proxy(boolean failOnExceed) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Endpoint());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new QueryBudgetAspect(failOnExceed, meterRegistry));
+        return factory.getProxy();
+    }
+
+    static class Endpoint {
+
+        private final StatementCounter counter = new StatementCounter();
+
+        // A query per row: fine for one row, an N+1 for more
+        @QueryBudget(value = 3, maxRepeats = 1)
+        public int lookupPerRow(int rows) {
+            for (int i = 0; i < rows; i++) {
+                counter.inspect(SELECT_PASSENGER);
+            }
+            return rows;
+        }
+    }
+}
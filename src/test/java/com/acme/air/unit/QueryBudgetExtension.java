@@ -0,0 +1,40 @@
+package com.acme.air.unit;
+
+import com.acme.air.metrics.QueryBudget;
+import com.acme.air.metrics.StatementScope;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a test annotated with {@link QueryBudget} that issues more SQL statements than it declares, or
+ * repeats one statement too often, naming the call sites. Only the test method body is counted, not its
+ * {@code @BeforeEach} set-up, and only statements issued on the test's own thread.
+ */
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (context.getRequiredTestMethod().isAnnotationPresent(QueryBudget.class)) {
+            context.getStore(NAMESPACE).put(StatementScope.class, StatementScope.open());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        StatementScope scope = context.getStore(NAMESPACE).remove(StatementScope.class, StatementScope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        String violation = scope.check(budget.value(), budget.maxRepeats());
+        if (violation != null && context.getExecutionException().isEmpty()) {
+            fail("Query budget exceeded: " + violation);
+        }
+    }
+}
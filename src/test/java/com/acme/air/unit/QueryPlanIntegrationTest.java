@@ -0,0 +1,349 @@
+package com.acme.air.unit;
+
+import com.acme.air.metrics.StatementScope;
+import com.acme.air.model.Airport;
+import com.acme.air.model.Booking;
+import com.acme.air.model.Flight;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.repository.AirportRepository;
+import com.acme.air.repository.BookingRepository;
+import com.acme.air.repository.FlightRepository;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.OutboxEventRepository;
+import com.acme.air.repository.PassengerRepository;
+import com.acme.air.repository.SeatLockRepository;
+import com.acme.air.repository.SeatMapRepository;
+import com.acme.air.repository.SeatRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the Flyway schema against the statements the repositories issue: with sequential scans
+ * priced out, every hot query must still find an index to use. Each repository method is called and the
+ * SQL Hibernate sends is captured through {@link StatementScope}, so a changed query is checked as it now
+ * runs. The captured statements are explained as custom plans for sample parameter values, one per
+ * parameter type: today's month for dates, a time on the 10th of it for timestamps. The tables are empty,
+ * so this tests that a usable index exists, not which plan Postgres would pick under production statistics.
+ */
+@SpringBootTest
+@Testcontainers
+class QueryPlanIntegrationTest {
+
+    // Inside this month, whose partitions the migrations create
+    private static final LocalDate MONTH = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    private static final ZonedDateTime DEPARTURE = MONTH.withDayOfMonth(10).atTime(12, 0).atZone(ZoneOffset.UTC);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private FlightScheduleRepository flightScheduleRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatMapRepository seatMapRepository;
+
+    @Autowired
+    private SeatLockRepository seatLockRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private FlightSchedule schedule;
+
+    @Test
+    void hotQueries_UseIndexesInsteadOfSequentialScans() {
+        Map<String, String> queries = capture(issued -> {
+            List<Long> ids = List.of(1L, 2L);
+            LocalDateTime now = LocalDateTime.now();
+
+            // SeatRepository
+            issueScheduleKeyedSeatQueries(issued);
+            record(issued, "releaseSeatsLockedByHold", () -> seatRepository.releaseSeatsLockedByHold("h"));
+            record(issued, "findLockedSeatsWithoutLiveLock", () -> seatRepository.findLockedSeatsWithoutLiveLock(ids, now));
+            record(issued, "lockBookedSeats", () -> seatRepository.lockBookedSeats(ids));
+            record(issued, "releaseBookedSeats", () -> seatRepository.releaseBookedSeats(ids));
+
+            // SeatMapRepository
+            record(issued, "findStateByScheduleId", () -> seatMapRepository.findStateByScheduleId(schedule.getId()));
+            record(issued, "findAvailableByScheduleIdIn", () -> seatMapRepository.findAvailableByScheduleIdIn(ids));
+            record(issued, "findStatesByScheduleIdIn", () -> seatMapRepository.findStatesByScheduleIdIn(ids));
+            record(issued, "compareAndSet",
+                    () -> seatMapRepository.compareAndSet(schedule.getId(), 0L, new byte[]{0}, 1));
+
+            // SeatLockRepository
+            record(issued, "findActiveLockBySeatId", () -> seatLockRepository.findActiveLockBySeatId(1L, now));
+            record(issued, "findActiveLocksForSession", () -> seatLockRepository.findActiveLocksForSession("s"));
+            record(issued, "findBySessionIdAndSeatId", () -> seatLockRepository.findBySessionIdAndSeatId("s", 1L));
+            record(issued, "findExpiredLocksBySeatId", () -> seatLockRepository.findExpiredLocksBySeatId(1L, now));
+            record(issued, "releaseLocksForSeats", () -> seatLockRepository.releaseLocksForSeats(ids));
+            record(issued, "findActiveLocksByHoldId", () -> seatLockRepository.findActiveLocksByHoldId("h"));
+            record(issued, "confirmHold", () -> seatLockRepository.confirmHold("h", now));
+            record(issued, "findActiveLockDeadlines", () -> seatLockRepository.findActiveLockDeadlines());
+            record(issued, "findOverdueLockDeadlines", () -> seatLockRepository.findOverdueLockDeadlines(now));
+            record(issued, "deleteTerminalLocks",
+                    () -> seatLockRepository.deleteTerminalLocks(now.minusDays(7), 5000));
+
+            // BookingRepository
+            record(issued, "findByPassengerAndSchedule", () -> bookingRepository.findByPassengerAndSchedule(
+                    1L, schedule.getId(), Booking.BookingStatus.CONFIRMED));
+            record(issued, "countConfirmedBookingsBySchedule", () -> bookingRepository.countConfirmedBookingsBySchedule(
+                    schedule.getId(), Booking.BookingStatus.CONFIRMED));
+            record(issued, "findByBookingReference", () -> bookingRepository.findByBookingReference("ABC123"));
+            record(issued, "findWithDetailsByBookingReference",
+                    () -> bookingRepository.findWithDetailsByBookingReference("ABC123"));
+
+            // PassengerRepository, AirportRepository, FlightScheduleRepository, OutboxEventRepository
+            record(issued, "findByEmail", () -> passengerRepository.findByEmail("john@example.com"));
+            record(issued, "findByCodeIgnoreCase", () -> airportRepository.findByCodeIgnoreCase("qpa"));
+            issueFlightSearch(issued);
+            record(issued, "lockNextDueBatch", () -> outboxEventRepository.lockNextDueBatch(now, 100));
+        });
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, sql) -> {
+            String plan = explain(sql);
+            if (plan.contains("Seq Scan")) {
+                failures.add(name + ":\n" + sql + "\n" + plan);
+            }
+        });
+        assertTrue(failures.isEmpty(), "Queries falling back to a sequential scan:\n" + String.join("\n\n", failures));
+    }
+
+    @Test
+    void scheduleKeyedQueries_ReadOnePartitionPerTable() {
+        Map<String, String> queries = capture(issued -> {
+            issueScheduleKeyedSeatQueries(issued);
+            issueFlightSearch(issued);
+        });
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, sql) -> {
+            String plan = explain(sql);
+            for (String table : List.of("seat", "flight_schedule")) {
+                long partitions = Pattern.compile("\\b" + table + "_(p|before_)\\d{6}\\b").matcher(plan).results()
+                        .map(MatchResult::group)
+                        .distinct()
+                        .count();
+                if (partitions > 1) {
+                    failures.add(name + " reads " + partitions + " " + table + " partitions:\n" + sql + "\n" + plan);
+                }
+            }
+        });
+        assertTrue(failures.isEmpty(), "Queries not pruned to one partition:\n" + String.join("\n\n", failures));
+    }
+
+    /**
+     * Seat lookups by schedule, which {@code SeatAvailabilityRepositoryImpl} filters on the schedule's
+     * departure month.
+     */
+    private void issueScheduleKeyedSeatQueries(Map<String, String> issued) {
+        Long scheduleId = schedule.getId();
+        record(issued, "countAvailableSeatsBySchedule", () -> seatRepository.countAvailableSeatsBySchedule(scheduleId));
+        record(issued, "findAvailableSeatNumbersBySchedule",
+                () -> seatRepository.findAvailableSeatNumbersBySchedule(scheduleId));
+        record(issued, "countAvailableSeatsBySchedules",
+                () -> seatRepository.countAvailableSeatsBySchedules(List.of(schedule)));
+        record(issued, "findAvailableSeatNumbersBySchedules",
+                () -> seatRepository.findAvailableSeatNumbersBySchedules(List.of(schedule)));
+        record(issued, "findByScheduleIdAndSeatNumberIn",
+                () -> seatRepository.findByScheduleIdAndSeatNumberIn(scheduleId, List.of("12A", "12B")));
+        record(issued, "findStatusesByScheduleIdAndSeatNumberIn",
+                () -> seatRepository.findStatusesByScheduleIdAndSeatNumberIn(scheduleId, List.of("12A", "12B")));
+        record(issued, "findSeatStatusesBySchedule", () -> seatRepository.findSeatStatusesBySchedule(scheduleId));
+    }
+
+    /**
+     * Flight search over the day of the seeded departure.
+     */
+    private void issueFlightSearch(Map<String, String> issued) {
+        ZonedDateTime startOfDay = DEPARTURE.toLocalDate().atStartOfDay(ZoneOffset.UTC);
+        record(issued, "findFlightsByRouteAndDateRange", () -> flightScheduleRepository.findFlightsByRouteAndDateRange(
+                "QPA", "QPB", startOfDay, startOfDay.plusDays(1).minusNanos(1)));
+    }
+
+    /**
+     * Makes the repository calls in a transaction that is rolled back, against a seeded schedule, and
+     * returns the statements they issued by name.
+     */
+    private Map<String, String> capture(Consumer<Map<String, String>> calls) {
+        Map<String, String> issued = new LinkedHashMap<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            schedule = seedSchedule();
+            // Nothing left for a query to flush, so only its own statement is captured
+            entityManager.flush();
+            calls.accept(issued);
+            status.setRollbackOnly();
+        });
+        return issued;
+    }
+
+    private void record(Map<String, String> issued, String name, Runnable call) {
+        List<String> statements;
+        try (StatementScope scope = StatementScope.open()) {
+            call.run();
+            statements = scope.statements();
+        }
+        assertFalse(statements.isEmpty(), name + " issued no SQL");
+        for (int i = 0; i < statements.size(); i++) {
+            issued.put(statements.size() == 1 ? name : name + " #" + (i + 1), statements.get(i));
+        }
+    }
+
+    private FlightSchedule seedSchedule() {
+        Airport origin = new Airport();
+        origin.setCode("QPA");
+        origin.setName("Plan Origin");
+        airportRepository.save(origin);
+
+        Airport destination = new Airport();
+        destination.setCode("QPB");
+        destination.setName("Plan Destination");
+        airportRepository.save(destination);
+
+        Flight flight = new Flight();
+        flight.setFlightCode("QP100");
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flight.setAirline("Plan Air");
+        flightRepository.save(flight);
+
+        FlightSchedule flightSchedule = new FlightSchedule();
+        flightSchedule.setFlight(flight);
+        flightSchedule.setDepartureTime(DEPARTURE);
+        flightSchedule.setArrivalTime(DEPARTURE.plusHours(3));
+        flightSchedule.setPrice(new BigDecimal("199.00"));
+        flightSchedule.setTotalSeats(180);
+        return flightScheduleRepository.save(flightSchedule);
+    }
+
+    /**
+     * EXPLAIN on one connection with sequential scans disabled, so any plan still containing one has
+     * no index to use. The statement is prepared with numbered parameters and explained as a custom plan
+     * for sample values, so partitions are pruned as they are for real values. DML is only planned,
+     * never executed.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET plan_cache_mode = force_custom_plan");
+            statement.execute("PREPARE plan_check AS " + numberParameters(sql));
+            try {
+                List<String> values = new ArrayList<>();
+                try (ResultSet types = statement.executeQuery("SELECT p.type::text FROM pg_prepared_statements, " +
+                        "unnest(parameter_types) WITH ORDINALITY AS p(type, position) " +
+                        "WHERE name = 'plan_check' ORDER BY p.position")) {
+                    while (types.next()) {
+                        values.add("'" + sampleValue(types.getString(1)) + "'");
+                    }
+                }
+                String execute = values.isEmpty() ? "plan_check" : "plan_check(" + String.join(", ", values) + ")";
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN EXECUTE " + execute)) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            } finally {
+                statement.execute("DEALLOCATE plan_check");
+                statement.execute("RESET plan_cache_mode");
+                statement.execute("RESET enable_seqscan");
+            }
+        });
+    }
+
+    // JDBC placeholders to the $n parameters PREPARE takes; Hibernate never puts a ? inside a literal
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length());
+        boolean inLiteral = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static String sampleValue(String type) {
+        return switch (type) {
+            case "bigint", "integer", "smallint", "numeric" -> "1";
+            case "character varying", "character", "text" -> "x";
+            case "date" -> MONTH.toString();
+            case "timestamp with time zone", "timestamp without time zone" -> DEPARTURE.toOffsetDateTime().toString();
+            case "bytea" -> "\\x00";
+            case "boolean" -> "true";
+            default -> throw new IllegalStateException("No sample value for a parameter of type " + type);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.acme.air.unit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.acme.air.logging.RateLimitedLogger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitedLoggerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Logger logger = (Logger) LoggerFactory.getLogger("com.acme.air.unit.RateLimitedLoggerTest");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void warn_OverTheRate_SuppressesAndCountsTheRest() {
+        RateLimitedLogger rateLimited = new RateLimitedLogger(logger, 5, meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            rateLimited.warn("Booking rejected: {}", i);
+        }
+
+        // At most two one-second windows are touched, even if the loop straddles a second
+        int logged = appender.list.size();
+        assertTrue(logged >= 5 && logged <= 10, "Logged " + logged);
+        assertEquals(100 - logged, suppressedCount());
+    }
+
+    @Test
+    void warn_AfterASuppressedBurst_ReportsHowManyWereDropped() throws InterruptedException {
+        RateLimitedLogger rateLimited = new RateLimitedLogger(logger, 1, meterRegistry);
+        awaitNextSecond();
+        rateLimited.warn("Booking rejected: {}", "first");
+        rateLimited.warn("Booking rejected: {}", "second");
+        rateLimited.warn("Booking rejected: {}", "third");
+
+        awaitNextSecond();
+        rateLimited.warn("Booking rejected: {}", "fourth");
+
+        assertEquals(2, appender.list.size());
+        assertEquals("Booking rejected: first", appender.list.get(0).getFormattedMessage());
+        assertEquals("Booking rejected: fourth (2 similar messages suppressed)", appender.list.get(1).getFormattedMessage());
+        assertEquals(2, suppressedCount());
+    }
+
+    private double suppressedCount() {
+        return meterRegistry.get("logging.suppressed").tag("logger", logger.getName()).counter().count();
+    }
+
+    private static void awaitNextSecond() throws InterruptedException {
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 20);
+    }
+}
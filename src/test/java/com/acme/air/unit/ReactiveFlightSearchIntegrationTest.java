@@ -0,0 +1,168 @@
+package com.acme.air.unit;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.service.FlightService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with {@code acme.search.reactive.enabled=true} against a real server, so the response goes through
+ * the asynchronous request handling. Results are compared with what the blocking {@link FlightService}
+ * returns for the same search over JPA.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "acme.search.reactive.enabled=true")
+@Testcontainers
+class ReactiveFlightSearchIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDate departureDate = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flight", Integer.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO airport (id, code, name, city, country, timezone_id) VALUES " +
+                "(1, 'AKL', 'Auckland Airport', 'Auckland', 'New Zealand', 'Pacific/Auckland'), " +
+                "(2, 'SYD', 'Kingsford Smith Airport', 'Sydney', 'Australia', 'Australia/Sydney')");
+        jdbcTemplate.update("INSERT INTO flight (id, flight_code, airline, origin_id, destination_id) VALUES " +
+                "(1, 'NZ101', 'ACME AIR', 1, 2), (2, 'NZ103', 'ACME AIR', 1, 2)");
+        ZonedDateTime morning = ZonedDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(8);
+        ZonedDateTime evening = morning.plusHours(10);
+        insertSchedule(1, 1, morning, "299.00", "1A", "1B", "1C");
+        insertSchedule(2, 2, evening, "349.50", "2A");
+        // Schedule 3 has no available seats at all, so it is never a match
+        insertSchedule(3, 1, evening.plusHours(1), "199.00");
+        jdbcTemplate.update("INSERT INTO seat (seat_number, schedule_id, status, departure_month) VALUES ('1D', 1, 'BOOKED', ?)",
+                FlightSchedule.departureMonth(morning));
+    }
+
+    @Test
+    void search_ReturnsSameFlightsAsBlockingSearch() throws Exception {
+        // Act
+        ResponseEntity<String> response = search("origin=AKL&destination=SYD&passengers=1&departureDate=" + departureDate);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("SUCCESS", body.get("status").asText());
+        JsonNode flights = body.at("/data/flights");
+        FlightSearchResponse expected = flightService.searchFlights("AKL", "SYD", departureDate, null, 1);
+        assertEquals(expected.flights().size(), flights.size());
+        assertEquals(2, flights.size());
+        for (int i = 0; i < flights.size(); i++) {
+            FlightSearchResponse.FlightDTO flight = expected.flights().get(i);
+            JsonNode actual = flights.get(i);
+            assertEquals(flight.flightScheduleId().longValue(), actual.get("flightScheduleId").asLong());
+            assertEquals(flight.flightNumber(), actual.get("flightNumber").asText());
+            assertEquals(flight.departureTime().toInstant(),
+                    OffsetDateTime.parse(actual.get("departureTime").asText()).toInstant());
+            assertEquals(0, flight.pricePerSeat().compareTo(actual.get("pricePerSeat").decimalValue()));
+            assertEquals(flight.availableSeats().intValue(), actual.get("availableSeats").asInt());
+            assertEquals(flight.availableSeatNumbers(),
+                    objectMapper.convertValue(actual.get("availableSeatNumbers"), List.class));
+        }
+    }
+
+    @Test
+    void search_FiltersOnPassengersAndSelectedFields() throws Exception {
+        // Act
+        ResponseEntity<String> response = search("origin=akl&destination=syd&passengers=2&fields=flightNumber,availableSeats" +
+                "&departureDate=" + departureDate);
+
+        // Assert - only schedule 1 has two seats, and only the two fields are written
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode flights = objectMapper.readTree(response.getBody()).at("/data/flights");
+        assertEquals(1, flights.size());
+        assertEquals("NZ101", flights.get(0).get("flightNumber").asText());
+        assertEquals(3, flights.get(0).get("availableSeats").asInt());
+        assertEquals(2, flights.get(0).size());
+    }
+
+    @Test
+    void search_UnknownAirport_Returns404() throws Exception {
+        ResponseEntity<String> response = search("origin=AKL&destination=XXX&passengers=1&departureDate=" + departureDate);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Destination airport not found: XXX",
+                objectMapper.readTree(response.getBody()).get("message").asText());
+    }
+
+    @Test
+    void search_NoMatchingFlights_Returns404() {
+        ResponseEntity<String> response = search("origin=AKL&destination=SYD&passengers=4&departureDate=" + departureDate);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void search_InvalidCriteria_Returns400() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                search("origin=AKL&destination=AKL&passengers=1&departureDate=" + departureDate).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                search("origin=AKL&destination=SYD&passengers=1&fields=seatColour&departureDate=" + departureDate).getStatusCode());
+    }
+
+    private ResponseEntity<String> search(String query) {
+        return restTemplate.getForEntity("/api/v1/flights/search?" + query, String.class);
+    }
+
+    private void insertSchedule(long id, long flightId, ZonedDateTime departure, String price, String... availableSeats) {
+        jdbcTemplate.update("INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price, currency, total_seats) " +
+                        "VALUES (?, ?, ?, ?, ?::numeric, 'NZD', ?)",
+                id, flightId, departure.toOffsetDateTime(), departure.plusHours(3).toOffsetDateTime(), price,
+                availableSeats.length + 1);
+        for (String seatNumber : availableSeats) {
+            jdbcTemplate.update("INSERT INTO seat (seat_number, schedule_id, status, departure_month) VALUES (?, ?, 'AVAILABLE', ?)",
+                    seatNumber, id, FlightSchedule.departureMonth(departure));
+        }
+    }
+}
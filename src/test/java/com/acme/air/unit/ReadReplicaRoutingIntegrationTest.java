@@ -0,0 +1,185 @@
+package com.acme.air.unit;
+
+import com.acme.air.datasource.ReplicaRoutingDataSource;
+import com.acme.air.dto.BookingResponse;
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.service.BookingService;
+import com.acme.air.service.FlightService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two independent Postgres containers stand in for primary and replica; both get the Flyway schema,
+ * but only the "replica" holds flight data and only the primary the bookings, so where a read lands is
+ * visible in its result.
+ */
+@SpringBootTest
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("primarydb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("replicadb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("acme.datasource.replica.enabled", () -> "true");
+        registry.add("acme.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("acme.datasource.replica.check-interval-ms", () -> "3600000");
+    }
+
+    @BeforeAll
+    static void seedReplica() {
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load()
+                .migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        jdbc.update("INSERT INTO airport (id, code, name, city, country, timezone_id) VALUES " +
+                "(1, 'AKL', 'Auckland Airport', 'Auckland', 'New Zealand', 'Pacific/Auckland'), " +
+                "(2, 'SYD', 'Kingsford Smith Airport', 'Sydney', 'Australia', 'Australia/Sydney')");
+        jdbc.update("INSERT INTO flight (id, flight_code, airline, origin_id, destination_id) VALUES (1, 'NZ101', 'ACME AIR', 1, 2)");
+        ZonedDateTime departure = ZonedDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(12);
+        jdbc.update("INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price, currency, total_seats) " +
+                        "VALUES (1, 1, ?, ?, 299.00, 'NZD', 2)",
+                departure.toOffsetDateTime(), departure.plusHours(3).toOffsetDateTime());
+        jdbc.update("INSERT INTO seat (seat_number, schedule_id, status, departure_month) VALUES " +
+                        "('1A', 1, 'AVAILABLE', ?), ('1B', 1, 'AVAILABLE', ?)",
+                FlightSchedule.departureMonth(departure), FlightSchedule.departureMonth(departure));
+    }
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Order(1)
+    void optedInReadOnlyTransactions_GoToReplica_OthersToPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("replicadb", readFromReplica(() -> readOnly.execute(status -> currentDatabase())));
+        assertEquals("primarydb", readFromReplica(() -> readWrite.execute(status -> currentDatabase())));
+        // Read-only work that did not opt in, like reading a booking back, stays on the primary
+        assertEquals("primarydb", readOnly.execute(status -> currentDatabase()));
+        assertEquals("primarydb", currentDatabase());
+    }
+
+    @Test
+    @Order(2)
+    void getBooking_IsServedByPrimary() {
+        // Arrange - a booking on a route of its own, so the primary still knows nothing of AKL-SYD
+        jdbcTemplate.update("INSERT INTO airport (id, code, name, city, country, timezone_id) VALUES " +
+                "(10, 'WLG', 'Wellington Airport', 'Wellington', 'New Zealand', 'Pacific/Auckland'), " +
+                "(11, 'CHC', 'Christchurch Airport', 'Christchurch', 'New Zealand', 'Pacific/Auckland')");
+        jdbcTemplate.update("INSERT INTO flight (id, flight_code, airline, origin_id, destination_id) VALUES (10, 'NZ501', 'ACME AIR', 10, 11)");
+        ZonedDateTime departure = ZonedDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+        jdbcTemplate.update("INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price, currency, total_seats) " +
+                        "VALUES (10, 10, ?, ?, 129.00, 'NZD', 1)",
+                departure.toOffsetDateTime(), departure.plusHours(1).toOffsetDateTime());
+        jdbcTemplate.update("INSERT INTO booking (id, booking_reference, schedule_id, flight_number, departure_time, " +
+                "booking_time, status) VALUES (10, 'PRI123', 10, 'NZ501', ?, now(), 0)", departure.toOffsetDateTime());
+        jdbcTemplate.update("INSERT INTO payment (booking_id, method, total_amount_paid, currency, transaction_id, status) " +
+                "VALUES (10, 'CREDIT_CARD', 129.00, 'NZD', 'TXN10', 0)");
+
+        // Act - the replica has never seen this booking
+        BookingResponse booking = bookingService.getBooking("PRI123");
+
+        // Assert
+        assertEquals("NZ501", booking.flightNumber());
+    }
+
+    @Test
+    @Order(3)
+    void searchFlights_IsServedByReplica() {
+        FlightSearchResponse response = flightService.searchFlights("AKL", "SYD", LocalDate.now().plusDays(1), null, 1);
+
+        assertEquals(1, response.flights().size());
+        assertEquals("NZ101", response.flights().get(0).flightNumber());
+    }
+
+    @Test
+    @Order(4)
+    void replicaDown_ReadOnlyTransactionsFallBackToPrimary() {
+        // Arrange
+        replica.stop();
+
+        // Act
+        routingDataSource.checkReplica();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Assert
+        assertFalse(routingDataSource.isReplicaUsable());
+        assertEquals("primarydb", readFromReplica(() -> readOnly.execute(status -> currentDatabase())));
+        // The primary holds no flight data, so search now fails to find the airports
+        assertThrows(ResourceNotFoundException.class,
+                () -> flightService.searchFlights("AKL", "SYD", LocalDate.now().plusDays(1), null, 1));
+    }
+
+    private static <T> T readFromReplica(Supplier<T> work) {
+        boolean previous = ReplicaRoutingDataSource.allowReplicaReads(true);
+        try {
+            return work.get();
+        } finally {
+            ReplicaRoutingDataSource.allowReplicaReads(previous);
+        }
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+    }
+}
@@ -0,0 +1,176 @@
+package com.acme.air.unit;
+
+import com.acme.air.dto.FlightSearchResponse;
+import com.acme.air.dto.SchedulePublishRequest;
+import com.acme.air.dto.SchedulePublishRequest.CabinLayout;
+import com.acme.air.dto.SchedulePublishRequest.ScheduleDraft;
+import com.acme.air.dto.SchedulePublishResponse;
+import com.acme.air.exception.ResourceNotFoundException;
+import com.acme.air.model.Airport;
+import com.acme.air.model.Flight;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.repository.AirportRepository;
+import com.acme.air.repository.FlightRepository;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.service.FlightService;
+import com.acme.air.service.SchedulePublishingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@Transactional
+class SchedulePublishingServiceIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SchedulePublishingService schedulePublishingService;
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private FlightScheduleRepository flightScheduleRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+
+    private Flight flight;
+    private ZonedDateTime departure;
+
+    @BeforeEach
+    void setUp() {
+        Airport origin = airport("AKL", "Auckland Airport", "Pacific/Auckland");
+        Airport destination = airport("SYD", "Kingsford Smith Airport", "Australia/Sydney");
+
+        flight = new Flight();
+        flight.setFlightCode("NZ101");
+        flight.setAirline("ACME AIR");
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flightRepository.save(flight);
+
+        departure = ZonedDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void publish_CreatesSchedulesAndSeatsFromLayout() {
+        // Arrange - three rows of ABC, numbered from 12 with no row 13
+        CabinLayout layout = new CabinLayout(3, "ABC", 12, Set.of(13));
+        SchedulePublishRequest request = new SchedulePublishRequest(layout, List.of(
+                draft(departure),
+                draft(departure.plusDays(1))));
+
+        // Act
+        SchedulePublishResponse response = schedulePublishingService.publish(request);
+
+        // Assert
+        assertEquals(2, response.schedulesCreated());
+        assertEquals(18, response.seatsCreated());
+        assertEquals(2, response.flightScheduleIds().size());
+
+        FlightSchedule schedule = flightScheduleRepository.findById(response.flightScheduleIds().get(0)).orElseThrow();
+        assertEquals(flight.getId(), schedule.getFlight().getId());
+        assertEquals(9, schedule.getTotalSeats());
+        assertEquals(0L, schedule.getVersion());
+        assertEquals("NZD", schedule.getCurrency());
+        assertTrue(departure.isEqual(schedule.getDepartureTime()));
+        assertEquals(List.of("12A", "12B", "12C", "14A", "14B", "14C", "15A", "15B", "15C"),
+                seatRepository.findAvailableSeatNumbersBySchedule(schedule.getId()));
+    }
+
+    @Test
+    void publish_SchedulesAreSearchable() {
+        // Arrange
+        CabinLayout layout = new CabinLayout(2, "AB", 1, Set.of());
+        schedulePublishingService.publish(new SchedulePublishRequest(layout, List.of(draft(departure))));
+
+        // Act
+        FlightSearchResponse result = flightService.searchFlights("AKL", "SYD", departure.toLocalDate(), null, 1);
+
+        // Assert
+        assertEquals(1, result.flights().size());
+        assertEquals(4, result.flights().get(0).availableSeats());
+    }
+
+    @Test
+    void publish_UnknownFlight_CreatesNothing() {
+        // Arrange
+        long schedulesBefore = flightScheduleRepository.count();
+        CabinLayout layout = new CabinLayout(2, "AB", 1, Set.of());
+        ScheduleDraft unknown = new ScheduleDraft(flight.getId() + 1000, departure, departure.plusHours(3),
+                new BigDecimal("299.00"), "NZD");
+        SchedulePublishRequest request = new SchedulePublishRequest(layout, List.of(draft(departure), unknown));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> schedulePublishingService.publish(request));
+        assertEquals(schedulesBefore, flightScheduleRepository.count());
+    }
+
+    @Test
+    void publish_ArrivalBeforeDeparture_Rejected() {
+        // Arrange
+        CabinLayout layout = new CabinLayout(2, "AB", 1, Set.of());
+        ScheduleDraft backwards = new ScheduleDraft(flight.getId(), departure, departure.minusHours(1),
+                new BigDecimal("299.00"), "NZD");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> schedulePublishingService.publish(
+                new SchedulePublishRequest(layout, List.of(backwards))));
+    }
+
+    @Test
+    void publish_RepeatedSeatLetters_Rejected() {
+        // Arrange
+        CabinLayout layout = new CabinLayout(2, "ABA", 1, Set.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> schedulePublishingService.publish(
+                new SchedulePublishRequest(layout, List.of(draft(departure)))));
+    }
+
+    private ScheduleDraft draft(ZonedDateTime departureTime) {
+        return new ScheduleDraft(flight.getId(), departureTime, departureTime.plusHours(3),
+                new BigDecimal("299.00"), "NZD");
+    }
+
+    private Airport airport(String code, String name, String timezoneId) {
+        Airport airport = new Airport();
+        airport.setCode(code);
+        airport.setName(name);
+        airport.setTimezoneId(timezoneId);
+        return airportRepository.save(airport);
+    }
+}
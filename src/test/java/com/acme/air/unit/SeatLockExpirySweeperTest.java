@@ -0,0 +1,119 @@
+package com.acme.air.unit;
+
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.event.SeatLocksAcquiredEvent;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.SeatLockRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.service.SeatLockExpirySweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLockExpirySweeperTest {
+
+    @Mock
+    private SeatLockRepository seatLockRepository;
+    @Mock
+    private SeatRepository seatRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SeatLockExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new SeatLockExpirySweeper(seatLockRepository, seatRepository, eventPublisher,
+                transactionManager, meterRegistry, 1000, 64, 2);
+    }
+
+    @Test
+    void sweep_ExpiresDueLocksInBatchesAndReleasesTheirSeats() {
+        // Arrange - three overdue locks with a batch size of two
+        LocalDateTime past = LocalDateTime.now().minusSeconds(5);
+        sweeper.onSeatLocksAcquired(new SeatLocksAcquiredEvent(List.of(1L, 2L, 3L), past));
+        when(seatLockRepository.lockSeatsOfExpiredLocks(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(11L, 12L));
+        when(seatLockRepository.lockSeatsOfExpiredLocks(eq(List.of(3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(seatLockRepository.expireLocks(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+        when(seatLockRepository.expireLocks(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(0);
+        SeatRepository.SeatRef seat = seatRef(11L, 5L, "12A");
+        when(seatRepository.findLockedSeatsWithoutLiveLock(eq(List.of(11L, 12L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(seat));
+
+        // Act
+        sweeper.sweep();
+
+        // Assert - only the seat without a live lock is released, and the change is published
+        verify(seatRepository).releaseLockedSeats(List.of(11L));
+        ArgumentCaptor<SeatInventoryChangedEvent> event = ArgumentCaptor.forClass(SeatInventoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(5L, event.getValue().scheduleId());
+        assertEquals(List.of("12A"), event.getValue().seatNumbers());
+        assertEquals(Seat.SeatStatus.AVAILABLE, event.getValue().status());
+
+        assertEquals(2.0, meterRegistry.get("seat.locks.expired").counter().count());
+        assertEquals(1.0, meterRegistry.get("seat.locks.seats.released").counter().count());
+        assertEquals(2L, meterRegistry.get("seat.locks.expiry.batch.size").summary().count());
+        assertEquals(3L, meterRegistry.get("seat.locks.expiry.lag").timer().count());
+        assertEquals(0.0, meterRegistry.get("seat.locks.expiry.pending").gauge().value());
+    }
+
+    @Test
+    void sweep_LeavesLocksThatAreNotDueYet() {
+        sweeper.track(1L, LocalDateTime.now().plusMinutes(10));
+
+        sweeper.sweep();
+
+        verifyNoInteractions(seatLockRepository, seatRepository);
+        assertEquals(1.0, meterRegistry.get("seat.locks.expiry.pending").gauge().value());
+    }
+
+    @Test
+    void recoverPendingDeadlines_TracksActiveLocksFromDatabase() {
+        SeatLockRepository.LockDeadline overdue = deadline(1L, LocalDateTime.now().minusMinutes(1));
+        SeatLockRepository.LockDeadline pending = deadline(2L, LocalDateTime.now().plusMinutes(5));
+        when(seatLockRepository.findActiveLockDeadlines()).thenReturn(List.of(overdue, pending));
+        when(seatLockRepository.lockSeatsOfExpiredLocks(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of());
+        when(seatLockRepository.expireLocks(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+
+        sweeper.recoverPendingDeadlines();
+        sweeper.sweep();
+
+        verify(seatLockRepository).expireLocks(eq(List.of(1L)), any(LocalDateTime.class));
+        assertEquals(1.0, meterRegistry.get("seat.locks.expiry.pending").gauge().value());
+    }
+
+    private static SeatRepository.SeatRef seatRef(Long id, Long scheduleId, String seatNumber) {
+        return new SeatRepository.SeatRef() {
+            public Long getId() { return id; }
+            public Long getScheduleId() { return scheduleId; }
+            public String getSeatNumber() { return seatNumber; }
+        };
+    }
+
+    private static SeatLockRepository.LockDeadline deadline(Long id, LocalDateTime expiresAt) {
+        return new SeatLockRepository.LockDeadline() {
+            public Long getId() { return id; }
+            public LocalDateTime getExpiresAt() { return expiresAt; }
+        };
+    }
+}
@@ -0,0 +1,269 @@
+package com.acme.air.unit;
+
+import com.acme.air.event.SeatInventoryChangedEvent;
+import com.acme.air.exception.ServiceOverloadedException;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.service.SeatMapBroadcaster;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatMapBroadcasterTest {
+
+    private static final Long SCHEDULE_ID = 7L;
+
+    @Mock
+    private SeatRepository seatRepository;
+    @Mock
+    private FlightScheduleRepository flightScheduleRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // What the seat table holds once the changes are committed
+    private final Map<String, Seat.SeatStatus> committed = new ConcurrentHashMap<>();
+    private SeatMapBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SeatMapBroadcaster(seatRepository, flightScheduleRepository, transactionManager,
+                objectMapper, meterRegistry, Duration.ofMillis(50), 2, 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_SendsSnapshotThenCoalescedUpdates() throws Exception {
+        // Arrange
+        when(flightScheduleRepository.existsById(SCHEDULE_ID)).thenReturn(true);
+        when(seatRepository.findSeatStatusesBySchedule(SCHEDULE_ID)).thenReturn(List.of(
+                seat("1A", Seat.SeatStatus.AVAILABLE), seat("1B", Seat.SeatStatus.BOOKED)));
+        stubCommittedStatuses();
+        committed.put("1A", Seat.SeatStatus.AVAILABLE);
+        committed.put("2C", Seat.SeatStatus.BOOKED);
+        RecordingSink sink = new RecordingSink(null);
+
+        // Act
+        assertTrue(broadcaster.subscribe(SCHEDULE_ID, sink).isPresent());
+        Event snapshot = sink.next();
+        // A hold on 1A that is released again within one window, and a booking of 2C
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID, List.of("1A"), Seat.SeatStatus.LOCKED));
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID, List.of("2C"), Seat.SeatStatus.BOOKED));
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID, List.of("1A"), Seat.SeatStatus.AVAILABLE));
+        // Nobody is watching schedule 8
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(8L, List.of("3D"), Seat.SeatStatus.LOCKED));
+        Event update = sink.next();
+
+        // Assert
+        assertEquals(SeatMapBroadcaster.SNAPSHOT_EVENT, snapshot.name());
+        assertEquals("BOOKED", snapshot.json().at("/seats/1B").asText());
+        assertEquals(2, snapshot.json().get("seats").size());
+        assertEquals(SeatMapBroadcaster.UPDATE_EVENT, update.name());
+        assertEquals(SCHEDULE_ID.longValue(), update.json().get("scheduleId").asLong());
+        assertEquals("AVAILABLE", update.json().at("/seats/1A").asText());
+        assertEquals("BOOKED", update.json().at("/seats/2C").asText());
+        assertEquals(2, update.json().get("seats").size());
+        assertNull(sink.events.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        verify(seatRepository, never()).findSeatStatusesBySchedule(8L);
+    }
+
+    @Test
+    void update_CarriesCommittedStatusRatherThanLastEvent() throws Exception {
+        // Arrange
+        when(flightScheduleRepository.existsById(SCHEDULE_ID)).thenReturn(true);
+        when(seatRepository.findSeatStatusesBySchedule(SCHEDULE_ID)).thenReturn(List.of());
+        stubCommittedStatuses();
+        committed.put("1A", Seat.SeatStatus.BOOKED);
+        RecordingSink sink = new RecordingSink(null);
+        broadcaster.subscribe(SCHEDULE_ID, sink);
+        sink.next();
+
+        // Act - a release that committed before the booking is delivered after it
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID, List.of("1A"), Seat.SeatStatus.BOOKED));
+        broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID, List.of("1A"), Seat.SeatStatus.AVAILABLE));
+        Event update = sink.next();
+
+        // Assert
+        assertEquals("BOOKED", update.json().at("/seats/1A").asText());
+    }
+
+    @Test
+    void subscribe_RefusesStreamsBeyondThePerScheduleLimit() {
+        when(flightScheduleRepository.existsById(SCHEDULE_ID)).thenReturn(true);
+        SeatMapBroadcaster.Subscription first = broadcaster.subscribe(SCHEDULE_ID, new RecordingSink(null)).orElseThrow();
+        broadcaster.subscribe(SCHEDULE_ID, new RecordingSink(null)).orElseThrow();
+
+        assertThrows(ServiceOverloadedException.class,
+                () -> broadcaster.subscribe(SCHEDULE_ID, new RecordingSink(null)));
+        assertEquals(2, broadcaster.getSubscriberCount());
+
+        // A stream that closes makes room for another
+        first.cancel();
+        assertTrue(broadcaster.subscribe(SCHEDULE_ID, new RecordingSink(null)).isPresent());
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_ReturnsEmptyForUnknownSchedule() {
+        when(flightScheduleRepository.existsById(99L)).thenReturn(false);
+
+        assertTrue(broadcaster.subscribe(99L, new RecordingSink(null)).isEmpty());
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void slowSubscriber_IsDroppedOnceItsBufferIsFull() throws Exception {
+        // Arrange - the client stops reading after the snapshot
+        when(flightScheduleRepository.existsById(SCHEDULE_ID)).thenReturn(true);
+        when(seatRepository.findSeatStatusesBySchedule(SCHEDULE_ID)).thenReturn(List.of());
+        stubCommittedStatuses();
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(stalled);
+        RecordingSink fast = new RecordingSink(null);
+        broadcaster.subscribe(SCHEDULE_ID, slow);
+        broadcaster.subscribe(SCHEDULE_ID, fast);
+        slow.next();
+        fast.next();
+
+        try {
+            // Act - one update stuck in the write, two buffered, the fourth overflows
+            for (int i = 0; i < 4; i++) {
+                committed.put("1" + (char) ('A' + i), Seat.SeatStatus.LOCKED);
+                broadcaster.onSeatInventoryChanged(new SeatInventoryChangedEvent(SCHEDULE_ID,
+                        List.of("1" + (char) ('A' + i)), Seat.SeatStatus.LOCKED));
+                assertNotNull(fast.next());
+            }
+
+            // Assert
+            await(() -> slow.closed);
+            assertFalse(fast.closed);
+            assertEquals(1, broadcaster.getSubscriberCount());
+            assertEquals(1.0, meterRegistry.get("seat.map.stream.dropped").counter().count());
+            assertEquals(4.0, meterRegistry.get("seat.map.stream.updates").counter().count());
+        } finally {
+            stalled.countDown();
+        }
+    }
+
+    @Test
+    void cancel_ClosesTheStreamAndForgetsTheSubscriber() throws Exception {
+        when(flightScheduleRepository.existsById(SCHEDULE_ID)).thenReturn(true);
+        when(seatRepository.findSeatStatusesBySchedule(SCHEDULE_ID)).thenReturn(List.of());
+        RecordingSink sink = new RecordingSink(null);
+        SeatMapBroadcaster.Subscription subscription = broadcaster.subscribe(SCHEDULE_ID, sink).orElseThrow();
+        sink.next();
+
+        subscription.cancel();
+        subscription.cancel();
+
+        assertTrue(sink.closed);
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(0.0, meterRegistry.get("seat.map.stream.subscribers").gauge().value());
+    }
+
+    private void stubCommittedStatuses() {
+        when(seatRepository.findStatusesByScheduleIdAndSeatNumberIn(eq(SCHEDULE_ID), anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(1).stream()
+                        .filter(committed::containsKey)
+                        .map(seatNumber -> seat(seatNumber, committed.get(seatNumber)))
+                        .toList());
+    }
+
+    private static SeatRepository.SeatStatusRef seat(String seatNumber, Seat.SeatStatus status) {
+        return new SeatRepository.SeatStatusRef() {
+            @Override
+            public String getSeatNumber() {
+                return seatNumber;
+            }
+
+            @Override
+            public Seat.SeatStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private record Event(String name, JsonNode json) {}
+
+    /**
+     * Records events; with a latch, blocks every write after the snapshot until it is released.
+     */
+    private class RecordingSink implements SeatMapBroadcaster.Sink {
+
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch stalled;
+        private volatile boolean closed;
+
+        RecordingSink(CountDownLatch stalled) {
+            this.stalled = stalled;
+        }
+
+        Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event within 5 seconds");
+            return event;
+        }
+
+        @Override
+        public void send(String event, String data) throws IOException {
+            if (stalled != null && !event.equals(SeatMapBroadcaster.SNAPSHOT_EVENT)) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            events.add(new Event(event, objectMapper.readTree(data)));
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
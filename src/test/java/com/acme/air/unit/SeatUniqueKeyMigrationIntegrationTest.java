@@ -0,0 +1,73 @@
+package com.acme.air.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Re-runs the V7 migration after adding the unique keys an old {@code ddl-auto=update} database carries,
+ * under made-up names; the test transaction rolls the schema changes back.
+ */
+@SpringBootTest
+@Testcontainers
+@Transactional
+class SeatUniqueKeyMigrationIntegrationTest {
+
+    private static final String MIGRATION = "db/migration/V7__drop_generated_seat_unique_keys.sql";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migration_DropsGeneratedUniqueKeysOnSeatIdOnly() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE booking_item ADD CONSTRAINT uk_3f9q1x2v7c8b0n4m UNIQUE (seat_id)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_k2j4h6g8f0d1s3a5 ON seat_lock (seat_id)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_seat_lock_one_active ON seat_lock (seat_id) WHERE status = 'ACTIVE'");
+        assertEquals(2, uniqueKeysOnSeatId(false));
+
+        jdbcTemplate.execute(StreamUtils.copyToString(
+                new ClassPathResource(MIGRATION).getInputStream(), StandardCharsets.UTF_8));
+
+        assertEquals(0, uniqueKeysOnSeatId(false));
+        // Partial unique indexes are deliberate, and the plain lookup indexes stay
+        assertEquals(1, uniqueKeysOnSeatId(true));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_booking_item_seat'", Integer.class));
+    }
+
+    private int uniqueKeysOnSeatId(boolean partial) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pg_index i " +
+                "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0] " +
+                "WHERE i.indisunique AND i.indnkeyatts = 1 AND a.attname = 'seat_id' " +
+                "AND i.indrelid IN ('booking_item'::regclass, 'seat_lock'::regclass) " +
+                "AND (i.indpred IS NOT NULL) = ?", Integer.class, partial);
+    }
+}
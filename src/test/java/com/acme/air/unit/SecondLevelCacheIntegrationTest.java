@@ -0,0 +1,155 @@
+package com.acme.air.unit;
+
+import com.acme.air.metrics.QueryBudget;
+import com.acme.air.model.Airport;
+import com.acme.air.model.Flight;
+import com.acme.air.model.FlightSchedule;
+import com.acme.air.model.Seat;
+import com.acme.air.repository.AirportRepository;
+import com.acme.air.repository.FlightRepository;
+import com.acme.air.repository.FlightScheduleRepository;
+import com.acme.air.repository.SeatRepository;
+import com.acme.air.service.FlightService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional on purpose: every search runs in its own session, so anything it avoids loading
+ * was served by the second-level or query cache rather than the persistence context.
+ */
+@SpringBootTest
+@Testcontainers
+@ExtendWith(QueryBudgetExtension.class)
+class SecondLevelCacheIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withReuse(false)
+            .withStartupTimeoutSeconds(120);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private FlightScheduleRepository flightScheduleRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private LocalDate departureDate;
+
+    @BeforeEach
+    void setUp() {
+        departureDate = ZonedDateTime.now().plusDays(1).toLocalDate();
+        if (airportRepository.count() == 0) {
+            seedRoute();
+        }
+    }
+
+    @Test
+    void repeatedSearches_LoadNoReferenceDataFromTheDatabase() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        flightService.searchFlights("AKL", "SYD", departureDate, null, 1); // warms the caches
+        statistics.clear();
+
+        // Act
+        flightService.searchFlights("AKL", "SYD", departureDate, null, 1);
+        flightService.searchFlights("AKL", "SYD", departureDate, null, 1);
+
+        // Assert - airports and flights come from the second-level cache, airport lookups from the query cache
+        assertEquals(0, statistics.getEntityStatistics(Airport.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Flight.class.getName()).getLoadCount());
+        assertEquals(4, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getQueryCacheMissCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Flight.class.getName()).getHitCount() > 0);
+    }
+
+    @Test
+    @QueryBudget(value = 8, maxRepeats = 2)
+    void search_StaysWithinQueryBudget() {
+        // Both airports may be looked up with the same statement; one schedule needs at most one of anything else
+        assertEquals(1, flightService.searchFlights("AKL", "SYD", departureDate, null, 1).flights().size());
+    }
+
+    @Test
+    void scheduleUpdate_BumpsVersionAndRefreshesCachedCopy() {
+        // Arrange
+        FlightSchedule schedule = flightScheduleRepository.findAll().get(0);
+        long version = schedule.getVersion();
+
+        // Act
+        schedule.setPrice(new BigDecimal("349.00"));
+        flightScheduleRepository.save(schedule);
+        FlightSchedule reloaded = flightScheduleRepository.findById(schedule.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(version + 1, reloaded.getVersion());
+        assertEquals(0, new BigDecimal("349.00").compareTo(reloaded.getPrice()));
+    }
+
+    private void seedRoute() {
+        Airport origin = airport("AKL", "Auckland Airport", "Pacific/Auckland");
+        Airport destination = airport("SYD", "Kingsford Smith Airport", "Australia/Sydney");
+
+        Flight flight = new Flight();
+        flight.setFlightCode("NZ101");
+        flight.setAirline("ACME AIR");
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flightRepository.save(flight);
+
+        ZonedDateTime departure = departureDate.atStartOfDay(ZonedDateTime.now().getZone()).plusHours(12);
+        FlightSchedule schedule = new FlightSchedule();
+        schedule.setFlight(flight);
+        schedule.setDepartureTime(departure);
+        schedule.setArrivalTime(departure.plusHours(3));
+        schedule.setPrice(new BigDecimal("299.00"));
+        schedule.setTotalSeats(1);
+        flightScheduleRepository.save(schedule);
+
+        Seat seat = new Seat();
+        seat.setSeatNumber("1A");
+        seat.setSchedule(schedule);
+        seatRepository.save(seat);
+    }
+
+    private Airport airport(String code, String name, String timezoneId) {
+        Airport airport = new Airport();
+        airport.setCode(code);
+        airport.setName(name);
+        airport.setTimezoneId(timezoneId);
+        return airportRepository.save(airport);
+    }
+}
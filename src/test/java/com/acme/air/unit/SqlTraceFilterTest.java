@@ -0,0 +1,66 @@
+package com.acme.air.unit;
+
+import com.acme.air.logging.SqlTrace;
+import com.acme.air.web.SqlTraceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTraceFilterTest {
+
+    private static final String HEADER = "X-Debug-Sql";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void header_IsHonouredFromTrustedAddress() throws Exception {
+        SqlTraceFilter filter = new SqlTraceFilter(HEADER, Set.of("127.0.0.1"), 0.0, meterRegistry);
+
+        assertTrue(traced(filter, request("127.0.0.1")));
+        assertEquals(1.0, meterRegistry.get("logging.sql.traced.requests").counter().count());
+    }
+
+    @Test
+    void header_IsIgnoredFromUntrustedAddress() throws Exception {
+        SqlTraceFilter filter = new SqlTraceFilter(HEADER, Set.of("127.0.0.1"), 0.0, meterRegistry);
+
+        assertFalse(traced(filter, request("203.0.113.7")));
+        assertEquals(0.0, meterRegistry.get("logging.sql.traced.requests").counter().count());
+    }
+
+    @Test
+    void header_IsHonouredFromAuthenticatedCaller() throws Exception {
+        SqlTraceFilter filter = new SqlTraceFilter(HEADER, Set.of(), 0.0, meterRegistry);
+        MockHttpServletRequest request = request("203.0.113.7");
+        request.setUserPrincipal(() -> "ops");
+
+        assertTrue(traced(filter, request));
+    }
+
+    @Test
+    void header_IsHonouredFromAnyoneWithWildcard() throws Exception {
+        SqlTraceFilter filter = new SqlTraceFilter(HEADER, Set.of("*"), 0.0, meterRegistry);
+
+        assertTrue(traced(filter, request("203.0.113.7")));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/flights/search");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(HEADER, "true");
+        return request;
+    }
+
+    private static boolean traced(SqlTraceFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicBoolean traced = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> traced.set(SqlTrace.isActive()));
+        assertFalse(SqlTrace.isActive());
+        return traced.get();
+    }
+}
@@ -0,0 +1,72 @@
+package com.acme.air.unit;
+
+import com.acme.air.metrics.StatementCounter;
+import com.acme.air.metrics.StatementScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementScopeTest {
+
+    private static final String SELECT_BOOKING = "select b.id from booking b where b.booking_reference=?";
+    private static final String SELECT_PASSENGER = "select p.id from passenger p where p.id=?";
+
+    private final StatementCounter counter = new StatementCounter();
+
+    @Test
+    void check_ReportsRepeatedStatementsWithTheirCallSite() {
+        try (StatementScope scope = StatementScope.open()) {
+            counter.inspect(SELECT_BOOKING);
+            lookupPerRow(3);
+
+            assertEquals(4, scope.count());
+            assertEquals(List.of(SELECT_BOOKING, SELECT_PASSENGER), scope.statements());
+            List<StatementScope.Repeat> repeats = scope.repeatsOver(1);
+            assertEquals(1, repeats.size());
+            assertEquals(SELECT_PASSENGER, repeats.get(0).sql());
+            assertEquals(3, repeats.get(0).count());
+            assertTrue(repeats.get(0).callSite().contains("StatementScopeTest.lookupPerRow"), repeats.get(0).callSite());
+
+            assertNull(scope.check(4, 3));
+            String violation = scope.check(4, 1);
+            assertNotNull(violation);
+            assertTrue(violation.startsWith("4 statements (budget 4); 3x (at most 1) at "), violation);
+            assertTrue(scope.check(3, 3).startsWith("4 statements (budget 3)"));
+        }
+    }
+
+    @Test
+    void nestedScopes_CountTowardsEveryOpenScope() {
+        try (StatementScope outer = StatementScope.open()) {
+            counter.inspect(SELECT_BOOKING);
+            try (StatementScope inner = StatementScope.open()) {
+                lookupPerRow(2);
+                assertEquals(2, inner.count());
+            }
+            counter.inspect(SELECT_BOOKING);
+
+            assertEquals(4, outer.count());
+            assertEquals(List.of(SELECT_BOOKING, SELECT_PASSENGER),
+                    outer.repeatsOver(1).stream().map(StatementScope.Repeat::sql).sorted().toList());
+        }
+    }
+
+    @Test
+    void closedScope_StopsCounting() {
+        StatementScope scope = StatementScope.open();
+        counter.inspect(SELECT_BOOKING);
+        scope.close();
+        counter.inspect(SELECT_BOOKING);
+
+        assertEquals(1, scope.count());
+        assertTrue(scope.repeatsOver(1).isEmpty());
+    }
+
+    private void lookupPerRow(int rows) {
+        for (int i = 0; i < rows; i++) {
+            counter.inspect(SELECT_PASSENGER);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.acme.air.unit;
+
+import com.acme.air.scheduling.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ReturnsEntriesOnlyOnceTheirDeadlineHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.add("a", START + 250);
+        wheel.add("b", START + 700);
+
+        assertTrue(wheel.advance(START + 200).isEmpty());
+        assertEquals(List.of("a"), items(wheel.advance(START + 300)));
+        assertTrue(wheel.advance(START + 650).isEmpty());
+        assertEquals(List.of("b"), items(wheel.advance(START + 700)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesDeadlinesBeyondTheFirstWheel() {
+        // 100ms x 8 buckets covers 800ms; the rest lives in overflow wheels of 800ms and 6.4s ticks
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.add("near", START + 500);
+        wheel.add("overflow", START + 2_050);
+        wheel.add("far", START + 60_000);
+        assertEquals(3, wheel.size());
+
+        assertEquals(List.of("near"), items(wheel.advance(START + 2_000)));
+        assertTrue(wheel.advance(START + 2_049).isEmpty());
+        assertEquals(List.of("overflow"), items(wheel.advance(START + 2_100)));
+        assertTrue(wheel.advance(START + 59_999).isEmpty());
+        List<TimingWheel.Entry<String>> due = wheel.advance(START + 60_000);
+        assertEquals(List.of("far"), items(due));
+        assertEquals(START + 60_000, due.get(0).deadlineMillis());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_RejectsDeadlinesThatHaveAlreadyPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.advance(START + 1_000);
+
+        assertFalse(wheel.add("late", START + 900));
+        assertFalse(wheel.add("now", START + 1_000));
+        assertTrue(wheel.add("next", START + 1_001));
+        assertEquals(1, wheel.size());
+    }
+
+    private static List<String> items(List<TimingWheel.Entry<String>> entries) {
+        return entries.stream().map(TimingWheel.Entry::item).toList();
+    }
+}
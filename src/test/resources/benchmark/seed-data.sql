@@ -0,0 +1,47 @@
+-- Benchmark seed data, same shape as scripts/sample-data.sql but with departures relative to today
+-- so the data never goes stale. Times are UTC; benchmarks run the application with a UTC default zone.
+
+INSERT INTO airport (id, code, name, city, country, timezone_id, created_at, updated_at) VALUES
+(1, 'AKL', 'Auckland Airport', 'Auckland', 'New Zealand', 'Pacific/Auckland', NOW(), NOW()),
+(2, 'WLG', 'Wellington Airport', 'Wellington', 'New Zealand', 'Pacific/Auckland', NOW(), NOW()),
+(3, 'CHC', 'Christchurch Airport', 'Christchurch', 'New Zealand', 'Pacific/Auckland', NOW(), NOW()),
+(4, 'SYD', 'Kingsford Smith Airport', 'Sydney', 'Australia', 'Australia/Sydney', NOW(), NOW()),
+(5, 'MEL', 'Melbourne Airport', 'Melbourne', 'Australia', 'Australia/Melbourne', NOW(), NOW());
+
+INSERT INTO flight (id, flight_code, airline, origin_id, destination_id, created_at, updated_at) VALUES
+(1, 'NZ101', 'ACME AIR', 1, 4, NOW(), NOW()),  -- AKL -> SYD
+(2, 'NZ102', 'ACME AIR', 4, 1, NOW(), NOW()),  -- SYD -> AKL
+(3, 'NZ405', 'ACME AIR', 1, 2, NOW(), NOW()),  -- AKL -> WLG
+(4, 'NZ549', 'ACME AIR', 1, 3, NOW(), NOW()),  -- AKL -> CHC
+(5, 'JQ201', 'Jetstar', 1, 5, NOW(), NOW());   -- AKL -> MEL
+
+-- FLIGHT SCHEDULES: 10 departures per flight, one per hour, 7 days from today
+INSERT INTO flight_schedule (id, flight_id, departure_time, arrival_time, price, currency, total_seats, created_at, updated_at)
+SELECT
+    (f.id - 1) * 10 + h AS id,
+    f.id,
+    date_trunc('day', NOW() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' + INTERVAL '7 days' + h * INTERVAL '1 hour',
+    date_trunc('day', NOW() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' + INTERVAL '7 days' + h * INTERVAL '1 hour' + INTERVAL '3 hours',
+    199.00 + h * 10,
+    'NZD',
+    180,
+    NOW(),
+    NOW()
+FROM flight f, generate_series(1, 10) AS h;
+
+-- SEATS: 180 per schedule (rows 1-30, seats A-F)
+INSERT INTO seat (id, seat_number, schedule_id, status, departure_month, created_at, updated_at)
+SELECT
+    (fs.id - 1) * 180 + n AS id,
+    CONCAT(((n - 1) / 6) + 1, CHR(65 + ((n - 1) % 6))) AS seat_number,
+    fs.id,
+    'AVAILABLE',
+    date_trunc('month', fs.departure_time AT TIME ZONE 'UTC')::date,
+    NOW(),
+    NOW()
+FROM flight_schedule fs, generate_series(1, 180) AS n;
+
+SELECT setval(pg_get_serial_sequence('airport', 'id'), (SELECT MAX(id) FROM airport));
+SELECT setval(pg_get_serial_sequence('flight', 'id'), (SELECT MAX(id) FROM flight));
+SELECT setval(pg_get_serial_sequence('flight_schedule', 'id'), (SELECT MAX(id) FROM flight_schedule));
+SELECT setval(pg_get_serial_sequence('seat', 'id'), (SELECT MAX(id) FROM seat));